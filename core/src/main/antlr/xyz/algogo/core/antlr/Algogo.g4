@@ -18,6 +18,17 @@ package xyz.algogo.core.antlr;
     private Token initialIndentToken = null;
     private int getSavedIndent() { return indentStack.isEmpty() ? 0 : indentStack.peek(); }
 
+    // Clears the indentation state too, so that a lexer can be reused with setInputStream(...) (which calls reset()).
+    @Override
+    public void reset() {
+        super.reset();
+        pendingDent = true;
+        indentCount = 0;
+        tokenQueue.clear();
+        indentStack.clear();
+        initialIndentToken = null;
+    }
+
     private CommonToken createToken(int type, String text, Token next) {
         CommonToken token = new CommonToken(type, text);
         if(null != initialIndentToken) {
@@ -1,18 +1,30 @@
 package xyz.algogo.core;
 
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Serializable;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import xyz.algogo.core.antlr.AlgogoLexer;
 import xyz.algogo.core.antlr.AlgogoParser;
+import xyz.algogo.core.compiler.CompiledProgram;
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.context.AsyncInputListener;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.context.ExecutionEngine;
 import xyz.algogo.core.evaluator.context.InputListener;
 import xyz.algogo.core.evaluator.context.OutputListener;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.exception.ParseException;
 import xyz.algogo.core.language.Language;
 import xyz.algogo.core.language.Translatable;
@@ -20,13 +32,23 @@ import xyz.algogo.core.statement.block.root.AlgorithmRootBlock;
 import xyz.algogo.core.statement.block.root.BeginningBlock;
 import xyz.algogo.core.statement.block.root.EndBlock;
 import xyz.algogo.core.statement.block.root.VariablesBlock;
+import xyz.algogo.core.vm.ExecutionSnapshot;
+import xyz.algogo.core.vm.Program;
 
 /**
  * Represents an algorithm.
+ * <br>Once resolved, an algorithm can be evaluated by several threads at the same time, provided that each evaluation has its own evaluator and context
+ * (variables live in the evaluator, counters and budgets in the context). It must not be modified while it is evaluated.
  */
 
 public class Algorithm implements Serializable, Translatable {
 
+	/**
+	 * The extension of precompiled algorithm files (see <em>write(OutputStream)</em>).
+	 */
+
+	public static final String PRECOMPILED_EXTENSION = ".algoc";
+
 	/**
 	 * The algorithm title.
 	 */
@@ -45,6 +67,30 @@ public class Algorithm implements Serializable, Translatable {
 
 	private AlgorithmRootBlock rootBlock = new AlgorithmRootBlock(new VariablesBlock(), new BeginningBlock(), new EndBlock());
 
+	/**
+	 * The variable slots table the statements are bound to.
+	 */
+
+	private final VariableSlots slots = new VariableSlots();
+
+	/**
+	 * Whether the statements have been bound to the variable slots table.
+	 */
+
+	private transient volatile boolean resolved = false;
+
+	/**
+	 * The compiled program (see <em>compile()</em>).
+	 */
+
+	private transient volatile Program program;
+
+	/**
+	 * The closures compiled program (see <em>compileClosures()</em>).
+	 */
+
+	private transient volatile CompiledProgram compiledProgram;
+
 	/**
 	 * Creates a new algorithm.
 	 */
@@ -75,6 +121,20 @@ public class Algorithm implements Serializable, Translatable {
 		setAuthor(author);
 	}
 
+	/**
+	 * Creates a new algorithm.
+	 *
+	 * @param title The algorithm title.
+	 * @param author The algorithm author.
+	 * @param rootBlock The root block.
+	 */
+
+	Algorithm(final String title, final String author, final AlgorithmRootBlock rootBlock) {
+		this(title, author);
+
+		this.rootBlock = rootBlock;
+	}
+
 	/**
 	 * Returns the algorithm title.
 	 *
@@ -175,7 +235,7 @@ public class Algorithm implements Serializable, Translatable {
 	 */
 
 	public Exception evaluate(final EvaluationContext context) {
-		return evaluate(new ExpressionEvaluator(), context);
+		return evaluate(new ExpressionEvaluator(slots), context);
 	}
 
 	/**
@@ -188,9 +248,183 @@ public class Algorithm implements Serializable, Translatable {
 	 */
 
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		if(!resolved) {
+			synchronized(this) {
+				if(!resolved) {
+					resolve();
+				}
+			}
+		}
+
+		if(evaluator.getSlots() != slots) {
+			evaluator.setSlots(slots);
+		}
+
+		context.startEvaluation();
+		if(context.isInstrumented()) {
+			return rootBlock.evaluate(evaluator, context);
+		}
+
+		// Compilation errors are evaluation errors, as they would be with the statements tree.
+		if(context.getExecutionEngine() == ExecutionEngine.VIRTUAL_MACHINE || context.getSnapshotListener() != null) {
+			final Program program;
+			try {
+				program = compile();
+			}
+			catch(final RuntimeException ex) {
+				return ex;
+			}
+			return program.execute(evaluator, context);
+		}
+
+		if(context.getExecutionEngine() == ExecutionEngine.CLOSURE_COMPILER) {
+			final CompiledProgram compiledProgram;
+			try {
+				compiledProgram = compileClosures();
+			}
+			catch(final RuntimeException ex) {
+				return ex;
+			}
+			return compiledProgram.execute(evaluator, context);
+		}
+
 		return rootBlock.evaluate(evaluator, context);
 	}
 
+	/**
+	 * Evaluates the current algorithm asynchronously.
+	 *
+	 * @param inputListener The asynchronous input listener.
+	 * @param outputListener The output listener.
+	 *
+	 * @return A future that is completed with an exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	public CompletableFuture<Exception> evaluateAsync(final AsyncInputListener inputListener, final OutputListener outputListener) {
+		final EvaluationContext context = new EvaluationContext(null, outputListener);
+		context.setAsyncInputListener(inputListener);
+		return evaluateAsync(context);
+	}
+
+	/**
+	 * Evaluates the current algorithm asynchronously : the evaluation is suspended at each <em>PROMPT</em> until its input is available (see <em>EvaluationContext.getAsyncInputListener()</em>), so waiting sessions do not hold any thread.
+	 * <br>Suspending needs the interpreter state to be explicit, so the virtual machine is used if the algorithm contains a <em>PROMPT</em> (or if snapshots are taken). Otherwise, the evaluation cannot be suspended : it is done in the current thread, with the execution engine of the context.
+	 *
+	 * @param context The evaluation context.
+	 *
+	 * @return A future that is completed with an exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	public CompletableFuture<Exception> evaluateAsync(final EvaluationContext context) {
+		final Program program;
+		try {
+			program = compile();
+		}
+		catch(final RuntimeException ex) {
+			return CompletableFuture.completedFuture(ex);
+		}
+
+		if(!program.hasPrompts() && context.getSnapshotListener() == null) {
+			try {
+				return CompletableFuture.completedFuture(evaluate(new ExpressionEvaluator(slots), context));
+			}
+			catch(final Throwable ex) {
+				final CompletableFuture<Exception> result = new CompletableFuture<>();
+				result.completeExceptionally(ex);
+				return result;
+			}
+		}
+
+		context.startEvaluation();
+		return program.executeAsync(new ExpressionEvaluator(slots), context);
+	}
+
+	/**
+	 * Resumes an evaluation of this algorithm from a snapshot (see <em>EvaluationContext.setSnapshotListener(SnapshotListener)</em>), possibly taken in another process.
+	 * <br>The counters and the random numbers generator of the context are restored, its input listener should continue from <em>ExecutionSnapshot.getConsumedInputs()</em>. The virtual machine is always used.
+	 *
+	 * @param snapshot The snapshot.
+	 * @param context The evaluation context.
+	 *
+	 * @return Nothing if the execution is a success.
+	 *
+	 * @throws IllegalArgumentException If the snapshot has not been taken from this algorithm.
+	 */
+
+	public Exception resume(final ExecutionSnapshot snapshot, final EvaluationContext context) {
+		final Program program;
+		try {
+			program = compile();
+		}
+		catch(final RuntimeException ex) {
+			return ex;
+		}
+
+		context.startEvaluation();
+		return program.resume(new ExpressionEvaluator(slots), context, snapshot);
+	}
+
+	/**
+	 * Optimizes the expressions of this algorithm (see <em>ExpressionOptimizer</em>) and binds every variable identifier of this algorithm to a slot, so that the evaluator can access variables by index.
+	 * <br>This is done automatically after parsing and before the first evaluation. Statements that are added later are still evaluated, but through an identifier lookup and without any optimization.
+	 */
+
+	public synchronized void resolve() {
+		rootBlock.optimize(new ExpressionOptimizer());
+		rootBlock.resolve(slots);
+		resolved = true;
+		program = null;
+		compiledProgram = null;
+	}
+
+	/**
+	 * Compiles this algorithm into a program that can be executed by the virtual machine (resolves it first if needed).
+	 * <br>The program is cached : if statements are modified after that, <em>resolve()</em> must be called so that the program is compiled again.
+	 *
+	 * @return The program.
+	 */
+
+	public synchronized Program compile() {
+		if(!resolved) {
+			resolve();
+		}
+
+		if(program == null) {
+			program = Program.compile(rootBlock, slots);
+		}
+
+		return program;
+	}
+
+	/**
+	 * Compiles this algorithm into a tree of closures that can be executed repeatedly (resolves it first if needed).
+	 * <br>The compiled program is cached : if statements are modified after that, <em>resolve()</em> must be called so that the program is compiled again.
+	 *
+	 * @return The compiled program.
+	 */
+
+	public synchronized CompiledProgram compileClosures() {
+		if(!resolved) {
+			resolve();
+		}
+
+		if(compiledProgram == null) {
+			compiledProgram = CompiledProgram.compile(rootBlock, slots);
+		}
+
+		return compiledProgram;
+	}
+
+	/**
+	 * Returns the variable slots table of this algorithm.
+	 *
+	 * @return The variable slots table.
+	 */
+
+	public VariableSlots getSlots() {
+		return slots;
+	}
+
 	/**
 	 * Translates the current algorithm to the specified language.
 	 *
@@ -214,20 +448,188 @@ public class Algorithm implements Serializable, Translatable {
 	 */
 
 	public static Algorithm parse(final String content) throws ParseException {
-		final AlgorithmParserErrorListener errorListener = new AlgorithmParserErrorListener();
+		return parse(AlgorithmParser.parseScript(content), new AlgorithmParserVisitor());
+	}
 
-		final AlgogoLexer lexer = new AlgogoLexer(CharStreams.fromString(content));
-		lexer.removeErrorListeners();
-		lexer.addErrorListener(errorListener);
+	/**
+	 * Parses an algorithm read from a reader (which is closed afterwards), without holding the whole content as a string.
+	 *
+	 * @param reader The reader.
+	 *
+	 * @return The parsed algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
 
-		final AlgogoParser parser = new AlgogoParser(new CommonTokenStream(lexer));
-		parser.removeErrorListeners();
-		parser.addErrorListener(errorListener);
+	public static Algorithm parse(final Reader reader) throws IOException, ParseException {
+		return parse(AlgorithmParser.parseScript(reader), new AlgorithmParserVisitor());
+	}
 
-		final Algorithm algorithm = new Algorithm();
+	/**
+	 * Parses an algorithm read from an <em>UTF-8</em> encoded channel (which is closed afterwards), without holding the whole content as a string.
+	 *
+	 * @param channel The channel.
+	 *
+	 * @return The parsed algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
 
-		final AlgogoParser.ScriptContext context = parser.script();
-		final AlgorithmParserVisitor visitor = new AlgorithmParserVisitor();
+	public static Algorithm parse(final ReadableByteChannel channel) throws IOException, ParseException {
+		return parse(AlgorithmParser.parseScript(channel), new AlgorithmParserVisitor());
+	}
+
+	/**
+	 * Parses an algorithm read from an <em>UTF-8</em> encoded file. The file is memory-mapped and decoded straight into the lexer, so this is the cheapest way to load large algorithms.
+	 * <br>The mapping is only released when it is garbage collected, and some systems (Windows) keep the file locked until then : interactive applications that may save the file again should use <em>parse(Reader)</em> instead.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The parsed algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static Algorithm parse(final Path file) throws IOException, ParseException {
+		return parse(AlgorithmParser.parseScript(file), new AlgorithmParserVisitor());
+	}
+
+	/**
+	 * Saves this algorithm in the precompiled binary format : identifiers and messages are stored once in a string table, statements as their ID and numbers as their unscaled value and scale.
+	 * <br>Loading it back with <em>read(InputStream)</em> skips lexing and parsing entirely.
+	 *
+	 * @param output The output stream.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws IllegalArgumentException If this algorithm contains a statement or an expression that does not come from the Algogo language.
+	 */
+
+	public void write(final OutputStream output) throws IOException {
+		output.write(AlgorithmFormat.write(this, null));
+		output.flush();
+	}
+
+	/**
+	 * Loads a precompiled algorithm (see <em>write(OutputStream)</em>).
+	 *
+	 * @param input The input stream.
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs or if the stream does not contain a valid precompiled algorithm of the current version.
+	 */
+
+	public static Algorithm read(final InputStream input) throws IOException {
+		return AlgorithmFormat.read(AlgorithmFormat.readFully(input), null);
+	}
+
+	/**
+	 * Loads a precompiled algorithm file (see <em>write(OutputStream)</em>).
+	 *
+	 * @param file The file.
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs or if the file does not contain a valid precompiled algorithm of the current version.
+	 */
+
+	public static Algorithm read(final Path file) throws IOException {
+		return AlgorithmFormat.read(Files.readAllBytes(file), null);
+	}
+
+	/**
+	 * Loads an <em>UTF-8</em> encoded algorithm file : its precompiled version (see <em>getPrecompiledFile(Path)</em>) is read if it has been written from the current content of the file, the file is parsed otherwise.
+	 * <br>This method never writes the precompiled version, see <em>precompile(Path)</em>.
+	 *
+	 * @param file The algorithm file.
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static Algorithm load(final Path file) throws IOException, ParseException {
+		final byte[] source = Files.readAllBytes(file);
+		final Path precompiled = getPrecompiledFile(file);
+		if(!precompiled.equals(file) && Files.isRegularFile(precompiled)) {
+			try {
+				// The precompiled file holds the length and the checksum of its source, so modification dates are not relied upon.
+				return AlgorithmFormat.read(Files.readAllBytes(precompiled), source);
+			}
+			catch(final IOException ex) {
+				// Out of date, corrupted or written by another version : the source is parsed instead.
+			}
+		}
+
+		return parse(new String(source, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parses an <em>UTF-8</em> encoded algorithm file and writes its precompiled version (see <em>getPrecompiledFile(Path)</em>), so that the next calls to <em>load(Path)</em> do not parse it.
+	 * <br>The precompiled version is written to a temporary file which then replaces it atomically, so concurrent loads never read a partially written file.
+	 *
+	 * @param file The algorithm file.
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws IOException If any I/O exception occurs (including if the precompiled version cannot be written).
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static Algorithm precompile(final Path file) throws IOException, ParseException {
+		final byte[] source = Files.readAllBytes(file);
+		final Algorithm algorithm = parse(new String(source, StandardCharsets.UTF_8));
+
+		final Path precompiled = getPrecompiledFile(file);
+		final Path directory = precompiled.toAbsolutePath().getParent();
+		final Path temporary = Files.createTempFile(directory, precompiled.getFileName().toString(), ".tmp");
+		try {
+			Files.write(temporary, AlgorithmFormat.write(algorithm, source));
+			try {
+				Files.move(temporary, precompiled, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch(final AtomicMoveNotSupportedException ex) {
+				Files.move(temporary, precompiled, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(temporary);
+		}
+
+		return algorithm;
+	}
+
+	/**
+	 * Returns the precompiled version of an algorithm file : the file with the same name and the <em>PRECOMPILED_EXTENSION</em>, in the same directory.
+	 *
+	 * @param file The algorithm file.
+	 *
+	 * @return The precompiled file.
+	 */
+
+	public static Path getPrecompiledFile(final Path file) {
+		final String name = file.getFileName().toString();
+		final int extension = name.lastIndexOf('.');
+		return file.resolveSibling((extension > 0 ? name.substring(0, extension) : name) + PRECOMPILED_EXTENSION);
+	}
+
+	/**
+	 * Creates an algorithm from its parse tree.
+	 *
+	 * @param context The parse tree.
+	 * @param visitor The visitor that creates the statements.
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws ParseException If the algorithm is not valid.
+	 */
+
+	static Algorithm parse(final AlgogoParser.ScriptContext context, final AlgorithmParserVisitor visitor) throws ParseException {
+		final Algorithm algorithm = new Algorithm();
 
 		algorithm.rootBlock = visitor.visitScript(context);
 
@@ -251,6 +653,7 @@ public class Algorithm implements Serializable, Translatable {
 			}
 		}
 
+		algorithm.resolve();
 		return algorithm;
 	}
 
@@ -0,0 +1,908 @@
+package xyz.algogo.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.IdentifierAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.expression.AbsoluteValueExpression;
+import xyz.algogo.core.evaluator.expression.AdditiveExpression;
+import xyz.algogo.core.evaluator.expression.AndExpression;
+import xyz.algogo.core.evaluator.expression.AtomExpression;
+import xyz.algogo.core.evaluator.expression.EqualityExpression;
+import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.FunctionExpression;
+import xyz.algogo.core.evaluator.expression.LeftOpRightExpression;
+import xyz.algogo.core.evaluator.expression.MultiplicationExpression;
+import xyz.algogo.core.evaluator.expression.NotExpression;
+import xyz.algogo.core.evaluator.expression.OrExpression;
+import xyz.algogo.core.evaluator.expression.ParenthesisExpression;
+import xyz.algogo.core.evaluator.expression.PowerExpression;
+import xyz.algogo.core.evaluator.expression.RelationalExpression;
+import xyz.algogo.core.evaluator.expression.UnaryMinusExpression;
+import xyz.algogo.core.evaluator.variable.VariableType;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.statement.block.BlockStatement;
+import xyz.algogo.core.statement.block.conditional.ElseBlock;
+import xyz.algogo.core.statement.block.conditional.IfBlock;
+import xyz.algogo.core.statement.block.loop.ForLoop;
+import xyz.algogo.core.statement.block.loop.WhileLoop;
+import xyz.algogo.core.statement.block.root.AlgorithmRootBlock;
+import xyz.algogo.core.statement.block.root.BeginningBlock;
+import xyz.algogo.core.statement.block.root.EndBlock;
+import xyz.algogo.core.statement.block.root.VariablesBlock;
+import xyz.algogo.core.statement.simple.comment.BlockComment;
+import xyz.algogo.core.statement.simple.comment.Comment;
+import xyz.algogo.core.statement.simple.comment.LineComment;
+import xyz.algogo.core.statement.simple.io.PrintStatement;
+import xyz.algogo.core.statement.simple.io.PrintVariableStatement;
+import xyz.algogo.core.statement.simple.io.PromptStatement;
+import xyz.algogo.core.statement.simple.variable.AssignStatement;
+import xyz.algogo.core.statement.simple.variable.CreateVariableStatement;
+
+/**
+ * Contains the binary format of precompiled algorithms (see <em>Algorithm.write(OutputStream)</em>).
+ * <br>A precompiled algorithm starts with a magic number, the format version and the length and checksum of the source it has been written from (if known), followed by the string table (every identifier, operator, message and comment, each stored once) and the statements tree.
+ * Each statement is written as its ID (see <em>Statement.getStatementId()</em>) followed by its fields and its children, strings are written as indexes in the string table and numbers as their unscaled value and their scale.
+ * All integers are variable-length integers (seven bits per byte), signed ones are zigzag encoded first.
+ */
+
+final class AlgorithmFormat {
+
+	/**
+	 * The magic number of a precompiled algorithm ("AGGC").
+	 */
+
+	private static final int MAGIC = 0x41474743;
+
+	/**
+	 * The version of the precompiled algorithms format.
+	 */
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Expression : a number atom whose unscaled value fits in a long (payload : the unscaled value and the scale).
+	 */
+
+	private static final byte NUMBER = 1;
+
+	/**
+	 * Expression : a number atom (payload : the bytes of the unscaled value and the scale).
+	 */
+
+	private static final byte BIG_NUMBER = 2;
+
+	/**
+	 * Expression : a string atom (payload : the string).
+	 */
+
+	private static final byte STRING = 3;
+
+	/**
+	 * Expression : an identifier atom (payload : the identifier).
+	 */
+
+	private static final byte IDENTIFIER = 4;
+
+	/**
+	 * Expression : the <b>true</b> boolean atom.
+	 */
+
+	private static final byte TRUE = 5;
+
+	/**
+	 * Expression : the <b>false</b> boolean atom.
+	 */
+
+	private static final byte FALSE = 6;
+
+	/**
+	 * Expression : an OR expression (payload : both operands).
+	 */
+
+	private static final byte OR = 7;
+
+	/**
+	 * Expression : an AND expression (payload : both operands).
+	 */
+
+	private static final byte AND = 8;
+
+	/**
+	 * Expression : an equality expression (payload : the left operand, the operator and the right operand).
+	 */
+
+	private static final byte EQUALITY = 9;
+
+	/**
+	 * Expression : a relational expression (payload : the left operand, the operator and the right operand).
+	 */
+
+	private static final byte RELATIONAL = 10;
+
+	/**
+	 * Expression : an additive expression (payload : the left operand, the operator and the right operand).
+	 */
+
+	private static final byte ADDITIVE = 11;
+
+	/**
+	 * Expression : a multiplication expression (payload : the left operand, the operator and the right operand).
+	 */
+
+	private static final byte MULTIPLICATION = 12;
+
+	/**
+	 * Expression : a power expression (payload : the base and the exponent).
+	 */
+
+	private static final byte POWER = 13;
+
+	/**
+	 * Expression : an unary minus expression (payload : the operand).
+	 */
+
+	private static final byte UNARY_MINUS = 14;
+
+	/**
+	 * Expression : a NOT expression (payload : the operand).
+	 */
+
+	private static final byte NOT = 15;
+
+	/**
+	 * Expression : a parenthesis expression (payload : the operand).
+	 */
+
+	private static final byte PARENTHESIS = 16;
+
+	/**
+	 * Expression : an absolute value expression (payload : the operand).
+	 */
+
+	private static final byte ABSOLUTE_VALUE = 17;
+
+	/**
+	 * Expression : a function call (payload : the identifier, the number of arguments and the arguments).
+	 */
+
+	private static final byte FUNCTION = 18;
+
+	/**
+	 * This class should not be instantiated.
+	 */
+
+	private AlgorithmFormat() {}
+
+	/**
+	 * Encodes an algorithm.
+	 *
+	 * @param algorithm The algorithm.
+	 * @param source The source the algorithm has been parsed from (or <b>null</b> if unknown), its length and its checksum are written in the header (see <em>read(byte[], byte[])</em>).
+	 *
+	 * @return The bytes.
+	 *
+	 * @throws IllegalArgumentException If the algorithm contains a statement or an expression that cannot be precompiled.
+	 */
+
+	static byte[] write(final Algorithm algorithm, final byte[] source) {
+		final Encoder tree = new Encoder();
+		tree.writeString(algorithm.getTitle());
+		tree.writeString(algorithm.getAuthor());
+		tree.writeStatement(algorithm.getRootBlock());
+
+		final Encoder output = new Encoder();
+		output.writeInt(MAGIC);
+		output.writeVarLong(VERSION);
+		if(source == null) {
+			output.writeVarLong(0L);
+		}
+		else {
+			output.writeVarLong(source.length + 1L);
+			output.writeInt(checksum(source));
+		}
+
+		final int count = tree.strings.size();
+		output.writeVarLong(count);
+		for(int i = 0; i < count; i++) {
+			final byte[] bytes = tree.table[i].getBytes(StandardCharsets.UTF_8);
+			output.writeVarLong(bytes.length);
+			output.writeBytes(bytes, bytes.length);
+		}
+		output.writeBytes(tree.bytes, tree.size);
+
+		return Arrays.copyOf(output.bytes, output.size);
+	}
+
+	/**
+	 * Decodes and resolves an algorithm.
+	 *
+	 * @param bytes The bytes.
+	 * @param source If not <b>null</b>, the bytes must have been written from this source (same length and checksum).
+	 *
+	 * @return The algorithm.
+	 *
+	 * @throws IOException If the bytes do not contain a precompiled algorithm of the current version, or if they have been written from another source.
+	 */
+
+	static Algorithm read(final byte[] bytes, final byte[] source) throws IOException {
+		final Decoder decoder = new Decoder(bytes);
+		try {
+			if(decoder.readInt() != MAGIC || decoder.readVarLong() != VERSION) {
+				throw new IOException("Not a precompiled algorithm or unsupported version.");
+			}
+
+			final long sourceLength = decoder.readVarLong() - 1L;
+			final int sourceChecksum = sourceLength == -1L ? 0 : decoder.readInt();
+			if(source != null && (sourceLength != source.length || sourceChecksum != checksum(source))) {
+				throw new IOException("The precompiled algorithm is out of date.");
+			}
+
+			decoder.readStrings();
+			final String title = decoder.readString();
+			final String author = decoder.readString();
+			final Statement root = decoder.readStatement();
+			if(root.getStatementId() != AlgorithmRootBlock.STATEMENT_ID || decoder.position != bytes.length) {
+				throw new IOException("Corrupted precompiled algorithm.");
+			}
+
+			// Resolving binds the decoded identifiers, so it is part of the validation.
+			final Algorithm algorithm = new Algorithm(title, author, (AlgorithmRootBlock)root);
+			algorithm.resolve();
+			return algorithm;
+		}
+		catch(final RuntimeException ex) {
+			throw new IOException("Corrupted precompiled algorithm.", ex);
+		}
+	}
+
+	/**
+	 * Returns the checksum of an algorithm source.
+	 *
+	 * @param source The source.
+	 *
+	 * @return The checksum.
+	 */
+
+	private static int checksum(final byte[] source) {
+		final CRC32 crc = new CRC32();
+		crc.update(source, 0, source.length);
+		return (int)crc.getValue();
+	}
+
+	/**
+	 * Reads a stream until its end.
+	 *
+	 * @param input The stream.
+	 *
+	 * @return The read bytes.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	static byte[] readFully(final InputStream input) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		int read;
+		while((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * Encodes the statements tree and builds the string table.
+	 */
+
+	private static class Encoder {
+
+		/**
+		 * The index of each string in the string table.
+		 */
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		/**
+		 * The string table.
+		 */
+
+		private String[] table = new String[16];
+
+		/**
+		 * The bytes.
+		 */
+
+		private byte[] bytes = new byte[256];
+
+		/**
+		 * The number of bytes.
+		 */
+
+		private int size = 0;
+
+		/**
+		 * Writes a statement and its children.
+		 *
+		 * @param statement The statement.
+		 */
+
+		private void writeStatement(final Statement statement) {
+			final int statementId = statement.getStatementId();
+			writeVarLong(statementId);
+			switch(statementId) {
+				case AlgorithmRootBlock.STATEMENT_ID:
+				case VariablesBlock.STATEMENT_ID:
+				case BeginningBlock.STATEMENT_ID:
+				case EndBlock.STATEMENT_ID:
+				case ElseBlock.STATEMENT_ID:
+					break;
+				case CreateVariableStatement.STATEMENT_ID: {
+					final CreateVariableStatement createVariable = (CreateVariableStatement)statement;
+					writeString(createVariable.getIdentifier());
+					writeVarLong(createVariable.getType().ordinal());
+					return;
+				}
+				case AssignStatement.STATEMENT_ID: {
+					final AssignStatement assign = (AssignStatement)statement;
+					writeString(assign.getIdentifier());
+					writeExpression(assign.getValue());
+					return;
+				}
+				case PromptStatement.STATEMENT_ID: {
+					final PromptStatement prompt = (PromptStatement)statement;
+					writeString(prompt.getIdentifier());
+					writeString(prompt.getMessage());
+					return;
+				}
+				case PrintVariableStatement.STATEMENT_ID: {
+					final PrintVariableStatement printVariable = (PrintVariableStatement)statement;
+					writeString(printVariable.getIdentifier());
+					writeString(printVariable.getMessage());
+					writeByte(printVariable.shouldLineBreak() ? 1 : 0);
+					return;
+				}
+				case PrintStatement.STATEMENT_ID: {
+					final PrintStatement print = (PrintStatement)statement;
+					writeString(print.getMessage());
+					writeByte(print.shouldLineBreak() ? 1 : 0);
+					return;
+				}
+				case IfBlock.STATEMENT_ID: {
+					final IfBlock ifBlock = (IfBlock)statement;
+					writeExpression(ifBlock.getCondition());
+					writeChildren(ifBlock);
+					writeByte(ifBlock.hasElseBlock() ? 1 : 0);
+					if(ifBlock.hasElseBlock()) {
+						writeStatement(ifBlock.getElseBlock());
+					}
+					return;
+				}
+				case ForLoop.STATEMENT_ID: {
+					final ForLoop forLoop = (ForLoop)statement;
+					writeString(forLoop.getIdentifier());
+					writeExpression(forLoop.getStart());
+					writeExpression(forLoop.getEnd());
+					break;
+				}
+				case WhileLoop.STATEMENT_ID:
+					writeExpression(((WhileLoop)statement).getCondition());
+					break;
+				case LineComment.STATEMENT_ID:
+				case BlockComment.STATEMENT_ID:
+					writeString(((Comment)statement).getContent());
+					return;
+				default:
+					throw new IllegalArgumentException("Cannot precompile the statement " + statement.getClass().getName() + ".");
+			}
+
+			writeChildren((BlockStatement)statement);
+		}
+
+		/**
+		 * Writes the children of a block.
+		 *
+		 * @param block The block.
+		 */
+
+		private void writeChildren(final BlockStatement block) {
+			final int count = block.getStatementCount();
+			writeVarLong(count);
+			for(int i = 0; i < count; i++) {
+				writeStatement(block.getStatement(i));
+			}
+		}
+
+		/**
+		 * Writes an expression.
+		 *
+		 * @param expression The expression.
+		 */
+
+		private void writeExpression(final Expression expression) {
+			final Class<?> type = expression.getClass();
+			if(type == AtomExpression.class) {
+				writeAtom(((AtomExpression)expression).getAtom());
+			}
+			else if(type == OrExpression.class) {
+				writeOperation(OR, (LeftOpRightExpression)expression, false);
+			}
+			else if(type == AndExpression.class) {
+				writeOperation(AND, (LeftOpRightExpression)expression, false);
+			}
+			else if(type == EqualityExpression.class) {
+				writeOperation(EQUALITY, (LeftOpRightExpression)expression, true);
+			}
+			else if(type == RelationalExpression.class) {
+				writeOperation(RELATIONAL, (LeftOpRightExpression)expression, true);
+			}
+			else if(type == AdditiveExpression.class) {
+				writeOperation(ADDITIVE, (LeftOpRightExpression)expression, true);
+			}
+			else if(type == MultiplicationExpression.class) {
+				writeOperation(MULTIPLICATION, (LeftOpRightExpression)expression, true);
+			}
+			else if(type == PowerExpression.class) {
+				writeByte(POWER);
+				writeExpression(((PowerExpression)expression).getBase());
+				writeExpression(((PowerExpression)expression).getExponent());
+			}
+			else if(type == UnaryMinusExpression.class) {
+				writeByte(UNARY_MINUS);
+				writeExpression(((UnaryMinusExpression)expression).getExpression());
+			}
+			else if(type == NotExpression.class) {
+				writeByte(NOT);
+				writeExpression(((NotExpression)expression).getExpression());
+			}
+			else if(type == ParenthesisExpression.class) {
+				writeByte(PARENTHESIS);
+				writeExpression(((ParenthesisExpression)expression).getExpression());
+			}
+			else if(type == AbsoluteValueExpression.class) {
+				writeByte(ABSOLUTE_VALUE);
+				writeExpression(((AbsoluteValueExpression)expression).getExpression());
+			}
+			else if(type == FunctionExpression.class) {
+				final FunctionExpression function = (FunctionExpression)expression;
+				writeByte(FUNCTION);
+				writeString(function.getIdentifier());
+				writeVarLong(function.getArguments().length);
+				for(final Expression argument : function.getArguments()) {
+					writeExpression(argument);
+				}
+			}
+			else {
+				throw new IllegalArgumentException("Cannot precompile the expression " + type.getName() + ".");
+			}
+		}
+
+		/**
+		 * Writes a binary operation.
+		 *
+		 * @param kind The expression kind.
+		 * @param operation The operation.
+		 * @param writeOperator Whether the operator must be written (it is implied by the kind otherwise).
+		 */
+
+		private void writeOperation(final byte kind, final LeftOpRightExpression operation, final boolean writeOperator) {
+			writeByte(kind);
+			writeExpression(operation.getLeft());
+			if(writeOperator) {
+				writeString(operation.getOperator());
+			}
+			writeExpression(operation.getRight());
+		}
+
+		/**
+		 * Writes an atom.
+		 *
+		 * @param atom The atom.
+		 */
+
+		private void writeAtom(final Atom atom) {
+			final Class<?> type = atom.getClass();
+			if(type == NumberAtom.class) {
+				final BigDecimal value = ((NumberAtom)atom).getValue();
+				final BigInteger unscaled = value.unscaledValue();
+				if(unscaled.bitLength() < Long.SIZE) {
+					writeByte(NUMBER);
+					writeSignedVarLong(unscaled.longValue());
+				}
+				else {
+					final byte[] magnitude = unscaled.toByteArray();
+					writeByte(BIG_NUMBER);
+					writeVarLong(magnitude.length);
+					writeBytes(magnitude, magnitude.length);
+				}
+				writeSignedVarLong(value.scale());
+			}
+			else if(type == StringAtom.class) {
+				writeByte(STRING);
+				writeString(((StringAtom)atom).getValue());
+			}
+			else if(type == IdentifierAtom.class) {
+				writeByte(IDENTIFIER);
+				writeString(((IdentifierAtom)atom).getValue());
+			}
+			else if(type == BooleanAtom.class) {
+				writeByte(((BooleanAtom)atom).getBooleanValue() ? TRUE : FALSE);
+			}
+			else {
+				throw new IllegalArgumentException("Cannot precompile the atom " + type.getName() + ".");
+			}
+		}
+
+		/**
+		 * Writes a string as its index in the string table, plus one (<b>0</b> stands for <b>null</b>).
+		 *
+		 * @param value The string.
+		 */
+
+		private void writeString(final String value) {
+			if(value == null) {
+				writeVarLong(0);
+				return;
+			}
+
+			Integer index = strings.get(value);
+			if(index == null) {
+				index = strings.size();
+				if(index == table.length) {
+					table = Arrays.copyOf(table, index * 2);
+				}
+				table[index] = value;
+				strings.put(value, index);
+			}
+			writeVarLong(index + 1);
+		}
+
+		/**
+		 * Writes a byte.
+		 *
+		 * @param value The byte.
+		 */
+
+		private void writeByte(final int value) {
+			if(size == bytes.length) {
+				bytes = Arrays.copyOf(bytes, size * 2);
+			}
+			bytes[size++] = (byte)value;
+		}
+
+		/**
+		 * Writes some bytes.
+		 *
+		 * @param value The bytes.
+		 * @param length The number of bytes to write.
+		 */
+
+		private void writeBytes(final byte[] value, final int length) {
+			if(size + length > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(size * 2, size + length));
+			}
+			System.arraycopy(value, 0, bytes, size, length);
+			size += length;
+		}
+
+		/**
+		 * Writes a fixed-length integer.
+		 *
+		 * @param value The integer.
+		 */
+
+		private void writeInt(final int value) {
+			writeByte(value >>> 24);
+			writeByte(value >>> 16);
+			writeByte(value >>> 8);
+			writeByte(value);
+		}
+
+		/**
+		 * Writes an unsigned variable-length integer.
+		 *
+		 * @param value The integer.
+		 */
+
+		private void writeVarLong(long value) {
+			while((value & ~0x7FL) != 0L) {
+				writeByte((int)((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			writeByte((int)value);
+		}
+
+		/**
+		 * Writes a signed variable-length integer.
+		 *
+		 * @param value The integer.
+		 */
+
+		private void writeSignedVarLong(final long value) {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+	}
+
+	/**
+	 * Decodes the string table and the statements tree.
+	 */
+
+	private static class Decoder {
+
+		/**
+		 * The bytes.
+		 */
+
+		private final byte[] bytes;
+
+		/**
+		 * The current position.
+		 */
+
+		private int position = 0;
+
+		/**
+		 * The string table.
+		 */
+
+		private String[] table;
+
+		/**
+		 * Creates a new decoder.
+		 *
+		 * @param bytes The bytes.
+		 */
+
+		private Decoder(final byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Reads the string table.
+		 */
+
+		private void readStrings() {
+			table = new String[readLength()];
+			for(int i = 0; i < table.length; i++) {
+				final int length = readLength();
+				table[i] = new String(bytes, position, length, StandardCharsets.UTF_8);
+				position += length;
+			}
+		}
+
+		/**
+		 * Reads a statement and its children.
+		 *
+		 * @return The statement.
+		 *
+		 * @throws IOException If the statement ID is unknown.
+		 */
+
+		private Statement readStatement() throws IOException {
+			final int statementId = readLength();
+			switch(statementId) {
+				case AlgorithmRootBlock.STATEMENT_ID:
+					return new AlgorithmRootBlock(readChildren());
+				case VariablesBlock.STATEMENT_ID:
+					return new VariablesBlock(readChildren());
+				case BeginningBlock.STATEMENT_ID:
+					return new BeginningBlock(readChildren());
+				case EndBlock.STATEMENT_ID:
+					readChildren();
+					return new EndBlock();
+				case CreateVariableStatement.STATEMENT_ID:
+					return new CreateVariableStatement(readRequiredString(), VariableType.values()[readLength()]);
+				case AssignStatement.STATEMENT_ID:
+					return new AssignStatement(readRequiredString(), readExpression());
+				case PromptStatement.STATEMENT_ID:
+					return new PromptStatement(readRequiredString(), readString());
+				case PrintVariableStatement.STATEMENT_ID:
+					return new PrintVariableStatement(readRequiredString(), readString(), readByte() != 0);
+				case PrintStatement.STATEMENT_ID:
+					return new PrintStatement(readString(), readByte() != 0);
+				case IfBlock.STATEMENT_ID: {
+					final Expression condition = readExpression();
+					final Statement[] statements = readChildren();
+					final ElseBlock elseBlock = readByte() == 0 ? null : (ElseBlock)readStatement();
+					return new IfBlock(condition, elseBlock, statements);
+				}
+				case ElseBlock.STATEMENT_ID:
+					return new ElseBlock(readChildren());
+				case ForLoop.STATEMENT_ID:
+					return new ForLoop(readRequiredString(), readExpression(), readExpression(), readChildren());
+				case WhileLoop.STATEMENT_ID:
+					return new WhileLoop(readExpression(), readChildren());
+				case LineComment.STATEMENT_ID:
+					return new LineComment(readRequiredString());
+				case BlockComment.STATEMENT_ID:
+					return new BlockComment(readRequiredString());
+				default:
+					throw new IOException("Unknown statement ID : " + statementId + ".");
+			}
+		}
+
+		/**
+		 * Reads the children of a block.
+		 *
+		 * @return The children.
+		 *
+		 * @throws IOException If a statement ID is unknown.
+		 */
+
+		private Statement[] readChildren() throws IOException {
+			final Statement[] statements = new Statement[readLength()];
+			for(int i = 0; i < statements.length; i++) {
+				statements[i] = readStatement();
+			}
+			return statements;
+		}
+
+		/**
+		 * Reads an expression.
+		 *
+		 * @return The expression.
+		 *
+		 * @throws IOException If an expression kind is unknown.
+		 */
+
+		private Expression readExpression() throws IOException {
+			final byte kind = readByte();
+			switch(kind) {
+				case NUMBER:
+					return new AtomExpression(new NumberAtom(BigDecimal.valueOf(readSignedVarLong(), (int)readSignedVarLong())));
+				case BIG_NUMBER: {
+					final int length = readLength();
+					final byte[] magnitude = Arrays.copyOfRange(bytes, position, position + length);
+					position += length;
+					return new AtomExpression(new NumberAtom(new BigDecimal(new BigInteger(magnitude), (int)readSignedVarLong())));
+				}
+				case STRING:
+					return new AtomExpression(new StringAtom(readString()));
+				case IDENTIFIER:
+					return new AtomExpression(new IdentifierAtom(readRequiredString()));
+				case TRUE:
+					return new AtomExpression(new BooleanAtom(true));
+				case FALSE:
+					return new AtomExpression(new BooleanAtom(false));
+				case OR:
+					return new OrExpression(readExpression(), readExpression());
+				case AND:
+					return new AndExpression(readExpression(), readExpression());
+				case EQUALITY:
+					return new EqualityExpression(readExpression(), readRequiredString(), readExpression());
+				case RELATIONAL:
+					return new RelationalExpression(readExpression(), readRequiredString(), readExpression());
+				case ADDITIVE:
+					return new AdditiveExpression(readExpression(), readRequiredString(), readExpression());
+				case MULTIPLICATION:
+					return new MultiplicationExpression(readExpression(), readRequiredString(), readExpression());
+				case POWER:
+					return new PowerExpression(readExpression(), readExpression());
+				case UNARY_MINUS:
+					return new UnaryMinusExpression(readExpression());
+				case NOT:
+					return new NotExpression(readExpression());
+				case PARENTHESIS:
+					return new ParenthesisExpression(readExpression());
+				case ABSOLUTE_VALUE:
+					return new AbsoluteValueExpression(readExpression());
+				case FUNCTION: {
+					final String identifier = readRequiredString();
+					final Expression[] arguments = new Expression[readLength()];
+					for(int i = 0; i < arguments.length; i++) {
+						arguments[i] = readExpression();
+					}
+					return new FunctionExpression(identifier, arguments);
+				}
+				default:
+					throw new IOException("Unknown expression kind : " + kind + ".");
+			}
+		}
+
+		/**
+		 * Reads a string from the string table.
+		 *
+		 * @return The string (may be <b>null</b>).
+		 */
+
+		private String readString() {
+			final int index = readLength();
+			return index == 0 ? null : table[index - 1];
+		}
+
+		/**
+		 * Reads a string that cannot be <b>null</b> (an identifier, an operator or a comment) from the string table.
+		 *
+		 * @return The string.
+		 *
+		 * @throws IllegalStateException If the string is <b>null</b>.
+		 */
+
+		private String readRequiredString() {
+			final String name = readString();
+			if(name == null) {
+				throw new IllegalStateException("Missing identifier, operator or comment.");
+			}
+			return name;
+		}
+
+		/**
+		 * Reads a byte.
+		 *
+		 * @return The byte.
+		 */
+
+		private byte readByte() {
+			return bytes[position++];
+		}
+
+		/**
+		 * Reads a fixed-length integer.
+		 *
+		 * @return The integer.
+		 */
+
+		private int readInt() {
+			return (readByte() & 0xFF) << 24 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 8 | readByte() & 0xFF;
+		}
+
+		/**
+		 * Reads an unsigned variable-length integer that is used as a length, an index or an ID.
+		 *
+		 * @return The integer.
+		 */
+
+		private int readLength() {
+			final long value = readVarLong();
+			if(value < 0L || value > Integer.MAX_VALUE) {
+				throw new IllegalStateException("Invalid length : " + value + ".");
+			}
+			return (int)value;
+		}
+
+		/**
+		 * Reads an unsigned variable-length integer.
+		 *
+		 * @return The integer.
+		 */
+
+		private long readVarLong() {
+			long value = 0L;
+			int shift = 0;
+			byte b;
+			do {
+				b = readByte();
+				value |= (long)(b & 0x7F) << shift;
+				shift += 7;
+			}
+			while((b & 0x80) != 0);
+
+			return value;
+		}
+
+		/**
+		 * Reads a signed variable-length integer.
+		 *
+		 * @return The integer.
+		 */
+
+		private long readSignedVarLong() {
+			final long value = readVarLong();
+			return (value >>> 1) ^ -(value & 1L);
+		}
+
+	}
+
+}
@@ -0,0 +1,332 @@
+package xyz.algogo.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CodePointBuffer;
+import org.antlr.v4.runtime.CodePointCharStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import xyz.algogo.core.antlr.AlgogoLexer;
+import xyz.algogo.core.antlr.AlgogoParser;
+import xyz.algogo.core.exception.ParseException;
+
+/**
+ * The parsing front end of algorithms and expressions.
+ * <br>Each thread reuses its own lexer and parser. Inputs are first parsed in <em>SLL</em> prediction mode, which is much faster, and only parsed again in full <em>LL</em> mode if it fails : both modes accept the same inputs, but only <em>LL</em> reports accurate syntax errors.
+ */
+
+public class AlgorithmParser {
+
+	/**
+	 * The parser of each thread.
+	 */
+
+	private static final ThreadLocal<AlgorithmParser> INSTANCE = ThreadLocal.withInitial(AlgorithmParser::new);
+
+	/**
+	 * The number of characters decoded at once from a file.
+	 */
+
+	private static final int DECODING_BUFFER_SIZE = 8192;
+
+	/**
+	 * An algorithm that uses every statement, used to warm the prediction caches up.
+	 */
+
+	private static final String WARM_UP_ALGORITHM = String.join("\n",
+			"// Warm up by Algogo",
+			"VARIABLES",
+			"	x : NUMBER",
+			"	s : STRING",
+			"BEGINNING",
+			"	PROMPT x \"x ?\"",
+			"	s <- \"x = \" + x",
+			"	PRINT_VARIABLE s NLB",
+			"	IF x >= 0 AND NOT(x == 1) OR x != -2 THEN",
+			"		PRINT \"Positive\"",
+			"	ELSE",
+			"		x <- |x| ^ 2 % 3",
+			"	WHILE x < 10 && true DO",
+			"		x <- x + SQRT(x, 2) * 2 / (1 - 0.5)",
+			"	FOR x FROM 1 TO 10 DO",
+			"		/* Block",
+			"		comment */",
+			"		PRINT_VARIABLE x \"Value :\"",
+			"END",
+			""
+	);
+
+	/**
+	 * The error listener.
+	 */
+
+	private final AlgorithmParserErrorListener errorListener = new AlgorithmParserErrorListener();
+
+	/**
+	 * The error strategy of the first stage (stops at the first error).
+	 */
+
+	private final BailErrorStrategy bailErrorStrategy = new BailErrorStrategy();
+
+	/**
+	 * The error strategy of the second stage (reports errors).
+	 */
+
+	private final DefaultErrorStrategy defaultErrorStrategy = new DefaultErrorStrategy();
+
+	/**
+	 * The lexer.
+	 */
+
+	private final AlgogoLexer lexer;
+
+	/**
+	 * The tokens stream.
+	 */
+
+	private final CommonTokenStream tokens;
+
+	/**
+	 * The parser.
+	 */
+
+	private final AlgogoParser parser;
+
+	/**
+	 * Whether this parser is currently parsing (parsing is not reentrant).
+	 */
+
+	private boolean busy = false;
+
+	/**
+	 * Creates a new algorithm parser.
+	 */
+
+	private AlgorithmParser() {
+		lexer = new AlgogoLexer(null);
+		lexer.removeErrorListeners();
+		lexer.addErrorListener(errorListener);
+
+		tokens = new CommonTokenStream(lexer);
+		parser = new AlgogoParser(tokens);
+	}
+
+	/**
+	 * Parses an algorithm.
+	 *
+	 * @param content The algorithm string to parse.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static AlgogoParser.ScriptContext parseScript(final String content) throws ParseException {
+		return parse(CharStreams.fromString(content), AlgogoParser::script);
+	}
+
+	/**
+	 * Parses an algorithm, read from a reader (which is closed afterwards).
+	 *
+	 * @param reader The reader.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static AlgogoParser.ScriptContext parseScript(final Reader reader) throws IOException, ParseException {
+		return parse(CharStreams.fromReader(reader), AlgogoParser::script);
+	}
+
+	/**
+	 * Parses an algorithm, read from an <em>UTF-8</em> encoded channel (which is closed afterwards).
+	 *
+	 * @param channel The channel.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static AlgogoParser.ScriptContext parseScript(final ReadableByteChannel channel) throws IOException, ParseException {
+		return parse(CharStreams.fromChannel(channel, StandardCharsets.UTF_8), AlgogoParser::script);
+	}
+
+	/**
+	 * Parses an algorithm, read from an <em>UTF-8</em> encoded file.
+	 * <br>The file is memory-mapped and decoded straight into the lexer buffer : its content is never held as bytes or as a string. The mapping is released when it is garbage collected, the file may stay locked until then on some systems.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static AlgogoParser.ScriptContext parseScript(final Path file) throws IOException, ParseException {
+		return parse(map(file), AlgogoParser::script);
+	}
+
+	/**
+	 * Parses an expression.
+	 *
+	 * @param content The expression string to parse.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public static AlgogoParser.ExpressionContext parseExpression(final String content) throws ParseException {
+		return parse(CharStreams.fromString(content), AlgogoParser::expression);
+	}
+
+	/**
+	 * Warms the prediction caches up, which are shared by all parsers. Should be called once, at startup, so that the first parsed algorithm is not slower than the next ones.
+	 */
+
+	public static void warmUp() {
+		parseScript(WARM_UP_ALGORITHM);
+		parseExpression("-(1 + 2) * 3 ^ 4 / ABS(5, 6) <= 7 || !false && \"a\" == b % 2");
+	}
+
+	/**
+	 * Decodes a memory-mapped <em>UTF-8</em> file into a characters stream.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The characters stream.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static CharStream map(final Path file) throws IOException {
+		try(final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if(size > Integer.MAX_VALUE) {
+				throw new IOException("The file is too large to be parsed.");
+			}
+
+			final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+			// An UTF-8 file never has more characters than bytes.
+			final CodePointBuffer.Builder builder = CodePointBuffer.builder((int)size);
+			final CharBuffer chars = CharBuffer.allocate(DECODING_BUFFER_SIZE);
+			CoderResult result;
+			do {
+				result = decoder.decode(bytes, chars, true);
+				chars.flip();
+				builder.append(chars);
+				chars.clear();
+			}
+			while(result.isOverflow());
+
+			decoder.flush(chars);
+			chars.flip();
+			builder.append(chars);
+
+			return CodePointCharStream.fromBuffer(builder.build(), file.toString());
+		}
+	}
+
+	/**
+	 * Parses some content with the parser of the current thread (or with a new parser if it is already parsing).
+	 *
+	 * @param input The content.
+	 * @param rule The rule to parse.
+	 * @param <T> The type of the parse tree.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	private static <T extends ParserRuleContext> T parse(final CharStream input, final Function<AlgogoParser, T> rule) throws ParseException {
+		AlgorithmParser instance = INSTANCE.get();
+		if(instance.busy) {
+			instance = new AlgorithmParser();
+		}
+
+		instance.busy = true;
+		try {
+			return instance.run(input, rule);
+		}
+		finally {
+			instance.release();
+			instance.busy = false;
+		}
+	}
+
+	/**
+	 * Parses some content, in <em>SLL</em> mode first and in <em>LL</em> mode if it fails.
+	 *
+	 * @param input The content.
+	 * @param rule The rule to parse.
+	 * @param <T> The type of the parse tree.
+	 *
+	 * @return The parse tree.
+	 *
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	private <T extends ParserRuleContext> T run(final CharStream input, final Function<AlgogoParser, T> rule) throws ParseException {
+		lexer.setInputStream(input);
+		tokens.setTokenSource(lexer);
+		parser.setTokenStream(tokens);
+
+		parser.removeErrorListeners();
+		parser.setErrorHandler(bailErrorStrategy);
+		parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+		try {
+			return rule.apply(parser);
+		}
+		catch(final ParseCancellationException ex) {
+			// Lexer errors are reported by the error listener, they do not depend on the prediction mode.
+			if(ex instanceof ParseException) {
+				throw ex;
+			}
+		}
+
+		parser.reset();
+		parser.addErrorListener(errorListener);
+		parser.setErrorHandler(defaultErrorStrategy);
+		parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+		return rule.apply(parser);
+	}
+
+	/**
+	 * Drops the references to the last parsed content : the lexer gets an empty stream, and the tokens stream and the parser are reset (which clears the buffered tokens).
+	 * <br>So a parser that is kept by its thread does not retain the last content (nor its tokens) until the next parsing.
+	 */
+
+	private void release() {
+		lexer.setInputStream(CharStreams.fromString(""));
+		tokens.setTokenSource(lexer);
+		parser.setTokenStream(tokens);
+	}
+
+}
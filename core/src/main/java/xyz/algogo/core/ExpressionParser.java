@@ -0,0 +1,661 @@
+package xyz.algogo.core;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.IdentifierAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.expression.AbsoluteValueExpression;
+import xyz.algogo.core.evaluator.expression.AdditiveExpression;
+import xyz.algogo.core.evaluator.expression.AndExpression;
+import xyz.algogo.core.evaluator.expression.AtomExpression;
+import xyz.algogo.core.evaluator.expression.EqualityExpression;
+import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.FunctionExpression;
+import xyz.algogo.core.evaluator.expression.MultiplicationExpression;
+import xyz.algogo.core.evaluator.expression.NotExpression;
+import xyz.algogo.core.evaluator.expression.OrExpression;
+import xyz.algogo.core.evaluator.expression.ParenthesisExpression;
+import xyz.algogo.core.evaluator.expression.PowerExpression;
+import xyz.algogo.core.evaluator.expression.RelationalExpression;
+import xyz.algogo.core.evaluator.expression.UnaryMinusExpression;
+
+/**
+ * A hand-written precedence climbing (<em>Pratt</em>) parser for expressions, that does not go through the <em>ANTLR</em> pipeline.
+ * <br>It accepts a subset of the <em>expression</em> rule of the grammar, and creates the same expressions with the same precedence and associativity as <em>AlgorithmParserVisitor</em>.
+ * Anything else (syntax errors, trailing tokens, leading whitespace, keywords, ...) is left to <em>ANTLR</em>, which reports the errors (see <em>Expression.parse(String)</em>).
+ */
+
+public class ExpressionParser {
+
+	/**
+	 * Token : the end of the content.
+	 */
+
+	private static final int EOF = 0;
+
+	/**
+	 * Token : an integer.
+	 */
+
+	private static final int INT = 1;
+
+	/**
+	 * Token : a decimal number.
+	 */
+
+	private static final int FLOAT = 2;
+
+	/**
+	 * Token : an identifier.
+	 */
+
+	private static final int ID = 3;
+
+	/**
+	 * Token : a string.
+	 */
+
+	private static final int STRING = 4;
+
+	/**
+	 * Token : <em>true</em>.
+	 */
+
+	private static final int TRUE = 5;
+
+	/**
+	 * Token : <em>false</em>.
+	 */
+
+	private static final int FALSE = 6;
+
+	/**
+	 * Token : <em>OR</em> or <em>||</em>.
+	 */
+
+	private static final int OR = 7;
+
+	/**
+	 * Token : <em>AND</em> or <em>&amp;&amp;</em>.
+	 */
+
+	private static final int AND = 8;
+
+	/**
+	 * Token : <em>==</em> or <em>!=</em>.
+	 */
+
+	private static final int EQUALITY = 9;
+
+	/**
+	 * Token : <em>&lt;=</em>, <em>&gt;=</em>, <em>&lt;</em> or <em>&gt;</em>.
+	 */
+
+	private static final int RELATIONAL = 10;
+
+	/**
+	 * Token : <em>+</em>.
+	 */
+
+	private static final int PLUS = 11;
+
+	/**
+	 * Token : <em>-</em>.
+	 */
+
+	private static final int MINUS = 12;
+
+	/**
+	 * Token : <em>*</em>, <em>/</em> or <em>%</em>.
+	 */
+
+	private static final int MULTIPLICATION = 13;
+
+	/**
+	 * Token : <em>NOT</em> or <em>!</em>.
+	 */
+
+	private static final int NOT = 14;
+
+	/**
+	 * Token : <em>^</em>.
+	 */
+
+	private static final int POW = 15;
+
+	/**
+	 * Token : <em>,</em>.
+	 */
+
+	private static final int COMMA = 16;
+
+	/**
+	 * Token : <em>(</em>.
+	 */
+
+	private static final int OPEN_PARENTHESIS = 17;
+
+	/**
+	 * Token : <em>)</em>.
+	 */
+
+	private static final int CLOSED_PARENTHESIS = 18;
+
+	/**
+	 * Token : <em>|</em>.
+	 */
+
+	private static final int VERTICAL_BAR = 19;
+
+	/**
+	 * The precedence of each token used as a binary operator (<b>0</b> if it is not one). It follows the order of the alternatives of the <em>expression</em> rule.
+	 */
+
+	private static final int[] PRECEDENCES = new int[VERTICAL_BAR + 1];
+
+	/**
+	 * The precedence of the operand of <em>NOT</em>.
+	 */
+
+	private static final int NOT_PRECEDENCE = 7;
+
+	/**
+	 * The precedence of the operand of an unary minus.
+	 */
+
+	private static final int UNARY_MINUS_PRECEDENCE = 8;
+
+	/**
+	 * The precedence of <em>^</em>.
+	 */
+
+	private static final int POW_PRECEDENCE = 9;
+
+	static {
+		PRECEDENCES[OR] = 1;
+		PRECEDENCES[AND] = 2;
+		PRECEDENCES[EQUALITY] = 3;
+		PRECEDENCES[RELATIONAL] = 4;
+		PRECEDENCES[PLUS] = 5;
+		PRECEDENCES[MINUS] = 5;
+		PRECEDENCES[MULTIPLICATION] = 6;
+		PRECEDENCES[POW] = POW_PRECEDENCE;
+	}
+
+	/**
+	 * Thrown when the content is not handled by this parser (it is shared, as it has no stack trace).
+	 */
+
+	private static final RuntimeException UNSUPPORTED = new RuntimeException("Unsupported expression.", null, false, false) {};
+
+	/**
+	 * The content.
+	 */
+
+	private final String content;
+
+	/**
+	 * The position of the next token.
+	 */
+
+	private int position = 0;
+
+	/**
+	 * The current token type.
+	 */
+
+	private int type;
+
+	/**
+	 * The start of the current token.
+	 */
+
+	private int start;
+
+	/**
+	 * The operator of the current token (for operators).
+	 */
+
+	private String operator;
+
+	/**
+	 * The value of the current token (for integers that fit in a long, <b>-1</b> otherwise).
+	 */
+
+	private long value;
+
+	/**
+	 * Creates a new expression parser.
+	 *
+	 * @param content The content.
+	 */
+
+	private ExpressionParser(final String content) {
+		this.content = content;
+	}
+
+	/**
+	 * Parses an expression.
+	 *
+	 * @param content The expression string to parse.
+	 *
+	 * @return The parsed expression, or <b>null</b> if the content is not handled by this parser (it should then be parsed by <em>ANTLR</em>).
+	 */
+
+	public static Expression parse(final String content) {
+		// Leading whitespace is an indentation for the lexer.
+		if(content.isEmpty() || content.charAt(0) == ' ' || content.charAt(0) == '\t') {
+			return null;
+		}
+
+		final ExpressionParser parser = new ExpressionParser(content);
+		try {
+			parser.next();
+			final Expression expression = parser.parseExpression(1);
+			return parser.type == EOF ? expression : null;
+		}
+		catch(final RuntimeException ex) {
+			if(ex == UNSUPPORTED) {
+				return null;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Parses an expression whose binary operators have at least the given precedence.
+	 *
+	 * @param minimum The minimum precedence.
+	 *
+	 * @return The expression.
+	 */
+
+	private Expression parseExpression(final int minimum) {
+		Expression left = parsePrimary();
+		while(PRECEDENCES[type] >= minimum && PRECEDENCES[type] != 0) {
+			final int token = type;
+			final int precedence = PRECEDENCES[token];
+			final String operator = this.operator;
+			next();
+
+			// Every operator is left-associative, except ^.
+			final Expression right = parseExpression(token == POW ? precedence : precedence + 1);
+			switch(token) {
+				case OR:
+					left = new OrExpression(left, right);
+					break;
+				case AND:
+					left = new AndExpression(left, right);
+					break;
+				case EQUALITY:
+					left = new EqualityExpression(left, operator, right);
+					break;
+				case RELATIONAL:
+					left = new RelationalExpression(left, operator, right);
+					break;
+				case PLUS:
+				case MINUS:
+					left = new AdditiveExpression(left, operator, right);
+					break;
+				case MULTIPLICATION:
+					left = new MultiplicationExpression(left, operator, right);
+					break;
+				default:
+					left = new PowerExpression(left, right);
+					break;
+			}
+		}
+
+		return left;
+	}
+
+	/**
+	 * Parses an expression that does not start with a binary operator.
+	 *
+	 * @return The expression.
+	 */
+
+	private Expression parsePrimary() {
+		final Expression expression;
+		switch(type) {
+			case MINUS:
+				next();
+				return new UnaryMinusExpression(parseExpression(UNARY_MINUS_PRECEDENCE));
+			case NOT:
+				next();
+				return new NotExpression(parseExpression(NOT_PRECEDENCE));
+			case OPEN_PARENTHESIS:
+				next();
+				expression = new ParenthesisExpression(parseExpression(1));
+				expect(CLOSED_PARENTHESIS);
+				return expression;
+			case VERTICAL_BAR:
+				next();
+				expression = new AbsoluteValueExpression(parseExpression(1));
+				expect(VERTICAL_BAR);
+				return expression;
+			case INT:
+				expression = new AtomExpression(new NumberAtom(value == -1L ? new BigDecimal(content.substring(start, position)) : BigDecimal.valueOf(value)));
+				next();
+				return expression;
+			case FLOAT:
+				expression = new AtomExpression(new NumberAtom(new BigDecimal(content.substring(start, position))));
+				next();
+				return expression;
+			case TRUE:
+			case FALSE:
+				expression = new AtomExpression(new BooleanAtom(type == TRUE));
+				next();
+				return expression;
+			case STRING:
+				final String string = content.substring(start + 1, position - 1);
+				expression = new AtomExpression(new StringAtom(string.isEmpty() ? null : string));
+				next();
+				return expression;
+			case ID:
+				final String identifier = content.substring(start, position);
+				next();
+				if(type != OPEN_PARENTHESIS) {
+					return new AtomExpression(new IdentifierAtom(identifier));
+				}
+
+				next();
+				final List<Expression> arguments = new ArrayList<>();
+				if(type != CLOSED_PARENTHESIS) {
+					arguments.add(parseExpression(1));
+					while(type == COMMA) {
+						next();
+						arguments.add(parseExpression(1));
+					}
+				}
+				expect(CLOSED_PARENTHESIS);
+				return new FunctionExpression(identifier, arguments.toArray(new Expression[0]));
+			default:
+				throw UNSUPPORTED;
+		}
+	}
+
+	/**
+	 * Consumes the current token if it has the given type.
+	 *
+	 * @param expected The type.
+	 */
+
+	private void expect(final int expected) {
+		if(type != expected) {
+			throw UNSUPPORTED;
+		}
+		next();
+	}
+
+	/**
+	 * Reads the next token, the same way the lexer does.
+	 */
+
+	private void next() {
+		final int length = content.length();
+		while(position < length && (content.charAt(position) == ' ' || content.charAt(position) == '\t')) {
+			position++;
+		}
+
+		start = position;
+		if(position == length) {
+			type = EOF;
+			return;
+		}
+
+		final char character = content.charAt(position++);
+		final char following = position < length ? content.charAt(position) : '\0';
+		switch(character) {
+			case '+':
+				token(PLUS, "+");
+				return;
+			case '-':
+				token(MINUS, "-");
+				return;
+			case '*':
+				if(following == '/') {
+					throw UNSUPPORTED;
+				}
+				token(MULTIPLICATION, "*");
+				return;
+			case '/':
+				if(following == '/' || following == '*') {
+					throw UNSUPPORTED;
+				}
+				token(MULTIPLICATION, "/");
+				return;
+			case '%':
+				token(MULTIPLICATION, "%");
+				return;
+			case '^':
+				token(POW, "^");
+				return;
+			case ',':
+				token(COMMA, ",");
+				return;
+			case '(':
+				token(OPEN_PARENTHESIS, "(");
+				return;
+			case ')':
+				token(CLOSED_PARENTHESIS, ")");
+				return;
+			case '|':
+				if(following == '|') {
+					position++;
+					token(OR, "||");
+					return;
+				}
+				token(VERTICAL_BAR, "|");
+				return;
+			case '&':
+				if(following != '&') {
+					throw UNSUPPORTED;
+				}
+				position++;
+				token(AND, "&&");
+				return;
+			case '=':
+				if(following != '=') {
+					throw UNSUPPORTED;
+				}
+				position++;
+				token(EQUALITY, "==");
+				return;
+			case '!':
+				if(following == '=') {
+					position++;
+					token(EQUALITY, "!=");
+					return;
+				}
+				token(NOT, "!");
+				return;
+			case '<':
+				if(following == '-') {
+					throw UNSUPPORTED;
+				}
+				if(following == '=') {
+					position++;
+					token(RELATIONAL, "<=");
+					return;
+				}
+				token(RELATIONAL, "<");
+				return;
+			case '>':
+				if(following == '=') {
+					position++;
+					token(RELATIONAL, ">=");
+					return;
+				}
+				token(RELATIONAL, ">");
+				return;
+			case '"':
+				readString();
+				return;
+			default:
+				break;
+		}
+
+		if(character >= '0' && character <= '9' || character == '.') {
+			readNumber(character);
+		}
+		else if(character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z' || character == '_') {
+			readWord();
+		}
+		else {
+			throw UNSUPPORTED;
+		}
+	}
+
+	/**
+	 * Sets the current token.
+	 *
+	 * @param type The type.
+	 * @param operator The operator.
+	 */
+
+	private void token(final int type, final String operator) {
+		this.type = type;
+		this.operator = operator;
+	}
+
+	/**
+	 * Reads an integer or a decimal number (<em>[0-9]+</em>, <em>[0-9]+ '.' [0-9]*</em> or <em>'.' [0-9]+</em>).
+	 *
+	 * @param first The first character.
+	 */
+
+	private void readNumber(final char first) {
+		final int length = content.length();
+		if(first == '.') {
+			if(position == length || !isDigit(content.charAt(position))) {
+				throw UNSUPPORTED;
+			}
+			skipDigits();
+			type = FLOAT;
+			return;
+		}
+
+		long integer = first - '0';
+		while(position < length && isDigit(content.charAt(position))) {
+			integer = integer >= 0L && integer < Long.MAX_VALUE / 10 ? integer * 10 + content.charAt(position) - '0' : -1L;
+			position++;
+		}
+
+		if(position < length && content.charAt(position) == '.') {
+			position++;
+			skipDigits();
+			type = FLOAT;
+			return;
+		}
+
+		type = INT;
+		value = integer;
+	}
+
+	/**
+	 * Skips digits.
+	 */
+
+	private void skipDigits() {
+		while(position < content.length() && isDigit(content.charAt(position))) {
+			position++;
+		}
+	}
+
+	/**
+	 * Reads a string (<em>'"' (~["\r\n] | '""')* '"'</em>).
+	 */
+
+	private void readString() {
+		final int length = content.length();
+		while(position < length) {
+			final char character = content.charAt(position++);
+			if(character == '\r' || character == '\n') {
+				break;
+			}
+			if(character == '"') {
+				if(position < length && content.charAt(position) == '"') {
+					position++;
+					continue;
+				}
+				type = STRING;
+				return;
+			}
+		}
+
+		throw UNSUPPORTED;
+	}
+
+	/**
+	 * Reads an identifier or a keyword.
+	 */
+
+	private void readWord() {
+		final int length = content.length();
+		while(position < length) {
+			final char character = content.charAt(position);
+			if(!(character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z' || character == '_' || isDigit(character))) {
+				break;
+			}
+			position++;
+		}
+
+		switch(content.substring(start, position)) {
+			case "true":
+				type = TRUE;
+				return;
+			case "false":
+				type = FALSE;
+				return;
+			case "OR":
+				token(OR, "OR");
+				return;
+			case "AND":
+				token(AND, "AND");
+				return;
+			case "NOT":
+				token(NOT, "NOT");
+				return;
+			case "VARIABLES":
+			case "BEGINNING":
+			case "END":
+			case "STRING":
+			case "NUMBER":
+			case "IF":
+			case "THEN":
+			case "ELSE":
+			case "WHILE":
+			case "DO":
+			case "FOR":
+			case "FROM":
+			case "TO":
+			case "PRINT":
+			case "PRINT_VARIABLE":
+			case "PROMPT":
+			case "NLB":
+				// Other keywords are not part of expressions.
+				throw UNSUPPORTED;
+			default:
+				type = ID;
+				return;
+		}
+	}
+
+	/**
+	 * Returns whether a character is a digit.
+	 *
+	 * @param character The character.
+	 *
+	 * @return Whether the character is a digit.
+	 */
+
+	private static boolean isDigit(final char character) {
+		return character >= '0' && character <= '9';
+	}
+
+}
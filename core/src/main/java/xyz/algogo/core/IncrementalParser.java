@@ -0,0 +1,521 @@
+package xyz.algogo.core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import xyz.algogo.core.antlr.AlgogoParser;
+import xyz.algogo.core.exception.ParseException;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.statement.block.BlockStatement;
+import xyz.algogo.core.statement.block.conditional.ElseBlock;
+import xyz.algogo.core.statement.block.conditional.IfBlock;
+import xyz.algogo.core.statement.block.loop.ForLoop;
+import xyz.algogo.core.statement.block.loop.WhileLoop;
+import xyz.algogo.core.statement.block.root.BeginningBlock;
+import xyz.algogo.core.statement.simple.comment.Comment;
+
+/**
+ * Parses successive versions of the same algorithm (typically, the content of an editor).
+ * <br>The first version is fully parsed, and the first line of each statement is remembered. Then, only the lines that have changed are parsed again : they are extended to the statements they touch, inside the smallest enclosing <em>IF</em>, <em>ELSE</em>, <em>WHILE</em>, <em>FOR</em> or <em>BEGINNING</em> block, and the new statements are spliced into the previously parsed algorithm.
+ * If the edited lines cannot be handled that way (changes to the <em>VARIABLES</em> block or to the header, block comments, indentation changes that move statements to another block, syntax errors, ...), the whole content is parsed again.
+ * <br>The parsed algorithm is kept private, each successful parsing returns a new copy of it : callers can evaluate or modify the returned algorithms while the next versions are parsed.
+ */
+
+public class IncrementalParser {
+
+	/**
+	 * The last parsed algorithm (<b>null</b> if the last parsing has failed). It is only the base of the next parsing, statements are spliced into it, so it is never given to callers.
+	 */
+
+	private Algorithm algorithm;
+
+	/**
+	 * The lines of the current algorithm.
+	 */
+
+	private String[] lines;
+
+	/**
+	 * The first line (zero-based) of each statement of the current algorithm.
+	 */
+
+	private final Map<Statement, Integer> starts = new IdentityHashMap<>();
+
+	/**
+	 * The number of lines parsed by the last parsing.
+	 */
+
+	private int parsedLines = 0;
+
+	/**
+	 * Parses the new version of the algorithm.
+	 *
+	 * @param content The algorithm string to parse.
+	 *
+	 * @return A new copy of the parsed algorithm.
+	 *
+	 * @throws ParseException If any error occurs during the parsing.
+	 */
+
+	public synchronized Algorithm parse(final String content) throws ParseException {
+		final String[] newLines = split(content);
+		if(algorithm != null && lines != null && newLines != null && reparse(newLines)) {
+			lines = newLines;
+			return copy();
+		}
+
+		algorithm = null;
+		lines = null;
+		starts.clear();
+		parsedLines = newLines == null ? 0 : newLines.length;
+
+		final Algorithm parsed = Algorithm.parse(AlgorithmParser.parseScript(content), new LocatingVisitor(starts, -1));
+		algorithm = parsed;
+		lines = newLines;
+		return copy();
+	}
+
+	/**
+	 * Returns the last parsed algorithm.
+	 *
+	 * @return A new copy of the last parsed algorithm (<b>null</b> if there is none or if the last parsing has failed).
+	 */
+
+	public synchronized Algorithm getAlgorithm() {
+		return algorithm == null ? null : copy();
+	}
+
+	/**
+	 * Returns the number of lines that have been parsed by the last parsing (all the lines if it has not been done incrementally).
+	 *
+	 * @return The number of parsed lines.
+	 */
+
+	public synchronized int getParsedLines() {
+		return parsedLines;
+	}
+
+	/**
+	 * Forgets the last parsed algorithm, so that the next content is fully parsed.
+	 */
+
+	public synchronized void reset() {
+		algorithm = null;
+		lines = null;
+		starts.clear();
+		parsedLines = 0;
+	}
+
+	/**
+	 * Copies the last parsed algorithm.
+	 *
+	 * @return A resolved copy, which does not share any statement or expression with the last parsed algorithm.
+	 */
+
+	private Algorithm copy() {
+		final Algorithm copy = new Algorithm(algorithm.getTitle(), algorithm.getAuthor(), algorithm.getRootBlock().copy());
+		copy.resolve();
+		return copy;
+	}
+
+	/**
+	 * Tries to parse only the changed lines and to splice the result into the current algorithm.
+	 *
+	 * @param newLines The new lines.
+	 *
+	 * @return Whether the current algorithm is up-to-date.
+	 */
+
+	private boolean reparse(final String[] newLines) {
+		final int common = Math.min(lines.length, newLines.length);
+		int start = 0;
+		while(start < common && lines[start].equals(newLines[start])) {
+			start++;
+		}
+
+		if(start == lines.length && start == newLines.length) {
+			parsedLines = 0;
+			return true;
+		}
+
+		int suffix = 0;
+		while(suffix < common - start && lines[lines.length - 1 - suffix].equals(newLines[newLines.length - 1 - suffix])) {
+			suffix++;
+		}
+
+		final int end = lines.length - suffix;
+		final int delta = newLines.length - lines.length;
+		if(hasBlockComment(lines, start, end) || hasBlockComment(newLines, start, end + delta)) {
+			return false;
+		}
+
+		final List<Region> regions = locate(start, end);
+		try {
+			for(int i = regions.size() - 1; i >= 0; i--) {
+				if(splice(regions.get(i), newLines, start, end, delta)) {
+					return true;
+				}
+			}
+		}
+		catch(final ParseException ex) {
+			// The full parsing reports the error with the right line numbers.
+		}
+
+		return false;
+	}
+
+	/**
+	 * Finds the blocks that contain the changed lines.
+	 *
+	 * @param start The first changed line.
+	 * @param end The line that follows the last changed line (in the current lines).
+	 *
+	 * @return The blocks, from the outermost to the innermost.
+	 */
+
+	private List<Region> locate(final int start, final int end) {
+		final List<Region> regions = new ArrayList<>();
+		Region region = new Region(algorithm.getRootBlock(), -1, lines.length - 1);
+		while((region = locate(region, start, end)) != null) {
+			regions.add(region);
+		}
+
+		return regions;
+	}
+
+	/**
+	 * Finds the child block that contains the changed lines.
+	 *
+	 * @param parent The parent block.
+	 * @param start The first changed line.
+	 * @param end The line that follows the last changed line (in the current lines).
+	 *
+	 * @return The child block (<b>null</b> if there is none).
+	 */
+
+	private Region locate(final Region parent, final int start, final int end) {
+		final Statement[] children = parent.block.listStatements();
+		for(int i = 0; i < children.length; i++) {
+			final int childStart = starts.get(children[i]);
+			if(childStart >= start) {
+				return null;
+			}
+
+			final int childEnd = i + 1 < children.length ? starts.get(children[i + 1]) - 1 : parent.end;
+			if(end > childEnd + 1) {
+				continue;
+			}
+
+			final Statement child = children[i];
+			if(child instanceof IfBlock && ((IfBlock)child).hasElseBlock()) {
+				final ElseBlock elseBlock = ((IfBlock)child).getElseBlock();
+				final int elseStart = starts.get(elseBlock);
+				if(end <= elseStart) {
+					return new Region((IfBlock)child, childStart, elseStart - 1);
+				}
+				return elseStart < start ? new Region(elseBlock, elseStart, childEnd) : null;
+			}
+
+			if(child instanceof BeginningBlock || child instanceof IfBlock || child instanceof WhileLoop || child instanceof ForLoop) {
+				return new Region((BlockStatement)child, childStart, childEnd);
+			}
+			return null;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Parses the children of a block that are touched by the changed lines and replaces them.
+	 *
+	 * @param region The block.
+	 * @param newLines The new lines.
+	 * @param start The first changed line.
+	 * @param end The line that follows the last changed line (in the current lines).
+	 * @param delta The difference between the new number of lines and the current one.
+	 *
+	 * @return Whether the children have been replaced (<b>false</b> if the new lines do not belong to this block only).
+	 *
+	 * @throws ParseException If the new lines cannot be parsed.
+	 */
+
+	private boolean splice(final Region region, final String[] newLines, final int start, final int end, final int delta) throws ParseException {
+		final Statement[] children = region.block.listStatements();
+
+		// An insertion also touches the statements around it.
+		final int touchedStart = end > start ? start : start - 1;
+		final int touchedEnd = end > start ? end : start + 1;
+
+		int first = -1;
+		int last = -1;
+		int insertion = children.length;
+		for(int i = 0; i < children.length; i++) {
+			final int childStart = starts.get(children[i]);
+			final int childEnd = i + 1 < children.length ? starts.get(children[i + 1]) - 1 : region.end;
+			if(childStart < touchedEnd && childEnd >= touchedStart) {
+				if(first == -1) {
+					first = i;
+				}
+				last = i;
+			}
+			if(childStart >= start && insertion == children.length) {
+				insertion = i;
+			}
+		}
+
+		int reparseStart = start;
+		int reparseEnd = end;
+		if(first == -1) {
+			first = insertion;
+			last = insertion - 1;
+		}
+		else {
+			reparseStart = Math.min(start, starts.get(children[first]));
+			reparseEnd = Math.max(end, last + 1 < children.length ? starts.get(children[last + 1]) : region.end + 1);
+		}
+
+		// Every line must be inside the block, at the indentation of its children (or deeper).
+		int width = -1;
+		if(first > 0) {
+			width = getIndentation(lines[starts.get(children[0])]);
+		}
+		else if(last + 1 < children.length) {
+			width = getIndentation(lines[starts.get(children[last + 1])]);
+		}
+
+		final int headerIndentation = getIndentation(lines[region.start]);
+		final StringBuilder builder = new StringBuilder("VARIABLES\nBEGINNING\n");
+		boolean firstLine = true;
+		for(int i = reparseStart; i < reparseEnd + delta; i++) {
+			final String line = newLines[i];
+			final int indentation = getIndentation(line);
+			if(indentation == line.length()) {
+				builder.append('\n');
+				continue;
+			}
+
+			if(width == -1) {
+				width = indentation;
+			}
+			if(width <= headerIndentation || indentation < width || (firstLine && indentation != width)) {
+				return false;
+			}
+
+			builder.append('\t').append(line, width, line.length()).append('\n');
+			firstLine = false;
+		}
+		builder.append("END\n");
+
+		// The new lines start at the third line of the wrapper.
+		final Map<Statement, Integer> located = new IdentityHashMap<>();
+		final AlgogoParser.ScriptContext context = AlgorithmParser.parseScript(builder.toString());
+		final BeginningBlock beginningBlock = (BeginningBlock)new LocatingVisitor(located, reparseStart - 3).visitScript(context).listStatementsById(BeginningBlock.STATEMENT_ID)[0];
+
+		for(int i = first; i <= last; i++) {
+			forget(children[i]);
+			region.block.removeStatement(first);
+		}
+
+		if(delta != 0) {
+			for(final Map.Entry<Statement, Integer> entry : starts.entrySet()) {
+				if(entry.getValue() >= reparseEnd) {
+					entry.setValue(entry.getValue() + delta);
+				}
+			}
+		}
+
+		final Statement[] statements = beginningBlock.listStatements();
+		for(int i = 0; i < statements.length; i++) {
+			region.block.insertStatement(statements[i], first + i);
+		}
+		starts.putAll(located);
+
+		parsedLines = reparseEnd + delta - reparseStart;
+		return true;
+	}
+
+	/**
+	 * Forgets the first line of a statement and of all its children.
+	 *
+	 * @param statement The statement.
+	 */
+
+	private void forget(final Statement statement) {
+		starts.remove(statement);
+		if(statement instanceof BlockStatement) {
+			for(final Statement child : ((BlockStatement)statement).listStatements()) {
+				forget(child);
+			}
+		}
+		if(statement instanceof IfBlock && ((IfBlock)statement).hasElseBlock()) {
+			forget(((IfBlock)statement).getElseBlock());
+		}
+	}
+
+	/**
+	 * Splits a content into lines, the way the lexer counts them.
+	 *
+	 * @param content The content.
+	 *
+	 * @return The lines (<b>null</b> if the content uses single carriage returns as line separators).
+	 */
+
+	private static String[] split(final String content) {
+		final List<String> result = new ArrayList<>();
+		int lineStart = 0;
+		for(int i = 0; i < content.length(); i++) {
+			final char character = content.charAt(i);
+			if(character == '\r' && (i + 1 == content.length() || content.charAt(i + 1) != '\n')) {
+				return null;
+			}
+			if(character == '\n') {
+				result.add(content.substring(lineStart, i));
+				lineStart = i + 1;
+			}
+		}
+		result.add(content.substring(lineStart));
+
+		return result.toArray(new String[0]);
+	}
+
+	/**
+	 * Checks whether some lines contain block comment delimiters.
+	 *
+	 * @param lines The lines.
+	 * @param start The first line.
+	 * @param end The line that follows the last line.
+	 *
+	 * @return Whether there is a block comment delimiter.
+	 */
+
+	private static boolean hasBlockComment(final String[] lines, final int start, final int end) {
+		for(int i = start; i < end; i++) {
+			if(lines[i].contains("/*") || lines[i].contains("*/")) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns the indentation of a line, counted the way the lexer counts it.
+	 *
+	 * @param line The line.
+	 *
+	 * @return The number of leading spaces and tabs.
+	 */
+
+	private static int getIndentation(final String line) {
+		int indentation = 0;
+		while(indentation < line.length() && (line.charAt(indentation) == ' ' || line.charAt(indentation) == '\t')) {
+			indentation++;
+		}
+		return indentation;
+	}
+
+	/**
+	 * Represents a block and its lines.
+	 */
+
+	private static class Region {
+
+		/**
+		 * The block.
+		 */
+
+		private final BlockStatement block;
+
+		/**
+		 * The line of its header.
+		 */
+
+		private final int start;
+
+		/**
+		 * Its last line.
+		 */
+
+		private final int end;
+
+		/**
+		 * Creates a new region.
+		 *
+		 * @param block The block.
+		 * @param start The line of its header.
+		 * @param end Its last line.
+		 */
+
+		private Region(final BlockStatement block, final int start, final int end) {
+			this.block = block;
+			this.start = start;
+			this.end = end;
+		}
+
+	}
+
+	/**
+	 * A parser visitor that remembers the first line of each statement.
+	 */
+
+	private static class LocatingVisitor extends AlgorithmParserVisitor {
+
+		/**
+		 * The first line of each statement.
+		 */
+
+		private final Map<Statement, Integer> starts;
+
+		/**
+		 * The offset added to the lexer line numbers.
+		 */
+
+		private final int offset;
+
+		/**
+		 * Creates a new locating visitor.
+		 *
+		 * @param starts The first line of each statement.
+		 * @param offset The offset added to the lexer line numbers.
+		 */
+
+		private LocatingVisitor(final Map<Statement, Integer> starts, final int offset) {
+			this.starts = starts;
+			this.offset = offset;
+		}
+
+		@Override
+		public Object visitRootStatement(final AlgogoParser.RootStatementContext context) {
+			final Object statement = super.visitRootStatement(context);
+			starts.put((Statement)statement, context.getStart().getLine() + offset);
+			return statement;
+		}
+
+		@Override
+		public Statement visitStatement(final AlgogoParser.StatementContext context) {
+			final Statement statement = super.visitStatement(context);
+			starts.put(statement, context.getStart().getLine() + offset);
+			return statement;
+		}
+
+		@Override
+		public ElseBlock visitElseBlock(final AlgogoParser.ElseBlockContext context) {
+			final ElseBlock elseBlock = super.visitElseBlock(context);
+			if(elseBlock != null) {
+				starts.put(elseBlock, context.getStart().getLine() + offset);
+			}
+			return elseBlock;
+		}
+
+		@Override
+		public Comment visitComment(final AlgogoParser.CommentContext context) {
+			final Comment comment = super.visitComment(context);
+			starts.put(comment, context.getStart().getLine() + offset);
+			return comment;
+		}
+
+	}
+
+}
@@ -0,0 +1,120 @@
+package xyz.algogo.core.batch;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import xyz.algogo.core.Algorithm;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+
+/**
+ * Evaluates an algorithm with several input vectors, in parallel.
+ * <br>The algorithm is shared by all the evaluations : each one has its own evaluator (that holds the variables) and its own context (that holds the counters, the budgets and the random numbers generator).
+ * Inputs are given to the <em>PROMPT</em> statements in order. Once a vector is exhausted, prompted variables are left unchanged.
+ */
+
+public class BatchEvaluator {
+
+	/**
+	 * The algorithm.
+	 */
+
+	private final Algorithm algorithm;
+
+	/**
+	 * Called on each new context before the evaluation (to set budgets, an execution engine, ...).
+	 */
+
+	private final Consumer<EvaluationContext> contextInitializer;
+
+	/**
+	 * Creates a new batch evaluator.
+	 *
+	 * @param algorithm The algorithm.
+	 */
+
+	public BatchEvaluator(final Algorithm algorithm) {
+		this(algorithm, context -> {});
+	}
+
+	/**
+	 * Creates a new batch evaluator.
+	 *
+	 * @param algorithm The algorithm.
+	 * @param contextInitializer Called on each new context before the evaluation (to set budgets, an execution engine, ...).
+	 */
+
+	public BatchEvaluator(final Algorithm algorithm, final Consumer<EvaluationContext> contextInitializer) {
+		this.algorithm = algorithm;
+		this.contextInitializer = contextInitializer;
+	}
+
+	/**
+	 * Returns the algorithm.
+	 *
+	 * @return The algorithm.
+	 */
+
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Evaluates the algorithm with the given input vector, in the current thread.
+	 *
+	 * @param inputs The input vector.
+	 *
+	 * @return The result.
+	 */
+
+	public BatchResult evaluate(final List<String> inputs) {
+		final Iterator<String> iterator = inputs.iterator();
+		final List<String> outputs = new ArrayList<>();
+
+		final EvaluationContext context = new EvaluationContext((source, arguments) -> iterator.hasNext() ? iterator.next() : null, (source, content) -> outputs.add(content));
+		contextInitializer.accept(context);
+
+		final Exception exception = algorithm.evaluate(context);
+		return new BatchResult(inputs, outputs, exception, context.getExecutedStatements());
+	}
+
+	/**
+	 * Evaluates the algorithm with each input vector, on the common fork / join pool.
+	 *
+	 * @param inputs The input vectors.
+	 *
+	 * @return The results, in the same order as the input vectors.
+	 */
+
+	public List<BatchResult> evaluateAll(final Iterable<? extends List<String>> inputs) {
+		return evaluateAll(inputs, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Evaluates the algorithm with each input vector, on the given executor.
+	 *
+	 * @param inputs The input vectors.
+	 * @param executor The executor.
+	 *
+	 * @return The results, in the same order as the input vectors.
+	 */
+
+	public List<BatchResult> evaluateAll(final Iterable<? extends List<String>> inputs, final Executor executor) {
+		final List<CompletableFuture<BatchResult>> futures = new ArrayList<>();
+		for(final List<String> vector : inputs) {
+			futures.add(CompletableFuture.supplyAsync(() -> evaluate(vector), executor));
+		}
+
+		final List<BatchResult> results = new ArrayList<>(futures.size());
+		for(final CompletableFuture<BatchResult> future : futures) {
+			results.add(future.join());
+		}
+
+		return results;
+	}
+
+}
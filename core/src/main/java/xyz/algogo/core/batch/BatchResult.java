@@ -0,0 +1,112 @@
+package xyz.algogo.core.batch;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the result of the evaluation of an algorithm with one input vector (see <em>BatchEvaluator</em>).
+ */
+
+public class BatchResult {
+
+	/**
+	 * The input vector.
+	 */
+
+	private final List<String> inputs;
+
+	/**
+	 * The outputs, in order.
+	 */
+
+	private final List<String> outputs;
+
+	/**
+	 * The exception that occurred (<b>null</b> if the execution is a success).
+	 */
+
+	private final Exception exception;
+
+	/**
+	 * The number of executed statements.
+	 */
+
+	private final long executedStatements;
+
+	/**
+	 * Creates a new batch result.
+	 *
+	 * @param inputs The input vector.
+	 * @param outputs The outputs.
+	 * @param exception The exception that occurred (<b>null</b> if the execution is a success).
+	 * @param executedStatements The number of executed statements.
+	 */
+
+	public BatchResult(final List<String> inputs, final List<String> outputs, final Exception exception, final long executedStatements) {
+		this.inputs = Collections.unmodifiableList(inputs);
+		this.outputs = Collections.unmodifiableList(outputs);
+		this.exception = exception;
+		this.executedStatements = executedStatements;
+	}
+
+	/**
+	 * Returns the input vector.
+	 *
+	 * @return The input vector.
+	 */
+
+	public List<String> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * Returns the outputs, in order.
+	 *
+	 * @return The outputs.
+	 */
+
+	public List<String> getOutputs() {
+		return outputs;
+	}
+
+	/**
+	 * Returns the outputs joined with line separators.
+	 *
+	 * @return The outputs.
+	 */
+
+	public String getOutput() {
+		return String.join(System.lineSeparator(), outputs);
+	}
+
+	/**
+	 * Returns the exception that occurred.
+	 *
+	 * @return The exception, or <b>null</b> if the execution is a success.
+	 */
+
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * Returns whether the execution is a success.
+	 *
+	 * @return Whether the execution is a success.
+	 */
+
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	/**
+	 * Returns the number of executed statements.
+	 *
+	 * @return The number of executed statements.
+	 */
+
+	public long getExecutedStatements() {
+		return executedStatements;
+	}
+
+}
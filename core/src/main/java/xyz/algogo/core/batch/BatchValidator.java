@@ -0,0 +1,230 @@
+package xyz.algogo.core.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import xyz.algogo.core.Algorithm;
+import xyz.algogo.core.AlgorithmParser;
+import xyz.algogo.core.exception.ParseException;
+
+/**
+ * Parses and validates every algorithm file of a directory tree, in parallel.
+ * <br>Files are parsed by a bounded pool of threads : each thread reuses its own lexer and parser, and all of them share the prediction caches of the grammar. Files are submitted while the directory tree is walked, and the walk waits when the pool is busy, so that the memory used does not depend on the number of files.
+ * <br>It can also be run from the command line : <em>java xyz.algogo.core.batch.BatchValidator &lt;directory&gt; [threads] [extension]</em>.
+ */
+
+public class BatchValidator {
+
+	/**
+	 * The default extension of algorithm files.
+	 */
+
+	public static final String DEFAULT_EXTENSION = ".agg2";
+
+	/**
+	 * The number of files that can wait for a thread, per thread.
+	 */
+
+	private static final int QUEUED_FILES_PER_THREAD = 16;
+
+	/**
+	 * The extension of algorithm files.
+	 */
+
+	private final String extension;
+
+	/**
+	 * The number of threads.
+	 */
+
+	private final int parallelism;
+
+	/**
+	 * Creates a new batch validator that uses one thread per processor.
+	 */
+
+	public BatchValidator() {
+		this(DEFAULT_EXTENSION, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new batch validator.
+	 *
+	 * @param extension The extension of algorithm files.
+	 * @param parallelism The number of threads.
+	 */
+
+	public BatchValidator(final String extension, final int parallelism) {
+		if(parallelism <= 0) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+
+		this.extension = extension;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Returns the extension of algorithm files.
+	 *
+	 * @return The extension.
+	 */
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Returns the number of threads.
+	 *
+	 * @return The number of threads.
+	 */
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Parses and validates a file, in the current thread. The file is read through a channel (and not memory-mapped), so that it is not kept locked once validated.
+	 * <br>An algorithm that is nested too deeply to be parsed is reported as a <em>ParseException</em>.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The result.
+	 */
+
+	public ValidationResult validate(final Path file) {
+		final long start = System.nanoTime();
+		try(final ReadableByteChannel channel = Files.newByteChannel(file)) {
+			Algorithm.parse(channel);
+			return new ValidationResult(file, null, System.nanoTime() - start);
+		}
+		catch(final IOException | RuntimeException ex) {
+			return new ValidationResult(file, ex, System.nanoTime() - start);
+		}
+		catch(final StackOverflowError error) {
+			final ParseException ex = new ParseException("The algorithm is nested too deeply.");
+			ex.initCause(error);
+			return new ValidationResult(file, ex, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Parses and validates every algorithm file of a directory tree.
+	 *
+	 * @param directory The directory.
+	 *
+	 * @return The results, sorted by file.
+	 *
+	 * @throws IOException If the directory tree cannot be walked.
+	 * @throws IllegalStateException If some files have no result.
+	 */
+
+	public List<ValidationResult> validateAll(final Path directory) throws IOException {
+		final List<ValidationResult> results = Collections.synchronizedList(new ArrayList<>());
+		final int count = validateAll(directory, results::add);
+		if(results.size() != count) {
+			throw new IllegalStateException(count + " files have been found, but only " + results.size() + " have been validated.");
+		}
+
+		results.sort(Comparator.comparing(ValidationResult::getFile));
+		return results;
+	}
+
+	/**
+	 * Parses and validates every algorithm file of a directory tree, and returns once all the files have been validated.
+	 *
+	 * @param directory The directory.
+	 * @param consumer Receives each result, as soon as it is available. It is called from several threads.
+	 *
+	 * @return The number of validated files.
+	 *
+	 * @throws IOException If the directory tree cannot be walked.
+	 */
+
+	public int validateAll(final Path directory, final Consumer<ValidationResult> consumer) throws IOException {
+		final AtomicInteger threads = new AtomicInteger();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(parallelism * QUEUED_FILES_PER_THREAD), runnable -> {
+			final Thread thread = new Thread(runnable, "Batch validator " + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+		int count = 0;
+		try(final Stream<Path> files = Files.walk(directory)) {
+			for(final Path file : (Iterable<Path>)files::iterator) {
+				if(file.toString().endsWith(extension) && Files.isRegularFile(file)) {
+					executor.execute(() -> consumer.accept(validate(file)));
+					count++;
+				}
+			}
+		}
+		catch(final UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+		finally {
+			executor.shutdown();
+			try {
+				while(!executor.awaitTermination(1L, TimeUnit.MINUTES)) {
+					// Keeps waiting for the remaining files.
+				}
+			}
+			catch(final InterruptedException ex) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Validates every algorithm file of a directory tree, prints the errors and a summary, and exits with <b>1</b> if any file is not valid.
+	 *
+	 * @param args The directory, then optionally the number of threads and the extension of algorithm files.
+	 *
+	 * @throws IOException If the directory tree cannot be walked.
+	 */
+
+	public static void main(final String[] args) throws IOException {
+		if(args.length == 0) {
+			System.err.println("Usage : BatchValidator <directory> [threads] [extension]");
+			System.exit(2);
+			return;
+		}
+
+		final BatchValidator validator = new BatchValidator(args.length > 2 ? args[2] : DEFAULT_EXTENSION, args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors());
+		AlgorithmParser.warmUp();
+
+		final AtomicInteger errors = new AtomicInteger();
+		final AtomicLong parseTime = new AtomicLong();
+		final long start = System.nanoTime();
+		final int count = validator.validateAll(Paths.get(args[0]), result -> {
+			parseTime.addAndGet(result.getParseTime());
+			if(!result.isSuccess()) {
+				errors.incrementAndGet();
+				final String line = result.getLine() == -1 ? "" : result.getLine() + ":";
+				System.out.println(result.getFile() + ":" + line + " " + result.getMessage());
+			}
+		});
+
+		final long elapsed = System.nanoTime() - start;
+		System.out.println(count + " files, " + errors.get() + " invalid, " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms (" + TimeUnit.NANOSECONDS.toMillis(parseTime.get()) + " ms of parsing on " + validator.getParallelism() + " threads).");
+		System.exit(errors.get() == 0 ? 0 : 1);
+	}
+
+}
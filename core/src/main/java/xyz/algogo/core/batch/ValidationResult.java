@@ -0,0 +1,109 @@
+package xyz.algogo.core.batch;
+
+import java.nio.file.Path;
+
+import xyz.algogo.core.exception.ParseException;
+
+/**
+ * Represents the result of the validation of an algorithm file (see <em>BatchValidator</em>).
+ */
+
+public class ValidationResult {
+
+	/**
+	 * The file.
+	 */
+
+	private final Path file;
+
+	/**
+	 * The exception that occurred (<b>null</b> if the file is valid).
+	 */
+
+	private final Exception exception;
+
+	/**
+	 * The time spent reading and parsing the file.
+	 */
+
+	private final long parseTime;
+
+	/**
+	 * Creates a new validation result.
+	 *
+	 * @param file The file.
+	 * @param exception The exception that occurred (<b>null</b> if the file is valid).
+	 * @param parseTime The time spent reading and parsing the file (in nanoseconds).
+	 */
+
+	public ValidationResult(final Path file, final Exception exception, final long parseTime) {
+		this.file = file;
+		this.exception = exception;
+		this.parseTime = parseTime;
+	}
+
+	/**
+	 * Returns the file.
+	 *
+	 * @return The file.
+	 */
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns whether the file is a valid algorithm.
+	 *
+	 * @return Whether the file is a valid algorithm.
+	 */
+
+	public boolean isSuccess() {
+		return exception == null;
+	}
+
+	/**
+	 * Returns the exception that occurred : a <em>ParseException</em> if the file is not a valid algorithm, or any other exception if it could not be read.
+	 *
+	 * @return The exception, or <b>null</b> if the file is valid.
+	 */
+
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * Returns the line of the syntax error.
+	 *
+	 * @return The line, or <b>-1</b> if the file is valid or if the error is not a syntax error.
+	 */
+
+	public int getLine() {
+		return exception instanceof ParseException ? ((ParseException)exception).getLine() : -1;
+	}
+
+	/**
+	 * Returns the error message.
+	 *
+	 * @return The error message, or <b>null</b> if the file is valid.
+	 */
+
+	public String getMessage() {
+		if(exception == null) {
+			return null;
+		}
+
+		return exception instanceof ParseException ? ((ParseException)exception).getErrorMessage() : exception.toString();
+	}
+
+	/**
+	 * Returns the time spent reading and parsing the file.
+	 *
+	 * @return The time (in nanoseconds).
+	 */
+
+	public long getParseTime() {
+		return parseTime;
+	}
+
+}
@@ -0,0 +1,763 @@
+package xyz.algogo.core.compiler;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import ch.obermuhlner.math.big.BigDecimalMath;
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.IdentifierAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.expression.AdditiveExpression;
+import xyz.algogo.core.evaluator.expression.AndExpression;
+import xyz.algogo.core.evaluator.expression.AtomExpression;
+import xyz.algogo.core.evaluator.expression.EqualityExpression;
+import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.FunctionExpression;
+import xyz.algogo.core.evaluator.expression.MultiplicationExpression;
+import xyz.algogo.core.evaluator.expression.NotExpression;
+import xyz.algogo.core.evaluator.expression.OrExpression;
+import xyz.algogo.core.evaluator.expression.ParenthesisExpression;
+import xyz.algogo.core.evaluator.expression.PowerExpression;
+import xyz.algogo.core.evaluator.expression.RelationalExpression;
+import xyz.algogo.core.evaluator.expression.UnaryMinusExpression;
+import xyz.algogo.core.evaluator.function.Function;
+import xyz.algogo.core.evaluator.function.FunctionCache;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.evaluator.variable.VariableType;
+import xyz.algogo.core.exception.InvalidExpressionException;
+import xyz.algogo.core.exception.InvalidIdentifierException;
+import xyz.algogo.core.exception.InvalidVariableValueException;
+import xyz.algogo.core.exception.ParseException;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.statement.block.BlockStatement;
+import xyz.algogo.core.statement.block.conditional.ElseBlock;
+import xyz.algogo.core.statement.block.conditional.IfBlock;
+import xyz.algogo.core.statement.block.loop.ForLoop;
+import xyz.algogo.core.statement.block.loop.WhileLoop;
+import xyz.algogo.core.statement.block.root.AlgorithmRootBlock;
+import xyz.algogo.core.statement.block.root.BeginningBlock;
+import xyz.algogo.core.statement.block.root.EndBlock;
+import xyz.algogo.core.statement.block.root.VariablesBlock;
+import xyz.algogo.core.statement.simple.comment.BlockComment;
+import xyz.algogo.core.statement.simple.comment.LineComment;
+import xyz.algogo.core.statement.simple.variable.AssignStatement;
+
+/**
+ * Compiles a statements tree into a tree of closures.
+ * <br>Each closure captures its already compiled children, its operator (by choosing the closure) and its variable slots. Everything the compiler does not know (prints, prompts, unknown statements and expressions, ...) is delegated to the node itself, so that both engines behave the same.
+ * Statements and expressions are matched on their exact class : subclasses may override the evaluation and are therefore delegated too.
+ */
+
+class ClosureCompiler {
+
+	/**
+	 * A statement that does nothing (comments, END block).
+	 */
+
+	private static final CompiledStatement NOTHING = (evaluator, context) -> null;
+
+	/**
+	 * The lowest long value (as a BigDecimal).
+	 */
+
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+	/**
+	 * The highest long value (as a BigDecimal).
+	 */
+
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+	/**
+	 * The variable slots table.
+	 */
+
+	private final VariableSlots slots;
+
+	/**
+	 * Creates a new closure compiler.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	ClosureCompiler(final VariableSlots slots) {
+		this.slots = slots;
+	}
+
+	/**
+	 * Compiles a statement.
+	 *
+	 * @param statement The statement.
+	 *
+	 * @return The compiled statement.
+	 */
+
+	CompiledStatement compileStatement(final Statement statement) {
+		final Class<?> type = statement.getClass();
+		if(type == AlgorithmRootBlock.class || type == VariablesBlock.class || type == BeginningBlock.class || type == ElseBlock.class) {
+			return compileBlock((BlockStatement)statement);
+		}
+
+		if(type == EndBlock.class || type == LineComment.class || type == BlockComment.class) {
+			return NOTHING;
+		}
+
+		if(type == IfBlock.class) {
+			return compileIf((IfBlock)statement);
+		}
+
+		if(type == WhileLoop.class) {
+			return compileWhile((WhileLoop)statement);
+		}
+
+		if(type == ForLoop.class) {
+			return compileFor((ForLoop)statement);
+		}
+
+		if(type == AssignStatement.class) {
+			return compileAssign((AssignStatement)statement);
+		}
+
+		return statement::evaluate;
+	}
+
+	/**
+	 * Compiles the children of a block. The context is polled after each of them, like <em>BlockStatement.evaluate(...)</em> does.
+	 *
+	 * @param block The block.
+	 *
+	 * @return The compiled block.
+	 */
+
+	CompiledStatement compileBlock(final BlockStatement block) {
+		final Statement[] children = block.listStatements();
+		final CompiledStatement[] statements = new CompiledStatement[children.length];
+		for(int i = 0; i < children.length; i++) {
+			statements[i] = compileStatement(children[i]);
+		}
+
+		if(statements.length == 1) {
+			final CompiledStatement statement = statements[0];
+			return (evaluator, context) -> {
+				final Exception ex = statement.execute(evaluator, context);
+				if(ex == null) {
+					context.poll();
+				}
+				return ex;
+			};
+		}
+
+		return (evaluator, context) -> {
+			for(final CompiledStatement statement : statements) {
+				final Exception ex = statement.execute(evaluator, context);
+				if(ex != null || context.poll()) {
+					return ex;
+				}
+			}
+
+			return null;
+		};
+	}
+
+	/**
+	 * Compiles an IF block (and its ELSE block).
+	 *
+	 * @param block The IF block.
+	 *
+	 * @return The compiled block.
+	 */
+
+	private CompiledStatement compileIf(final IfBlock block) {
+		final Expression condition = block.getEvaluatedCondition();
+		final CompiledStatement then = compileBlock(block);
+		final CompiledStatement otherwise = block.hasElseBlock() ? compileStatement(block.getElseBlock()) : NOTHING;
+
+		if(condition.isBoolean()) {
+			final CompiledCondition test = compileCondition(condition);
+			return (evaluator, context) -> test.test(evaluator, context) ? then.execute(evaluator, context) : otherwise.execute(evaluator, context);
+		}
+
+		final CompiledExpression value = compileExpression(condition);
+		return (evaluator, context) -> {
+			final Atom result = value.evaluate(evaluator, context);
+			if(result == null) {
+				return new InvalidExpressionException(block.getCondition());
+			}
+			return BooleanAtom.isTrue(result) ? then.execute(evaluator, context) : otherwise.execute(evaluator, context);
+		};
+	}
+
+	/**
+	 * Compiles a WHILE loop.
+	 *
+	 * @param loop The WHILE loop.
+	 *
+	 * @return The compiled loop.
+	 */
+
+	private CompiledStatement compileWhile(final WhileLoop loop) {
+		final CompiledCondition condition = compileCondition(loop.getEvaluatedCondition());
+		final CompiledStatement body = compileBlock(loop);
+		return (evaluator, context) -> {
+			while(condition.test(evaluator, context) && !context.poll()) {
+				final Exception ex = body.execute(evaluator, context);
+				if(ex != null) {
+					return ex;
+				}
+			}
+
+			return null;
+		};
+	}
+
+	/**
+	 * Compiles a FOR loop.
+	 *
+	 * @param loop The FOR loop.
+	 *
+	 * @return The compiled loop.
+	 */
+
+	private CompiledStatement compileFor(final ForLoop loop) {
+		final String identifier = loop.getIdentifier();
+		final VariableSlot slot = slots.bind(identifier);
+		final CompiledExpression start = compileExpression(loop.getEvaluatedStart());
+		final CompiledExpression end = compileExpression(loop.getEvaluatedEnd());
+		final CompiledStatement body = compileBlock(loop);
+
+		return (evaluator, context) -> {
+			final Variable variable = evaluator.getVariable(slot);
+			if(variable == null) {
+				return new InvalidIdentifierException(identifier);
+			}
+
+			if(variable.getType() != VariableType.NUMBER) {
+				return new InvalidIdentifierException(identifier, identifier + " is not a number.");
+			}
+
+			final Atom startAtom = start.evaluate(evaluator, context);
+			final Atom endAtom = end.evaluate(evaluator, context);
+			if(!NumberAtom.hasNumberType(startAtom) || !NumberAtom.hasNumberType(endAtom)) {
+				return new ParseException("Start and End must return a number.");
+			}
+
+			return loop(evaluator, context, variable, startAtom, NumberAtom.valueOf(endAtom), body);
+		};
+	}
+
+	/**
+	 * Runs a FOR loop, the same way <em>ForLoop.evaluate(...)</em> does : with a primitive counter if possible, with BigDecimal values otherwise.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 * @param variable The loop variable.
+	 * @param startAtom The start value.
+	 * @param end The end value.
+	 * @param body The compiled loop body.
+	 *
+	 * @return Whether an exception occurs.
+	 */
+
+	private static Exception loop(final ExpressionEvaluator evaluator, final EvaluationContext context, final Variable variable, final Atom startAtom, final NumberAtom end, final CompiledStatement body) {
+		if(startAtom instanceof NumberAtom && ((NumberAtom)startAtom).isLong()) {
+			final long start = ((NumberAtom)startAtom).getLongValue();
+			final boolean ascending = end.isLong() ? start <= end.getLongValue() : BigDecimal.valueOf(start).compareTo(end.getValue()) <= 0;
+			final BigDecimal value = end.isLong() ? null : end.getValue();
+			final MathContext mathContext = context.getMathContext();
+
+			if(value == null || (value.compareTo(LONG_MIN) >= 0 && value.compareTo(LONG_MAX) <= 0)) {
+				final long last = value == null ? end.getLongValue() : value.setScale(0, ascending ? RoundingMode.FLOOR : RoundingMode.CEILING).longValue();
+				if(NumberAtom.fits(start, mathContext) && NumberAtom.fits(last, mathContext)) {
+					if(ascending ? start > last : start < last) {
+						return null;
+					}
+
+					final long step = ascending ? 1L : -1L;
+					for(long i = start; !context.poll(); i += step) {
+						variable.setNumber(new NumberAtom(i));
+
+						final Exception ex = body.execute(evaluator, context);
+						if(ex != null) {
+							return ex;
+						}
+
+						if(i == last) {
+							break;
+						}
+					}
+
+					return null;
+				}
+			}
+		}
+
+		final BigDecimal start = (BigDecimal)startAtom.getValue();
+		final BigDecimal last = end.getValue();
+		final boolean ascending = start.compareTo(last) <= 0;
+		for(BigDecimal i = start; (ascending ? i.compareTo(last) <= 0 : i.compareTo(last) >= 0) && !context.poll(); i = ascending ? i.add(BigDecimal.ONE, context.getMathContext()) : i.subtract(BigDecimal.ONE, context.getMathContext())) {
+			variable.setValue(i);
+
+			final Exception ex = body.execute(evaluator, context);
+			if(ex != null) {
+				return ex;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Compiles an assignment.
+	 *
+	 * @param statement The assignment.
+	 *
+	 * @return The compiled assignment.
+	 */
+
+	private CompiledStatement compileAssign(final AssignStatement statement) {
+		final String identifier = statement.getIdentifier();
+		final VariableSlot slot = slots.bind(identifier);
+		final CompiledExpression value = compileExpression(statement.getEvaluatedValue());
+		final long increment = getIncrement(identifier, statement.getEvaluatedValue());
+
+		if(increment != 0L) {
+			return (evaluator, context) -> {
+				final Variable variable = evaluator.getVariable(slot);
+				if(variable == null) {
+					return new InvalidIdentifierException(identifier);
+				}
+
+				return increment(variable, increment, context) ? null : assign(identifier, variable, value.evaluate(evaluator, context));
+			};
+		}
+
+		return (evaluator, context) -> {
+			final Variable variable = evaluator.getVariable(slot);
+			if(variable == null) {
+				return new InvalidIdentifierException(identifier);
+			}
+
+			return assign(identifier, variable, value.evaluate(evaluator, context));
+		};
+	}
+
+	/**
+	 * Assigns an evaluated value to a variable (see <em>AssignStatement.evaluate(...)</em>).
+	 *
+	 * @param identifier The variable identifier.
+	 * @param variable The variable.
+	 * @param atom The value.
+	 *
+	 * @return Whether an exception occurs.
+	 */
+
+	private static Exception assign(final String identifier, final Variable variable, final Atom atom) {
+		if(atom == null || (variable.getType() == VariableType.NUMBER && !NumberAtom.hasNumberType(atom)) || (variable.getType() == VariableType.STRING && !(atom.getValue() instanceof String))) {
+			return new InvalidVariableValueException(identifier);
+		}
+
+		if(atom.getClass() == NumberAtom.class) {
+			variable.setNumber((NumberAtom)atom);
+			return null;
+		}
+
+		variable.setValue(atom.getValue());
+		return null;
+	}
+
+	/**
+	 * Checks whether an assignment is <em>identifier &lt;- identifier + integer</em> (or <em>identifier - integer</em>), like <em>AssignStatement.optimize(...)</em> does.
+	 *
+	 * @param identifier The assigned variable identifier.
+	 * @param value The assigned value.
+	 *
+	 * @return The added integer, or zero if the assignment is not an increment.
+	 */
+
+	private static long getIncrement(final String identifier, final Expression value) {
+		if(value.getClass() != AdditiveExpression.class) {
+			return 0L;
+		}
+
+		final AdditiveExpression addition = (AdditiveExpression)value;
+		final Atom variable = addition.getLeft() instanceof AtomExpression ? ((AtomExpression)addition.getLeft()).getAtom() : null;
+		final Atom integer = addition.getRight() instanceof AtomExpression ? ((AtomExpression)addition.getRight()).getAtom() : null;
+		if(variable == null || variable.getClass() != IdentifierAtom.class || !variable.getValue().equals(identifier) || integer == null || integer.getClass() != NumberAtom.class || !((NumberAtom)integer).isLong()) {
+			return 0L;
+		}
+
+		final long step = ((NumberAtom)integer).getLongValue();
+		switch(addition.getOperator()) {
+			case "+":
+				return step;
+			case "-":
+				return step == Long.MIN_VALUE ? 0L : -step;
+			default:
+				return 0L;
+		}
+	}
+
+	/**
+	 * Increments a variable that holds an integer at once, without evaluating the assigned value (see <em>AssignStatement.increment(...)</em>).
+	 *
+	 * @param variable The variable.
+	 * @param increment The added integer.
+	 * @param context The evaluation context.
+	 *
+	 * @return Whether the variable has been incremented (otherwise, the value has to be evaluated).
+	 */
+
+	private static boolean increment(final Variable variable, final long increment, final EvaluationContext context) {
+		if(variable.getType() != VariableType.NUMBER) {
+			return false;
+		}
+
+		final NumberAtom number = variable.getNumber();
+		if(number == null || !number.isLong()) {
+			return false;
+		}
+
+		final long current = number.getLongValue();
+		final long result = current + increment;
+		if(((current ^ result) & (increment ^ result)) < 0 || !NumberAtom.fits(current, context.getMathContext()) || !NumberAtom.fits(result, context.getMathContext())) {
+			return false;
+		}
+
+		variable.setNumber(context.checkValue(new NumberAtom(result)));
+		return true;
+	}
+
+	/**
+	 * Compiles an expression.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled expression.
+	 */
+
+	CompiledExpression compileExpression(final Expression expression) {
+		final Class<?> type = expression.getClass();
+		if(type == ParenthesisExpression.class) {
+			return compileExpression(((ParenthesisExpression)expression).getExpression());
+		}
+
+		if(type == AtomExpression.class) {
+			final Atom atom = ((AtomExpression)expression).getAtom();
+			final Class<?> atomType = atom == null ? null : atom.getClass();
+			if(atomType == IdentifierAtom.class) {
+				return compileVariable(((IdentifierAtom)atom).getValue());
+			}
+
+			if(atomType == NumberAtom.class || atomType == BooleanAtom.class || atomType == StringAtom.class) {
+				return (evaluator, context) -> atom;
+			}
+		}
+
+		if(type == AdditiveExpression.class) {
+			return compileAdditive((AdditiveExpression)expression);
+		}
+
+		if(type == MultiplicationExpression.class) {
+			return compileMultiplication((MultiplicationExpression)expression);
+		}
+
+		if(type == RelationalExpression.class || type == EqualityExpression.class || type == AndExpression.class || type == OrExpression.class || type == NotExpression.class) {
+			final CompiledCondition condition = compileCondition(expression);
+			return (evaluator, context) -> BooleanAtom.valueOf(condition.test(evaluator, context));
+		}
+
+		if(type == UnaryMinusExpression.class) {
+			final CompiledExpression operand = compileExpression(((UnaryMinusExpression)expression).getExpression());
+			return (evaluator, context) -> {
+				final Atom atom = operand.evaluate(evaluator, context);
+				return NumberAtom.hasNumberType(atom) ? NumberAtom.valueOf(atom).negate() : NumberAtom.ZERO;
+			};
+		}
+
+		if(type == PowerExpression.class) {
+			return compilePower((PowerExpression)expression);
+		}
+
+		if(type == FunctionExpression.class) {
+			return compileFunction((FunctionExpression)expression);
+		}
+
+		return expression::evaluate;
+	}
+
+	/**
+	 * Compiles a variable read, the same way <em>IdentifierAtom.evaluate(...)</em> reads it.
+	 *
+	 * @param identifier The variable identifier.
+	 *
+	 * @return The compiled expression.
+	 */
+
+	private CompiledExpression compileVariable(final String identifier) {
+		final VariableSlot slot = slots.bind(identifier);
+		return (evaluator, context) -> {
+			final Variable variable = evaluator.getVariable(slot);
+			if(variable == null) {
+				return null;
+			}
+
+			if(variable.getType() == VariableType.NUMBER) {
+				final NumberAtom number = variable.getNumber();
+				return number == null ? new NumberAtom(((BigDecimal)variable.getValue()).round(context.getMathContext())) : number.round(context.getMathContext());
+			}
+
+			return new StringAtom((String)variable.getValue());
+		};
+	}
+
+	/**
+	 * Compiles an additive expression (see <em>AdditiveExpression.evaluate(...)</em>).
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled expression.
+	 */
+
+	private CompiledExpression compileAdditive(final AdditiveExpression expression) {
+		final CompiledExpression left = compileExpression(expression.getLeft());
+		final CompiledExpression right = compileExpression(expression.getRight());
+
+		switch(expression.getOperator()) {
+			case "+":
+				return (evaluator, context) -> {
+					final Atom leftAtom = left.evaluate(evaluator, context);
+					final Atom rightAtom = right.evaluate(evaluator, context);
+					if(!NumberAtom.hasNumberType(leftAtom) || !NumberAtom.hasNumberType(rightAtom)) {
+						return concatenate(leftAtom, rightAtom, context);
+					}
+					return context.checkValue(NumberAtom.valueOf(leftAtom).add(NumberAtom.valueOf(rightAtom), context.getMathContext()));
+				};
+			case "-":
+				return (evaluator, context) -> {
+					final Atom leftAtom = left.evaluate(evaluator, context);
+					final Atom rightAtom = right.evaluate(evaluator, context);
+					if(!NumberAtom.hasNumberType(leftAtom) || !NumberAtom.hasNumberType(rightAtom)) {
+						return NumberAtom.ZERO;
+					}
+					return context.checkValue(NumberAtom.valueOf(leftAtom).subtract(NumberAtom.valueOf(rightAtom), context.getMathContext()));
+				};
+			default:
+				return expression::evaluate;
+		}
+	}
+
+	/**
+	 * Concatenates two operands of an addition that are not both numbers.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @param context The evaluation context.
+	 *
+	 * @return The concatenation if both operands are strings, zero otherwise.
+	 */
+
+	private static Atom concatenate(final Atom left, final Atom right, final EvaluationContext context) {
+		if(!StringAtom.hasStringType(left) || !StringAtom.hasStringType(right)) {
+			return NumberAtom.ZERO;
+		}
+
+		final String leftString = (String)left.getValue();
+		final String rightString = (String)right.getValue();
+		context.checkStringLength((long)leftString.length() + rightString.length());
+		return new StringAtom(leftString + rightString);
+	}
+
+	/**
+	 * Compiles a multiplication expression (see <em>MultiplicationExpression.evaluate(...)</em>).
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled expression.
+	 */
+
+	private CompiledExpression compileMultiplication(final MultiplicationExpression expression) {
+		final CompiledExpression left = compileExpression(expression.getLeft());
+		final CompiledExpression right = compileExpression(expression.getRight());
+
+		switch(expression.getOperator()) {
+			case "*":
+				return (evaluator, context) -> {
+					final Atom leftAtom = left.evaluate(evaluator, context);
+					final Atom rightAtom = right.evaluate(evaluator, context);
+					if(!NumberAtom.hasNumberType(leftAtom) || !NumberAtom.hasNumberType(rightAtom)) {
+						return NumberAtom.ZERO;
+					}
+					return context.checkValue(NumberAtom.valueOf(leftAtom).multiply(NumberAtom.valueOf(rightAtom), context.getMathContext()));
+				};
+			case "/":
+				return (evaluator, context) -> {
+					final Atom leftAtom = left.evaluate(evaluator, context);
+					final Atom rightAtom = right.evaluate(evaluator, context);
+					if(!NumberAtom.hasNumberType(leftAtom) || !NumberAtom.hasNumberType(rightAtom)) {
+						return NumberAtom.ZERO;
+					}
+					return context.checkValue(NumberAtom.valueOf(leftAtom).divide(NumberAtom.valueOf(rightAtom), context.getMathContext()));
+				};
+			case "%":
+				return (evaluator, context) -> {
+					final Atom leftAtom = left.evaluate(evaluator, context);
+					final Atom rightAtom = right.evaluate(evaluator, context);
+					if(!NumberAtom.hasNumberType(leftAtom) || !NumberAtom.hasNumberType(rightAtom)) {
+						return NumberAtom.ZERO;
+					}
+					return NumberAtom.valueOf(leftAtom).remainder(NumberAtom.valueOf(rightAtom), context.getMathContext());
+				};
+			default:
+				return expression::evaluate;
+		}
+	}
+
+	/**
+	 * Compiles a power expression (see <em>PowerExpression.evaluate(...)</em>).
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled expression.
+	 */
+
+	private CompiledExpression compilePower(final PowerExpression expression) {
+		final CompiledExpression base = compileExpression(expression.getBase());
+		final CompiledExpression exponent = compileExpression(expression.getExponent());
+		return (evaluator, context) -> {
+			final Atom baseAtom = base.evaluate(evaluator, context);
+			final Atom exponentAtom = exponent.evaluate(evaluator, context);
+			if(!NumberAtom.hasNumberType(baseAtom) || !NumberAtom.hasNumberType(exponentAtom)) {
+				return NumberAtom.ZERO;
+			}
+			return context.checkValue(new NumberAtom(BigDecimalMath.pow((BigDecimal)baseAtom.getValue(), (BigDecimal)exponentAtom.getValue(), context.getMathContext())));
+		};
+	}
+
+	/**
+	 * Compiles a function call (see <em>FunctionExpression.evaluate(...)</em>). The function itself is still bound through the expression, so that it follows the evaluator functions.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled expression.
+	 */
+
+	private CompiledExpression compileFunction(final FunctionExpression expression) {
+		final Expression[] children = expression.getArguments();
+		final CompiledExpression[] arguments = new CompiledExpression[children.length];
+		for(int i = 0; i < children.length; i++) {
+			arguments[i] = compileExpression(children[i]);
+		}
+
+		return (evaluator, context) -> {
+			final Function function = expression.getFunction(evaluator);
+			if(function == null) {
+				return NumberAtom.ZERO;
+			}
+
+			final Atom[] values = new Atom[arguments.length];
+			for(int i = 0; i < arguments.length; i++) {
+				values[i] = arguments[i].evaluate(evaluator, context);
+			}
+
+			final FunctionCache cache = context.getFunctionCache();
+			return context.checkValue(cache == null ? function.evaluate(context, values) : cache.evaluate(function, context, values));
+		};
+	}
+
+	/**
+	 * Compiles an expression that is evaluated as a condition (see <em>Expression.evaluateBoolean(...)</em>).
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled condition.
+	 */
+
+	CompiledCondition compileCondition(final Expression expression) {
+		final Class<?> type = expression.getClass();
+		if(type == ParenthesisExpression.class) {
+			return compileCondition(((ParenthesisExpression)expression).getExpression());
+		}
+
+		if(type == RelationalExpression.class) {
+			return compileRelational((RelationalExpression)expression);
+		}
+
+		if(type == EqualityExpression.class) {
+			final EqualityExpression equality = (EqualityExpression)expression;
+			final CompiledExpression left = compileExpression(equality.getLeft());
+			final CompiledExpression right = compileExpression(equality.getRight());
+			switch(equality.getOperator()) {
+				case "==":
+					return (evaluator, context) -> left.evaluate(evaluator, context).equals(right.evaluate(evaluator, context));
+				case "!=":
+					return (evaluator, context) -> !left.evaluate(evaluator, context).equals(right.evaluate(evaluator, context));
+				default:
+					return expression::evaluateBoolean;
+			}
+		}
+
+		if(type == AndExpression.class) {
+			final CompiledCondition left = compileCondition(((AndExpression)expression).getLeft());
+			final CompiledCondition right = compileCondition(((AndExpression)expression).getRight());
+			return (evaluator, context) -> left.test(evaluator, context) && right.test(evaluator, context);
+		}
+
+		if(type == OrExpression.class) {
+			final CompiledCondition left = compileCondition(((OrExpression)expression).getLeft());
+			final CompiledCondition right = compileCondition(((OrExpression)expression).getRight());
+			return (evaluator, context) -> left.test(evaluator, context) || right.test(evaluator, context);
+		}
+
+		if(type == NotExpression.class) {
+			final Expression operand = ((NotExpression)expression).getExpression();
+			if(operand.isBoolean()) {
+				final CompiledCondition condition = compileCondition(operand);
+				return (evaluator, context) -> !condition.test(evaluator, context);
+			}
+
+			final CompiledExpression value = compileExpression(operand);
+			return (evaluator, context) -> BooleanAtom.isFalse(value.evaluate(evaluator, context));
+		}
+
+		if(type == AtomExpression.class || type == AdditiveExpression.class || type == MultiplicationExpression.class || type == UnaryMinusExpression.class || type == PowerExpression.class || type == FunctionExpression.class) {
+			final CompiledExpression value = compileExpression(expression);
+			return (evaluator, context) -> BooleanAtom.isTrue(value.evaluate(evaluator, context));
+		}
+
+		return expression::evaluateBoolean;
+	}
+
+	/**
+	 * Compiles a relational expression (see <em>RelationalExpression.evaluateBoolean(...)</em>).
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The compiled condition.
+	 */
+
+	private CompiledCondition compileRelational(final RelationalExpression expression) {
+		final CompiledExpression left = compileExpression(expression.getLeft());
+		final CompiledExpression right = compileExpression(expression.getRight());
+
+		switch(expression.getOperator()) {
+			case "<=":
+				return (evaluator, context) -> left.evaluate(evaluator, context).compareTo(right.evaluate(evaluator, context)) <= 0;
+			case ">=":
+				return (evaluator, context) -> left.evaluate(evaluator, context).compareTo(right.evaluate(evaluator, context)) >= 0;
+			case "<":
+				return (evaluator, context) -> left.evaluate(evaluator, context).compareTo(right.evaluate(evaluator, context)) < 0;
+			case ">":
+				return (evaluator, context) -> left.evaluate(evaluator, context).compareTo(right.evaluate(evaluator, context)) > 0;
+			default:
+				return expression::evaluateBoolean;
+		}
+	}
+
+}
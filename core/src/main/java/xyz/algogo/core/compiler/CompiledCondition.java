@@ -0,0 +1,24 @@
+package xyz.algogo.core.compiler;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+
+/**
+ * Represents an expression that has been compiled into a closure which is evaluated as a condition (no atom is created).
+ */
+
+@FunctionalInterface
+interface CompiledCondition {
+
+	/**
+	 * Evaluates the expression as a condition.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return Whether the expression is true.
+	 */
+
+	boolean test(final ExpressionEvaluator evaluator, final EvaluationContext context);
+
+}
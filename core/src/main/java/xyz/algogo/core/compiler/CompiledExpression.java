@@ -0,0 +1,25 @@
+package xyz.algogo.core.compiler;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+
+/**
+ * Represents an expression that has been compiled into a closure.
+ */
+
+@FunctionalInterface
+interface CompiledExpression {
+
+	/**
+	 * Evaluates the expression value.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return The evaluated value.
+	 */
+
+	Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context);
+
+}
@@ -0,0 +1,86 @@
+package xyz.algogo.core.compiler;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.statement.block.root.AlgorithmRootBlock;
+
+/**
+ * Represents an algorithm compiled into a tree of closures.
+ * <br>Operators, variable slots and control flow are resolved once, at compile time, so executing the program does not dispatch on operator strings anymore.
+ * A compiled program holds no execution state : it can be executed several times, even concurrently (with distinct evaluators).
+ * It references the statements and expressions it has been compiled from, so it must be compiled again if they are modified.
+ */
+
+public class CompiledProgram {
+
+	/**
+	 * The compiled root block.
+	 */
+
+	private final CompiledStatement root;
+
+	/**
+	 * The variable slots table the program has been compiled with.
+	 */
+
+	private final VariableSlots slots;
+
+	/**
+	 * Creates a new compiled program.
+	 *
+	 * @param root The compiled root block.
+	 * @param slots The variable slots table.
+	 */
+
+	CompiledProgram(final CompiledStatement root, final VariableSlots slots) {
+		this.root = root;
+		this.slots = slots;
+	}
+
+	/**
+	 * Executes this program.
+	 *
+	 * @param evaluator The expression evaluator (holds the variables and the functions).
+	 * @param context The evaluation context.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	public Exception execute(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		if(evaluator.getSlots() != slots) {
+			evaluator.setSlots(slots);
+		}
+
+		try {
+			return root.execute(evaluator, context);
+		}
+		catch(final Exception ex) {
+			return ex;
+		}
+	}
+
+	/**
+	 * Returns the variable slots table this program has been compiled with.
+	 *
+	 * @return The variable slots table.
+	 */
+
+	public VariableSlots getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Compiles the given root block. Its expressions should have been optimized and resolved before (see <em>Algorithm.resolve()</em>).
+	 *
+	 * @param rootBlock The root block.
+	 * @param slots The variable slots table.
+	 *
+	 * @return The compiled program.
+	 */
+
+	public static CompiledProgram compile(final AlgorithmRootBlock rootBlock, final VariableSlots slots) {
+		return new CompiledProgram(new ClosureCompiler(slots).compileBlock(rootBlock), slots);
+	}
+
+}
@@ -0,0 +1,24 @@
+package xyz.algogo.core.compiler;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+
+/**
+ * Represents a statement that has been compiled into a closure.
+ */
+
+@FunctionalInterface
+interface CompiledStatement {
+
+	/**
+	 * Executes the statement.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return Whether an exception occurs.
+	 */
+
+	Exception execute(final ExpressionEvaluator evaluator, final EvaluationContext context);
+
+}
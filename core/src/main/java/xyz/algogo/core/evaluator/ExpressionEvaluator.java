@@ -1,13 +1,21 @@
 package xyz.algogo.core.evaluator;
 
+import java.math.BigDecimal;
 import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import ch.obermuhlner.math.big.BigDecimalMath;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.InterruptionAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionCache;
 import xyz.algogo.core.evaluator.function.Function;
 import xyz.algogo.core.evaluator.function.neper.ExpFunction;
 import xyz.algogo.core.evaluator.function.neper.Log10Function;
@@ -36,6 +44,8 @@ import xyz.algogo.core.evaluator.function.trigonometric.SinHFunction;
 import xyz.algogo.core.evaluator.function.trigonometric.TanFunction;
 import xyz.algogo.core.evaluator.function.trigonometric.TanHFunction;
 import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.evaluator.variable.VariableType;
 
 /**
@@ -45,24 +55,84 @@ import xyz.algogo.core.evaluator.variable.VariableType;
 public class ExpressionEvaluator {
 
 	/**
-	 * Evaluator variables.
+	 * Allows to give a unique version to each state of each functions registry.
 	 */
 
-	private final HashMap<String, Variable> variables = new HashMap<>();
+	private static final AtomicLong FUNCTIONS_VERSIONS = new AtomicLong();
+
+	/**
+	 * The value of the default <em>pi</em> constant.
+	 */
+
+	private static final BigDecimal PI = BigDecimalMath.pi(MathContext.DECIMAL128);
+
+	/**
+	 * The value of the default <em>e</em> constant.
+	 */
+
+	private static final BigDecimal E = BigDecimalMath.e(MathContext.DECIMAL128);
+
+	/**
+	 * The default functions. This registry is immutable and shared by all evaluators, it is copied by an evaluator when its functions are modified.
+	 */
+
+	private static final Map<String, Function> DEFAULT_FUNCTIONS = createDefaultFunctions();
+
+	/**
+	 * The version of the default functions registry.
+	 */
+
+	private static final long DEFAULT_FUNCTIONS_VERSION = FUNCTIONS_VERSIONS.incrementAndGet();
+
+	/**
+	 * The variable slots table.
+	 */
+
+	private VariableSlots slots;
+
+	/**
+	 * Evaluator variables, indexed by slot.
+	 */
+
+	private Variable[] frame;
 
 	/**
 	 * Evaluator functions.
 	 */
 
-	private final HashMap<String, Function> functions = new HashMap<>();
+	private Map<String, Function> functions = DEFAULT_FUNCTIONS;
+
+	/**
+	 * Whether the functions registry is shared (and therefore must be copied before being modified).
+	 */
+
+	private boolean functionsShared = true;
+
+	/**
+	 * The current version of the functions registry.
+	 */
+
+	private long functionsVersion = DEFAULT_FUNCTIONS_VERSION;
 
 	/**
 	 * Creates a new expression evaluator.
 	 */
 
 	public ExpressionEvaluator() {
+		this(new VariableSlots());
+	}
+
+	/**
+	 * Creates a new expression evaluator.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	public ExpressionEvaluator(final VariableSlots slots) {
+		this.slots = slots;
+		this.frame = new Variable[slots.size()];
+
 		addDefaultVariables();
-		addDefaultFunctions();
 	}
 
 	/**
@@ -74,7 +144,7 @@ public class ExpressionEvaluator {
 	 */
 
 	public final Atom evaluate(final String expression) {
-		return evaluate(Expression.parse(expression));
+		return evaluate(ExpressionCache.getDefault().parse(expression));
 	}
 
 	/**
@@ -106,6 +176,33 @@ public class ExpressionEvaluator {
 		return expression.evaluate(this, context);
 	}
 
+	/**
+	 * Returns the variable slots table.
+	 *
+	 * @return The variable slots table.
+	 */
+
+	public final VariableSlots getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Sets the variable slots table, moving the current variables to their new slots.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	public final void setSlots(final VariableSlots slots) {
+		final Variable[] variables = getVariables();
+
+		this.slots = slots;
+		this.frame = new Variable[slots.size()];
+
+		for(final Variable variable : variables) {
+			putVariable(variable);
+		}
+	}
+
 	/**
 	 * Returns a variable.
 	 *
@@ -115,7 +212,26 @@ public class ExpressionEvaluator {
 	 */
 
 	public Variable getVariable(final String identifier) {
-		return variables.get(identifier);
+		final int index = slots.findSlot(identifier);
+		return index < 0 || index >= frame.length ? null : frame[index];
+	}
+
+	/**
+	 * Returns a variable from its slot.
+	 * <br>If the slot belongs to another slots table, the variable is looked up by its identifier.
+	 *
+	 * @param slot The variable slot.
+	 *
+	 * @return The variable.
+	 */
+
+	public final Variable getVariable(final VariableSlot slot) {
+		if(slot.getSlots() != slots) {
+			return getVariable(slot.getIdentifier());
+		}
+
+		final int index = slot.getIndex();
+		return index < frame.length ? frame[index] : null;
 	}
 
 	/**
@@ -125,7 +241,12 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void putVariable(final Variable variable) {
-		variables.put(variable.getIdentifier(), variable);
+		final int index = slots.getSlot(variable.getIdentifier());
+		if(index >= frame.length) {
+			frame = Arrays.copyOf(frame, Math.max(index + 1, slots.size()));
+		}
+
+		frame[index] = variable;
 	}
 
 	/**
@@ -137,7 +258,7 @@ public class ExpressionEvaluator {
 	 */
 
 	public final boolean hasVariable(final String identifier) {
-		return variables.containsKey(identifier);
+		return getVariable(identifier) != null;
 	}
 
 	/**
@@ -147,7 +268,10 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void removeVariable(final String identifier) {
-		variables.remove(identifier);
+		final int index = slots.findSlot(identifier);
+		if(index >= 0 && index < frame.length) {
+			frame[index] = null;
+		}
 	}
 
 	/**
@@ -155,7 +279,7 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void clearVariables() {
-		variables.clear();
+		Arrays.fill(frame, null);
 	}
 
 	/**
@@ -165,7 +289,14 @@ public class ExpressionEvaluator {
 	 */
 
 	public final Variable[] getVariables() {
-		return variables.values().toArray(new Variable[variables.size()]);
+		final List<Variable> variables = new ArrayList<>();
+		for(final Variable variable : frame) {
+			if(variable != null) {
+				variables.add(variable);
+			}
+		}
+
+		return variables.toArray(new Variable[variables.size()]);
 	}
 
 	/**
@@ -187,7 +318,8 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void putFunction(final Function function) {
-		functions.put(function.getIdentifier(), function);
+		getEditableFunctions().put(function.getIdentifier(), function);
+		functionsVersion = FUNCTIONS_VERSIONS.incrementAndGet();
 	}
 
 	/**
@@ -209,7 +341,12 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void removeFunction(final String identifier) {
-		functions.remove(identifier);
+		if(!functions.containsKey(identifier)) {
+			return;
+		}
+
+		getEditableFunctions().remove(identifier);
+		functionsVersion = FUNCTIONS_VERSIONS.incrementAndGet();
 	}
 
 	/**
@@ -217,7 +354,20 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void clearFunctions() {
-		functions.clear();
+		functions = new HashMap<>();
+		functionsShared = false;
+		functionsVersion = FUNCTIONS_VERSIONS.incrementAndGet();
+	}
+
+	/**
+	 * Returns the current version of the functions registry.
+	 * <br>Versions are unique among all evaluators, and a new one is given each time a function is put or removed. So, if two calls return the same version, <em>getFunction(String)</em> returns the same functions.
+	 *
+	 * @return The current version of the functions registry.
+	 */
+
+	public final long getFunctionsVersion() {
+		return functionsVersion;
 	}
 
 	/**
@@ -235,47 +385,92 @@ public class ExpressionEvaluator {
 	 */
 
 	public final void addDefaultVariables() {
-		putVariable(new Variable("pi", VariableType.NUMBER, BigDecimalMath.pi(MathContext.DECIMAL128)));
-		putVariable(new Variable("e", VariableType.NUMBER, BigDecimalMath.e(MathContext.DECIMAL128)));
+		putVariable(new Variable("pi", VariableType.NUMBER, PI));
+		putVariable(new Variable("e", VariableType.NUMBER, E));
 	}
 
 	/**
 	 * Add default functions to the context.
+	 * <br>Default functions are shared by all evaluators. If this evaluator has no other function, it simply goes back to the shared registry.
 	 */
 
 	public final void addDefaultFunctions() {
-		putFunction(new ExpFunction());
-		putFunction(new LogFunction());
-		putFunction(new Log10Function());
-		putFunction(new Log2Function());
-
-		putFunction(new SqrtFunction());
-		putFunction(new RootFunction());
-
-		putFunction(new AbsFunction());
-		putFunction(new BernoulliFunction());
-		putFunction(new CeilingFunction());
-		putFunction(new FactorialFunction());
-		putFunction(new FloorFunction());
-		putFunction(new MaxFunction());
-		putFunction(new MinFunction());
-		putFunction(new RandomFunction());
-
-		putFunction(new CosFunction());
-		putFunction(new SinFunction());
-		putFunction(new TanFunction());
-
-		putFunction(new CosHFunction());
-		putFunction(new SinHFunction());
-		putFunction(new TanHFunction());
-
-		putFunction(new ACosFunction());
-		putFunction(new ASinFunction());
-		putFunction(new ATanFunction());
-
-		putFunction(new ACosHFunction());
-		putFunction(new ASinHFunction());
-		putFunction(new ATanHFunction());
+		if(functions.isEmpty()) {
+			functions = DEFAULT_FUNCTIONS;
+			functionsShared = true;
+			functionsVersion = DEFAULT_FUNCTIONS_VERSION;
+			return;
+		}
+
+		if(functions == DEFAULT_FUNCTIONS) {
+			return;
+		}
+
+		getEditableFunctions().putAll(DEFAULT_FUNCTIONS);
+		functionsVersion = FUNCTIONS_VERSIONS.incrementAndGet();
+	}
+
+	/**
+	 * Returns the functions registry of this evaluator, copying it first if it is shared.
+	 *
+	 * @return The functions registry, that can be modified.
+	 */
+
+	private Map<String, Function> getEditableFunctions() {
+		if(functionsShared) {
+			functions = new HashMap<>(functions);
+			functionsShared = false;
+		}
+
+		return functions;
+	}
+
+	/**
+	 * Creates the default functions registry.
+	 *
+	 * @return The default functions registry.
+	 */
+
+	private static Map<String, Function> createDefaultFunctions() {
+		final Map<String, Function> functions = new HashMap<>();
+		for(final Function function : new Function[]{
+				new ExpFunction(),
+				new LogFunction(),
+				new Log10Function(),
+				new Log2Function(),
+
+				new SqrtFunction(),
+				new RootFunction(),
+
+				new AbsFunction(),
+				new BernoulliFunction(),
+				new CeilingFunction(),
+				new FactorialFunction(),
+				new FloorFunction(),
+				new MaxFunction(),
+				new MinFunction(),
+				new RandomFunction(),
+
+				new CosFunction(),
+				new SinFunction(),
+				new TanFunction(),
+
+				new CosHFunction(),
+				new SinHFunction(),
+				new TanHFunction(),
+
+				new ACosFunction(),
+				new ASinFunction(),
+				new ATanFunction(),
+
+				new ACosHFunction(),
+				new ASinHFunction(),
+				new ATanHFunction()
+		}) {
+			functions.put(function.getIdentifier(), function);
+		}
+
+		return Collections.unmodifiableMap(functions);
 	}
 
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.io.Serializable;
 
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.language.Translatable;
 
 /**
@@ -62,6 +63,14 @@ public abstract class Atom<T extends Comparable<T>> implements Comparable<Atom>,
 		return this;
 	}
 
+	/**
+	 * Binds the variable identifier held by this atom (if any) to the given slots table.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	public void resolve(final VariableSlots slots) {}
+
 	/**
 	 * Checks if a given atom has the same type as the current one.
 	 *
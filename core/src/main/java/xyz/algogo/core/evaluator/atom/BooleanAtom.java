@@ -50,6 +50,50 @@ public class BooleanAtom extends NumberAtom {
 		super.setValue(value ? BigDecimal.ONE : BigDecimal.ZERO);
 	}
 
+	/**
+	 * Returns the boolean atom constant that corresponds to the given value.
+	 *
+	 * @param value The value.
+	 *
+	 * @return <b>BooleanAtom.TRUE</b> or <b>BooleanAtom.FALSE</b>.
+	 */
+
+	public static BooleanAtom valueOf(final boolean value) {
+		return value ? TRUE : FALSE;
+	}
+
+	/**
+	 * Checks whether the given atom is considered as <b>true</b> (that is, whether its value is exactly <b>BigDecimal.ONE</b>).
+	 *
+	 * @param atom The atom.
+	 *
+	 * @return Whether the given atom is true.
+	 */
+
+	public static boolean isTrue(final Atom atom) {
+		if(atom instanceof NumberAtom && ((NumberAtom)atom).isLong()) {
+			return ((NumberAtom)atom).getLongValue() == 1L;
+		}
+
+		return BigDecimal.ONE.equals(atom.getValue());
+	}
+
+	/**
+	 * Checks whether the given atom is considered as <b>false</b> (that is, whether its value is exactly <b>BigDecimal.ZERO</b>).
+	 *
+	 * @param atom The atom.
+	 *
+	 * @return Whether the given atom is false.
+	 */
+
+	public static boolean isFalse(final Atom atom) {
+		if(atom instanceof NumberAtom && ((NumberAtom)atom).isLong()) {
+			return ((NumberAtom)atom).getLongValue() == 0L;
+		}
+
+		return BigDecimal.ZERO.equals(atom.getValue());
+	}
+
 	@Override
 	public BooleanAtom copy() {
 		return new BooleanAtom(getBooleanValue());
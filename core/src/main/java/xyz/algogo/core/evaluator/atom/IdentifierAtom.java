@@ -5,6 +5,8 @@ import java.math.BigDecimal;
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.evaluator.variable.VariableType;
 
 /**
@@ -13,6 +15,12 @@ import xyz.algogo.core.evaluator.variable.VariableType;
 
 public class IdentifierAtom extends StringAtom {
 
+	/**
+	 * The slot the identifier is bound to (if resolved).
+	 */
+
+	private VariableSlot slot;
+
 	/**
 	 * Creates a new identifier atom.
 	 *
@@ -23,23 +31,35 @@ public class IdentifierAtom extends StringAtom {
 		super(value);
 	}
 
+	@Override
+	public void setValue(final String value) {
+		super.setValue(value);
+		slot = null;
+	}
+
 	@Override
 	public Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Variable variable = evaluator.getVariable(this.getValue());
+		final Variable variable = slot == null ? evaluator.getVariable(this.getValue()) : evaluator.getVariable(slot);
 		if(variable == null) {
 			return null;
 		}
 
 		if(variable.getType() == VariableType.NUMBER) {
-			return new NumberAtom(((BigDecimal)variable.getValue()).round(context.getMathContext()));
+			final NumberAtom number = variable.getNumber();
+			return number == null ? new NumberAtom(((BigDecimal)variable.getValue()).round(context.getMathContext())) : number.round(context.getMathContext());
 		}
 
 		return new StringAtom((String)variable.getValue());
 	}
 
+	@Override
+	public void resolve(final VariableSlots slots) {
+		slot = slots.bind(this.getValue());
+	}
+
 	@Override
 	public IdentifierAtom copy() {
 		return new IdentifierAtom(this.getValue());
 	}
 
-}
\ No newline at end of file
+}
@@ -1,19 +1,47 @@
 package xyz.algogo.core.evaluator.atom;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 
 /**
  * Represents a number atom that holds a BigDecimal value.
+ * <br>Integral values that fit in a long are also held as a primitive long, so that common integer arithmetic does not need any BigDecimal.
+ * The BigDecimal value is then only created when it is requested. Results are promoted to BigDecimal as soon as they are not integral or would be rounded by the math context.
  */
 
 public class NumberAtom extends Atom<BigDecimal> {
 
+	/**
+	 * Powers of ten, used to check whether a long fits in a given precision.
+	 */
+
+	private static final long[] POWERS_OF_TEN = new long[19];
+
+	static {
+		POWERS_OF_TEN[0] = 1L;
+		for(int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10L;
+		}
+	}
+
 	/**
 	 * A number atom that is holding the <b>BigDecimal.ZERO</b> value.
 	 */
 
 	public static final NumberAtom ZERO = new NumberAtom(BigDecimal.ZERO);
 
+	/**
+	 * Whether the value is held as a long.
+	 */
+
+	private boolean isLong;
+
+	/**
+	 * The long value (only relevant if <em>isLong</em> is true).
+	 */
+
+	private long longValue;
+
 	/**
 	 * Creates a new number atom.
 	 *
@@ -21,7 +49,20 @@ public class NumberAtom extends Atom<BigDecimal> {
 	 */
 
 	public NumberAtom(final int value) {
-		this(new BigDecimal(String.valueOf(value)));
+		this((long)value);
+	}
+
+	/**
+	 * Creates a new number atom.
+	 *
+	 * @param value A long value.
+	 */
+
+	public NumberAtom(final long value) {
+		super(null);
+
+		this.isLong = true;
+		this.longValue = value;
 	}
 
 	/**
@@ -42,6 +83,210 @@ public class NumberAtom extends Atom<BigDecimal> {
 
 	public NumberAtom(final BigDecimal value) {
 		super(value);
+
+		setLongValue(value);
+	}
+
+	@Override
+	public BigDecimal getValue() {
+		BigDecimal value = super.getValue();
+		if(value == null && isLong) {
+			value = BigDecimal.valueOf(longValue);
+			super.setValue(value);
+		}
+
+		return value;
+	}
+
+	@Override
+	public void setValue(final BigDecimal value) {
+		super.setValue(value);
+
+		setLongValue(value);
+	}
+
+	/**
+	 * Returns whether the value is held as a long.
+	 *
+	 * @return Whether the value is held as a long.
+	 */
+
+	public final boolean isLong() {
+		return isLong;
+	}
+
+	/**
+	 * Returns the long value. Only relevant if <em>isLong()</em> returns true.
+	 *
+	 * @return The long value.
+	 */
+
+	public final long getLongValue() {
+		return longValue;
+	}
+
+	/**
+	 * Returns the number of digits of this number when it is written without any exponent (the sign and the leading zero are not counted).
+	 *
+	 * @return The number of digits.
+	 */
+
+	public long getDigitCount() {
+		if(isLong) {
+			int digits = 1;
+			while(digits < POWERS_OF_TEN.length && (longValue >= POWERS_OF_TEN[digits] || longValue <= -POWERS_OF_TEN[digits])) {
+				digits++;
+			}
+			return digits;
+		}
+
+		final BigDecimal value = getValue();
+		final long precision = value.precision();
+		final long scale = value.scale();
+		return scale <= 0 ? precision - scale : Math.max(precision, scale);
+	}
+
+	/**
+	 * Rounds this number according to the given math context.
+	 *
+	 * @param mathContext The math context.
+	 *
+	 * @return The rounded number (may be this atom if no rounding is needed).
+	 */
+
+	public NumberAtom round(final MathContext mathContext) {
+		if(isLong && fits(longValue, mathContext)) {
+			return this;
+		}
+
+		return new NumberAtom(getValue().round(mathContext));
+	}
+
+	/**
+	 * Adds a number to this one.
+	 *
+	 * @param number The number to add.
+	 * @param mathContext The math context.
+	 *
+	 * @return The result.
+	 */
+
+	public NumberAtom add(final NumberAtom number, final MathContext mathContext) {
+		if(isLong && number.isLong) {
+			final long result = longValue + number.longValue;
+			if(((longValue ^ result) & (number.longValue ^ result)) >= 0 && fits(result, mathContext)) {
+				return new NumberAtom(result);
+			}
+		}
+
+		return new NumberAtom(getValue().add(number.getValue(), mathContext));
+	}
+
+	/**
+	 * Subtracts a number from this one.
+	 *
+	 * @param number The number to subtract.
+	 * @param mathContext The math context.
+	 *
+	 * @return The result.
+	 */
+
+	public NumberAtom subtract(final NumberAtom number, final MathContext mathContext) {
+		if(isLong && number.isLong) {
+			final long result = longValue - number.longValue;
+			if(((longValue ^ number.longValue) & (longValue ^ result)) >= 0 && fits(result, mathContext)) {
+				return new NumberAtom(result);
+			}
+		}
+
+		return new NumberAtom(getValue().subtract(number.getValue(), mathContext));
+	}
+
+	/**
+	 * Multiplies this number by another one.
+	 *
+	 * @param number The number.
+	 * @param mathContext The math context.
+	 *
+	 * @return The result.
+	 */
+
+	public NumberAtom multiply(final NumberAtom number, final MathContext mathContext) {
+		if(isLong && number.isLong) {
+			final long left = longValue;
+			final long right = number.longValue;
+			final long result = left * right;
+			final boolean overflow = ((Math.abs(left) | Math.abs(right)) >>> 31 != 0) && ((right != 0 && result / right != left) || (left == Long.MIN_VALUE && right == -1));
+			if(!overflow && fits(result, mathContext)) {
+				return new NumberAtom(result);
+			}
+		}
+
+		return new NumberAtom(getValue().multiply(number.getValue(), mathContext));
+	}
+
+	/**
+	 * Divides this number by another one.
+	 *
+	 * @param number The divisor.
+	 * @param mathContext The math context.
+	 *
+	 * @return The result.
+	 */
+
+	public NumberAtom divide(final NumberAtom number, final MathContext mathContext) {
+		if(isLong && number.isLong && isExactlyDivisible(number)) {
+			final long result = longValue / number.longValue;
+			if(fits(result, mathContext)) {
+				return new NumberAtom(result);
+			}
+		}
+
+		return new NumberAtom(getValue().divide(number.getValue(), mathContext));
+	}
+
+	/**
+	 * Calculates the remainder of the division of this number by another one.
+	 *
+	 * @param number The divisor.
+	 * @param mathContext The math context.
+	 *
+	 * @return The result.
+	 */
+
+	public NumberAtom remainder(final NumberAtom number, final MathContext mathContext) {
+		if(isLong && number.isLong && number.longValue != 0 && !(longValue == Long.MIN_VALUE && number.longValue == -1) && fits(longValue / number.longValue, mathContext)) {
+			return new NumberAtom(longValue % number.longValue);
+		}
+
+		return new NumberAtom(getValue().remainder(number.getValue(), mathContext));
+	}
+
+	/**
+	 * Negates this number.
+	 *
+	 * @return The result.
+	 */
+
+	public NumberAtom negate() {
+		if(isLong && longValue != Long.MIN_VALUE) {
+			return new NumberAtom(-longValue);
+		}
+
+		return new NumberAtom(getValue().negate());
+	}
+
+	@Override
+	public int compareTo(final Atom atom) {
+		if(isLong && atom instanceof NumberAtom && ((NumberAtom)atom).isLong) {
+			return Long.compare(longValue, ((NumberAtom)atom).longValue);
+		}
+
+		if(!hasSameType(atom)) {
+			return -1;
+		}
+
+		return getValue().compareTo((BigDecimal)atom.getValue());
 	}
 
 	@Override
@@ -54,6 +299,53 @@ public class NumberAtom extends Atom<BigDecimal> {
 		return new NumberAtom(new BigDecimal(this.getValue().toString()));
 	}
 
+	/**
+	 * Checks whether this number can be exactly divided by the given one, without any loss.
+	 *
+	 * @param number The divisor.
+	 *
+	 * @return Whether this number can be exactly divided by the given one.
+	 */
+
+	private boolean isExactlyDivisible(final NumberAtom number) {
+		return number.longValue != 0 && !(longValue == Long.MIN_VALUE && number.longValue == -1) && longValue % number.longValue == 0;
+	}
+
+	/**
+	 * Updates the long representation according to the given BigDecimal value.
+	 *
+	 * @param value The BigDecimal value.
+	 */
+
+	private void setLongValue(final BigDecimal value) {
+		isLong = value != null && value.scale() == 0 && value.precision() < POWERS_OF_TEN.length;
+		longValue = isLong ? value.longValue() : 0L;
+	}
+
+	/**
+	 * Checks whether the given atom is a number atom that holds a value. This implies <em>hasNumberType(Atom)</em>.
+	 *
+	 * @param atom The given atom.
+	 *
+	 * @return Whether the given atom is a number atom that holds a value.
+	 */
+
+	public static boolean isNumber(final Atom atom) {
+		return atom instanceof NumberAtom && (((NumberAtom)atom).isLong || atom.getValue() != null);
+	}
+
+	/**
+	 * Checks whether the given atom is a number atom that holds a long value (see <em>isLong()</em>).
+	 *
+	 * @param atom The given atom.
+	 *
+	 * @return Whether the given atom is a number atom that holds a long value.
+	 */
+
+	public static boolean hasLongValue(final Atom atom) {
+		return atom instanceof NumberAtom && ((NumberAtom)atom).isLong;
+	}
+
 	/**
 	 * Checks whether the given atom has a number type.
 	 * <br>In fact, we check if the value of the provided atom is an instance of BigDecimal.
@@ -64,7 +356,42 @@ public class NumberAtom extends Atom<BigDecimal> {
 	 */
 
 	public static boolean hasNumberType(final Atom atom) {
+		if(atom instanceof NumberAtom && ((NumberAtom)atom).isLong) {
+			return true;
+		}
+
 		return atom != null && atom.getValue() instanceof BigDecimal;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Converts an atom that has a number type to a number atom.
+	 *
+	 * @param atom The atom.
+	 *
+	 * @return The number atom.
+	 */
+
+	public static NumberAtom valueOf(final Atom atom) {
+		return atom instanceof NumberAtom ? (NumberAtom)atom : new NumberAtom((BigDecimal)atom.getValue());
+	}
+
+	/**
+	 * Checks whether an integral value has no more digits than the given math context precision (which means that it would not be rounded).
+	 *
+	 * @param value The value.
+	 * @param mathContext The math context.
+	 *
+	 * @return Whether the value would be left untouched by the math context.
+	 */
+
+	public static boolean fits(final long value, final MathContext mathContext) {
+		final int precision = mathContext.getPrecision();
+		if(precision == 0 || precision >= POWERS_OF_TEN.length) {
+			return true;
+		}
+
+		final long limit = POWERS_OF_TEN[precision];
+		return -limit < value && value < limit;
+	}
+
+}
@@ -0,0 +1,25 @@
+package xyz.algogo.core.evaluator.context;
+
+import java.util.concurrent.CompletableFuture;
+
+import xyz.algogo.core.statement.Statement;
+
+/**
+ * Asynchronous input listener interface.
+ * <br>Unlike an <em>InputListener</em>, it does not block the evaluating thread : an algorithm evaluated with <em>Algorithm.evaluateAsync(...)</em> is suspended until the returned future is completed.
+ */
+
+public interface AsyncInputListener {
+
+	/**
+	 * Asks user for input.
+	 *
+	 * @param source Source statement.
+	 * @param arguments Arguments provided by statement.
+	 *
+	 * @return A future that is completed with the user input.
+	 */
+
+	CompletableFuture<?> input(final Statement source, final Object... arguments);
+
+}
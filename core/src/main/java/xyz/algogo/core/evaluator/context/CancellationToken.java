@@ -0,0 +1,149 @@
+package xyz.algogo.core.evaluator.context;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Allows to stop, pause and resume an evaluation from another thread.
+ * <br>The state is held by a volatile field (no lock is taken), so checking it costs a single read.
+ * Only one thread is expected to evaluate with a given token at a time (it is the one that waits while the token is paused).
+ */
+
+public class CancellationToken {
+
+	/**
+	 * The evaluation is running.
+	 */
+
+	private static final int RUNNING = 0;
+
+	/**
+	 * The evaluation is paused.
+	 */
+
+	private static final int PAUSED = 1;
+
+	/**
+	 * The evaluation has been cancelled.
+	 */
+
+	private static final int CANCELLED = 2;
+
+	/**
+	 * Allows to atomically update the state.
+	 */
+
+	private static final AtomicIntegerFieldUpdater<CancellationToken> STATE = AtomicIntegerFieldUpdater.newUpdater(CancellationToken.class, "state");
+
+	/**
+	 * The current state.
+	 */
+
+	private volatile int state = RUNNING;
+
+	/**
+	 * The thread that is currently waiting for this token to be resumed (if any).
+	 */
+
+	private volatile Thread waiter;
+
+	/**
+	 * Cancels the evaluation. This also wakes up the evaluation if it is paused.
+	 */
+
+	public void cancel() {
+		state = CANCELLED;
+		wakeUp();
+	}
+
+	/**
+	 * Pauses the evaluation (it will wait at its next checkpoint). Does nothing if the evaluation has been cancelled.
+	 *
+	 * @return Whether the evaluation has been paused by this call.
+	 */
+
+	public boolean pause() {
+		return STATE.compareAndSet(this, RUNNING, PAUSED);
+	}
+
+	/**
+	 * Resumes the evaluation if it is paused.
+	 *
+	 * @return Whether the evaluation has been resumed by this call.
+	 */
+
+	public boolean resume() {
+		if(!STATE.compareAndSet(this, PAUSED, RUNNING)) {
+			return false;
+		}
+
+		wakeUp();
+		return true;
+	}
+
+	/**
+	 * Puts this token back in its running state, so that it can be reused for another evaluation.
+	 */
+
+	public void reset() {
+		state = RUNNING;
+		wakeUp();
+	}
+
+	/**
+	 * Checks whether the evaluation has been cancelled.
+	 *
+	 * @return Whether the evaluation has been cancelled.
+	 */
+
+	public boolean isCancelled() {
+		return state == CANCELLED;
+	}
+
+	/**
+	 * Checks whether the evaluation is paused.
+	 *
+	 * @return Whether the evaluation is paused.
+	 */
+
+	public boolean isPaused() {
+		return state == PAUSED;
+	}
+
+	/**
+	 * Called by the evaluating thread : waits while this token is paused and then tells whether the evaluation should stop.
+	 * <br>If the thread is interrupted while waiting, the evaluation is stopped.
+	 *
+	 * @return Whether the evaluation should stop.
+	 */
+
+	public boolean checkpoint() {
+		int state = this.state;
+		if(state == RUNNING) {
+			return false;
+		}
+
+		if(state == PAUSED) {
+			final Thread thread = Thread.currentThread();
+			waiter = thread;
+			while((state = this.state) == PAUSED && !thread.isInterrupted()) {
+				LockSupport.park(this);
+			}
+			waiter = null;
+		}
+
+		return state != RUNNING;
+	}
+
+	/**
+	 * Wakes up the waiting thread (if any).
+	 */
+
+	private void wakeUp() {
+		final Thread waiter = this.waiter;
+		if(waiter != null) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+}
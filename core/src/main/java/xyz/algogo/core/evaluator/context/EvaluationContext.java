@@ -1,19 +1,50 @@
 package xyz.algogo.core.evaluator.context;
 
 import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.function.FunctionCache;
+import xyz.algogo.core.exception.DigitBudgetExceededException;
+import xyz.algogo.core.exception.OutputBudgetExceededException;
+import xyz.algogo.core.exception.StatementBudgetExceededException;
+import xyz.algogo.core.exception.StringLengthBudgetExceededException;
+import xyz.algogo.core.exception.TimeBudgetExceededException;
+import xyz.algogo.core.profiler.Profiler;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.trace.TraceRecorder;
+import xyz.algogo.core.vm.ExecutionSnapshot;
 
 /**
  * Represents an evaluation context.
+ * <br>A context can bound its evaluation with budgets (executed statements, time, output bytes, string length and number of digits).
+ * When a budget is exceeded, the evaluation ends with the corresponding <em>BudgetExceededException</em>. There is no limit by default.
  */
 
 public class EvaluationContext {
 
+	/**
+	 * The default number of statements between two polls of the cancellation token.
+	 */
+
+	public static final int DEFAULT_POLL_INTERVAL = 64;
+
 	/**
 	 * The current input listener.
 	 */
 
 	private InputListener inputListener;
 
+	/**
+	 * The asynchronous input listener (<b>null</b> to use the input listener).
+	 */
+
+	private AsyncInputListener asyncInputListener;
+
 	/**
 	 * The current output listener.
 	 */
@@ -21,10 +52,82 @@ public class EvaluationContext {
 	private OutputListener outputListener;
 
 	/**
-	 * Whether the current evaluation should be stopped.
+	 * The token that allows to stop, pause and resume the current evaluation.
+	 */
+
+	private CancellationToken cancellationToken = new CancellationToken();
+
+	/**
+	 * The number of statements between two polls of the cancellation token.
+	 */
+
+	private int pollInterval = DEFAULT_POLL_INTERVAL;
+
+	/**
+	 * The number of statements remaining before the next poll (only used by the evaluating thread).
+	 */
+
+	private int pollCountdown = DEFAULT_POLL_INTERVAL;
+
+	/**
+	 * The value of the countdown at the beginning of the current poll period.
+	 */
+
+	private int pollPeriod = DEFAULT_POLL_INTERVAL;
+
+	/**
+	 * The number of statements executed before the current poll period.
+	 */
+
+	private long executedStatements = 0L;
+
+	/**
+	 * The maximum number of executed statements.
+	 */
+
+	private long maximumStatements = Long.MAX_VALUE;
+
+	/**
+	 * The allowed time (in milliseconds, zero if there is no limit).
+	 */
+
+	private long timeout = 0L;
+
+	/**
+	 * The deadline of the current evaluation (as given by <em>System.nanoTime()</em>, see <em>startEvaluation()</em>).
+	 */
+
+	private long deadline = 0L;
+
+	/**
+	 * The number of output bytes.
+	 */
+
+	private long outputBytes = 0L;
+
+	/**
+	 * The number of inputs that have been consumed.
+	 */
+
+	private long consumedInputs = 0L;
+
+	/**
+	 * The maximum number of output bytes.
+	 */
+
+	private long maximumOutputBytes = Long.MAX_VALUE;
+
+	/**
+	 * The maximum string length.
 	 */
 
-	private boolean isStopped = false;
+	private int maximumStringLength = Integer.MAX_VALUE;
+
+	/**
+	 * The maximum number of digits of a number.
+	 */
+
+	private int maximumDigits = Integer.MAX_VALUE;
 
 	/**
 	 * The current math context.
@@ -32,6 +135,66 @@ public class EvaluationContext {
 
 	private MathContext mathContext;
 
+	/**
+	 * The cache of function results (disabled if <b>null</b>).
+	 */
+
+	private FunctionCache functionCache;
+
+	/**
+	 * The engine that executes algorithms.
+	 */
+
+	private ExecutionEngine executionEngine = ExecutionEngine.TREE_WALKER;
+
+	/**
+	 * The random numbers generator of the evaluation (created when first needed).
+	 */
+
+	private Random random;
+
+	/**
+	 * The profiler of the evaluation (profiling is disabled if <b>null</b>).
+	 */
+
+	private Profiler profiler;
+
+	/**
+	 * The trace recorder of the evaluation (tracing is disabled if <b>null</b>).
+	 */
+
+	private TraceRecorder traceRecorder;
+
+	/**
+	 * The snapshot listener of the evaluation (snapshots are disabled if <b>null</b>).
+	 */
+
+	private SnapshotListener snapshotListener;
+
+	/**
+	 * The time between two periodic snapshots (in milliseconds, zero if snapshots are only taken on demand).
+	 */
+
+	private long snapshotInterval = 0L;
+
+	/**
+	 * The time of the next periodic snapshot (see <em>System.nanoTime()</em>).
+	 */
+
+	private long nextSnapshot = 0L;
+
+	/**
+	 * Whether a snapshot has been requested by another thread.
+	 */
+
+	private volatile boolean snapshotRequested = false;
+
+	/**
+	 * Whether a snapshot should be taken at the next statement boundary (only used by the evaluating thread).
+	 */
+
+	private boolean snapshotDue = false;
+
 	/**
 	 * Creates a new evaluation context.
 	 */
@@ -85,6 +248,31 @@ public class EvaluationContext {
 		this.inputListener = inputListener;
 	}
 
+	/**
+	 * Returns the asynchronous input listener (used by <em>Algorithm.evaluateAsync(...)</em>).
+	 * <br>If none has been set, the input listener is wrapped so that it returns already completed futures.
+	 *
+	 * @return The asynchronous input listener.
+	 */
+
+	public AsyncInputListener getAsyncInputListener() {
+		if(asyncInputListener == null) {
+			return (source, arguments) -> CompletableFuture.completedFuture(inputListener.input(source, arguments));
+		}
+
+		return asyncInputListener;
+	}
+
+	/**
+	 * Sets the asynchronous input listener. It is only used by <em>Algorithm.evaluateAsync(...)</em>, synchronous evaluations still use the input listener.
+	 *
+	 * @param asyncInputListener The asynchronous input listener (<b>null</b> to use the input listener).
+	 */
+
+	public void setAsyncInputListener(final AsyncInputListener asyncInputListener) {
+		this.asyncInputListener = asyncInputListener;
+	}
+
 	/**
 	 * Returns the current output listener.
 	 *
@@ -111,18 +299,379 @@ public class EvaluationContext {
 	 * @return Whether the current evaluation should be stopped.
 	 */
 
-	public synchronized boolean isStopped() {
-		return isStopped;
+	public boolean isStopped() {
+		return cancellationToken.isCancelled();
 	}
 
 	/**
-	 * Sets whether the current evaluation should be stopped.
+	 * Sets whether the current evaluation should be stopped. Can be called from any thread.
 	 *
 	 * @param isStopped Whether the current evaluation should be stopped.
 	 */
 
-	public synchronized void setStopped(final boolean isStopped) {
-		this.isStopped = isStopped;
+	public void setStopped(final boolean isStopped) {
+		if(isStopped) {
+			cancellationToken.cancel();
+		}
+		else {
+			cancellationToken.reset();
+		}
+	}
+
+	/**
+	 * Returns the token that allows to stop, pause and resume the current evaluation.
+	 *
+	 * @return The cancellation token.
+	 */
+
+	public CancellationToken getCancellationToken() {
+		return cancellationToken;
+	}
+
+	/**
+	 * Sets the token that allows to stop, pause and resume the current evaluation (it may be shared between several contexts).
+	 *
+	 * @param cancellationToken The cancellation token.
+	 */
+
+	public void setCancellationToken(final CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
+
+	/**
+	 * Returns the number of statements between two polls of the cancellation token.
+	 *
+	 * @return The number of statements between two polls.
+	 */
+
+	public int getPollInterval() {
+		return pollInterval;
+	}
+
+	/**
+	 * Sets the number of statements between two polls of the cancellation token (the deadline is checked at the same time).
+	 * <br>Higher values make the evaluation a little faster but increase the number of statements that are run after a stop or a pause request.
+	 *
+	 * @param pollInterval The number of statements between two polls.
+	 */
+
+	public void setPollInterval(final int pollInterval) {
+		if(pollInterval <= 0) {
+			throw new IllegalArgumentException("The poll interval must be positive.");
+		}
+
+		this.pollInterval = pollInterval;
+		countPolls();
+		schedulePoll();
+	}
+
+	/**
+	 * Called by the evaluating thread after each statement (and at each loop iteration).
+	 * <br>The cancellation token is only checked every <em>getPollInterval()</em> calls. If it is paused, waits until it is resumed or cancelled.
+	 * Once a stop has been detected, every subsequent call checks the token so that all the enclosing blocks stop as well.
+	 *
+	 * @return Whether the evaluation should stop.
+	 *
+	 * @throws StatementBudgetExceededException If too many statements have been executed.
+	 * @throws TimeBudgetExceededException If the deadline has passed.
+	 */
+
+	public boolean poll() {
+		if(--pollCountdown > 0) {
+			return false;
+		}
+
+		return checkpoint();
+	}
+
+	/**
+	 * Immediately checks the cancellation token (waits if it is paused) and the budgets. Should be called before blocking operations, like inputs.
+	 *
+	 * @return Whether the evaluation should stop.
+	 *
+	 * @throws StatementBudgetExceededException If too many statements have been executed.
+	 * @throws TimeBudgetExceededException If the deadline has passed.
+	 */
+
+	public boolean checkpoint() {
+		countPolls();
+		if(cancellationToken.checkpoint()) {
+			pollPeriod = 0;
+			pollCountdown = 0;
+			return true;
+		}
+
+		if(executedStatements > maximumStatements) {
+			throw new StatementBudgetExceededException(maximumStatements);
+		}
+
+		if(timeout > 0L && System.nanoTime() - deadline > 0L) {
+			throw new TimeBudgetExceededException(timeout);
+		}
+
+		if(snapshotListener != null && (snapshotRequested || (snapshotInterval > 0L && System.nanoTime() - nextSnapshot > 0L))) {
+			snapshotDue = true;
+		}
+
+		schedulePoll();
+		return false;
+	}
+
+	/**
+	 * Returns the number of statements (and loop iterations) that have been executed with this context.
+	 *
+	 * @return The number of executed statements.
+	 */
+
+	public long getExecutedStatements() {
+		return executedStatements + pollPeriod - Math.max(pollCountdown, 0);
+	}
+
+	/**
+	 * Returns the maximum number of statements (and loop iterations) that can be executed with this context.
+	 *
+	 * @return The maximum number of executed statements (<em>Long.MAX_VALUE</em> if there is no limit).
+	 */
+
+	public long getMaximumStatements() {
+		return maximumStatements;
+	}
+
+	/**
+	 * Sets the maximum number of statements (and loop iterations) that can be executed with this context.
+	 * <br>Exceeding it ends the evaluation with a <em>StatementBudgetExceededException</em>.
+	 *
+	 * @param maximumStatements The maximum number of executed statements (<em>Long.MAX_VALUE</em> for no limit).
+	 */
+
+	public void setMaximumStatements(final long maximumStatements) {
+		if(maximumStatements < 0L) {
+			throw new IllegalArgumentException("The maximum number of statements must not be negative.");
+		}
+
+		this.maximumStatements = maximumStatements;
+		countPolls();
+		schedulePoll();
+	}
+
+	/**
+	 * Returns the time the evaluation is allowed to take.
+	 *
+	 * @return The allowed time (in milliseconds, zero if there is no limit).
+	 */
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Sets the time each evaluation is allowed to take, counted from its start (see <em>startEvaluation()</em>). The deadline is checked every <em>getPollInterval()</em> statements.
+	 * <br>Exceeding it ends the evaluation with a <em>TimeBudgetExceededException</em>.
+	 *
+	 * @param timeout The allowed time (in milliseconds, zero for no limit).
+	 */
+
+	public void setTimeout(final long timeout) {
+		if(timeout < 0L) {
+			throw new IllegalArgumentException("The timeout must not be negative.");
+		}
+
+		this.timeout = timeout;
+		// Also counted from now, for statements that are evaluated directly.
+		this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+	}
+
+	/**
+	 * Called when an evaluation starts (see <em>Algorithm.evaluate(EvaluationContext)</em>) : the counters (executed statements, output bytes and consumed inputs) are reset, and the timeout and the first periodic snapshot are counted from now.
+	 * <br>So the time spent before the evaluation does not count against the budget, and a context can be reused for several evaluations. A resumed evaluation then restores the counters of its snapshot (see <em>restore(ExecutionSnapshot)</em>).
+	 */
+
+	public void startEvaluation() {
+		executedStatements = 0L;
+		outputBytes = 0L;
+		consumedInputs = 0L;
+		schedulePoll();
+
+		final long now = System.nanoTime();
+		deadline = now + TimeUnit.MILLISECONDS.toNanos(timeout);
+		nextSnapshot = now + TimeUnit.MILLISECONDS.toNanos(snapshotInterval);
+	}
+
+	/**
+	 * Returns the number of bytes (encoded in UTF-8) that have been output with this context.
+	 *
+	 * @return The number of output bytes.
+	 */
+
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	/**
+	 * Returns the number of inputs that have been consumed with this context (by <em>PROMPT</em> statements).
+	 * <br>A scripted input listener can use it as its position, so that it stays consistent when an evaluation is resumed from a snapshot.
+	 *
+	 * @return The number of consumed inputs.
+	 */
+
+	public long getConsumedInputs() {
+		return consumedInputs;
+	}
+
+	/**
+	 * Counts an input that has been consumed.
+	 */
+
+	public void countInput() {
+		consumedInputs++;
+	}
+
+	/**
+	 * Returns the maximum number of bytes (encoded in UTF-8) that can be output with this context.
+	 *
+	 * @return The maximum number of output bytes (<em>Long.MAX_VALUE</em> if there is no limit).
+	 */
+
+	public long getMaximumOutputBytes() {
+		return maximumOutputBytes;
+	}
+
+	/**
+	 * Sets the maximum number of bytes (encoded in UTF-8) that can be output with this context.
+	 * <br>Exceeding it ends the evaluation with an <em>OutputBudgetExceededException</em> (the content that exceeds it is not output).
+	 *
+	 * @param maximumOutputBytes The maximum number of output bytes (<em>Long.MAX_VALUE</em> for no limit).
+	 */
+
+	public void setMaximumOutputBytes(final long maximumOutputBytes) {
+		if(maximumOutputBytes < 0L) {
+			throw new IllegalArgumentException("The maximum number of output bytes must not be negative.");
+		}
+
+		this.maximumOutputBytes = maximumOutputBytes;
+	}
+
+	/**
+	 * Outputs some content with the current output listener, counting it in the output budget.
+	 *
+	 * @param source The source statement.
+	 * @param content The content.
+	 *
+	 * @throws OutputBudgetExceededException If the content would exceed the output budget.
+	 */
+
+	public void output(final Statement source, final String content) {
+		final long outputBytes = this.outputBytes + getUTF8Length(content);
+		if(outputBytes > maximumOutputBytes) {
+			throw new OutputBudgetExceededException(maximumOutputBytes);
+		}
+
+		this.outputBytes = outputBytes;
+		if(traceRecorder != null) {
+			traceRecorder.output(content);
+		}
+		outputListener.output(source, content);
+	}
+
+	/**
+	 * Returns the maximum length of the strings created during the evaluation.
+	 *
+	 * @return The maximum string length (<em>Integer.MAX_VALUE</em> if there is no limit).
+	 */
+
+	public int getMaximumStringLength() {
+		return maximumStringLength;
+	}
+
+	/**
+	 * Sets the maximum length of the strings created during the evaluation (by concatenations and inputs).
+	 * <br>Exceeding it ends the evaluation with a <em>StringLengthBudgetExceededException</em>.
+	 *
+	 * @param maximumStringLength The maximum string length (<em>Integer.MAX_VALUE</em> for no limit).
+	 */
+
+	public void setMaximumStringLength(final int maximumStringLength) {
+		if(maximumStringLength < 0) {
+			throw new IllegalArgumentException("The maximum string length must not be negative.");
+		}
+
+		this.maximumStringLength = maximumStringLength;
+	}
+
+	/**
+	 * Checks the length of a string that is about to be created.
+	 *
+	 * @param length The string length.
+	 *
+	 * @throws StringLengthBudgetExceededException If the length exceeds the string length budget.
+	 */
+
+	public void checkStringLength(final long length) {
+		if(length > maximumStringLength) {
+			throw new StringLengthBudgetExceededException(maximumStringLength);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of digits of the numbers created during the evaluation.
+	 *
+	 * @return The maximum number of digits (<em>Integer.MAX_VALUE</em> if there is no limit).
+	 */
+
+	public int getMaximumDigits() {
+		return maximumDigits;
+	}
+
+	/**
+	 * Sets the maximum number of digits of the numbers created during the evaluation (see <em>NumberAtom.getDigitCount()</em>).
+	 * <br>Exceeding it ends the evaluation with a <em>DigitBudgetExceededException</em>.
+	 *
+	 * @param maximumDigits The maximum number of digits (<em>Integer.MAX_VALUE</em> for no limit).
+	 */
+
+	public void setMaximumDigits(final int maximumDigits) {
+		if(maximumDigits <= 0) {
+			throw new IllegalArgumentException("The maximum number of digits must be positive.");
+		}
+
+		this.maximumDigits = maximumDigits;
+	}
+
+	/**
+	 * Checks the number of digits of a number that is about to be created.
+	 *
+	 * @param digits The number of digits.
+	 *
+	 * @throws DigitBudgetExceededException If the number of digits exceeds the digit budget.
+	 */
+
+	public void checkDigits(final long digits) {
+		if(digits > maximumDigits) {
+			throw new DigitBudgetExceededException(maximumDigits);
+		}
+	}
+
+	/**
+	 * Checks a value created during the evaluation against the string length and the digit budgets.
+	 *
+	 * @param atom The value.
+	 * @param <T> The atom type.
+	 *
+	 * @return The value.
+	 *
+	 * @throws StringLengthBudgetExceededException If the value is a string that exceeds the string length budget.
+	 * @throws DigitBudgetExceededException If the value is a number that exceeds the digit budget.
+	 */
+
+	public <T extends Atom> T checkValue(final T atom) {
+		if(maximumDigits != Integer.MAX_VALUE && atom instanceof NumberAtom) {
+			checkDigits(((NumberAtom)atom).getDigitCount());
+		}
+		else if(maximumStringLength != Integer.MAX_VALUE && atom instanceof StringAtom) {
+			checkStringLength(((StringAtom)atom).getValue().length());
+		}
+
+		return atom;
 	}
 
 	/**
@@ -145,4 +694,265 @@ public class EvaluationContext {
 		this.mathContext = mathContext;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Returns the cache of function results.
+	 *
+	 * @return The cache of function results, or <b>null</b> if results are not cached.
+	 */
+
+	public FunctionCache getFunctionCache() {
+		return functionCache;
+	}
+
+	/**
+	 * Sets the cache of function results. Results are not cached by default.
+	 *
+	 * @param functionCache The cache of function results (<b>null</b> to disable caching).
+	 */
+
+	public void setFunctionCache(final FunctionCache functionCache) {
+		this.functionCache = functionCache;
+	}
+
+	/**
+	 * Returns the random numbers generator of the evaluation (used by the <em>RANDOM</em> function).
+	 * <br>Each context has its own generator, so that concurrent evaluations do not share it.
+	 *
+	 * @return The random numbers generator.
+	 */
+
+	public Random getRandom() {
+		if(random == null) {
+			random = new Random();
+		}
+
+		return random;
+	}
+
+	/**
+	 * Sets the random numbers generator of the evaluation (a seeded generator makes the evaluation reproducible).
+	 *
+	 * @param random The random numbers generator.
+	 */
+
+	public void setRandom(final Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Returns the profiler of the evaluation.
+	 *
+	 * @return The profiler, or <b>null</b> if profiling is disabled.
+	 */
+
+	public Profiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Sets the profiler of the evaluation. Statements and function calls are only recorded by the tree walker, so it is used whatever the execution engine is while profiling.
+	 *
+	 * @param profiler The profiler (<b>null</b> to disable profiling).
+	 */
+
+	public void setProfiler(final Profiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Returns the trace recorder of the evaluation.
+	 *
+	 * @return The trace recorder, or <b>null</b> if tracing is disabled.
+	 */
+
+	public TraceRecorder getTraceRecorder() {
+		return traceRecorder;
+	}
+
+	/**
+	 * Sets the trace recorder of the evaluation. Like profiling, tracing is done by the tree walker whatever the execution engine is.
+	 *
+	 * @param traceRecorder The trace recorder (<b>null</b> to disable tracing).
+	 */
+
+	public void setTraceRecorder(final TraceRecorder traceRecorder) {
+		this.traceRecorder = traceRecorder;
+	}
+
+	/**
+	 * Returns the snapshot listener of the evaluation.
+	 *
+	 * @return The snapshot listener, or <b>null</b> if snapshots are disabled.
+	 */
+
+	public SnapshotListener getSnapshotListener() {
+		return snapshotListener;
+	}
+
+	/**
+	 * Sets the snapshot listener of the evaluation. Snapshots are taken by the virtual machine, so it is used whatever the execution engine is (unless the evaluation is instrumented).
+	 * <br>An evaluation can be resumed from a snapshot with <em>Algorithm.resume(ExecutionSnapshot, EvaluationContext)</em>.
+	 *
+	 * @param snapshotListener The snapshot listener (<b>null</b> to disable snapshots).
+	 */
+
+	public void setSnapshotListener(final SnapshotListener snapshotListener) {
+		this.snapshotListener = snapshotListener;
+	}
+
+	/**
+	 * Returns the time between two periodic snapshots.
+	 *
+	 * @return The time between two snapshots (in milliseconds, zero if snapshots are only taken on demand).
+	 */
+
+	public long getSnapshotInterval() {
+		return snapshotInterval;
+	}
+
+	/**
+	 * Sets the time between two periodic snapshots, the first one being taken after this time. Like the deadline, it is checked every <em>getPollInterval()</em> statements.
+	 *
+	 * @param snapshotInterval The time between two snapshots (in milliseconds, zero to only take snapshots on demand).
+	 */
+
+	public void setSnapshotInterval(final long snapshotInterval) {
+		if(snapshotInterval < 0L) {
+			throw new IllegalArgumentException("The snapshot interval must not be negative.");
+		}
+
+		this.snapshotInterval = snapshotInterval;
+		this.nextSnapshot = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(snapshotInterval);
+	}
+
+	/**
+	 * Requests a snapshot, that is taken within <em>getPollInterval()</em> statements. Can be called from any thread.
+	 */
+
+	public void requestSnapshot() {
+		snapshotRequested = true;
+	}
+
+	/**
+	 * Returns whether a snapshot should be taken at the current statement boundary. Called by the virtual machine after each poll.
+	 *
+	 * @return Whether a snapshot is due.
+	 */
+
+	public boolean isSnapshotDue() {
+		return snapshotDue;
+	}
+
+	/**
+	 * Sends a snapshot that has just been taken to the snapshot listener, and schedules the next periodic one.
+	 *
+	 * @param snapshot The snapshot.
+	 */
+
+	public void snapshot(final ExecutionSnapshot snapshot) {
+		snapshotDue = false;
+		snapshotRequested = false;
+		nextSnapshot = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(snapshotInterval);
+		snapshotListener.snapshot(snapshot);
+	}
+
+	/**
+	 * Restores the counters (executed statements, output bytes and consumed inputs) and the random numbers generator saved in a snapshot.
+	 *
+	 * @param snapshot The snapshot.
+	 */
+
+	public void restore(final ExecutionSnapshot snapshot) {
+		countPolls();
+		executedStatements = snapshot.getExecutedStatements();
+		outputBytes = snapshot.getOutputBytes();
+		consumedInputs = snapshot.getConsumedInputs();
+
+		final Random random = snapshot.createRandom();
+		if(random != null) {
+			this.random = random;
+		}
+		schedulePoll();
+	}
+
+	/**
+	 * Returns whether the evaluation is instrumented (profiled or traced), in which case it must be done by the tree walker.
+	 *
+	 * @return Whether the evaluation is instrumented.
+	 */
+
+	public boolean isInstrumented() {
+		return profiler != null || traceRecorder != null;
+	}
+
+	/**
+	 * Returns the engine that executes algorithms with this context.
+	 *
+	 * @return The execution engine.
+	 */
+
+	public ExecutionEngine getExecutionEngine() {
+		return executionEngine;
+	}
+
+	/**
+	 * Sets the engine that executes algorithms with this context. The tree walker is used by default.
+	 *
+	 * @param executionEngine The execution engine.
+	 */
+
+	public void setExecutionEngine(final ExecutionEngine executionEngine) {
+		this.executionEngine = executionEngine;
+	}
+
+	/**
+	 * Adds the statements of the current poll period to the executed statements.
+	 */
+
+	private void countPolls() {
+		final int remaining = Math.max(pollCountdown, 0);
+		executedStatements += pollPeriod - remaining;
+		pollPeriod = remaining;
+		pollCountdown = remaining;
+	}
+
+	/**
+	 * Starts a new poll period, so that the next poll happens after <em>getPollInterval()</em> statements or when the statement budget is exceeded.
+	 */
+
+	private void schedulePoll() {
+		final long remaining = maximumStatements - executedStatements;
+		pollPeriod = remaining >= pollInterval ? pollInterval : (int)Math.max(remaining, 0L) + 1;
+		pollCountdown = pollPeriod;
+	}
+
+	/**
+	 * Returns the number of bytes of the given string once encoded in UTF-8.
+	 *
+	 * @param string The string (may be <b>null</b>).
+	 *
+	 * @return The number of bytes.
+	 */
+
+	private static long getUTF8Length(final String string) {
+		if(string == null) {
+			return 0L;
+		}
+
+		long length = 0L;
+		for(int i = 0; i < string.length(); i++) {
+			final char character = string.charAt(i);
+			if(character < 0x80) {
+				length++;
+			}
+			else if(character < 0x800 || Character.isSurrogate(character)) {
+				length += 2;
+			}
+			else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+}
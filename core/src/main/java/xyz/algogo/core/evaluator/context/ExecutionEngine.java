@@ -0,0 +1,29 @@
+package xyz.algogo.core.evaluator.context;
+
+/**
+ * Represents the engines that can execute an algorithm. They all produce the same output.
+ */
+
+public enum ExecutionEngine {
+
+	/**
+	 * Walks the statements and expressions tree (default).
+	 */
+
+	TREE_WALKER,
+
+	/**
+	 * Compiles the algorithm into a flat register-based program (see <em>xyz.algogo.core.vm</em>) and interprets it.
+	 * <br>Its whole state is explicit, which allows to suspend evaluations and to take snapshots, but it is slower than the tree walker on loop-heavy algorithms.
+	 */
+
+	VIRTUAL_MACHINE,
+
+	/**
+	 * Compiles the algorithm into a tree of closures (see <em>xyz.algogo.core.compiler</em>) and executes it.
+	 * <br>Lighter than the virtual machine : operators and variables are resolved once, but values are still atoms.
+	 */
+
+	CLOSURE_COMPILER
+
+}
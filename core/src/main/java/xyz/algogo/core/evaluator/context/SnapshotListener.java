@@ -0,0 +1,19 @@
+package xyz.algogo.core.evaluator.context;
+
+import xyz.algogo.core.vm.ExecutionSnapshot;
+
+/**
+ * Snapshot listener interface.
+ */
+
+public interface SnapshotListener {
+
+	/**
+	 * Called by the evaluating thread when a snapshot has been taken. The evaluation is paused until this method returns, so saving the snapshot should rather be done by another thread.
+	 *
+	 * @param snapshot The snapshot.
+	 */
+
+	void snapshot(final ExecutionSnapshot snapshot);
+
+}
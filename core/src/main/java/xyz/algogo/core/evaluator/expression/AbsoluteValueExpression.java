@@ -2,6 +2,7 @@ package xyz.algogo.core.evaluator.expression;
 
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.function.other.AbsFunction;
@@ -32,6 +33,11 @@ public class AbsoluteValueExpression extends ParenthesisExpression {
 		return AbsFunction.abs(atom);
 	}
 
+	@Override
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return BooleanAtom.isTrue(evaluate(evaluator, context));
+	}
+
 	@Override
 	public AbsoluteValueExpression copy() {
 		return new AbsoluteValueExpression(this.getExpression().copy());
@@ -1,8 +1,5 @@
 package xyz.algogo.core.evaluator.expression;
 
-import java.math.BigDecimal;
-
-import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.atom.StringAtom;
@@ -10,10 +7,47 @@ import xyz.algogo.core.evaluator.context.EvaluationContext;
 
 /**
  * Represents an additive expression.
+ * <br>It specializes itself on the types of its operands (see <em>LeftOpRightExpression.getSpecialization()</em>).
  */
 
 public class AdditiveExpression extends LeftOpRightExpression {
 
+	/**
+	 * Generic addition (numbers or strings).
+	 */
+
+	private static final int ADD = 1;
+
+	/**
+	 * Generic subtraction.
+	 */
+
+	private static final int SUBTRACT = 2;
+
+	/**
+	 * Addition of number atoms.
+	 */
+
+	private static final int ADD_NUMBERS = 3;
+
+	/**
+	 * Subtraction of number atoms.
+	 */
+
+	private static final int SUBTRACT_NUMBERS = 4;
+
+	/**
+	 * Concatenation of strings.
+	 */
+
+	private static final int CONCATENATE = 5;
+
+	/**
+	 * Unknown operator (always evaluates to zero).
+	 */
+
+	private static final int UNKNOWN = 6;
+
 	/**
 	 * Creates an additive expression.
 	 *
@@ -27,31 +61,101 @@ public class AdditiveExpression extends LeftOpRightExpression {
 	}
 
 	@Override
-	public Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Atom left = this.getLeft().evaluate(evaluator, context);
-		final Atom right = this.getRight().evaluate(evaluator, context);
+	public Atom evaluate(final Atom left, final Atom right, final EvaluationContext context) {
+		int specialization = this.getSpecialization();
+		if(specialization == UNINITIALIZED) {
+			specialization = specialize(left, right);
+			this.setSpecialization(specialization);
+		}
+
+		switch(specialization) {
+			case ADD_NUMBERS:
+				if(NumberAtom.isNumber(left) && NumberAtom.isNumber(right)) {
+					return context.checkValue(((NumberAtom)left).add((NumberAtom)right, context.getMathContext()));
+				}
+				specialization = ADD;
+				this.setSpecialization(specialization);
+				break;
+			case SUBTRACT_NUMBERS:
+				if(NumberAtom.isNumber(left) && NumberAtom.isNumber(right)) {
+					return context.checkValue(((NumberAtom)left).subtract((NumberAtom)right, context.getMathContext()));
+				}
+				specialization = SUBTRACT;
+				this.setSpecialization(specialization);
+				break;
+			case CONCATENATE:
+				if(StringAtom.hasStringType(left) && StringAtom.hasStringType(right)) {
+					return concatenate(left, right, context);
+				}
+				specialization = ADD;
+				this.setSpecialization(specialization);
+				break;
+			default:
+				break;
+		}
 
 		if(!NumberAtom.hasNumberType(left) || !NumberAtom.hasNumberType(right)) {
-			if(StringAtom.hasStringType(left) && StringAtom.hasStringType(right) && this.getOperator().equals("+")) {
-				return new StringAtom((String)left.getValue() + right.getValue());
+			if(StringAtom.hasStringType(left) && StringAtom.hasStringType(right) && specialization == ADD) {
+				return concatenate(left, right, context);
 			}
 
 			return NumberAtom.ZERO;
 		}
 
-		final BigDecimal leftNumber = (BigDecimal)left.getValue();
-		final BigDecimal rightNumber = (BigDecimal)right.getValue();
+		final NumberAtom leftNumber = NumberAtom.valueOf(left);
+		final NumberAtom rightNumber = NumberAtom.valueOf(right);
+
+		switch(specialization) {
+			case ADD:
+				return context.checkValue(leftNumber.add(rightNumber, context.getMathContext()));
+			case SUBTRACT:
+				return context.checkValue(leftNumber.subtract(rightNumber, context.getMathContext()));
+			default:
+				return NumberAtom.ZERO;
+		}
+	}
 
+	/**
+	 * Picks the variant of this expression according to its operator and to the first operands it gets.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 *
+	 * @return The specialization.
+	 */
+
+	private int specialize(final Atom left, final Atom right) {
+		final boolean numbers = NumberAtom.isNumber(left) && NumberAtom.isNumber(right);
 		switch(this.getOperator()) {
 			case "+":
-				return new NumberAtom(leftNumber.add(rightNumber, context.getMathContext()));
+				if(numbers) {
+					return ADD_NUMBERS;
+				}
+				return StringAtom.hasStringType(left) && StringAtom.hasStringType(right) ? CONCATENATE : ADD;
 			case "-":
-				return new NumberAtom(leftNumber.subtract(rightNumber, context.getMathContext()));
+				return numbers ? SUBTRACT_NUMBERS : SUBTRACT;
 			default:
-				return NumberAtom.ZERO;
+				return UNKNOWN;
 		}
 	}
 
+	/**
+	 * Concatenates two string operands.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @param context The evaluation context.
+	 *
+	 * @return The concatenation.
+	 */
+
+	private static StringAtom concatenate(final Atom left, final Atom right, final EvaluationContext context) {
+		final String leftString = (String)left.getValue();
+		final String rightString = (String)right.getValue();
+		context.checkStringLength((long)leftString.length() + rightString.length());
+		return new StringAtom(leftString + rightString);
+	}
+
 	@Override
 	public AdditiveExpression copy() {
 		return new AdditiveExpression(this.getLeft().copy(), this.getOperator(), this.getRight().copy());
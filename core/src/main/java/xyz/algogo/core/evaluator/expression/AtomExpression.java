@@ -3,6 +3,7 @@ package xyz.algogo.core.evaluator.expression;
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 
 /**
  * Represents an atom expression.
@@ -51,6 +52,11 @@ public class AtomExpression extends Expression {
 		return atom.evaluate(evaluator, context);
 	}
 
+	@Override
+	public void resolve(final VariableSlots slots) {
+		atom.resolve(slots);
+	}
+
 	@Override
 	public AtomExpression copy() {
 		return new AtomExpression(atom.copy());
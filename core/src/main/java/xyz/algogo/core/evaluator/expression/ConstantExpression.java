@@ -0,0 +1,222 @@
+package xyz.algogo.core.evaluator.expression;
+
+import java.math.MathContext;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.function.Function;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.language.Language;
+
+/**
+ * Represents an expression that only depends on literals, constants (like <em>pi</em>) and function calls.
+ * <br>It is evaluated once and its value is then reused as long as the math context, the functions registry and the constants values are the same.
+ * This expression is created by the <em>ExpressionOptimizer</em> and is only used for evaluation : it is translated as the expression it holds.
+ */
+
+public class ConstantExpression extends Expression {
+
+	/**
+	 * The held expression.
+	 */
+
+	private final Expression expression;
+
+	/**
+	 * The identifiers of the functions called by the held expression.
+	 */
+
+	private final String[] functions;
+
+	/**
+	 * The identifiers of the constants used by the held expression.
+	 */
+
+	private final String[] constants;
+
+	/**
+	 * The slots the constants are bound to (if resolved).
+	 */
+
+	private VariableSlot[] slots;
+
+	/**
+	 * The current folded value.
+	 */
+
+	private transient volatile Fold fold;
+
+	/**
+	 * Creates a new constant expression.
+	 *
+	 * @param expression The expression to hold.
+	 * @param functions The identifiers of the functions called by the expression.
+	 * @param constants The identifiers of the constants used by the expression.
+	 */
+
+	public ConstantExpression(final Expression expression, final String[] functions, final String[] constants) {
+		this.expression = expression;
+		this.functions = functions;
+		this.constants = constants;
+	}
+
+	/**
+	 * Returns the held expression.
+	 *
+	 * @return The held expression.
+	 */
+
+	public final Expression getExpression() {
+		return expression;
+	}
+
+	@Override
+	public Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		final Fold fold = this.fold;
+		if(fold != null && fold.isValid(evaluator, context.getMathContext())) {
+			return fold.value == null ? expression.evaluate(evaluator, context) : context.checkValue(fold.value);
+		}
+
+		final long version = evaluator.getFunctionsVersion();
+		boolean deterministic = true;
+		for(final String identifier : functions) {
+			final Function function = evaluator.getFunction(identifier);
+			if(function != null && !function.isDeterministic()) {
+				deterministic = false;
+			}
+		}
+
+		final Object[] values = new Object[constants.length];
+		for(int i = 0; i < values.length; i++) {
+			final Variable variable = getConstant(evaluator, i);
+			if(variable == null) {
+				return expression.evaluate(evaluator, context);
+			}
+
+			values[i] = variable.getValue();
+		}
+
+		final Atom value = expression.evaluate(evaluator, context);
+		if(value != null) {
+			this.fold = new Fold(context.getMathContext(), version, values, deterministic ? value : null);
+		}
+
+		return value;
+	}
+
+	@Override
+	public boolean isBoolean() {
+		return expression.isBoolean();
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		expression.resolve(slots);
+
+		final VariableSlot[] bound = new VariableSlot[constants.length];
+		for(int i = 0; i < bound.length; i++) {
+			bound[i] = slots.bind(constants[i]);
+		}
+		this.slots = bound;
+	}
+
+	@Override
+	public String toLanguage(final Language language) {
+		return expression.toLanguage(language);
+	}
+
+	@Override
+	public ConstantExpression copy() {
+		return new ConstantExpression(expression.copy(), functions.clone(), constants.clone());
+	}
+
+	/**
+	 * Returns the variable that holds the constant at the given index.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param index The constant index.
+	 *
+	 * @return The variable.
+	 */
+
+	private Variable getConstant(final ExpressionEvaluator evaluator, final int index) {
+		final VariableSlot[] slots = this.slots;
+		return slots == null ? evaluator.getVariable(constants[index]) : evaluator.getVariable(slots[index]);
+	}
+
+	/**
+	 * Represents a folded value, with everything it has been computed from.
+	 */
+
+	private class Fold {
+
+		/**
+		 * The math context.
+		 */
+
+		private final MathContext mathContext;
+
+		/**
+		 * The version of the functions registry.
+		 */
+
+		private final long version;
+
+		/**
+		 * The constants values.
+		 */
+
+		private final Object[] values;
+
+		/**
+		 * The value (<b>null</b> if a called function is not deterministic).
+		 */
+
+		private final Atom value;
+
+		/**
+		 * Creates a new folded value.
+		 *
+		 * @param mathContext The math context.
+		 * @param version The version of the functions registry.
+		 * @param values The constants values.
+		 * @param value The value.
+		 */
+
+		private Fold(final MathContext mathContext, final long version, final Object[] values, final Atom value) {
+			this.mathContext = mathContext;
+			this.version = version;
+			this.values = values;
+			this.value = value;
+		}
+
+		/**
+		 * Checks whether this folded value can still be used.
+		 *
+		 * @param evaluator The expression evaluator.
+		 * @param mathContext The math context.
+		 *
+		 * @return Whether this folded value can still be used.
+		 */
+
+		private boolean isValid(final ExpressionEvaluator evaluator, final MathContext mathContext) {
+			if(version != evaluator.getFunctionsVersion() || !this.mathContext.equals(mathContext)) {
+				return false;
+			}
+
+			for(int i = 0; i < values.length; i++) {
+				final Variable variable = getConstant(evaluator, i);
+				if(variable == null || variable.getValue() != values[i]) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+	}
+
+}
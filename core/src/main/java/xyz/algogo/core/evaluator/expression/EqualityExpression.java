@@ -1,16 +1,33 @@
 package xyz.algogo.core.evaluator.expression;
 
-import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
-import xyz.algogo.core.evaluator.atom.BooleanAtom;
-import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
 
 /**
  * Represents an equality expression.
+ * <br>It specializes itself on the types of its operands (see <em>LeftOpRightExpression.getSpecialization()</em>).
  */
 
 public class EqualityExpression extends RelationalExpression {
 
+	/**
+	 * Equal.
+	 */
+
+	private static final int EQUAL = 1;
+
+	/**
+	 * Not equal.
+	 */
+
+	private static final int NOT_EQUAL = 2;
+
+	/**
+	 * Unknown operator (always false).
+	 */
+
+	private static final int UNKNOWN = 3;
+
 	/**
 	 * Creates a new equality expression.
 	 *
@@ -24,18 +41,55 @@ public class EqualityExpression extends RelationalExpression {
 	}
 
 	@Override
-	public BooleanAtom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Atom left = this.getLeft().evaluate(evaluator, context);
-		final Atom right = this.getRight().evaluate(evaluator, context);
+	public boolean evaluateBoolean(final Atom left, final Atom right) {
+		int specialization = this.getSpecialization();
+		if(specialization == UNINITIALIZED) {
+			specialization = specialize(left, right);
+			this.setSpecialization(specialization);
+		}
 
+		if((specialization & INTEGERS) != 0) {
+			if(NumberAtom.hasLongValue(left) && NumberAtom.hasLongValue(right)) {
+				return (((NumberAtom)left).getLongValue() == ((NumberAtom)right).getLongValue()) == (specialization == (EQUAL | INTEGERS));
+			}
+
+			specialization &= ~INTEGERS;
+			this.setSpecialization(specialization);
+		}
+
+		switch(specialization) {
+			case EQUAL:
+				return left.equals(right);
+			case NOT_EQUAL:
+				return !left.equals(right);
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Picks the variant of this expression according to its operator and to the first operands it gets.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 *
+	 * @return The specialization.
+	 */
+
+	private int specialize(final Atom left, final Atom right) {
+		final int operation;
 		switch(this.getOperator()) {
 			case "==":
-				return new BooleanAtom(left.equals(right));
+				operation = EQUAL;
+				break;
 			case "!=":
-				return new BooleanAtom(!left.equals(right));
+				operation = NOT_EQUAL;
+				break;
 			default:
-				return BooleanAtom.FALSE;
+				return UNKNOWN;
 		}
+
+		return NumberAtom.hasLongValue(left) && NumberAtom.hasLongValue(right) ? operation | INTEGERS : operation;
 	}
 
 	@Override
@@ -1,14 +1,13 @@
 package xyz.algogo.core.evaluator.expression;
 
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-import xyz.algogo.core.AlgorithmParserErrorListener;
+import xyz.algogo.core.AlgorithmParser;
 import xyz.algogo.core.AlgorithmParserVisitor;
-import xyz.algogo.core.antlr.AlgogoLexer;
-import xyz.algogo.core.antlr.AlgogoParser;
+import xyz.algogo.core.ExpressionParser;
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.exception.ParseException;
 import xyz.algogo.core.language.Translatable;
 
@@ -31,6 +30,38 @@ public abstract class Expression implements Serializable, Translatable {
 
 	public abstract Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context);
 
+	/**
+	 * Evaluates the current expression as a condition.
+	 * <br>This gives the same result as checking the evaluated value with <em>BooleanAtom.isTrue(Atom)</em>, but boolean expressions do not need to create any atom.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return Whether the current expression is true.
+	 */
+
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return BooleanAtom.isTrue(evaluate(evaluator, context));
+	}
+
+	/**
+	 * Returns whether the current expression always evaluates to a boolean atom (and never to <b>null</b>).
+	 *
+	 * @return Whether the current expression is a boolean expression.
+	 */
+
+	public boolean isBoolean() {
+		return false;
+	}
+
+	/**
+	 * Binds the variable identifiers used by the current expression to the given slots table.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	public void resolve(final VariableSlots slots) {}
+
 	/**
 	 * Copies this expression instance.
 	 *
@@ -50,18 +81,14 @@ public abstract class Expression implements Serializable, Translatable {
 	 */
 
 	public static Expression parse(final String content) throws ParseException {
-		final AlgorithmParserErrorListener errorListener = new AlgorithmParserErrorListener();
-
-		final AlgogoLexer lexer = new AlgogoLexer(CharStreams.fromString(content));
-		lexer.removeErrorListeners();
-		lexer.addErrorListener(errorListener);
-
-		final AlgogoParser parser = new AlgogoParser(new CommonTokenStream(lexer));
-		parser.removeErrorListeners();
-		parser.addErrorListener(errorListener);
+		// Most expressions (inputs, simple formulas) do not need ANTLR, which is only used to report errors.
+		final Expression expression = ExpressionParser.parse(content);
+		if(expression != null) {
+			return expression;
+		}
 
 		final AlgorithmParserVisitor visitor = new AlgorithmParserVisitor();
-		return visitor.visitExpression(parser.expression());
+		return visitor.visitExpression(AlgorithmParser.parseExpression(content));
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package xyz.algogo.core.evaluator.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import xyz.algogo.core.exception.ParseException;
+
+/**
+ * Represents a size-bounded cache of parsed expressions, indexed by their source text.
+ * <br>Cached expressions are never given to callers : each call returns a new copy, because expressions keep some state once evaluated (bound slots, specializations).
+ * When the cache is full, the least recently used expression is removed. This class is thread-safe.
+ */
+
+public class ExpressionCache {
+
+	/**
+	 * The default maximum number of cached expressions.
+	 */
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 512;
+
+	/**
+	 * The default cache, used by evaluators to parse the expressions they are given as text.
+	 */
+
+	private static final ExpressionCache DEFAULT_CACHE = new ExpressionCache();
+
+	/**
+	 * The maximum number of cached expressions.
+	 */
+
+	private final int maximumSize;
+
+	/**
+	 * The cached expressions, ordered from the least recently used to the most recently used.
+	 */
+
+	private final LinkedHashMap<String, Expression> expressions;
+
+	/**
+	 * The number of cache hits.
+	 */
+
+	private long hits = 0L;
+
+	/**
+	 * The number of cache misses.
+	 */
+
+	private long misses = 0L;
+
+	/**
+	 * Creates a new expression cache.
+	 */
+
+	public ExpressionCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a new expression cache.
+	 *
+	 * @param maximumSize The maximum number of cached expressions.
+	 */
+
+	public ExpressionCache(final int maximumSize) {
+		if(maximumSize <= 0) {
+			throw new IllegalArgumentException("The maximum size must be positive.");
+		}
+
+		this.maximumSize = maximumSize;
+		this.expressions = new LinkedHashMap<String, Expression>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Expression> eldest) {
+				return size() > ExpressionCache.this.maximumSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Parses an expression, using the cached one if available.
+	 *
+	 * @param content The expression string to parse.
+	 *
+	 * @return A new copy of the parsed expression.
+	 *
+	 * @throws ParseException If any error occurs during the parsing. Invalid expressions are not cached.
+	 */
+
+	public Expression parse(final String content) throws ParseException {
+		synchronized(expressions) {
+			final Expression expression = expressions.get(content);
+			if(expression != null) {
+				hits++;
+				return expression.copy();
+			}
+			misses++;
+		}
+
+		final Expression expression = Expression.parse(content);
+		final Expression copy = expression.copy();
+		synchronized(expressions) {
+			expressions.put(content, copy);
+		}
+		return expression;
+	}
+
+	/**
+	 * Returns the maximum number of cached expressions.
+	 *
+	 * @return The maximum number of cached expressions.
+	 */
+
+	public final int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the current number of cached expressions.
+	 *
+	 * @return The current number of cached expressions.
+	 */
+
+	public int size() {
+		synchronized(expressions) {
+			return expressions.size();
+		}
+	}
+
+	/**
+	 * Returns the number of cache hits.
+	 *
+	 * @return The number of cache hits.
+	 */
+
+	public long getHits() {
+		synchronized(expressions) {
+			return hits;
+		}
+	}
+
+	/**
+	 * Returns the number of cache misses.
+	 *
+	 * @return The number of cache misses.
+	 */
+
+	public long getMisses() {
+		synchronized(expressions) {
+			return misses;
+		}
+	}
+
+	/**
+	 * Removes all cached expressions and resets the counters.
+	 */
+
+	public void clear() {
+		synchronized(expressions) {
+			expressions.clear();
+			hits = 0L;
+			misses = 0L;
+		}
+	}
+
+	/**
+	 * Returns the default cache, used by evaluators to parse the expressions they are given as text (for instance, user inputs).
+	 *
+	 * @return The default cache.
+	 */
+
+	public static ExpressionCache getDefault() {
+		return DEFAULT_CACHE;
+	}
+
+}
@@ -0,0 +1,391 @@
+package xyz.algogo.core.evaluator.expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.IdentifierAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+
+/**
+ * Allows to optimize expressions before evaluating them.
+ * <br>Redundant parentheses are removed, constant sub-expressions are folded (see <em>ConstantExpression</em>), operations with a neutral element are simplified (see <em>IdentityExpression</em>)
+ * and comparisons between variables and integers are fused (see <em>VariableComparisonExpression</em>).
+ * Given expressions are never modified : the optimized expression is a new tree (that may share some nodes with the given one) and must only be used for evaluation.
+ */
+
+public class ExpressionOptimizer {
+
+	/**
+	 * The identifiers of the default constants (see <em>ExpressionEvaluator.addDefaultVariables()</em>).
+	 */
+
+	public static final Set<String> DEFAULT_CONSTANTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("pi", "e")));
+
+	/**
+	 * The identifiers of the variables that are considered as constants.
+	 */
+
+	private final Set<String> constants;
+
+	/**
+	 * Creates a new expression optimizer.
+	 */
+
+	public ExpressionOptimizer() {
+		this(DEFAULT_CONSTANTS);
+	}
+
+	/**
+	 * Creates a new expression optimizer.
+	 *
+	 * @param constants The identifiers of the variables that are considered as constants.
+	 */
+
+	public ExpressionOptimizer(final Set<String> constants) {
+		this.constants = constants;
+	}
+
+	/**
+	 * Optimizes the given expression.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The optimized expression (may be the given one if there is nothing to optimize).
+	 */
+
+	public Expression optimize(final Expression expression) {
+		if(expression == null) {
+			return null;
+		}
+
+		return fold(simplify(expression));
+	}
+
+	/**
+	 * Removes redundant parentheses and simplifies operations with a neutral element.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The simplified expression.
+	 */
+
+	private Expression simplify(final Expression expression) {
+		if(expression.getClass() == ParenthesisExpression.class) {
+			return simplify(((ParenthesisExpression)expression).getExpression());
+		}
+
+		final Expression[] children = getChildren(expression);
+		if(children == null) {
+			return expression;
+		}
+
+		final Expression[] simplified = new Expression[children.length];
+		for(int i = 0; i < children.length; i++) {
+			simplified[i] = simplify(children[i]);
+		}
+
+		final Expression result = rebuild(expression, children, simplified);
+		if(result instanceof AdditiveExpression || result instanceof MultiplicationExpression) {
+			return simplifyIdentity((LeftOpRightExpression)expression, (LeftOpRightExpression)result);
+		}
+
+		if(result.getClass() == RelationalExpression.class || result.getClass() == EqualityExpression.class) {
+			return fuseComparison((RelationalExpression)result);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Simplifies an operation if one of its sides is a neutral element.
+	 *
+	 * @param source The source operation.
+	 * @param operation The operation (with simplified sides).
+	 *
+	 * @return The simplified operation.
+	 */
+
+	private Expression simplifyIdentity(final LeftOpRightExpression source, final LeftOpRightExpression operation) {
+		final Expression left = operation.getLeft();
+		final Expression right = operation.getRight();
+		if(isConstant(left) == isConstant(right)) {
+			return operation;
+		}
+
+		final String operator = operation.getOperator();
+		final long neutral = operator.equals("*") || operator.equals("/") ? 1 : 0;
+
+		if(isNeutral(right, neutral) && !operator.equals("%")) {
+			return new IdentityExpression(source, fold(left), (NumberAtom)((AtomExpression)right).getAtom(), false);
+		}
+
+		if(isNeutral(left, neutral) && (operator.equals("+") || operator.equals("*"))) {
+			return new IdentityExpression(source, fold(right), (NumberAtom)((AtomExpression)left).getAtom(), true);
+		}
+
+		return operation;
+	}
+
+	/**
+	 * Fuses a comparison between a variable and another variable or an integer literal (see <em>VariableComparisonExpression</em>).
+	 *
+	 * @param comparison The comparison (with simplified sides).
+	 *
+	 * @return The fused comparison, or the given one if it cannot be fused.
+	 */
+
+	private Expression fuseComparison(final RelationalExpression comparison) {
+		final String left = getVariable(comparison.getLeft());
+		if(left == null || !VariableComparisonExpression.hasFusableOperator(comparison)) {
+			return comparison;
+		}
+
+		final String right = getVariable(comparison.getRight());
+		if(right != null) {
+			return new VariableComparisonExpression(comparison, left, right, 0L);
+		}
+
+		final Expression literal = comparison.getRight();
+		if(literal instanceof AtomExpression && ((AtomExpression)literal).getAtom().getClass() == NumberAtom.class && ((NumberAtom)((AtomExpression)literal).getAtom()).isLong()) {
+			return new VariableComparisonExpression(comparison, left, null, ((NumberAtom)((AtomExpression)literal).getAtom()).getLongValue());
+		}
+
+		return comparison;
+	}
+
+	/**
+	 * Returns the identifier of the variable read by the given expression (constants are excluded, so that they can still be folded).
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The identifier, or <b>null</b> if the given expression is not a variable.
+	 */
+
+	private String getVariable(final Expression expression) {
+		if(expression.getClass() != AtomExpression.class || ((AtomExpression)expression).getAtom() == null || ((AtomExpression)expression).getAtom().getClass() != IdentifierAtom.class) {
+			return null;
+		}
+
+		final String identifier = ((IdentifierAtom)((AtomExpression)expression).getAtom()).getValue();
+		return constants.contains(identifier) ? null : identifier;
+	}
+
+	/**
+	 * Replaces the constant sub-expressions of the given expression by constant expressions.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The folded expression.
+	 */
+
+	private Expression fold(final Expression expression) {
+		if(expression instanceof ConstantExpression || expression instanceof IdentityExpression) {
+			return expression;
+		}
+
+		if(isConstant(expression)) {
+			if(expression instanceof AtomExpression && !(((AtomExpression)expression).getAtom() instanceof IdentifierAtom)) {
+				return expression;
+			}
+
+			final Set<String> functions = new LinkedHashSet<>();
+			final Set<String> constants = new LinkedHashSet<>();
+			collect(expression, functions, constants);
+			return new ConstantExpression(expression, functions.toArray(new String[functions.size()]), constants.toArray(new String[constants.size()]));
+		}
+
+		final Expression[] children = getChildren(expression);
+		if(children == null) {
+			return expression;
+		}
+
+		final Expression[] folded = new Expression[children.length];
+		for(int i = 0; i < children.length; i++) {
+			folded[i] = fold(children[i]);
+		}
+
+		return rebuild(expression, children, folded);
+	}
+
+	/**
+	 * Checks whether the given expression only depends on literals, constants and function calls.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return Whether the given expression is constant.
+	 */
+
+	private boolean isConstant(final Expression expression) {
+		if(expression instanceof ConstantExpression) {
+			return true;
+		}
+
+		if(expression instanceof AtomExpression) {
+			final Atom atom = ((AtomExpression)expression).getAtom();
+			return atom instanceof IdentifierAtom ? constants.contains(((IdentifierAtom)atom).getValue()) : atom != null;
+		}
+
+		final Expression[] children = getChildren(expression);
+		if(children == null) {
+			return false;
+		}
+
+		for(final Expression child : children) {
+			if(!isConstant(child)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Collects the functions and the constants used by the given expression.
+	 *
+	 * @param expression The expression.
+	 * @param functions Where to put the functions identifiers.
+	 * @param constants Where to put the constants identifiers.
+	 */
+
+	private void collect(final Expression expression, final Set<String> functions, final Set<String> constants) {
+		if(expression instanceof AtomExpression) {
+			final Atom atom = ((AtomExpression)expression).getAtom();
+			if(atom instanceof IdentifierAtom) {
+				constants.add(((IdentifierAtom)atom).getValue());
+			}
+			return;
+		}
+
+		if(expression instanceof FunctionExpression) {
+			functions.add(((FunctionExpression)expression).getIdentifier());
+		}
+
+		final Expression[] children = getChildren(expression);
+		if(children != null) {
+			for(final Expression child : children) {
+				collect(child, functions, constants);
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the given expression is the given integer literal.
+	 *
+	 * @param expression The expression.
+	 * @param value The integer.
+	 *
+	 * @return Whether the given expression is the given integer literal.
+	 */
+
+	private static boolean isNeutral(final Expression expression, final long value) {
+		if(!(expression instanceof AtomExpression) || ((AtomExpression)expression).getAtom().getClass() != NumberAtom.class) {
+			return false;
+		}
+
+		final NumberAtom atom = (NumberAtom)((AtomExpression)expression).getAtom();
+		return atom.isLong() && atom.getLongValue() == value;
+	}
+
+	/**
+	 * Returns the children of the given expression.
+	 *
+	 * @param expression The expression.
+	 *
+	 * @return The children, or <b>null</b> if the expression is unknown or cannot have any child.
+	 */
+
+	private static Expression[] getChildren(final Expression expression) {
+		final Class<?> type = expression.getClass();
+		if(type == ParenthesisExpression.class || type == AbsoluteValueExpression.class) {
+			return new Expression[]{((ParenthesisExpression)expression).getExpression()};
+		}
+
+		if(type == AdditiveExpression.class || type == MultiplicationExpression.class || type == RelationalExpression.class || type == EqualityExpression.class || type == AndExpression.class || type == OrExpression.class) {
+			final LeftOpRightExpression operation = (LeftOpRightExpression)expression;
+			return new Expression[]{operation.getLeft(), operation.getRight()};
+		}
+
+		if(type == PowerExpression.class) {
+			final PowerExpression power = (PowerExpression)expression;
+			return new Expression[]{power.getBase(), power.getExponent()};
+		}
+
+		if(type == UnaryMinusExpression.class) {
+			return new Expression[]{((UnaryMinusExpression)expression).getExpression()};
+		}
+
+		if(type == NotExpression.class) {
+			return new Expression[]{((NotExpression)expression).getExpression()};
+		}
+
+		if(type == FunctionExpression.class) {
+			return ((FunctionExpression)expression).getArguments().clone();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Creates a copy of the given expression with new children.
+	 *
+	 * @param expression The expression.
+	 * @param children The current children.
+	 * @param replacements The new children.
+	 *
+	 * @return The new expression (or the given one if no child has changed).
+	 */
+
+	private static Expression rebuild(final Expression expression, final Expression[] children, final Expression[] replacements) {
+		if(Arrays.equals(children, replacements)) {
+			return expression;
+		}
+
+		final Class<?> type = expression.getClass();
+		if(type == ParenthesisExpression.class) {
+			return new ParenthesisExpression(replacements[0]);
+		}
+
+		if(type == AbsoluteValueExpression.class) {
+			return new AbsoluteValueExpression(replacements[0]);
+		}
+
+		if(expression instanceof LeftOpRightExpression) {
+			final String operator = ((LeftOpRightExpression)expression).getOperator();
+			if(type == AdditiveExpression.class) {
+				return new AdditiveExpression(replacements[0], operator, replacements[1]);
+			}
+			if(type == MultiplicationExpression.class) {
+				return new MultiplicationExpression(replacements[0], operator, replacements[1]);
+			}
+			if(type == EqualityExpression.class) {
+				return new EqualityExpression(replacements[0], operator, replacements[1]);
+			}
+			if(type == AndExpression.class) {
+				return new AndExpression(replacements[0], replacements[1]);
+			}
+			if(type == OrExpression.class) {
+				return new OrExpression(replacements[0], replacements[1]);
+			}
+			return new RelationalExpression(replacements[0], operator, replacements[1]);
+		}
+
+		if(type == PowerExpression.class) {
+			return new PowerExpression(replacements[0], replacements[1]);
+		}
+
+		if(type == UnaryMinusExpression.class) {
+			return new UnaryMinusExpression(replacements[0]);
+		}
+
+		if(type == NotExpression.class) {
+			return new NotExpression(replacements[0]);
+		}
+
+		return new FunctionExpression(((FunctionExpression)expression).getIdentifier(), replacements);
+	}
+
+}
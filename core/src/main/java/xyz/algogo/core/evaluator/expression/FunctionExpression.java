@@ -7,6 +7,10 @@ import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.function.Function;
+import xyz.algogo.core.evaluator.function.FunctionCache;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.profiler.Profiler;
 
 /**
  * Represents a function expression.
@@ -26,6 +30,12 @@ public class FunctionExpression extends Expression {
 
 	private Expression[] arguments;
 
+	/**
+	 * The function this call site is bound to.
+	 */
+
+	private transient volatile Binding binding;
+
 	/**
 	 * Creates a new function expression.
 	 *
@@ -56,6 +66,7 @@ public class FunctionExpression extends Expression {
 
 	public void setIdentifier(final String identifier) {
 		this.identifier = identifier;
+		this.binding = null;
 	}
 
 	/**
@@ -80,16 +91,70 @@ public class FunctionExpression extends Expression {
 
 	@Override
 	public Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		if(!evaluator.hasFunction(identifier)) {
+		final Profiler profiler = context.getProfiler();
+		if(profiler != null) {
+			profiler.enter(this);
+			try {
+				return call(evaluator, context);
+			}
+			finally {
+				profiler.exit();
+			}
+		}
+
+		return call(evaluator, context);
+	}
+
+	/**
+	 * Evaluates the arguments and calls the function.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return The result.
+	 */
+
+	private Atom call(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		final Function function = getFunction(evaluator);
+		if(function == null) {
 			return NumberAtom.ZERO;
 		}
 
-		final List<Atom> arguments = new ArrayList<>();
-		for(final Expression argument : this.arguments) {
-			arguments.add(argument.evaluate(evaluator, context));
+		final Expression[] arguments = this.arguments;
+		final Atom[] values = new Atom[arguments.length];
+		for(int i = 0; i < arguments.length; i++) {
+			values[i] = arguments[i].evaluate(evaluator, context);
+		}
+
+		final FunctionCache cache = context.getFunctionCache();
+		return context.checkValue(cache == null ? function.evaluate(context, values) : cache.evaluate(function, context, values));
+	}
+
+	/**
+	 * Returns the function that is called by this expression.
+	 * <br>The function is only looked up when the functions registry of the evaluator has changed since the last call.
+	 *
+	 * @param evaluator The expression evaluator.
+	 *
+	 * @return The function, or <b>null</b> if the evaluator has no corresponding function.
+	 */
+
+	public Function getFunction(final ExpressionEvaluator evaluator) {
+		Binding binding = this.binding;
+		final long version = evaluator.getFunctionsVersion();
+		if(binding == null || binding.version != version) {
+			binding = new Binding(version, evaluator.getFunction(identifier));
+			this.binding = binding;
 		}
 
-		return evaluator.getFunction(identifier).evaluate(context, arguments.toArray(new Atom[arguments.size()]));
+		return binding.function;
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		for(final Expression argument : arguments) {
+			argument.resolve(slots);
+		}
 	}
 
 	@Override
@@ -102,4 +167,36 @@ public class FunctionExpression extends Expression {
 		return new FunctionExpression(identifier, copy.toArray(new Expression[copy.size()]));
 	}
 
+	/**
+	 * Represents the binding of a call site to a function.
+	 */
+
+	private static class Binding {
+
+		/**
+		 * The version of the functions registry.
+		 */
+
+		private final long version;
+
+		/**
+		 * The bound function.
+		 */
+
+		private final Function function;
+
+		/**
+		 * Creates a new binding.
+		 *
+		 * @param version The version of the functions registry.
+		 * @param function The bound function.
+		 */
+
+		private Binding(final long version, final Function function) {
+			this.version = version;
+			this.function = function;
+		}
+
+	}
+
 }
\ No newline at end of file
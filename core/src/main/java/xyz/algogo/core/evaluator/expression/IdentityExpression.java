@@ -0,0 +1,106 @@
+package xyz.algogo.core.evaluator.expression;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.language.Language;
+
+/**
+ * Represents an operation with a neutral element (like <em>x * 1</em> or <em>x + 0</em>).
+ * <br>The operand is returned as is when the operation would not change it. Otherwise (for instance if the operand needs to be rounded), the operation is applied.
+ * This expression is created by the <em>ExpressionOptimizer</em> and is only used for evaluation : it is translated as the operation it holds.
+ */
+
+public class IdentityExpression extends Expression {
+
+	/**
+	 * The held operation.
+	 */
+
+	private final LeftOpRightExpression operation;
+
+	/**
+	 * The operand.
+	 */
+
+	private final Expression operand;
+
+	/**
+	 * The neutral element.
+	 */
+
+	private final NumberAtom neutral;
+
+	/**
+	 * Whether the neutral element is the left side of the operation.
+	 */
+
+	private final boolean neutralLeft;
+
+	/**
+	 * Creates a new identity expression.
+	 *
+	 * @param operation The held operation.
+	 * @param operand The operand.
+	 * @param neutral The neutral element.
+	 * @param neutralLeft Whether the neutral element is the left side of the operation.
+	 */
+
+	public IdentityExpression(final LeftOpRightExpression operation, final Expression operand, final NumberAtom neutral, final boolean neutralLeft) {
+		this.operation = operation;
+		this.operand = operand;
+		this.neutral = neutral;
+		this.neutralLeft = neutralLeft;
+	}
+
+	/**
+	 * Returns the held operation.
+	 *
+	 * @return The held operation.
+	 */
+
+	public final LeftOpRightExpression getOperation() {
+		return operation;
+	}
+
+	/**
+	 * Returns the operand.
+	 *
+	 * @return The operand.
+	 */
+
+	public final Expression getOperand() {
+		return operand;
+	}
+
+	@Override
+	public Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		final Atom atom = operand.evaluate(evaluator, context);
+		if(atom != null && atom.getClass() == NumberAtom.class) {
+			final NumberAtom number = (NumberAtom)atom;
+			if(number.isLong() && NumberAtom.fits(number.getLongValue(), context.getMathContext())) {
+				return number;
+			}
+		}
+
+		return neutralLeft ? operation.evaluate(neutral, atom, context) : operation.evaluate(atom, neutral, context);
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		operand.resolve(slots);
+	}
+
+	@Override
+	public String toLanguage(final Language language) {
+		return operation.toLanguage(language);
+	}
+
+	@Override
+	public IdentityExpression copy() {
+		return new IdentityExpression(operation.copy(), operand.copy(), neutral, neutralLeft);
+	}
+
+}
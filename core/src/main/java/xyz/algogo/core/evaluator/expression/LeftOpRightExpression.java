@@ -1,11 +1,22 @@
 package xyz.algogo.core.evaluator.expression;
 
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+
 /**
  * Represents a &lt;left expression&gt; &lt;operator&gt; &lt;right expression&gt; expression.
  */
 
 public abstract class LeftOpRightExpression extends Expression {
 
+	/**
+	 * The specialization of an expression that has not been evaluated yet.
+	 */
+
+	protected static final int UNINITIALIZED = 0;
+
 	/**
 	 * The left side expression.
 	 */
@@ -24,6 +35,12 @@ public abstract class LeftOpRightExpression extends Expression {
 
 	private Expression right;
 
+	/**
+	 * The current specialization (see <em>getSpecialization()</em>).
+	 */
+
+	private transient volatile int specialization = UNINITIALIZED;
+
 	/**
 	 * Creates a new &lt;left expression&gt; &lt;operator&gt; &lt;right expression&gt; expression.
 	 *
@@ -76,6 +93,7 @@ public abstract class LeftOpRightExpression extends Expression {
 
 	public void setOperator(final String operator) {
 		this.operator = operator;
+		this.specialization = UNINITIALIZED;
 	}
 
 	/**
@@ -98,6 +116,52 @@ public abstract class LeftOpRightExpression extends Expression {
 		this.right = right;
 	}
 
+	/**
+	 * Returns the current specialization of this expression.
+	 * <br>Subclasses rewrite themselves according to what they observe : they are <em>UNINITIALIZED</em> until their first evaluation, where they resolve their operator and pick a variant for the operand types they get.
+	 * When an operand does not match the guard of the current variant anymore, they deoptimize to a generic variant (and stay there, so that a polymorphic expression does not keep switching).
+	 * <br>An expression may be evaluated by several threads at once : subclasses read the specialization once per evaluation (into a local variable) and only use that value.
+	 *
+	 * @return The current specialization.
+	 */
+
+	protected final int getSpecialization() {
+		return specialization;
+	}
+
+	/**
+	 * Sets the current specialization of this expression.
+	 *
+	 * @param specialization The specialization.
+	 */
+
+	protected final void setSpecialization(final int specialization) {
+		this.specialization = specialization;
+	}
+
+	@Override
+	public Atom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return evaluate(left.evaluate(evaluator, context), right.evaluate(evaluator, context), context);
+	}
+
+	/**
+	 * Applies the operator of the current expression to already evaluated operands.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @param context The evaluation context.
+	 *
+	 * @return The result.
+	 */
+
+	public abstract Atom evaluate(final Atom left, final Atom right, final EvaluationContext context);
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		left.resolve(slots);
+		right.resolve(slots);
+	}
+
 	@Override
 	public abstract LeftOpRightExpression copy();
 
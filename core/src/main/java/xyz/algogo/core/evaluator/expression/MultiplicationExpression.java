@@ -1,7 +1,5 @@
 package xyz.algogo.core.evaluator.expression;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
@@ -9,10 +7,41 @@ import xyz.algogo.core.evaluator.context.EvaluationContext;
 
 /**
  * Represents a multiplication expression.
+ * <br>It specializes itself on the types of its operands (see <em>LeftOpRightExpression.getSpecialization()</em>).
  */
 
 public class MultiplicationExpression extends LeftOpRightExpression {
 
+	/**
+	 * Multiplication.
+	 */
+
+	private static final int MULTIPLY = 1;
+
+	/**
+	 * Division.
+	 */
+
+	private static final int DIVIDE = 2;
+
+	/**
+	 * Remainder.
+	 */
+
+	private static final int REMAINDER = 3;
+
+	/**
+	 * Unknown operator (always evaluates to zero).
+	 */
+
+	private static final int UNKNOWN = 4;
+
+	/**
+	 * Flag : both operands have been number atoms so far.
+	 */
+
+	private static final int NUMBERS = 8;
+
 	/**
 	 * Creates a new multiplication expression.
 	 *
@@ -27,23 +56,80 @@ public class MultiplicationExpression extends LeftOpRightExpression {
 
 	@Override
 	public NumberAtom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Atom left = this.getLeft().evaluate(evaluator, context);
-		final Atom right = this.getRight().evaluate(evaluator, context);
+		return evaluate(this.getLeft().evaluate(evaluator, context), this.getRight().evaluate(evaluator, context), context);
+	}
+
+	@Override
+	public NumberAtom evaluate(final Atom left, final Atom right, final EvaluationContext context) {
+		int specialization = this.getSpecialization();
+		if(specialization == UNINITIALIZED) {
+			specialization = specialize(left, right);
+			this.setSpecialization(specialization);
+		}
+
+		if((specialization & NUMBERS) != 0) {
+			if(NumberAtom.isNumber(left) && NumberAtom.isNumber(right)) {
+				return apply(specialization & ~NUMBERS, (NumberAtom)left, (NumberAtom)right, context);
+			}
+
+			specialization &= ~NUMBERS;
+			this.setSpecialization(specialization);
+		}
 
 		if(!NumberAtom.hasNumberType(left) || !NumberAtom.hasNumberType(right)) {
 			return NumberAtom.ZERO;
 		}
 
-		final BigDecimal leftNumber = (BigDecimal)left.getValue();
-		final BigDecimal rightNumber = (BigDecimal)right.getValue();
+		return apply(specialization, NumberAtom.valueOf(left), NumberAtom.valueOf(right), context);
+	}
+
+	/**
+	 * Picks the variant of this expression according to its operator and to the first operands it gets.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 *
+	 * @return The specialization.
+	 */
 
+	private int specialize(final Atom left, final Atom right) {
+		final int operation;
 		switch(this.getOperator()) {
 			case "*":
-				return new NumberAtom(leftNumber.multiply(rightNumber, context.getMathContext()));
+				operation = MULTIPLY;
+				break;
 			case "/":
-				return new NumberAtom(leftNumber.divide(rightNumber, context.getMathContext()));
+				operation = DIVIDE;
+				break;
 			case "%":
-				return new NumberAtom(leftNumber.remainder(rightNumber, context.getMathContext()));
+				operation = REMAINDER;
+				break;
+			default:
+				return UNKNOWN;
+		}
+
+		return NumberAtom.isNumber(left) && NumberAtom.isNumber(right) ? operation | NUMBERS : operation;
+	}
+
+	/**
+	 * Applies a resolved operation.
+	 *
+	 * @param operation The operation.
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 * @param context The evaluation context.
+	 *
+	 * @return The result.
+	 */
+
+	private static NumberAtom apply(final int operation, final NumberAtom left, final NumberAtom right, final EvaluationContext context) {
+		switch(operation) {
+			case MULTIPLY:
+				return context.checkValue(left.multiply(right, context.getMathContext()));
+			case DIVIDE:
+				return context.checkValue(left.divide(right, context.getMathContext()));
+			case REMAINDER:
+				return left.remainder(right, context.getMathContext());
 			default:
 				return NumberAtom.ZERO;
 		}
@@ -1,11 +1,9 @@
 package xyz.algogo.core.evaluator.expression;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
-import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.BooleanAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 
 /**
  * Represents a NOT expression.
@@ -51,8 +49,26 @@ public class NotExpression extends Expression {
 
 	@Override
 	public BooleanAtom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Atom atom = expression.evaluate(evaluator, context);
-		return new BooleanAtom(atom.getValue().equals(BigDecimal.ZERO));
+		return BooleanAtom.valueOf(evaluateBoolean(evaluator, context));
+	}
+
+	@Override
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		if(expression.isBoolean()) {
+			return !expression.evaluateBoolean(evaluator, context);
+		}
+
+		return BooleanAtom.isFalse(expression.evaluate(evaluator, context));
+	}
+
+	@Override
+	public boolean isBoolean() {
+		return true;
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		expression.resolve(slots);
 	}
 
 	@Override
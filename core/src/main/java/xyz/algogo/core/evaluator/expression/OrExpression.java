@@ -1,8 +1,7 @@
 package xyz.algogo.core.evaluator.expression;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.BooleanAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 
@@ -24,11 +23,13 @@ public class OrExpression extends RelationalExpression {
 	}
 
 	@Override
-	public BooleanAtom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Object left = this.getLeft().evaluate(evaluator, context).getValue();
-		final Object right = this.getRight().evaluate(evaluator, context).getValue();
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return this.getLeft().evaluateBoolean(evaluator, context) || this.getRight().evaluateBoolean(evaluator, context);
+	}
 
-		return new BooleanAtom(left.equals(BigDecimal.ONE) || right.equals(BigDecimal.ONE));
+	@Override
+	public boolean evaluateBoolean(final Atom left, final Atom right) {
+		return BooleanAtom.isTrue(left) || BooleanAtom.isTrue(right);
 	}
 
 	@Override
@@ -3,6 +3,7 @@ package xyz.algogo.core.evaluator.expression;
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 
 /**
  * Creates a new parenthesis expression.
@@ -51,6 +52,21 @@ public class ParenthesisExpression extends Expression {
 		return expression.evaluate(evaluator, context);
 	}
 
+	@Override
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return expression.evaluateBoolean(evaluator, context);
+	}
+
+	@Override
+	public boolean isBoolean() {
+		return expression.isBoolean();
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		expression.resolve(slots);
+	}
+
 	@Override
 	public ParenthesisExpression copy() {
 		return new ParenthesisExpression(expression.copy());
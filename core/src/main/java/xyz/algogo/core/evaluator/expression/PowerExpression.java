@@ -7,6 +7,7 @@ import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 
 /**
  * Represents a power expression.
@@ -87,7 +88,13 @@ public class PowerExpression extends Expression {
 			return NumberAtom.ZERO;
 		}
 
-		return new NumberAtom(BigDecimalMath.pow((BigDecimal)base.getValue(), (BigDecimal)exponent.getValue(), context.getMathContext()));
+		return context.checkValue(new NumberAtom(BigDecimalMath.pow((BigDecimal)base.getValue(), (BigDecimal)exponent.getValue(), context.getMathContext())));
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		base.resolve(slots);
+		exponent.resolve(slots);
 	}
 
 	@Override
@@ -3,14 +3,52 @@ package xyz.algogo.core.evaluator.expression;
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 
 /**
  * Represents a relational expression.
+ * <br>It specializes itself on the types of its operands (see <em>LeftOpRightExpression.getSpecialization()</em>).
  */
 
 public class RelationalExpression extends LeftOpRightExpression {
 
+	/**
+	 * Less than.
+	 */
+
+	private static final int LESS = 1;
+
+	/**
+	 * Less than or equal.
+	 */
+
+	private static final int LESS_OR_EQUAL = 2;
+
+	/**
+	 * Greater than.
+	 */
+
+	private static final int GREATER = 3;
+
+	/**
+	 * Greater than or equal.
+	 */
+
+	private static final int GREATER_OR_EQUAL = 4;
+
+	/**
+	 * Unknown operator (always false).
+	 */
+
+	private static final int UNKNOWN = 5;
+
+	/**
+	 * Flag : both operands have been integral number atoms so far.
+	 */
+
+	protected static final int INTEGERS = 8;
+
 	/**
 	 * Creates a new relational expression.
 	 *
@@ -25,22 +63,105 @@ public class RelationalExpression extends LeftOpRightExpression {
 
 	@Override
 	public BooleanAtom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Atom<?> left = this.getLeft().evaluate(evaluator, context);
-		final Atom<?> right = this.getRight().evaluate(evaluator, context);
-		final int comparison = left.compareTo(right);
+		return BooleanAtom.valueOf(evaluateBoolean(evaluator, context));
+	}
+
+	@Override
+	public BooleanAtom evaluate(final Atom left, final Atom right, final EvaluationContext context) {
+		return BooleanAtom.valueOf(evaluateBoolean(left, right));
+	}
+
+	@Override
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return evaluateBoolean(this.getLeft().evaluate(evaluator, context), this.getRight().evaluate(evaluator, context));
+	}
 
+	/**
+	 * Applies the operator of the current expression to already evaluated operands.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 *
+	 * @return The result.
+	 */
+
+	public boolean evaluateBoolean(final Atom left, final Atom right) {
+		int specialization = this.getSpecialization();
+		if(specialization == UNINITIALIZED) {
+			specialization = specialize(left, right);
+			this.setSpecialization(specialization);
+		}
+
+		if((specialization & INTEGERS) != 0) {
+			if(NumberAtom.hasLongValue(left) && NumberAtom.hasLongValue(right)) {
+				return compare(specialization & ~INTEGERS, Long.compare(((NumberAtom)left).getLongValue(), ((NumberAtom)right).getLongValue()));
+			}
+
+			specialization &= ~INTEGERS;
+			this.setSpecialization(specialization);
+		}
+
+		return compare(specialization, left.compareTo(right));
+	}
+
+	/**
+	 * Picks the variant of this expression according to its operator and to the first operands it gets.
+	 *
+	 * @param left The left operand.
+	 * @param right The right operand.
+	 *
+	 * @return The specialization.
+	 */
+
+	private int specialize(final Atom left, final Atom right) {
+		final int operation;
 		switch(this.getOperator()) {
 			case "<=":
-				return new BooleanAtom(comparison <= 0);
+				operation = LESS_OR_EQUAL;
+				break;
 			case ">=":
-				return new BooleanAtom(comparison >= 0);
+				operation = GREATER_OR_EQUAL;
+				break;
 			case "<":
-				return new BooleanAtom(comparison < 0);
+				operation = LESS;
+				break;
 			case ">":
-				return new BooleanAtom(comparison > 0);
+				operation = GREATER;
+				break;
 			default:
-				return BooleanAtom.FALSE;
+				return UNKNOWN;
 		}
+
+		return NumberAtom.hasLongValue(left) && NumberAtom.hasLongValue(right) ? operation | INTEGERS : operation;
+	}
+
+	/**
+	 * Interprets the result of a comparison according to a resolved operation.
+	 *
+	 * @param operation The operation.
+	 * @param comparison The comparison result.
+	 *
+	 * @return The result.
+	 */
+
+	private static boolean compare(final int operation, final int comparison) {
+		switch(operation) {
+			case LESS_OR_EQUAL:
+				return comparison <= 0;
+			case GREATER_OR_EQUAL:
+				return comparison >= 0;
+			case LESS:
+				return comparison < 0;
+			case GREATER:
+				return comparison > 0;
+			default:
+				return false;
+		}
+	}
+
+	@Override
+	public boolean isBoolean() {
+		return true;
 	}
 
 	@Override
@@ -1,11 +1,10 @@
 package xyz.algogo.core.evaluator.expression;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 
 /**
  * Represents an unary minus expression.
@@ -57,7 +56,12 @@ public class UnaryMinusExpression extends Expression {
 			return NumberAtom.ZERO;
 		}
 
-		return new NumberAtom(((BigDecimal)atom.getValue()).negate());
+		return NumberAtom.valueOf(atom).negate();
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		expression.resolve(slots);
 	}
 
 	@Override
@@ -0,0 +1,260 @@
+package xyz.algogo.core.evaluator.expression;
+
+import java.math.MathContext;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.evaluator.variable.VariableType;
+import xyz.algogo.core.language.Language;
+
+/**
+ * Represents a comparison between a variable and another variable or an integer literal (like <em>i &lt;= n</em>), created by the <em>ExpressionOptimizer</em>.
+ * <br>This is a superinstruction : reading the operands and comparing them is done at once, without creating any atom, as long as both operands hold integers.
+ * Otherwise, the original comparison is evaluated.
+ */
+
+public class VariableComparisonExpression extends Expression {
+
+	/**
+	 * Less than.
+	 */
+
+	private static final int LESS = 1;
+
+	/**
+	 * Less than or equal.
+	 */
+
+	private static final int LESS_OR_EQUAL = 2;
+
+	/**
+	 * Greater than.
+	 */
+
+	private static final int GREATER = 3;
+
+	/**
+	 * Greater than or equal.
+	 */
+
+	private static final int GREATER_OR_EQUAL = 4;
+
+	/**
+	 * Equal.
+	 */
+
+	private static final int EQUAL = 5;
+
+	/**
+	 * Not equal.
+	 */
+
+	private static final int NOT_EQUAL = 6;
+
+	/**
+	 * The original comparison.
+	 */
+
+	private final RelationalExpression comparison;
+
+	/**
+	 * The left variable identifier.
+	 */
+
+	private final String left;
+
+	/**
+	 * The right variable identifier (<b>null</b> if the right operand is an integer literal).
+	 */
+
+	private final String right;
+
+	/**
+	 * The right integer literal (if there is no right variable).
+	 */
+
+	private final long constant;
+
+	/**
+	 * The resolved operator.
+	 */
+
+	private final int operation;
+
+	/**
+	 * The left variable slot (if resolved).
+	 */
+
+	private VariableSlot leftSlot;
+
+	/**
+	 * The right variable slot (if resolved).
+	 */
+
+	private VariableSlot rightSlot;
+
+	/**
+	 * Creates a new variable comparison expression.
+	 *
+	 * @param comparison The original comparison (see <em>hasFusableOperator(RelationalExpression)</em>).
+	 * @param left The left variable identifier.
+	 * @param right The right variable identifier (<b>null</b> if the right operand is an integer literal).
+	 * @param constant The right integer literal (if there is no right variable).
+	 */
+
+	public VariableComparisonExpression(final RelationalExpression comparison, final String left, final String right, final long constant) {
+		this.comparison = comparison;
+		this.left = left;
+		this.right = right;
+		this.constant = constant;
+		this.operation = getOperation(comparison.getOperator());
+	}
+
+	/**
+	 * Returns the original comparison.
+	 *
+	 * @return The original comparison.
+	 */
+
+	public final RelationalExpression getComparison() {
+		return comparison;
+	}
+
+	@Override
+	public BooleanAtom evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		return BooleanAtom.valueOf(evaluateBoolean(evaluator, context));
+	}
+
+	@Override
+	public boolean evaluateBoolean(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		final MathContext mathContext = context.getMathContext();
+		final NumberAtom leftNumber = getInteger(leftSlot == null ? evaluator.getVariable(left) : evaluator.getVariable(leftSlot), mathContext);
+		if(leftNumber != null) {
+			if(right == null) {
+				return compare(Long.compare(leftNumber.getLongValue(), constant));
+			}
+
+			final NumberAtom rightNumber = getInteger(rightSlot == null ? evaluator.getVariable(right) : evaluator.getVariable(rightSlot), mathContext);
+			if(rightNumber != null) {
+				return compare(Long.compare(leftNumber.getLongValue(), rightNumber.getLongValue()));
+			}
+		}
+
+		return comparison.evaluateBoolean(evaluator, context);
+	}
+
+	@Override
+	public boolean isBoolean() {
+		return true;
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		comparison.resolve(slots);
+		leftSlot = slots.bind(left);
+		rightSlot = right == null ? null : slots.bind(right);
+	}
+
+	@Override
+	public String toLanguage(final Language language) {
+		return comparison.toLanguage(language);
+	}
+
+	@Override
+	public VariableComparisonExpression copy() {
+		return new VariableComparisonExpression(comparison.copy(), left, right, constant);
+	}
+
+	/**
+	 * Interprets the result of a comparison.
+	 *
+	 * @param comparison The comparison result.
+	 *
+	 * @return The result.
+	 */
+
+	private boolean compare(final int comparison) {
+		switch(operation) {
+			case LESS:
+				return comparison < 0;
+			case LESS_OR_EQUAL:
+				return comparison <= 0;
+			case GREATER:
+				return comparison > 0;
+			case GREATER_OR_EQUAL:
+				return comparison >= 0;
+			case EQUAL:
+				return comparison == 0;
+			default:
+				return comparison != 0;
+		}
+	}
+
+	/**
+	 * Returns the value of a variable if reading it would give an integral number atom (see <em>IdentifierAtom.evaluate(...)</em>).
+	 *
+	 * @param variable The variable.
+	 * @param mathContext The math context.
+	 *
+	 * @return The number atom, or <b>null</b> if the original comparison has to be evaluated.
+	 */
+
+	private static NumberAtom getInteger(final Variable variable, final MathContext mathContext) {
+		if(variable == null || variable.getType() != VariableType.NUMBER) {
+			return null;
+		}
+
+		final NumberAtom number = variable.getNumber();
+		return number != null && number.isLong() && NumberAtom.fits(number.getLongValue(), mathContext) ? number : null;
+	}
+
+	/**
+	 * Checks whether the operator of the given comparison can be fused (an equality operator for an equality expression, a relational one otherwise).
+	 *
+	 * @param comparison The comparison.
+	 *
+	 * @return Whether the operator of the given comparison can be fused.
+	 */
+
+	public static boolean hasFusableOperator(final RelationalExpression comparison) {
+		final int operation = getOperation(comparison.getOperator());
+		if(comparison.getClass() == EqualityExpression.class) {
+			return operation == EQUAL || operation == NOT_EQUAL;
+		}
+
+		return comparison.getClass() == RelationalExpression.class && operation >= LESS && operation <= GREATER_OR_EQUAL;
+	}
+
+	/**
+	 * Resolves an operator.
+	 *
+	 * @param operator The operator.
+	 *
+	 * @return The resolved operator, or <b>-1</b> if it is unknown.
+	 */
+
+	private static int getOperation(final String operator) {
+		switch(operator) {
+			case "<":
+				return LESS;
+			case "<=":
+				return LESS_OR_EQUAL;
+			case ">":
+				return GREATER;
+			case ">=":
+				return GREATER_OR_EQUAL;
+			case "==":
+				return EQUAL;
+			case "!=":
+				return NOT_EQUAL;
+			default:
+				return -1;
+		}
+	}
+
+}
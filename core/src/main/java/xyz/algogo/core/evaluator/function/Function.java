@@ -15,6 +15,12 @@ public abstract class Function {
 
 	private final String identifier;
 
+	/**
+	 * Whether this function always returns the same result for the same arguments and math context.
+	 */
+
+	private final boolean deterministic;
+
 	/**
 	 * Creates a new function.
 	 *
@@ -22,7 +28,19 @@ public abstract class Function {
 	 */
 
 	public Function(final String identifier) {
+		this(identifier, false);
+	}
+
+	/**
+	 * Creates a new function.
+	 *
+	 * @param identifier Function identifier.
+	 * @param deterministic Whether this function always returns the same result for the same arguments and math context.
+	 */
+
+	public Function(final String identifier, final boolean deterministic) {
 		this.identifier = identifier;
+		this.deterministic = deterministic;
 	}
 
 	/**
@@ -35,6 +53,17 @@ public abstract class Function {
 		return identifier;
 	}
 
+	/**
+	 * Returns whether this function always returns the same result for the same arguments and math context.
+	 * <br>Calls to deterministic functions can be folded or cached.
+	 *
+	 * @return Whether this function is deterministic.
+	 */
+
+	public final boolean isDeterministic() {
+		return deterministic;
+	}
+
 	/**
 	 * Evaluates the current function.
 	 *
@@ -0,0 +1,258 @@
+package xyz.algogo.core.evaluator.function;
+
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+
+/**
+ * Represents a size-bounded cache of function results, indexed by function, arguments and math context.
+ * <br>Only deterministic functions (see <em>Function.isDeterministic()</em>) are cached. When the cache is full, the least recently used result is removed.
+ * This class is thread-safe.
+ */
+
+public class FunctionCache {
+
+	/**
+	 * The default maximum number of cached results.
+	 */
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+	/**
+	 * The maximum number of cached results.
+	 */
+
+	private final int maximumSize;
+
+	/**
+	 * The cached results, ordered from the least recently used to the most recently used.
+	 */
+
+	private final LinkedHashMap<Key, Atom> results;
+
+	/**
+	 * The number of cache hits.
+	 */
+
+	private long hits = 0L;
+
+	/**
+	 * The number of cache misses.
+	 */
+
+	private long misses = 0L;
+
+	/**
+	 * Creates a new function cache.
+	 */
+
+	public FunctionCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a new function cache.
+	 *
+	 * @param maximumSize The maximum number of cached results.
+	 */
+
+	public FunctionCache(final int maximumSize) {
+		if(maximumSize <= 0) {
+			throw new IllegalArgumentException("The maximum size must be positive.");
+		}
+
+		this.maximumSize = maximumSize;
+		this.results = new LinkedHashMap<Key, Atom>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, Atom> eldest) {
+				return size() > FunctionCache.this.maximumSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Evaluates the given function, using the cached result if available.
+	 *
+	 * @param function The function.
+	 * @param context The evaluation context.
+	 * @param arguments Arguments to pass to the function.
+	 *
+	 * @return The result.
+	 */
+
+	public Atom evaluate(final Function function, final EvaluationContext context, final Atom... arguments) {
+		if(!function.isDeterministic()) {
+			return function.evaluate(context, arguments);
+		}
+
+		final Key key = new Key(function, context.getMathContext(), arguments);
+		synchronized(results) {
+			final Atom result = results.get(key);
+			if(result != null) {
+				hits++;
+				return result;
+			}
+			misses++;
+		}
+
+		final Atom result = function.evaluate(context, arguments);
+		if(result != null) {
+			synchronized(results) {
+				results.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the maximum number of cached results.
+	 *
+	 * @return The maximum number of cached results.
+	 */
+
+	public final int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the current number of cached results.
+	 *
+	 * @return The current number of cached results.
+	 */
+
+	public int size() {
+		synchronized(results) {
+			return results.size();
+		}
+	}
+
+	/**
+	 * Returns the number of cache hits.
+	 *
+	 * @return The number of cache hits.
+	 */
+
+	public long getHits() {
+		synchronized(results) {
+			return hits;
+		}
+	}
+
+	/**
+	 * Returns the number of cache misses.
+	 *
+	 * @return The number of cache misses.
+	 */
+
+	public long getMisses() {
+		synchronized(results) {
+			return misses;
+		}
+	}
+
+	/**
+	 * Removes all cached results and resets the counters.
+	 */
+
+	public void clear() {
+		synchronized(results) {
+			results.clear();
+			hits = 0L;
+			misses = 0L;
+		}
+	}
+
+	/**
+	 * Represents a cache key.
+	 */
+
+	private static class Key {
+
+		/**
+		 * The function.
+		 */
+
+		private final Function function;
+
+		/**
+		 * The math context.
+		 */
+
+		private final MathContext mathContext;
+
+		/**
+		 * The arguments values.
+		 */
+
+		private final Object[] values;
+
+		/**
+		 * The hash code.
+		 */
+
+		private final int hashCode;
+
+		/**
+		 * Creates a new cache key.
+		 *
+		 * @param function The function.
+		 * @param mathContext The math context.
+		 * @param arguments The arguments.
+		 */
+
+		private Key(final Function function, final MathContext mathContext, final Atom[] arguments) {
+			this.function = function;
+			this.mathContext = mathContext;
+			this.values = new Object[arguments.length];
+			for(int i = 0; i < arguments.length; i++) {
+				values[i] = getKeyValue(arguments[i]);
+			}
+			this.hashCode = 31 * (31 * System.identityHashCode(function) + mathContext.hashCode()) + Arrays.hashCode(values);
+		}
+
+		@Override
+		public boolean equals(final Object object) {
+			if(!(object instanceof Key)) {
+				return false;
+			}
+
+			final Key key = (Key)object;
+			return function == key.function && mathContext.equals(key.mathContext) && Arrays.equals(values, key.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		/**
+		 * Returns the value of an argument, as it is used in keys.
+		 * <br>Integral numbers are represented by a Long, so that they do not need a BigDecimal. Other values are compared with <em>equals(Object)</em>, so <b>2.0</b> and <b>2</b> are different keys.
+		 *
+		 * @param argument The argument.
+		 *
+		 * @return The key value.
+		 */
+
+		private static Object getKeyValue(final Atom argument) {
+			if(argument == null) {
+				return null;
+			}
+
+			if(argument instanceof NumberAtom && ((NumberAtom)argument).isLong()) {
+				return ((NumberAtom)argument).getLongValue();
+			}
+
+			return argument.getValue();
+		}
+
+	}
+
+}
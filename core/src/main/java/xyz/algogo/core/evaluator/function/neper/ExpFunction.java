@@ -19,7 +19,7 @@ public class ExpFunction extends Function {
 	 */
 
 	public ExpFunction() {
-		super("EXP");
+		super("EXP", true);
 	}
 
 	@Override
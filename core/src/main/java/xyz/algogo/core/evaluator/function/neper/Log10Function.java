@@ -19,7 +19,7 @@ public class Log10Function extends Function {
 	 */
 
 	public Log10Function() {
-		super("LOG10");
+		super("LOG10", true);
 	}
 
 	@Override
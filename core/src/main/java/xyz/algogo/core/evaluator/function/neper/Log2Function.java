@@ -19,7 +19,7 @@ public class Log2Function extends Function {
 	 */
 
 	public Log2Function() {
-		super("LOG2");
+		super("LOG2", true);
 	}
 
 	@Override
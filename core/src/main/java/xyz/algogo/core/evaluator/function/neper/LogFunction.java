@@ -19,7 +19,7 @@ public class LogFunction extends Function {
 	 */
 
 	public LogFunction() {
-		super("LOG");
+		super("LOG", true);
 	}
 
 	@Override
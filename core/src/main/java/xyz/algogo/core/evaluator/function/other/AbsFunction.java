@@ -18,7 +18,7 @@ public class AbsFunction extends Function {
 	 */
 
 	public AbsFunction() {
-		super("ABS");
+		super("ABS", true);
 	}
 
 	@Override
@@ -39,7 +39,8 @@ public class AbsFunction extends Function {
 	 */
 
 	public static NumberAtom abs(final Atom<BigDecimal> atom) {
-		return new NumberAtom(atom.compareTo(NumberAtom.ZERO) < 0 ? atom.getValue().negate() : atom.getValue());
+		final NumberAtom number = NumberAtom.valueOf(atom);
+		return number.compareTo(NumberAtom.ZERO) < 0 ? number.negate() : number;
 	}
 
 }
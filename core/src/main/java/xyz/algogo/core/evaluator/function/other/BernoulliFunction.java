@@ -19,7 +19,7 @@ public class BernoulliFunction extends Function {
 	 */
 
 	public BernoulliFunction() {
-		super("BERNOULLI");
+		super("BERNOULLI", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class CeilingFunction extends Function {
 	 */
 
 	public CeilingFunction() {
-		super("CEILING");
+		super("CEILING", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class FactorialFunction extends Function {
 	 */
 
 	public FactorialFunction() {
-		super("FACTORIAL");
+		super("FACTORIAL", true);
 	}
 
 	@Override
@@ -28,7 +28,25 @@ public class FactorialFunction extends Function {
 			return NumberAtom.ZERO;
 		}
 
-		return new NumberAtom(BigDecimalMath.factorial(((BigDecimal)arguments[0].getValue()).intValue()));
+		final int n = ((BigDecimal)arguments[0].getValue()).intValue();
+		context.checkDigits(getDigitCountLowerBound(n));
+		return new NumberAtom(BigDecimalMath.factorial(n));
+	}
+
+	/**
+	 * Returns a lower bound of the number of digits of <em>n!</em> (using the Stirling formula), so that the digit budget can be checked before computing it.
+	 *
+	 * @param n The number.
+	 *
+	 * @return The lower bound.
+	 */
+
+	private static long getDigitCountLowerBound(final int n) {
+		if(n < 2) {
+			return 1L;
+		}
+
+		return (long)((n * Math.log(n) - n + 0.5 * Math.log(2 * Math.PI * n)) / Math.log(10)) + 1L;
 	}
 
 }
@@ -19,7 +19,7 @@ public class FloorFunction extends Function {
 	 */
 
 	public FloorFunction() {
-		super("FLOOR");
+		super("FLOOR", true);
 	}
 
 	@Override
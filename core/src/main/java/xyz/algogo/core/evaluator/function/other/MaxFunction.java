@@ -18,7 +18,7 @@ public class MaxFunction extends Function {
 	 */
 
 	public MaxFunction() {
-		super("MAX");
+		super("MAX", true);
 	}
 
 	@Override
@@ -18,7 +18,7 @@ public class MinFunction extends Function {
 	 */
 
 	public MinFunction() {
-		super("MIN");
+		super("MIN", true);
 	}
 
 	@Override
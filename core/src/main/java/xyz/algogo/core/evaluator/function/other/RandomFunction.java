@@ -1,7 +1,6 @@
 package xyz.algogo.core.evaluator.function.other;
 
 import java.math.BigDecimal;
-import java.util.Random;
 
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
@@ -31,7 +30,7 @@ public class RandomFunction extends Function {
 		final int min = ((BigDecimal)arguments[0].getValue()).intValueExact();
 		final int max = ((BigDecimal)arguments[1].getValue()).intValueExact();
 
-		return new NumberAtom(new BigDecimal(new Random().nextInt(max - min + 1) + min));
+		return new NumberAtom(new BigDecimal(context.getRandom().nextInt(max - min + 1) + min));
 	}
 
 }
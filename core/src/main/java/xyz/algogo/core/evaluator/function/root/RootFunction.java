@@ -19,7 +19,7 @@ public class RootFunction extends Function {
 	 */
 
 	public RootFunction() {
-		super("ROOT");
+		super("ROOT", true);
 	}
 
 	@Override
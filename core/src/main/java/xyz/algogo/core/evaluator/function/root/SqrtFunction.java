@@ -19,7 +19,7 @@ public class SqrtFunction extends Function {
 	 */
 
 	public SqrtFunction() {
-		super("SQRT");
+		super("SQRT", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class ACosFunction extends Function {
 	 */
 
 	public ACosFunction() {
-		super("ACOS");
+		super("ACOS", true);
 	}
 
 	@Override
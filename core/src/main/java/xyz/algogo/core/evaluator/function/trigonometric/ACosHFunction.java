@@ -19,7 +19,7 @@ public class ACosHFunction extends Function {
 	 */
 
 	public ACosHFunction() {
-		super("ACOSH");
+		super("ACOSH", true);
 	}
 
 	@Override
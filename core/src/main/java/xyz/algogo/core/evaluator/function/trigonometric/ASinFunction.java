@@ -19,7 +19,7 @@ public class ASinFunction extends Function {
 	 */
 
 	public ASinFunction() {
-		super("ASIN");
+		super("ASIN", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class ASinHFunction extends Function {
 	 */
 
 	public ASinHFunction() {
-		super("ASINH");
+		super("ASINH", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class ATanFunction extends Function {
 	 */
 
 	public ATanFunction() {
-		super("ATAN");
+		super("ATAN", true);
 	}
 
 	@Override
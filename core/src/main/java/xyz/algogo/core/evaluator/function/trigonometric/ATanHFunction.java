@@ -19,7 +19,7 @@ public class ATanHFunction extends Function {
 	 */
 
 	public ATanHFunction() {
-		super("ATANH");
+		super("ATANH", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class CosFunction extends Function {
 	 */
 
 	public CosFunction() {
-		super("COS");
+		super("COS", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class CosHFunction extends Function {
 	 */
 
 	public CosHFunction() {
-		super("COSH");
+		super("COSH", true);
 	}
 
 	@Override
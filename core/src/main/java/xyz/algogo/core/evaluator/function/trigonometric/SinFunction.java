@@ -19,7 +19,7 @@ public class SinFunction extends Function {
 	 */
 
 	public SinFunction() {
-		super("SIN");
+		super("SIN", true);
 	}
 
 	@Override
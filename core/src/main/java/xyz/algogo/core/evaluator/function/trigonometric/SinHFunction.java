@@ -19,7 +19,7 @@ public class SinHFunction extends Function {
 	 */
 
 	public SinHFunction() {
-		super("SINH");
+		super("SINH", true);
 	}
 
 	@Override
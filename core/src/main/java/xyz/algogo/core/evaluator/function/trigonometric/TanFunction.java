@@ -19,7 +19,7 @@ public class TanFunction extends Function {
 	 */
 
 	public TanFunction() {
-		super("TAN");
+		super("TAN", true);
 	}
 
 	@Override
@@ -19,7 +19,7 @@ public class TanHFunction extends Function {
 	 */
 
 	public TanHFunction() {
-		super("TANH");
+		super("TANH", true);
 	}
 
 	@Override
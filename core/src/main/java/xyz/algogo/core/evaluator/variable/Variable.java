@@ -1,5 +1,9 @@
 package xyz.algogo.core.evaluator.variable;
 
+import java.math.BigDecimal;
+
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+
 /**
  * Represents a variable.
  */
@@ -24,6 +28,12 @@ public class Variable {
 
 	private Object value;
 
+	/**
+	 * The variable value, held as a number atom (if set this way).
+	 */
+
+	private NumberAtom number;
+
 	/**
 	 * Creates a new variable.
 	 *
@@ -96,6 +106,10 @@ public class Variable {
 	 */
 
 	public final Object getValue() {
+		if(value == null && number != null) {
+			value = number.getValue();
+		}
+
 		return value;
 	}
 
@@ -107,6 +121,33 @@ public class Variable {
 
 	public final void setValue(final Object value) {
 		this.value = value;
+		this.number = null;
+	}
+
+	/**
+	 * Returns the variable value as a number atom.
+	 *
+	 * @return The variable value as a number atom, or <b>null</b> if the value is not a number.
+	 */
+
+	public final NumberAtom getNumber() {
+		if(number == null && value instanceof BigDecimal) {
+			number = new NumberAtom((BigDecimal)value);
+		}
+
+		return number;
+	}
+
+	/**
+	 * Sets the variable value using a number atom.
+	 * <br>This avoids creating the BigDecimal value until it is requested.
+	 *
+	 * @param number The number atom.
+	 */
+
+	public final void setNumber(final NumberAtom number) {
+		this.value = null;
+		this.number = number;
 	}
 
 }
\ No newline at end of file
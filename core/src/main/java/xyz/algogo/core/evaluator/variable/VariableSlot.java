@@ -0,0 +1,73 @@
+package xyz.algogo.core.evaluator.variable;
+
+import java.io.Serializable;
+
+/**
+ * Represents an identifier that has been bound to a slot of a variable slots table.
+ */
+
+public class VariableSlot implements Serializable {
+
+	/**
+	 * The slots table.
+	 */
+
+	private final VariableSlots slots;
+
+	/**
+	 * The variable identifier.
+	 */
+
+	private final String identifier;
+
+	/**
+	 * The slot index.
+	 */
+
+	private final int index;
+
+	/**
+	 * Creates a new variable slot.
+	 *
+	 * @param slots The slots table.
+	 * @param identifier The variable identifier.
+	 * @param index The slot index.
+	 */
+
+	public VariableSlot(final VariableSlots slots, final String identifier, final int index) {
+		this.slots = slots;
+		this.identifier = identifier;
+		this.index = index;
+	}
+
+	/**
+	 * Returns the slots table.
+	 *
+	 * @return The slots table.
+	 */
+
+	public final VariableSlots getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Returns the variable identifier.
+	 *
+	 * @return The variable identifier.
+	 */
+
+	public final String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * Returns the slot index.
+	 *
+	 * @return The slot index.
+	 */
+
+	public final int getIndex() {
+		return index;
+	}
+
+}
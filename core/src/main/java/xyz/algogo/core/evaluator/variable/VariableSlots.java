@@ -0,0 +1,73 @@
+package xyz.algogo.core.evaluator.variable;
+
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a table that binds variable identifiers to frame slots.
+ * <br>Slots are only ever appended, so a resolved slot stays valid for the whole life of the table.
+ */
+
+public class VariableSlots implements Serializable {
+
+	/**
+	 * The slots indexed by identifier.
+	 */
+
+	private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the slot of the given identifier, allocating a new one if needed.
+	 *
+	 * @param identifier The variable identifier.
+	 *
+	 * @return The slot index.
+	 */
+
+	public int getSlot(final String identifier) {
+		final Integer slot = slots.get(identifier);
+		if(slot != null) {
+			return slot;
+		}
+
+		synchronized(slots) {
+			return slots.computeIfAbsent(identifier, key -> slots.size());
+		}
+	}
+
+	/**
+	 * Returns the slot of the given identifier without allocating it.
+	 *
+	 * @param identifier The variable identifier.
+	 *
+	 * @return The slot index, or <b>-1</b> if the identifier has no slot.
+	 */
+
+	public int findSlot(final String identifier) {
+		final Integer slot = slots.get(identifier);
+		return slot == null ? -1 : slot;
+	}
+
+	/**
+	 * Binds the given identifier to its slot.
+	 *
+	 * @param identifier The variable identifier.
+	 *
+	 * @return The binding.
+	 */
+
+	public VariableSlot bind(final String identifier) {
+		return new VariableSlot(this, identifier, getSlot(identifier));
+	}
+
+	/**
+	 * Returns the number of allocated slots.
+	 *
+	 * @return The number of allocated slots.
+	 */
+
+	public int size() {
+		return slots.size();
+	}
+
+}
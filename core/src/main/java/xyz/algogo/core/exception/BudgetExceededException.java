@@ -0,0 +1,38 @@
+package xyz.algogo.core.exception;
+
+/**
+ * Occurs when an evaluation exceeds one of the budgets of its evaluation context. The evaluation is then stopped.
+ * <br>This exception is unchecked so that it can be thrown from anywhere in the evaluation (expressions, functions, ...) : it is returned by <em>Algorithm.evaluate(...)</em>.
+ */
+
+public abstract class BudgetExceededException extends RuntimeException {
+
+	/**
+	 * The exceeded limit.
+	 */
+
+	private final long limit;
+
+	/**
+	 * Creates a new budget exceeded exception.
+	 *
+	 * @param limit The exceeded limit.
+	 * @param message The exception message.
+	 */
+
+	protected BudgetExceededException(final long limit, final String message) {
+		super(message);
+		this.limit = limit;
+	}
+
+	/**
+	 * Returns the exceeded limit.
+	 *
+	 * @return The exceeded limit.
+	 */
+
+	public long getLimit() {
+		return limit;
+	}
+
+}
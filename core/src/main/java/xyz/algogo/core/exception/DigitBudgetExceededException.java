@@ -0,0 +1,19 @@
+package xyz.algogo.core.exception;
+
+/**
+ * Occurs when an evaluation creates a number that has more digits than allowed.
+ */
+
+public class DigitBudgetExceededException extends BudgetExceededException {
+
+	/**
+	 * Creates a new digit budget exceeded exception.
+	 *
+	 * @param limit The maximum number of digits.
+	 */
+
+	public DigitBudgetExceededException(final long limit) {
+		super(limit, "The maximum number of digits has been exceeded (" + limit + ").");
+	}
+
+}
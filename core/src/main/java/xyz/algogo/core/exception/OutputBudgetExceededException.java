@@ -0,0 +1,19 @@
+package xyz.algogo.core.exception;
+
+/**
+ * Occurs when an evaluation outputs more bytes than allowed.
+ */
+
+public class OutputBudgetExceededException extends BudgetExceededException {
+
+	/**
+	 * Creates a new output budget exceeded exception.
+	 *
+	 * @param limit The maximum number of output bytes.
+	 */
+
+	public OutputBudgetExceededException(final long limit) {
+		super(limit, "The maximum number of output bytes has been exceeded (" + limit + ").");
+	}
+
+}
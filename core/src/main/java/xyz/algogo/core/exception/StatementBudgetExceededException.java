@@ -0,0 +1,19 @@
+package xyz.algogo.core.exception;
+
+/**
+ * Occurs when an evaluation executes more statements than allowed.
+ */
+
+public class StatementBudgetExceededException extends BudgetExceededException {
+
+	/**
+	 * Creates a new statement budget exceeded exception.
+	 *
+	 * @param limit The maximum number of executed statements.
+	 */
+
+	public StatementBudgetExceededException(final long limit) {
+		super(limit, "The maximum number of executed statements has been exceeded (" + limit + ").");
+	}
+
+}
@@ -0,0 +1,19 @@
+package xyz.algogo.core.exception;
+
+/**
+ * Occurs when an evaluation creates a string that is longer than allowed.
+ */
+
+public class StringLengthBudgetExceededException extends BudgetExceededException {
+
+	/**
+	 * Creates a new string length budget exceeded exception.
+	 *
+	 * @param limit The maximum string length.
+	 */
+
+	public StringLengthBudgetExceededException(final long limit) {
+		super(limit, "The maximum string length has been exceeded (" + limit + ").");
+	}
+
+}
@@ -0,0 +1,19 @@
+package xyz.algogo.core.exception;
+
+/**
+ * Occurs when an evaluation is still running after its deadline.
+ */
+
+public class TimeBudgetExceededException extends BudgetExceededException {
+
+	/**
+	 * Creates a new time budget exceeded exception.
+	 *
+	 * @param limit The allowed time (in milliseconds).
+	 */
+
+	public TimeBudgetExceededException(final long limit) {
+		super(limit, "The evaluation has exceeded its allowed time in milliseconds (" + limit + ").");
+	}
+
+}
@@ -141,6 +141,20 @@ public abstract class Language {
 		return function.translate(translatable);
 	}
 
+	/**
+	 * Translates the header of a translatable : the first line of its translation (for a block, the line that opens it).
+	 *
+	 * @param translatable The translatable.
+	 *
+	 * @return The translated header.
+	 */
+
+	public String translateHeader(final Translatable translatable) {
+		final String translation = translate(translatable).trim();
+		final int lineBreak = translation.indexOf('\n');
+		return lineBreak == -1 ? translation : translation.substring(0, lineBreak).trim();
+	}
+
 	/**
 	 * Returns the corresponding translation function.
 	 *
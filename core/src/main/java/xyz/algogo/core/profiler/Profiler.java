@@ -0,0 +1,279 @@
+package xyz.algogo.core.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import xyz.algogo.core.language.AlgogoLanguage;
+import xyz.algogo.core.language.Language;
+import xyz.algogo.core.language.Translatable;
+
+/**
+ * Records the execution count, the inclusive time and the self time of each statement and function call site of an evaluation.
+ * <br>Profiling is enabled by setting a profiler to an evaluation context (see <em>EvaluationContext.setProfiler(Profiler)</em>). Sites are recorded in a tree that follows the block nesting, so the same statement reached from two paths is recorded twice.
+ * A profiler is not thread-safe : it should only be used by one evaluation at a time (several evaluations in a row are accumulated).
+ */
+
+public class Profiler {
+
+	/**
+	 * The root node (has no site).
+	 */
+
+	private final ProfilerNode root = new ProfilerNode(null, null);
+
+	/**
+	 * The node of the site that is currently executed.
+	 */
+
+	private ProfilerNode current = root;
+
+	/**
+	 * The start times of the entered sites.
+	 */
+
+	private long[] starts = new long[16];
+
+	/**
+	 * The number of entered sites.
+	 */
+
+	private int depth = 0;
+
+	/**
+	 * Called when a site (a statement or a function call) starts.
+	 *
+	 * @param site The site.
+	 */
+
+	public void enter(final Translatable site) {
+		current = current.getChild(site);
+
+		if(depth == starts.length) {
+			starts = Arrays.copyOf(starts, depth * 2);
+		}
+		starts[depth++] = System.nanoTime();
+	}
+
+	/**
+	 * Called when the last entered site ends.
+	 */
+
+	public void exit() {
+		final long time = System.nanoTime() - starts[--depth];
+		final ProfilerNode node = current;
+		node.record(time);
+
+		current = node.getParent();
+		current.addChildrenTime(time);
+	}
+
+	/**
+	 * Clears all the recorded data.
+	 */
+
+	public void reset() {
+		root.clear();
+		current = root;
+		depth = 0;
+	}
+
+	/**
+	 * Creates a report of the recorded data, with sites labeled in the Algogo language.
+	 *
+	 * @return The report.
+	 */
+
+	public ProfilerReport getReport() {
+		return getReport(new AlgogoLanguage(false));
+	}
+
+	/**
+	 * Creates a report of the recorded data.
+	 *
+	 * @param language The language used to label sites.
+	 *
+	 * @return The report.
+	 */
+
+	public ProfilerReport getReport(final Language language) {
+		return new ProfilerReport(root, language);
+	}
+
+	/**
+	 * Represents a site in the tree of the recorded sites.
+	 */
+
+	static class ProfilerNode {
+
+		/**
+		 * The site (a statement or a function expression).
+		 */
+
+		private final Translatable site;
+
+		/**
+		 * The parent node.
+		 */
+
+		private final ProfilerNode parent;
+
+		/**
+		 * The children nodes (statements may not override <em>equals(Object)</em> consistently, so they are compared by identity).
+		 */
+
+		private final Map<Translatable, ProfilerNode> children = new IdentityHashMap<>();
+
+		/**
+		 * The children nodes, in the order they have been first executed.
+		 */
+
+		private final List<ProfilerNode> orderedChildren = new ArrayList<>();
+
+		/**
+		 * The execution count.
+		 */
+
+		private long count;
+
+		/**
+		 * The inclusive time (in nanoseconds).
+		 */
+
+		private long inclusiveTime;
+
+		/**
+		 * The time spent in children sites (in nanoseconds).
+		 */
+
+		private long childrenTime;
+
+		/**
+		 * Creates a new profiler node.
+		 *
+		 * @param site The site.
+		 * @param parent The parent node.
+		 */
+
+		private ProfilerNode(final Translatable site, final ProfilerNode parent) {
+			this.site = site;
+			this.parent = parent;
+		}
+
+		/**
+		 * Returns the child node of the given site (creates it if needed).
+		 *
+		 * @param site The site.
+		 *
+		 * @return The child node.
+		 */
+
+		private ProfilerNode getChild(final Translatable site) {
+			ProfilerNode child = children.get(site);
+			if(child == null) {
+				child = new ProfilerNode(site, this);
+				children.put(site, child);
+				orderedChildren.add(child);
+			}
+
+			return child;
+		}
+
+		/**
+		 * Records an execution.
+		 *
+		 * @param time The execution time (in nanoseconds).
+		 */
+
+		private void record(final long time) {
+			count++;
+			inclusiveTime += time;
+		}
+
+		/**
+		 * Adds some time spent in a child site.
+		 *
+		 * @param time The time (in nanoseconds).
+		 */
+
+		private void addChildrenTime(final long time) {
+			childrenTime += time;
+		}
+
+		/**
+		 * Clears this node.
+		 */
+
+		private void clear() {
+			children.clear();
+			orderedChildren.clear();
+			count = 0L;
+			inclusiveTime = 0L;
+			childrenTime = 0L;
+		}
+
+		/**
+		 * Returns the site.
+		 *
+		 * @return The site.
+		 */
+
+		Translatable getSite() {
+			return site;
+		}
+
+		/**
+		 * Returns the parent node.
+		 *
+		 * @return The parent node.
+		 */
+
+		ProfilerNode getParent() {
+			return parent;
+		}
+
+		/**
+		 * Returns the children nodes, in the order they have been first executed.
+		 *
+		 * @return The children nodes.
+		 */
+
+		List<ProfilerNode> getChildren() {
+			return orderedChildren;
+		}
+
+		/**
+		 * Returns the execution count.
+		 *
+		 * @return The execution count.
+		 */
+
+		long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the inclusive time.
+		 *
+		 * @return The inclusive time (in nanoseconds).
+		 */
+
+		long getInclusiveTime() {
+			return inclusiveTime;
+		}
+
+		/**
+		 * Returns the self time (the inclusive time minus the time spent in children sites).
+		 *
+		 * @return The self time (in nanoseconds).
+		 */
+
+		long getSelfTime() {
+			return Math.max(0L, inclusiveTime - childrenTime);
+		}
+
+	}
+
+}
@@ -0,0 +1,132 @@
+package xyz.algogo.core.profiler;
+
+import java.util.Collections;
+import java.util.List;
+
+import xyz.algogo.core.language.Translatable;
+
+/**
+ * Represents the recorded data of a site (a statement or a function call) in a profiler report.
+ */
+
+public class ProfilerEntry {
+
+	/**
+	 * The site (a statement or a function expression).
+	 */
+
+	private final Translatable site;
+
+	/**
+	 * The labels of the enclosing sites, from the outermost one, followed by the label of this site.
+	 */
+
+	private final List<String> path;
+
+	/**
+	 * The execution count.
+	 */
+
+	private final long count;
+
+	/**
+	 * The inclusive time (in nanoseconds).
+	 */
+
+	private final long inclusiveTime;
+
+	/**
+	 * The self time (in nanoseconds).
+	 */
+
+	private final long selfTime;
+
+	/**
+	 * Creates a new profiler entry.
+	 *
+	 * @param site The site.
+	 * @param path The labels of the enclosing sites followed by the label of this site.
+	 * @param count The execution count.
+	 * @param inclusiveTime The inclusive time (in nanoseconds).
+	 * @param selfTime The self time (in nanoseconds).
+	 */
+
+	public ProfilerEntry(final Translatable site, final List<String> path, final long count, final long inclusiveTime, final long selfTime) {
+		this.site = site;
+		this.path = Collections.unmodifiableList(path);
+		this.count = count;
+		this.inclusiveTime = inclusiveTime;
+		this.selfTime = selfTime;
+	}
+
+	/**
+	 * Returns the site.
+	 *
+	 * @return The site (a statement or a function expression).
+	 */
+
+	public Translatable getSite() {
+		return site;
+	}
+
+	/**
+	 * Returns the label of the site.
+	 *
+	 * @return The label.
+	 */
+
+	public String getLabel() {
+		return path.get(path.size() - 1);
+	}
+
+	/**
+	 * Returns the labels of the enclosing sites, from the outermost one, followed by the label of this site.
+	 *
+	 * @return The path.
+	 */
+
+	public List<String> getPath() {
+		return path;
+	}
+
+	/**
+	 * Returns the nesting depth of the site (<b>0</b> for a top level block).
+	 *
+	 * @return The depth.
+	 */
+
+	public int getDepth() {
+		return path.size() - 1;
+	}
+
+	/**
+	 * Returns the execution count.
+	 *
+	 * @return The execution count.
+	 */
+
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the time spent in the site, including its children.
+	 *
+	 * @return The inclusive time (in nanoseconds).
+	 */
+
+	public long getInclusiveTime() {
+		return inclusiveTime;
+	}
+
+	/**
+	 * Returns the time spent in the site itself, excluding its children.
+	 *
+	 * @return The self time (in nanoseconds).
+	 */
+
+	public long getSelfTime() {
+		return selfTime;
+	}
+
+}
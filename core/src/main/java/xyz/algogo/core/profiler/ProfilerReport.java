@@ -0,0 +1,218 @@
+package xyz.algogo.core.profiler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import xyz.algogo.core.language.Language;
+import xyz.algogo.core.language.Translatable;
+
+/**
+ * Represents the data recorded by a profiler (see <em>Profiler.getReport()</em>).
+ * <br>It can be exported as text (hot spots first) or as collapsed stacks, that can be rendered by flame graph tools.
+ */
+
+public class ProfilerReport {
+
+	/**
+	 * The system line separator.
+	 */
+
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	/**
+	 * Separates the frames of a collapsed stack.
+	 */
+
+	private static final String FRAME_SEPARATOR = ";";
+
+	/**
+	 * The entries, in the order of the block nesting.
+	 */
+
+	private final List<ProfilerEntry> entries = new ArrayList<>();
+
+	/**
+	 * The total time (in nanoseconds).
+	 */
+
+	private long totalTime = 0L;
+
+	/**
+	 * Creates a new profiler report.
+	 *
+	 * @param root The root node of the profiler.
+	 * @param language The language used to label sites.
+	 */
+
+	ProfilerReport(final Profiler.ProfilerNode root, final Language language) {
+		for(final Profiler.ProfilerNode child : root.getChildren()) {
+			totalTime += child.getInclusiveTime();
+			addEntries(child, new ArrayList<>(), language);
+		}
+	}
+
+	/**
+	 * Returns the entries, in the order of the block nesting (a site is followed by the sites it contains).
+	 *
+	 * @return The entries.
+	 */
+
+	public List<ProfilerEntry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * Returns the entries, sorted by decreasing self time.
+	 *
+	 * @return The hot spots.
+	 */
+
+	public List<ProfilerEntry> getHotSpots() {
+		final List<ProfilerEntry> hotSpots = new ArrayList<>(entries);
+		hotSpots.sort(Comparator.comparingLong(ProfilerEntry::getSelfTime).reversed());
+		return hotSpots;
+	}
+
+	/**
+	 * Returns the total time of the profiled evaluations.
+	 *
+	 * @return The total time (in nanoseconds).
+	 */
+
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Returns this report as text : the hot spots first, and then the sites in the order of the block nesting.
+	 *
+	 * @return The text report.
+	 */
+
+	public String toText() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append(String.format(Locale.ROOT, "Total time : %.3f ms", totalTime / 1e6)).append(LINE_SEPARATOR);
+
+		builder.append(LINE_SEPARATOR).append("Hot spots :").append(LINE_SEPARATOR);
+		appendHeader(builder);
+		for(final ProfilerEntry entry : getHotSpots()) {
+			appendRow(builder, entry, String.join(" > ", entry.getPath()));
+		}
+
+		builder.append(LINE_SEPARATOR).append("Statements :").append(LINE_SEPARATOR);
+		appendHeader(builder);
+		for(final ProfilerEntry entry : entries) {
+			final StringBuilder indentation = new StringBuilder();
+			for(int i = 0; i < entry.getDepth(); i++) {
+				indentation.append("  ");
+			}
+			appendRow(builder, entry, indentation + entry.getLabel());
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Returns this report as collapsed stacks : one line per site, made of the labels of its path separated by semicolons and followed by its self time in nanoseconds.
+	 * <br>This is the input format of most flame graph tools.
+	 *
+	 * @return The collapsed stacks.
+	 */
+
+	public String toCollapsedStacks() {
+		final StringBuilder builder = new StringBuilder();
+		for(final ProfilerEntry entry : entries) {
+			if(entry.getSelfTime() <= 0L) {
+				continue;
+			}
+
+			builder.append(String.join(FRAME_SEPARATOR, entry.getPath())).append(' ').append(entry.getSelfTime()).append('\n');
+		}
+
+		return builder.toString();
+	}
+
+	/**
+	 * Writes this report as collapsed stacks to a file (see <em>toCollapsedStacks()</em>).
+	 *
+	 * @param file The file.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	public void writeCollapsedStacks(final Path file) throws IOException {
+		Files.write(file, toCollapsedStacks().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public String toString() {
+		return toText();
+	}
+
+	/**
+	 * Adds the entry of a node and of its children.
+	 *
+	 * @param node The node.
+	 * @param parentPath The path of the parent node.
+	 * @param language The language used to label sites.
+	 */
+
+	private void addEntries(final Profiler.ProfilerNode node, final List<String> parentPath, final Language language) {
+		final List<String> path = new ArrayList<>(parentPath);
+		path.add(getLabel(node.getSite(), language));
+
+		entries.add(new ProfilerEntry(node.getSite(), path, node.getCount(), node.getInclusiveTime(), node.getSelfTime()));
+		for(final Profiler.ProfilerNode child : node.getChildren()) {
+			addEntries(child, path, language);
+		}
+	}
+
+	/**
+	 * Appends the header of a table.
+	 *
+	 * @param builder The builder.
+	 */
+
+	private static void appendHeader(final StringBuilder builder) {
+		builder.append(String.format(Locale.ROOT, "%12s %8s %12s %12s  %s", "Self (ms)", "Self (%)", "Total (ms)", "Count", "Site")).append(LINE_SEPARATOR);
+	}
+
+	/**
+	 * Appends a row of a table.
+	 *
+	 * @param builder The builder.
+	 * @param entry The entry.
+	 * @param site The site column.
+	 */
+
+	private void appendRow(final StringBuilder builder, final ProfilerEntry entry, final String site) {
+		final double percentage = totalTime == 0L ? 0d : entry.getSelfTime() * 100d / totalTime;
+		builder.append(String.format(Locale.ROOT, "%12.3f %8.1f %12.3f %12d  %s", entry.getSelfTime() / 1e6, percentage, entry.getInclusiveTime() / 1e6, entry.getCount(), site)).append(LINE_SEPARATOR);
+	}
+
+	/**
+	 * Returns the label of a site : the first line of its translation (the header of a block).
+	 *
+	 * @param site The site.
+	 * @param language The language.
+	 *
+	 * @return The label.
+	 */
+
+	private static String getLabel(final Translatable site, final Language language) {
+		String label = language.translateHeader(site);
+		if(label.isEmpty()) {
+			label = site.getClass().getSimpleName();
+		}
+
+		return label.replace(FRAME_SEPARATOR, ",");
+	}
+
+}
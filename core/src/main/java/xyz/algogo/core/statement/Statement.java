@@ -2,6 +2,8 @@ package xyz.algogo.core.statement;
 
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.language.Translatable;
 import xyz.algogo.core.statement.block.conditional.ElseBlock;
 import xyz.algogo.core.statement.block.conditional.IfBlock;
@@ -44,6 +46,23 @@ public abstract class Statement implements Translatable {
 
 	public abstract Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context);
 
+	/**
+	 * Binds the variable identifiers used by the current statement to the given slots table.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	public void resolve(final VariableSlots slots) {}
+
+	/**
+	 * Optimizes the expressions held by the current statement.
+	 * <br>Optimized expressions are only used for evaluation, held expressions are left untouched.
+	 *
+	 * @param optimizer The expression optimizer.
+	 */
+
+	public void optimize(final ExpressionOptimizer optimizer) {}
+
 	/**
 	 * Copies the current statement.
 	 * 
@@ -2,8 +2,12 @@ package xyz.algogo.core.statement.block;
 
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.profiler.Profiler;
 import xyz.algogo.core.statement.Statement;
 import xyz.algogo.core.statement.simple.variable.CreateVariableStatement;
+import xyz.algogo.core.trace.TraceRecorder;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -192,11 +196,70 @@ public abstract class BlockStatement extends Statement implements Serializable {
 		return result.toArray(new Statement[result.size()]);
 	}
 
+	@Override
+	public void resolve(final VariableSlots slots) {
+		for(final Statement statement : statements) {
+			statement.resolve(slots);
+		}
+	}
+
+	@Override
+	public void optimize(final ExpressionOptimizer optimizer) {
+		for(final Statement statement : statements) {
+			statement.optimize(optimizer);
+		}
+	}
+
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		if(context.isInstrumented()) {
+			return evaluateInstrumented(evaluator, context);
+		}
+
 		for(final Statement statement : statements) {
 			final Exception ex = statement.evaluate(evaluator, context);
-			if(ex != null || context.isStopped()) {
+			if(ex != null || context.poll()) {
+				return ex;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Evaluates the statements of this block while recording them with the profiler and the trace recorder of the context.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	private Exception evaluateInstrumented(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		final Profiler profiler = context.getProfiler();
+		final TraceRecorder recorder = context.getTraceRecorder();
+		for(final Statement statement : statements) {
+			final Exception ex;
+			if(recorder != null) {
+				recorder.enter(statement);
+			}
+			if(profiler != null) {
+				profiler.enter(statement);
+			}
+			try {
+				ex = statement.evaluate(evaluator, context);
+			}
+			finally {
+				if(profiler != null) {
+					profiler.exit();
+				}
+			}
+
+			if(recorder != null && ex == null) {
+				recorder.exit(statement, evaluator);
+			}
+
+			if(ex != null || context.poll()) {
 				return ex;
 			}
 		}
@@ -1,6 +1,8 @@
 package xyz.algogo.core.statement.block.conditional;
 
 import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.statement.Statement;
 import xyz.algogo.core.statement.block.BlockStatement;
 
@@ -16,6 +18,12 @@ public abstract class ConditionalBlock extends BlockStatement {
 
 	private Expression condition;
 
+	/**
+	 * The optimized condition (if optimized).
+	 */
+
+	private transient Expression optimizedCondition;
+
 	/**
 	 * Creates a new conditional block.
 	 *
@@ -57,6 +65,36 @@ public abstract class ConditionalBlock extends BlockStatement {
 
 	public void setCondition(final Expression expression) {
 		this.condition = expression;
+		this.optimizedCondition = null;
+	}
+
+	/**
+	 * Returns the condition that should be evaluated (the optimized one if available).
+	 *
+	 * @return The condition that should be evaluated.
+	 */
+
+	public Expression getEvaluatedCondition() {
+		return optimizedCondition == null ? condition : optimizedCondition;
+	}
+
+	@Override
+	public void optimize(final ExpressionOptimizer optimizer) {
+		super.optimize(optimizer);
+
+		optimizedCondition = optimizer.optimize(condition);
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		super.resolve(slots);
+
+		if(condition != null) {
+			condition.resolve(slots);
+		}
+		if(optimizedCondition != null && optimizedCondition != condition) {
+			optimizedCondition.resolve(slots);
+		}
 	}
 
 	@Override
@@ -1,11 +1,12 @@
 package xyz.algogo.core.statement.block.conditional;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.exception.InvalidExpressionException;
 import xyz.algogo.core.statement.Statement;
 
@@ -94,12 +95,21 @@ public class IfBlock extends ConditionalBlock {
 
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Atom result = this.getCondition().evaluate(evaluator, context);
-		if(result == null) {
-			return new InvalidExpressionException(this.getCondition());
+		final Expression condition = this.getEvaluatedCondition();
+		final boolean test;
+		if(condition.isBoolean()) {
+			test = condition.evaluateBoolean(evaluator, context);
+		}
+		else {
+			final Atom result = condition.evaluate(evaluator, context);
+			if(result == null) {
+				return new InvalidExpressionException(this.getCondition());
+			}
+
+			test = BooleanAtom.isTrue(result);
 		}
 
-		if(result.getValue().equals(BigDecimal.ONE)) {
+		if(test) {
 			return super.evaluate(evaluator, context);
 		}
 
@@ -110,6 +120,24 @@ public class IfBlock extends ConditionalBlock {
 		return null;
 	}
 
+	@Override
+	public void optimize(final ExpressionOptimizer optimizer) {
+		super.optimize(optimizer);
+
+		if(elseBlock != null) {
+			elseBlock.optimize(optimizer);
+		}
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		super.resolve(slots);
+
+		if(elseBlock != null) {
+			elseBlock.resolve(slots);
+		}
+	}
+
 	@Override
 	public int getStatementId() {
 		return STATEMENT_ID;
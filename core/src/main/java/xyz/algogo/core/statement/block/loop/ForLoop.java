@@ -1,18 +1,24 @@
 package xyz.algogo.core.statement.block.loop;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
 import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.evaluator.variable.VariableType;
 import xyz.algogo.core.exception.InvalidIdentifierException;
 import xyz.algogo.core.exception.ParseException;
 import xyz.algogo.core.statement.Statement;
 import xyz.algogo.core.statement.block.BlockStatement;
+import xyz.algogo.core.trace.TraceRecorder;
 
 /**
  * Represents a FOR loop.
@@ -26,12 +32,36 @@ public class ForLoop extends BlockStatement {
 
 	public static final int STATEMENT_ID = 11;
 
+	/**
+	 * Returned by <em>evaluateLong(...)</em> when the loop cannot be run with a primitive counter.
+	 */
+
+	private static final Exception LONG_UNSUPPORTED = new UnsupportedOperationException();
+
+	/**
+	 * The minimum value of a long, as a BigDecimal.
+	 */
+
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+	/**
+	 * The maximum value of a long, as a BigDecimal.
+	 */
+
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
 	/**
 	 * The variable identifier.
 	 */
 
 	private String identifier;
 
+	/**
+	 * The slot the identifier is bound to (if resolved).
+	 */
+
+	private VariableSlot slot;
+
 	/**
 	 * The start expression.
 	 */
@@ -44,6 +74,18 @@ public class ForLoop extends BlockStatement {
 
 	private Expression end;
 
+	/**
+	 * The optimized start expression (if optimized).
+	 */
+
+	private transient Expression optimizedStart;
+
+	/**
+	 * The optimized end expression (if optimized).
+	 */
+
+	private transient Expression optimizedEnd;
+
 	/**
 	 * Creates a new FOR loop.
 	 *
@@ -79,6 +121,7 @@ public class ForLoop extends BlockStatement {
 
 	public void setIdentifier(final String identifier) {
 		this.identifier = identifier;
+		this.slot = null;
 	}
 
 	/**
@@ -99,6 +142,7 @@ public class ForLoop extends BlockStatement {
 
 	public void setStart(final Expression start) {
 		this.start = start;
+		this.optimizedStart = null;
 	}
 
 	/**
@@ -119,11 +163,32 @@ public class ForLoop extends BlockStatement {
 
 	public void setEnd(final Expression end) {
 		this.end = end;
+		this.optimizedEnd = null;
+	}
+
+	/**
+	 * Returns the start expression that should be evaluated (the optimized one if available).
+	 *
+	 * @return The start expression that should be evaluated.
+	 */
+
+	public Expression getEvaluatedStart() {
+		return optimizedStart == null ? start : optimizedStart;
+	}
+
+	/**
+	 * Returns the end expression that should be evaluated (the optimized one if available).
+	 *
+	 * @return The end expression that should be evaluated.
+	 */
+
+	public Expression getEvaluatedEnd() {
+		return optimizedEnd == null ? end : optimizedEnd;
 	}
 
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Variable variable = evaluator.getVariable(identifier);
+		final Variable variable = slot == null ? evaluator.getVariable(identifier) : evaluator.getVariable(slot);
 		if(variable == null) {
 			return new InvalidIdentifierException(identifier);
 		}
@@ -132,18 +197,25 @@ public class ForLoop extends BlockStatement {
 			return new InvalidIdentifierException(identifier, identifier + " is not a number.");
 		}
 
-		final Atom startAtom = start.evaluate(evaluator, context);
-		final Atom endAtom = end.evaluate(evaluator, context);
+		final Atom startAtom = getEvaluatedStart().evaluate(evaluator, context);
+		final Atom endAtom = getEvaluatedEnd().evaluate(evaluator, context);
 
 		if(!NumberAtom.hasNumberType(startAtom) || !NumberAtom.hasNumberType(endAtom)) {
 			return new ParseException("Start and End must return a number.");
 		}
 
+		if(startAtom instanceof NumberAtom && ((NumberAtom)startAtom).isLong()) {
+			final Exception ex = evaluateLong(evaluator, context, variable, ((NumberAtom)startAtom).getLongValue(), NumberAtom.valueOf(endAtom));
+			if(ex != LONG_UNSUPPORTED) {
+				return ex;
+			}
+		}
+
 		final BigDecimal start = (BigDecimal)startAtom.getValue();
 		final BigDecimal end = (BigDecimal)endAtom.getValue();
 
 		if(start.compareTo(end) <= 0) {
-			for(BigDecimal i = start; i.compareTo(end) <= 0 && !context.isStopped(); i = i.add(BigDecimal.ONE, context.getMathContext())) {
+			for(BigDecimal i = start; i.compareTo(end) <= 0 && !context.poll(); i = i.add(BigDecimal.ONE, context.getMathContext())) {
 				final Exception ex = forLoop(evaluator, context, variable, i);
 				if(ex != null) {
 					return ex;
@@ -153,7 +225,7 @@ public class ForLoop extends BlockStatement {
 			return null;
 		}
 
-		for(BigDecimal i = start; i.compareTo(end) >= 0 && !context.isStopped(); i = i.subtract(BigDecimal.ONE, context.getMathContext())) {
+		for(BigDecimal i = start; i.compareTo(end) >= 0 && !context.poll(); i = i.subtract(BigDecimal.ONE, context.getMathContext())) {
 			final Exception ex = forLoop(evaluator, context, variable, i);
 			if(ex != null) {
 				return ex;
@@ -163,6 +235,33 @@ public class ForLoop extends BlockStatement {
 		return null;
 	}
 
+	@Override
+	public void resolve(final VariableSlots slots) {
+		super.resolve(slots);
+
+		slot = slots.bind(identifier);
+		if(start != null) {
+			start.resolve(slots);
+		}
+		if(end != null) {
+			end.resolve(slots);
+		}
+		if(optimizedStart != null && optimizedStart != start) {
+			optimizedStart.resolve(slots);
+		}
+		if(optimizedEnd != null && optimizedEnd != end) {
+			optimizedEnd.resolve(slots);
+		}
+	}
+
+	@Override
+	public void optimize(final ExpressionOptimizer optimizer) {
+		super.optimize(optimizer);
+
+		optimizedStart = optimizer.optimize(start);
+		optimizedEnd = optimizer.optimize(end);
+	}
+
 	@Override
 	public int getStatementId() {
 		return STATEMENT_ID;
@@ -173,6 +272,65 @@ public class ForLoop extends BlockStatement {
 		return new ForLoop(identifier, start.copy(), end.copy(), copyStatements());
 	}
 
+	/**
+	 * Runs the FOR loop with a primitive counter, if possible.
+	 * <br>This is only possible if the start value is an integer and if every value taken by the counter would be left untouched by the math context.
+	 * The loop variable is given a number atom each iteration, its BigDecimal value is only created if it is read.
+	 *
+	 * @param evaluator The current expression evaluator.
+	 * @param context The current evaluation context.
+	 * @param variable The variable.
+	 * @param start The start value.
+	 * @param end The end value.
+	 *
+	 * @return Whether an exception occurs, or <b>LONG_UNSUPPORTED</b> if the loop must be run with BigDecimal values.
+	 */
+
+	private Exception evaluateLong(final ExpressionEvaluator evaluator, final EvaluationContext context, final Variable variable, final long start, final NumberAtom end) {
+		final boolean ascending = end.isLong() ? start <= end.getLongValue() : BigDecimal.valueOf(start).compareTo(end.getValue()) <= 0;
+
+		final long last;
+		if(end.isLong()) {
+			last = end.getLongValue();
+		}
+		else {
+			final BigDecimal value = end.getValue();
+			if(value.compareTo(LONG_MIN) < 0 || value.compareTo(LONG_MAX) > 0) {
+				return LONG_UNSUPPORTED;
+			}
+			last = value.setScale(0, ascending ? RoundingMode.FLOOR : RoundingMode.CEILING).longValue();
+		}
+
+		final MathContext mathContext = context.getMathContext();
+		if(!NumberAtom.fits(start, mathContext) || !NumberAtom.fits(last, mathContext)) {
+			return LONG_UNSUPPORTED;
+		}
+
+		final long step = ascending ? 1L : -1L;
+		if(ascending ? start > last : start < last) {
+			return null;
+		}
+
+		final TraceRecorder recorder = context.getTraceRecorder();
+		for(long i = start; !context.poll(); i += step) {
+			variable.setNumber(new NumberAtom(i));
+			if(recorder != null) {
+				recorder.write(identifier, variable);
+			}
+
+			final Exception ex = super.evaluate(evaluator, context);
+			if(ex != null) {
+				return ex;
+			}
+
+			if(i == last) {
+				break;
+			}
+		}
+
+		return null;
+	}
+
 	/**
 	 * Runs the FOR loop body.
 	 *
@@ -186,6 +344,9 @@ public class ForLoop extends BlockStatement {
 
 	private Exception forLoop(final ExpressionEvaluator evaluator, final EvaluationContext context, final Variable variable, final BigDecimal i) {
 		variable.setValue(i);
+		if(context.getTraceRecorder() != null) {
+			context.getTraceRecorder().write(identifier, variable);
+		}
 
 		final Exception ex = super.evaluate(evaluator, context);
 		if(ex != null) {
@@ -1,9 +1,6 @@
 package xyz.algogo.core.statement.block.loop;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
-import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.expression.Expression;
 import xyz.algogo.core.statement.Statement;
@@ -34,16 +31,13 @@ public class WhileLoop extends ConditionalBlock {
 
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Expression expression = this.getCondition();
+		final Expression expression = this.getEvaluatedCondition();
 
-		Atom result = expression.evaluate(evaluator, context);
-		while(BigDecimal.ONE.equals(result.getValue()) && !context.isStopped()) {
+		while(expression.evaluateBoolean(evaluator, context) && !context.poll()) {
 			final Exception exception = super.evaluate(evaluator, context);
 			if(exception != null) {
 				return exception;
 			}
-
-			result = expression.evaluate(evaluator, context);
 		}
 
 		return null;
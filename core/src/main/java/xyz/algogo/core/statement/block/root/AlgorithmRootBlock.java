@@ -66,7 +66,7 @@ public class AlgorithmRootBlock extends BlockStatement {
 
 	@Override
 	public AlgorithmRootBlock copy() {
-		return new AlgorithmRootBlock(this.listStatements());
+		return new AlgorithmRootBlock(this.copyStatements());
 	}
 
 	@Override
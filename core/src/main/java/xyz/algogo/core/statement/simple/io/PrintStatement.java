@@ -90,7 +90,7 @@ public class PrintStatement extends SimpleStatement {
 			message += System.getProperty("line.separator");
 		}
 
-		context.getOutputListener().output(this, message);
+		context.output(this, message);
 		return null;
 	}
 
@@ -3,9 +3,11 @@ package xyz.algogo.core.statement.simple.io;
 import java.math.BigDecimal;
 
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
-import xyz.algogo.core.evaluator.context.OutputListener;
 import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.exception.InvalidIdentifierException;
 import xyz.algogo.core.exception.InvalidVariableValueException;
 
@@ -27,6 +29,12 @@ public class PrintVariableStatement extends PrintStatement {
 
 	private String identifier;
 
+	/**
+	 * The slot the identifier is bound to (if resolved).
+	 */
+
+	private VariableSlot slot;
+
 	/**
 	 * Creates a new print variable statement.
 	 *
@@ -59,16 +67,16 @@ public class PrintVariableStatement extends PrintStatement {
 
 	public void setIdentifier(final String identifier) {
 		this.identifier = identifier;
+		this.slot = null;
 	}
 
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		final Variable variable = evaluator.getVariable(identifier);
+		final Variable variable = slot == null ? evaluator.getVariable(identifier) : evaluator.getVariable(slot);
 		if(variable == null) {
 			return new InvalidIdentifierException(this.getIdentifier());
 		}
 
-		final OutputListener listener = context.getOutputListener();
 		if(this.getMessage() != null) {
 			final Exception ex = super.evaluate(evaluator, context);
 			if(ex != null) {
@@ -76,20 +84,26 @@ public class PrintVariableStatement extends PrintStatement {
 			}
 		}
 
-		final Object value = variable.getValue();
-		if(value == null) {
+		final NumberAtom number = variable.getNumber();
+		final Object value = number != null && number.isLong() ? null : variable.getValue();
+		if(number == null && value == null) {
 			return new InvalidVariableValueException(identifier);
 		}
 
-		String variableValue = value instanceof BigDecimal ? ((BigDecimal)value).toPlainString() : value.toString();
+		String variableValue = value == null ? Long.toString(number.getLongValue()) : value instanceof BigDecimal ? ((BigDecimal)value).toPlainString() : value.toString();
 		if(this.shouldLineBreak()) {
 			variableValue += System.getProperty("line.separator");
 		}
 
-		listener.output(this, variableValue);
+		context.output(this, variableValue);
 		return null;
 	}
 
+	@Override
+	public void resolve(final VariableSlots slots) {
+		slot = slots.bind(identifier);
+	}
+
 	@Override
 	public Exception validate() {
 		return null;
@@ -1,9 +1,14 @@
 package xyz.algogo.core.statement.simple.io;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
-import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionCache;
+import xyz.algogo.core.evaluator.variable.Variable;
 import xyz.algogo.core.exception.InvalidIdentifierException;
 import xyz.algogo.core.exception.ParseException;
 import xyz.algogo.core.statement.simple.variable.VariableStatement;
@@ -31,21 +36,89 @@ public class PromptStatement extends VariableStatement {
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
 		try {
-			if(!evaluator.hasVariable(this.getIdentifier())) {
+			if(getVariable(evaluator) == null) {
 				return new InvalidIdentifierException(this.getIdentifier());
 			}
 
-			final Object input = context.getInputListener().input(this, this.getIdentifier(), message);
-			if(input == null || input.toString().trim().isEmpty()) {
+			if(context.checkpoint()) {
 				return null;
 			}
 
-			final Atom atom = evaluator.evaluate(Expression.parse(input.toString()), context);
-			if(atom == null) {
-				return new ParseException("Invalid input.");
+			return assign(evaluator, context, context.getInputListener().input(this, this.getIdentifier(), message));
+		}
+		catch(final Exception ex) {
+			return ex;
+		}
+	}
+
+	/**
+	 * Evaluates this statement with the asynchronous input listener of the context, without blocking the current thread while waiting for the input.
+	 * <br>The input is assigned by the thread that completes the input future.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 *
+	 * @return A future that is completed with an exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	public CompletableFuture<Exception> evaluateAsync(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		try {
+			if(getVariable(evaluator) == null) {
+				return CompletableFuture.completedFuture(new InvalidIdentifierException(this.getIdentifier()));
+			}
+
+			if(context.checkpoint()) {
+				return CompletableFuture.completedFuture(null);
+			}
+
+			return context.getAsyncInputListener().input(this, this.getIdentifier(), message).handle((input, error) -> {
+				if(error != null) {
+					final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+					return cause instanceof Exception ? (Exception)cause : new ExecutionException(cause);
+				}
+
+				return assign(evaluator, context, input);
+			});
+		}
+		catch(final Exception ex) {
+			return CompletableFuture.completedFuture(ex);
+		}
+	}
+
+	/**
+	 * Assigns the given input to the variable (an empty input leaves it unchanged).
+	 * <br>A stop requested while waiting for the input is only honored once it has been assigned, so that the input is not lost.
+	 *
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 * @param input The input.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	private Exception assign(final ExpressionEvaluator evaluator, final EvaluationContext context, final Object input) {
+		try {
+			context.countInput();
+			final Variable variable = getVariable(evaluator);
+			if(variable == null) {
+				return new InvalidIdentifierException(this.getIdentifier());
+			}
+
+			if(input != null && !input.toString().trim().isEmpty()) {
+				final String content = input.toString();
+				context.checkStringLength(content.length());
+
+				// Not interrupted by a stop requested while waiting for the input.
+				final Atom atom = context.checkValue(ExpressionCache.getDefault().parse(content).evaluate(evaluator, context));
+				if(atom == null) {
+					return new ParseException("Invalid input.");
+				}
+
+				variable.setValue(atom.getValue());
 			}
 
-			evaluator.getVariable(this.getIdentifier()).setValue(atom.getValue());
+			// The enclosing blocks stop once the stop has been detected here.
+			context.checkpoint();
 		}
 		catch(final Exception ex) {
 			return ex;
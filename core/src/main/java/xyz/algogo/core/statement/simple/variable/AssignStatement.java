@@ -1,18 +1,24 @@
 package xyz.algogo.core.statement.simple.variable;
 
-import java.math.BigDecimal;
-
 import xyz.algogo.core.evaluator.ExpressionEvaluator;
 import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.IdentifierAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.expression.AdditiveExpression;
+import xyz.algogo.core.evaluator.expression.AtomExpression;
 import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
 import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.evaluator.variable.VariableType;
 import xyz.algogo.core.exception.InvalidIdentifierException;
 import xyz.algogo.core.exception.InvalidVariableValueException;
 
 /**
  * Represents an assign statement.
+ * <br>Its type check specializes itself on the assigned values, and <em>i &lt;- i + 1</em> (or any integer) is executed as a superinstruction.
  */
 
 public class AssignStatement extends VariableStatement {
@@ -23,12 +29,60 @@ public class AssignStatement extends VariableStatement {
 
 	public static final int STATEMENT_ID = 5;
 
+	/**
+	 * The type check has not been specialized yet.
+	 */
+
+	private static final int UNINITIALIZED = 0;
+
+	/**
+	 * Number atoms are assigned to a number variable.
+	 */
+
+	private static final int NUMBER = 1;
+
+	/**
+	 * Strings are assigned to a string variable.
+	 */
+
+	private static final int STRING = 2;
+
+	/**
+	 * Anything can be assigned (the full type check is done).
+	 */
+
+	private static final int GENERIC = 3;
+
 	/**
 	 * Value to assign.
 	 */
 
 	private Expression value;
 
+	/**
+	 * The optimized value (if optimized).
+	 */
+
+	private transient Expression optimizedValue;
+
+	/**
+	 * The specialization of the type check (see <em>LeftOpRightExpression.getSpecialization()</em>, this works the same way).
+	 */
+
+	private transient volatile int specialization = UNINITIALIZED;
+
+	/**
+	 * If the optimized value is <em>identifier + integer</em> (or <em>identifier - integer</em>), the identifier.
+	 */
+
+	private transient String incremented;
+
+	/**
+	 * If the optimized value is <em>identifier + integer</em> (or <em>identifier - integer</em>), the added integer.
+	 */
+
+	private transient long increment;
+
 	/**
 	 * Creates a new assign statement.
 	 *
@@ -52,6 +106,16 @@ public class AssignStatement extends VariableStatement {
 		return value;
 	}
 
+	/**
+	 * Returns the value that should be evaluated (the optimized one if available).
+	 *
+	 * @return The value that should be evaluated.
+	 */
+
+	public Expression getEvaluatedValue() {
+		return optimizedValue == null ? value : optimizedValue;
+	}
+
 	/**
 	 * Sets the value.
 	 *
@@ -60,24 +124,126 @@ public class AssignStatement extends VariableStatement {
 
 	public void setValue(final Expression value) {
 		this.value = value;
+		this.optimizedValue = null;
+		this.incremented = null;
 	}
 
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		if(!evaluator.hasVariable(this.getIdentifier())) {
+		final Variable variable = getVariable(evaluator);
+		if(variable == null) {
 			return new InvalidIdentifierException(this.getIdentifier());
 		}
 
-		final Variable variable = evaluator.getVariable(this.getIdentifier());
-		final Atom atom = this.value.evaluate(evaluator, context);
-		if(atom == null || (variable.getType() == VariableType.NUMBER && !(atom.getValue() instanceof BigDecimal)) || (variable.getType() == VariableType.STRING && !(atom.getValue() instanceof String))) {
+		if(incremented != null && incremented.equals(this.getIdentifier()) && increment(variable, context)) {
+			return null;
+		}
+
+		final Atom atom = getEvaluatedValue().evaluate(evaluator, context);
+		final int specialization = this.specialization;
+		switch(specialization) {
+			case NUMBER:
+				if(atom != null && atom.getClass() == NumberAtom.class && NumberAtom.isNumber(atom) && variable.getType() == VariableType.NUMBER) {
+					variable.setNumber((NumberAtom)atom);
+					return null;
+				}
+				this.specialization = GENERIC;
+				break;
+			case STRING:
+				if(StringAtom.hasStringType(atom) && variable.getType() == VariableType.STRING) {
+					variable.setValue(atom.getValue());
+					return null;
+				}
+				this.specialization = GENERIC;
+				break;
+			case GENERIC:
+				break;
+			default:
+				if(atom != null && atom.getClass() == NumberAtom.class && NumberAtom.isNumber(atom) && variable.getType() == VariableType.NUMBER) {
+					this.specialization = NUMBER;
+				}
+				else {
+					this.specialization = StringAtom.hasStringType(atom) && variable.getType() == VariableType.STRING ? STRING : GENERIC;
+				}
+				break;
+		}
+
+		if(atom == null || (variable.getType() == VariableType.NUMBER && !NumberAtom.hasNumberType(atom)) || (variable.getType() == VariableType.STRING && !(atom.getValue() instanceof String))) {
 			return new InvalidVariableValueException(this.getIdentifier());
 		}
 
-		evaluator.getVariable(this.getIdentifier()).setValue(atom.getValue());
+		if(atom.getClass() == NumberAtom.class) {
+			variable.setNumber((NumberAtom)atom);
+			return null;
+		}
+
+		variable.setValue(atom.getValue());
 		return null;
 	}
 
+	/**
+	 * Executes <em>identifier &lt;- identifier + integer</em> as a superinstruction : the variable is read, incremented and written at once, without evaluating the value.
+	 * <br>This is only possible if the variable holds an integer and if the result is left untouched by the math context.
+	 *
+	 * @param variable The variable.
+	 * @param context The evaluation context.
+	 *
+	 * @return Whether the variable has been incremented (otherwise, the value has to be evaluated).
+	 */
+
+	private boolean increment(final Variable variable, final EvaluationContext context) {
+		if(variable.getType() != VariableType.NUMBER) {
+			return false;
+		}
+
+		final NumberAtom number = variable.getNumber();
+		if(number == null || !number.isLong()) {
+			return false;
+		}
+
+		final long current = number.getLongValue();
+		final long result = current + increment;
+		if(((current ^ result) & (increment ^ result)) < 0 || !NumberAtom.fits(current, context.getMathContext()) || !NumberAtom.fits(result, context.getMathContext())) {
+			return false;
+		}
+
+		variable.setNumber(context.checkValue(new NumberAtom(result)));
+		return true;
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		super.resolve(slots);
+
+		if(value != null) {
+			value.resolve(slots);
+		}
+		if(optimizedValue != null && optimizedValue != value) {
+			optimizedValue.resolve(slots);
+		}
+	}
+
+	@Override
+	public void optimize(final ExpressionOptimizer optimizer) {
+		super.optimize(optimizer);
+
+		optimizedValue = optimizer.optimize(value);
+		incremented = null;
+
+		if(optimizedValue != null && optimizedValue.getClass() == AdditiveExpression.class) {
+			final AdditiveExpression addition = (AdditiveExpression)optimizedValue;
+			final Atom variable = addition.getLeft() instanceof AtomExpression ? ((AtomExpression)addition.getLeft()).getAtom() : null;
+			final Atom integer = addition.getRight() instanceof AtomExpression ? ((AtomExpression)addition.getRight()).getAtom() : null;
+			if(variable != null && variable.getClass() == IdentifierAtom.class && variable.getValue().equals(this.getIdentifier()) && integer != null && integer.getClass() == NumberAtom.class && ((NumberAtom)integer).isLong()) {
+				final long step = ((NumberAtom)integer).getLongValue();
+				if(addition.getOperator().equals("+") || (addition.getOperator().equals("-") && step != Long.MIN_VALUE)) {
+					increment = addition.getOperator().equals("+") ? step : -step;
+					incremented = this.getIdentifier();
+				}
+			}
+		}
+	}
+
 	@Override
 	public Exception validate() {
 		return value == null ? new NullPointerException("Value cannot be null.") : null;
@@ -62,7 +62,7 @@ public class CreateVariableStatement extends VariableStatement {
 
 	@Override
 	public Exception evaluate(final ExpressionEvaluator evaluator, final EvaluationContext context) {
-		if(evaluator.hasVariable(this.getIdentifier())) {
+		if(getVariable(evaluator) != null) {
 			return new InvalidIdentifierException(this.getIdentifier());
 		}
 
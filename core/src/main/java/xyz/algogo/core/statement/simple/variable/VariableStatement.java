@@ -1,5 +1,9 @@
 package xyz.algogo.core.statement.simple.variable;
 
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
 import xyz.algogo.core.statement.simple.SimpleStatement;
 
 /**
@@ -14,6 +18,12 @@ public abstract class VariableStatement extends SimpleStatement {
 
 	private String identifier;
 
+	/**
+	 * The slot the identifier is bound to (if resolved).
+	 */
+
+	private VariableSlot slot;
+
 	/**
 	 * Creates a new variable statement.
 	 *
@@ -42,9 +52,27 @@ public abstract class VariableStatement extends SimpleStatement {
 
 	public void setIdentifier(final String identifier) {
 		this.identifier = identifier;
+		this.slot = null;
+	}
+
+	/**
+	 * Returns the variable this statement refers to.
+	 *
+	 * @param evaluator The expression evaluator.
+	 *
+	 * @return The variable (or <b>null</b> if it does not exist).
+	 */
+
+	protected Variable getVariable(final ExpressionEvaluator evaluator) {
+		return slot == null ? evaluator.getVariable(identifier) : evaluator.getVariable(slot);
+	}
+
+	@Override
+	public void resolve(final VariableSlots slots) {
+		slot = slots.bind(identifier);
 	}
 
 	@Override
 	public abstract VariableStatement copy();
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,251 @@
+package xyz.algogo.core.trace;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a snapshot of the records of a trace recorder (see <em>TraceRecorder.getTrace()</em>).
+ * <br>It can be saved and loaded (see <em>write(OutputStream)</em> and <em>read(InputStream)</em>) to be analyzed later, and replayed without evaluating the algorithm again (see <em>newReader()</em>).
+ */
+
+public class Trace {
+
+	/**
+	 * The magic number of a saved trace ("AGTR").
+	 */
+
+	private static final int MAGIC = 0x41475452;
+
+	/**
+	 * The version of the saved traces format.
+	 */
+
+	private static final int VERSION = 1;
+
+	/**
+	 * The statements labels (by index).
+	 */
+
+	private final List<String> statements;
+
+	/**
+	 * The variables identifiers (by index).
+	 */
+
+	private final List<String> variables;
+
+	/**
+	 * The value of each variable before the first record.
+	 */
+
+	private final List<Object> baseValues;
+
+	/**
+	 * The statement index before the first record.
+	 */
+
+	private final int baseStatement;
+
+	/**
+	 * The records.
+	 */
+
+	private final byte[] records;
+
+	/**
+	 * Whether older records have been dropped.
+	 */
+
+	private final boolean truncated;
+
+	/**
+	 * Creates a new trace.
+	 *
+	 * @param statements The statements labels.
+	 * @param variables The variables identifiers.
+	 * @param baseValues The value of each variable before the first record.
+	 * @param baseStatement The statement index before the first record.
+	 * @param records The records.
+	 * @param truncated Whether older records have been dropped.
+	 */
+
+	Trace(final List<String> statements, final List<String> variables, final List<Object> baseValues, final int baseStatement, final byte[] records, final boolean truncated) {
+		this.statements = Collections.unmodifiableList(statements);
+		this.variables = Collections.unmodifiableList(variables);
+		this.baseValues = Collections.unmodifiableList(baseValues);
+		this.baseStatement = baseStatement;
+		this.records = records;
+		this.truncated = truncated;
+	}
+
+	/**
+	 * Creates a reader that is positioned before the first record.
+	 *
+	 * @return The reader.
+	 */
+
+	public TraceReader newReader() {
+		return new TraceReader(this);
+	}
+
+	/**
+	 * Returns the statements labels (by index).
+	 *
+	 * @return The statements labels.
+	 */
+
+	public List<String> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Returns the variables identifiers (by index).
+	 *
+	 * @return The variables identifiers.
+	 */
+
+	public List<String> getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Returns the size of the records.
+	 *
+	 * @return The size (in bytes).
+	 */
+
+	public int getSize() {
+		return records.length;
+	}
+
+	/**
+	 * Returns whether older records have been dropped because the ring buffer was full. The trace then starts in the middle of the evaluation.
+	 *
+	 * @return Whether older records have been dropped.
+	 */
+
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Saves this trace.
+	 *
+	 * @param output The output stream.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	public void write(final OutputStream output) throws IOException {
+		final DataOutputStream data = new DataOutputStream(output);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+
+		data.writeInt(statements.size());
+		for(final String statement : statements) {
+			data.writeUTF(statement);
+		}
+
+		final TraceFormat.Encoder encoder = new TraceFormat.Encoder();
+		for(final Object value : baseValues) {
+			encoder.writeValue(value);
+		}
+
+		data.writeInt(variables.size());
+		for(final String variable : variables) {
+			data.writeUTF(variable);
+		}
+		data.writeInt(encoder.size());
+		data.write(encoder.getBytes(), 0, encoder.size());
+
+		data.writeInt(baseStatement);
+		data.writeBoolean(truncated);
+		data.writeInt(records.length);
+		data.write(records);
+		data.flush();
+	}
+
+	/**
+	 * Loads a trace.
+	 *
+	 * @param input The input stream.
+	 *
+	 * @return The trace.
+	 *
+	 * @throws IOException If any I/O exception occurs or if the stream does not contain a trace.
+	 */
+
+	public static Trace read(final InputStream input) throws IOException {
+		final DataInputStream data = new DataInputStream(input);
+		if(data.readInt() != MAGIC || data.readInt() != VERSION) {
+			throw new IOException("Not a trace or unsupported version.");
+		}
+
+		final int statementCount = data.readInt();
+		final List<String> statements = new ArrayList<>(statementCount);
+		for(int i = 0; i < statementCount; i++) {
+			statements.add(data.readUTF());
+		}
+
+		final int variableCount = data.readInt();
+		final List<String> variables = new ArrayList<>(variableCount);
+		for(int i = 0; i < variableCount; i++) {
+			variables.add(data.readUTF());
+		}
+
+		final byte[] values = new byte[data.readInt()];
+		data.readFully(values);
+
+		final TraceFormat.Decoder decoder = new TraceFormat.Decoder(position -> values[(int)position]);
+		final List<Object> baseValues = new ArrayList<>(variableCount);
+		long position = 0L;
+		for(int i = 0; i < variableCount; i++) {
+			baseValues.add(decoder.readValue(position));
+			position = decoder.getPosition();
+		}
+
+		final int baseStatement = data.readInt();
+		final boolean truncated = data.readBoolean();
+		final byte[] records = new byte[data.readInt()];
+		data.readFully(records);
+
+		return new Trace(statements, variables, baseValues, baseStatement, records, truncated);
+	}
+
+	/**
+	 * Returns the value of each variable before the first record.
+	 *
+	 * @return The base values.
+	 */
+
+	List<Object> getBaseValues() {
+		return baseValues;
+	}
+
+	/**
+	 * Returns the statement index before the first record.
+	 *
+	 * @return The base statement index.
+	 */
+
+	int getBaseStatement() {
+		return baseStatement;
+	}
+
+	/**
+	 * Returns the records.
+	 *
+	 * @return The records.
+	 */
+
+	byte[] getRecords() {
+		return records;
+	}
+
+}
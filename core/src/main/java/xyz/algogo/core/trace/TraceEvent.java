@@ -0,0 +1,128 @@
+package xyz.algogo.core.trace;
+
+/**
+ * Represents a recorded event (see <em>TraceReader</em>).
+ */
+
+public class TraceEvent {
+
+	/**
+	 * The event type.
+	 */
+
+	private final Type type;
+
+	/**
+	 * The statement label (for a statement), or the variable identifier (for a write).
+	 */
+
+	private final String name;
+
+	/**
+	 * The statement index (for a statement), or the variable index (for a write).
+	 */
+
+	private final int index;
+
+	/**
+	 * The written value (for a write), or the content (for an output).
+	 */
+
+	private final Object value;
+
+	/**
+	 * Creates a new trace event.
+	 *
+	 * @param type The event type.
+	 * @param name The statement label (for a statement), or the variable identifier (for a write).
+	 * @param index The statement index (for a statement), or the variable index (for a write).
+	 * @param value The written value (for a write), or the content (for an output).
+	 */
+
+	public TraceEvent(final Type type, final String name, final int index, final Object value) {
+		this.type = type;
+		this.name = name;
+		this.index = index;
+		this.value = value;
+	}
+
+	/**
+	 * Returns the event type.
+	 *
+	 * @return The event type.
+	 */
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the statement label (for a statement), or the variable identifier (for a write).
+	 *
+	 * @return The name, or <b>null</b> for an output.
+	 */
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the statement index (for a statement), or the variable index (for a write).
+	 *
+	 * @return The index, or <b>-1</b> for an output.
+	 */
+
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the written value (for a write), or the content (for an output).
+	 * <br>Integers are <em>Long</em>, other numbers are <em>BigDecimal</em> and anything else is a string.
+	 *
+	 * @return The value, or <b>null</b> for a statement.
+	 */
+
+	public Object getValue() {
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		switch(type) {
+			case STATEMENT:
+				return name;
+			case WRITE:
+				return name + " <- " + value;
+			default:
+				return "OUTPUT " + value;
+		}
+	}
+
+	/**
+	 * Represents an event type.
+	 */
+
+	public enum Type {
+
+		/**
+		 * A statement starts.
+		 */
+
+		STATEMENT,
+
+		/**
+		 * A value is assigned to a variable.
+		 */
+
+		WRITE,
+
+		/**
+		 * Some content is output.
+		 */
+
+		OUTPUT
+
+	}
+
+}
@@ -0,0 +1,510 @@
+package xyz.algogo.core.trace;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Contains the binary format of the trace records.
+ * <br>A record is made of its type, its payload and its length (the length of the type and the payload). The length is a variable-length integer whose bytes are written in reverse order, so that records can be read backward.
+ * Integers are written as variable-length integers (seven bits per byte), signed ones are zigzag encoded first so that small deltas take one byte.
+ */
+
+final class TraceFormat {
+
+	/**
+	 * Record : a statement starts (payload : the statement index, as a delta from the previous statement index).
+	 */
+
+	static final byte STATEMENT = 1;
+
+	/**
+	 * Record : an integer is assigned to a variable that held an integer (payload : the variable index and the delta from the previous value).
+	 */
+
+	static final byte WRITE_DELTA = 2;
+
+	/**
+	 * Record : a value is assigned to a variable (payload : the variable index and the value).
+	 */
+
+	static final byte WRITE_VALUE = 3;
+
+	/**
+	 * Record : some content is output (payload : the content).
+	 */
+
+	static final byte OUTPUT = 4;
+
+	/**
+	 * Value kind : <b>null</b>.
+	 */
+
+	private static final byte NULL = 0;
+
+	/**
+	 * Value kind : an integer (a <em>Long</em>).
+	 */
+
+	private static final byte LONG = 1;
+
+	/**
+	 * Value kind : a decimal number (its unscaled value and its scale).
+	 */
+
+	private static final byte DECIMAL = 2;
+
+	/**
+	 * Value kind : a string (UTF-8).
+	 */
+
+	private static final byte STRING = 3;
+
+	/**
+	 * This class should not be instantiated.
+	 */
+
+	private TraceFormat() {}
+
+	/**
+	 * Returns the trace representation of a variable value : integral numbers that fit in a long are <em>Long</em>, other numbers are <em>BigDecimal</em>, anything else is a string.
+	 *
+	 * @param value The value.
+	 *
+	 * @return The trace representation.
+	 */
+
+	static Object normalize(final Object value) {
+		if(value == null || value instanceof Long || value instanceof String) {
+			return value;
+		}
+
+		if(value instanceof BigDecimal) {
+			try {
+				return ((BigDecimal)value).longValueExact();
+			}
+			catch(final ArithmeticException ex) {
+				return value;
+			}
+		}
+
+		return value.toString();
+	}
+
+	/**
+	 * Reads bytes from a trace storage.
+	 */
+
+	interface ByteSource {
+
+		/**
+		 * Returns the byte at the given position.
+		 *
+		 * @param position The position.
+		 *
+		 * @return The byte.
+		 */
+
+		byte get(final long position);
+
+	}
+
+	/**
+	 * Represents a decoded record.
+	 */
+
+	static class Record {
+
+		/**
+		 * The record type.
+		 */
+
+		byte type;
+
+		/**
+		 * The variable index (for writes).
+		 */
+
+		int variable;
+
+		/**
+		 * The delta (for statements and delta writes).
+		 */
+
+		long delta;
+
+		/**
+		 * The value (for value writes) or the content (for outputs).
+		 */
+
+		Object value;
+
+	}
+
+	/**
+	 * Encodes a record in a growable array.
+	 */
+
+	static class Encoder implements ByteSource {
+
+		/**
+		 * The bytes.
+		 */
+
+		private byte[] bytes = new byte[32];
+
+		/**
+		 * The number of bytes.
+		 */
+
+		private int size = 0;
+
+		/**
+		 * Starts a new record.
+		 *
+		 * @param type The record type.
+		 */
+
+		void start(final byte type) {
+			clear();
+			writeByte(type);
+		}
+
+		/**
+		 * Clears the encoded bytes.
+		 */
+
+		void clear() {
+			size = 0;
+		}
+
+		/**
+		 * Ends the current record by writing its reversed length.
+		 */
+
+		void end() {
+			final int length = size;
+			final int start = size;
+			writeVarLong(length);
+			for(int i = start, j = size - 1; i < j; i++, j--) {
+				final byte swap = bytes[i];
+				bytes[i] = bytes[j];
+				bytes[j] = swap;
+			}
+		}
+
+		/**
+		 * Writes a byte.
+		 *
+		 * @param value The byte.
+		 */
+
+		void writeByte(final int value) {
+			if(size == bytes.length) {
+				bytes = Arrays.copyOf(bytes, size * 2);
+			}
+			bytes[size++] = (byte)value;
+		}
+
+		/**
+		 * Writes an unsigned variable-length integer.
+		 *
+		 * @param value The integer.
+		 */
+
+		void writeVarLong(long value) {
+			while((value & ~0x7FL) != 0L) {
+				writeByte((int)((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			writeByte((int)value);
+		}
+
+		/**
+		 * Writes a signed variable-length integer.
+		 *
+		 * @param value The integer.
+		 */
+
+		void writeSignedVarLong(final long value) {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+		/**
+		 * Writes an array of bytes, preceded by its length.
+		 *
+		 * @param value The array.
+		 */
+
+		void writeBytes(final byte[] value) {
+			writeVarLong(value.length);
+			for(final byte b : value) {
+				writeByte(b);
+			}
+		}
+
+		/**
+		 * Writes a value (see <em>normalize(Object)</em>).
+		 *
+		 * @param value The value.
+		 */
+
+		void writeValue(final Object value) {
+			if(value == null) {
+				writeByte(NULL);
+			}
+			else if(value instanceof Long) {
+				writeByte(LONG);
+				writeSignedVarLong((Long)value);
+			}
+			else if(value instanceof BigDecimal) {
+				writeByte(DECIMAL);
+				writeBytes(((BigDecimal)value).unscaledValue().toByteArray());
+				writeSignedVarLong(((BigDecimal)value).scale());
+			}
+			else {
+				writeByte(STRING);
+				writeBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+
+		/**
+		 * Returns the encoded bytes (only the first <em>size()</em> bytes are relevant).
+		 *
+		 * @return The bytes.
+		 */
+
+		byte[] getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * Returns the number of encoded bytes.
+		 *
+		 * @return The number of encoded bytes.
+		 */
+
+		int size() {
+			return size;
+		}
+
+		@Override
+		public byte get(final long position) {
+			return bytes[(int)position];
+		}
+
+	}
+
+	/**
+	 * Decodes records from a trace storage.
+	 */
+
+	static class Decoder {
+
+		/**
+		 * The storage.
+		 */
+
+		private final ByteSource source;
+
+		/**
+		 * The current position.
+		 */
+
+		private long position;
+
+		/**
+		 * Creates a new decoder.
+		 *
+		 * @param source The storage.
+		 */
+
+		Decoder(final ByteSource source) {
+			this.source = source;
+		}
+
+		/**
+		 * Reads the record that starts at the given position.
+		 *
+		 * @param start The position.
+		 * @param record The decoded record.
+		 *
+		 * @return The position of the next record.
+		 */
+
+		long read(final long start, final Record record) {
+			position = start;
+			record.type = readByte();
+			record.variable = 0;
+			record.delta = 0L;
+			record.value = null;
+
+			switch(record.type) {
+				case STATEMENT:
+					record.delta = readSignedVarLong();
+					break;
+				case WRITE_DELTA:
+					record.variable = (int)readVarLong();
+					record.delta = readSignedVarLong();
+					break;
+				case WRITE_VALUE:
+					record.variable = (int)readVarLong();
+					record.value = readValue();
+					break;
+				case OUTPUT:
+					record.value = new String(readBytes(), StandardCharsets.UTF_8);
+					break;
+				default:
+					throw new IllegalStateException("Unknown trace record : " + record.type + ".");
+			}
+
+			final long length = position - start;
+			return position + getVarLongSize(length);
+		}
+
+		/**
+		 * Reads the value that starts at the given position.
+		 *
+		 * @param start The position.
+		 *
+		 * @return The value.
+		 */
+
+		Object readValue(final long start) {
+			position = start;
+			return readValue();
+		}
+
+		/**
+		 * Returns the position that follows the last read data.
+		 *
+		 * @return The position.
+		 */
+
+		long getPosition() {
+			return position;
+		}
+
+		/**
+		 * Returns the start position of the record that ends at the given position.
+		 *
+		 * @param end The position.
+		 *
+		 * @return The start position of the record.
+		 */
+
+		long previous(final long end) {
+			long length = 0L;
+			int shift = 0;
+			long current = end;
+			byte b;
+			do {
+				b = source.get(--current);
+				length |= (long)(b & 0x7F) << shift;
+				shift += 7;
+			}
+			while((b & 0x80) != 0);
+
+			return current - length;
+		}
+
+		/**
+		 * Reads a byte.
+		 *
+		 * @return The byte.
+		 */
+
+		private byte readByte() {
+			return source.get(position++);
+		}
+
+		/**
+		 * Reads an unsigned variable-length integer.
+		 *
+		 * @return The integer.
+		 */
+
+		private long readVarLong() {
+			long value = 0L;
+			int shift = 0;
+			byte b;
+			do {
+				b = readByte();
+				value |= (long)(b & 0x7F) << shift;
+				shift += 7;
+			}
+			while((b & 0x80) != 0);
+
+			return value;
+		}
+
+		/**
+		 * Reads a signed variable-length integer.
+		 *
+		 * @return The integer.
+		 */
+
+		private long readSignedVarLong() {
+			final long value = readVarLong();
+			return (value >>> 1) ^ -(value & 1L);
+		}
+
+		/**
+		 * Reads an array of bytes, preceded by its length.
+		 *
+		 * @return The array.
+		 */
+
+		private byte[] readBytes() {
+			final byte[] value = new byte[(int)readVarLong()];
+			for(int i = 0; i < value.length; i++) {
+				value[i] = readByte();
+			}
+			return value;
+		}
+
+		/**
+		 * Reads a value.
+		 *
+		 * @return The value.
+		 */
+
+		private Object readValue() {
+			final byte kind = readByte();
+			switch(kind) {
+				case NULL:
+					return null;
+				case LONG:
+					return readSignedVarLong();
+				case DECIMAL: {
+					final BigInteger unscaled = new BigInteger(readBytes());
+					return new BigDecimal(unscaled, (int)readSignedVarLong());
+				}
+				case STRING:
+					return new String(readBytes(), StandardCharsets.UTF_8);
+				default:
+					throw new IllegalStateException("Unknown trace value : " + kind + ".");
+			}
+		}
+
+	}
+
+	/**
+	 * Returns the number of bytes of an unsigned variable-length integer.
+	 *
+	 * @param value The integer.
+	 *
+	 * @return The number of bytes.
+	 */
+
+	static int getVarLongSize(long value) {
+		int size = 1;
+		while((value & ~0x7FL) != 0L) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,277 @@
+package xyz.algogo.core.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays a trace forward and backward, without evaluating the algorithm again (see <em>Trace.newReader()</em>).
+ * <br>The reader maintains the state of the evaluation after the current event : the current statement, the value of each variable and the outputs.
+ */
+
+public class TraceReader {
+
+	/**
+	 * The trace.
+	 */
+
+	private final Trace trace;
+
+	/**
+	 * Decodes the records.
+	 */
+
+	private final TraceFormat.Decoder decoder;
+
+	/**
+	 * The decoded record.
+	 */
+
+	private final TraceFormat.Record record = new TraceFormat.Record();
+
+	/**
+	 * The position of the next record.
+	 */
+
+	private long position = 0L;
+
+	/**
+	 * The current statement index.
+	 */
+
+	private int statement;
+
+	/**
+	 * The current value of each variable.
+	 */
+
+	private final Object[] values;
+
+	/**
+	 * The outputs.
+	 */
+
+	private final List<String> outputs = new ArrayList<>();
+
+	/**
+	 * The current event.
+	 */
+
+	private TraceEvent event = null;
+
+	/**
+	 * Creates a new trace reader, positioned before the first record.
+	 *
+	 * @param trace The trace.
+	 */
+
+	public TraceReader(final Trace trace) {
+		this.trace = trace;
+		final byte[] records = trace.getRecords();
+		this.decoder = new TraceFormat.Decoder(position -> records[(int)position]);
+		this.statement = trace.getBaseStatement();
+		this.values = trace.getBaseValues().toArray();
+	}
+
+	/**
+	 * Returns whether there is a next event.
+	 *
+	 * @return Whether there is a next event.
+	 */
+
+	public boolean hasNext() {
+		return position < trace.getSize();
+	}
+
+	/**
+	 * Returns whether there is a previous event (that is, whether the reader is not before the first record).
+	 *
+	 * @return Whether there is a previous event.
+	 */
+
+	public boolean hasPrevious() {
+		return position > 0L;
+	}
+
+	/**
+	 * Moves to the next event.
+	 *
+	 * @return <b>false</b> if there is no next event.
+	 */
+
+	public boolean next() {
+		if(!hasNext()) {
+			return false;
+		}
+
+		position = decoder.read(position, record);
+		switch(record.type) {
+			case TraceFormat.STATEMENT:
+				statement += (int)record.delta;
+				break;
+			case TraceFormat.WRITE_DELTA:
+				values[record.variable] = (Long)values[record.variable] + record.delta;
+				break;
+			case TraceFormat.WRITE_VALUE:
+				values[record.variable] = record.value;
+				break;
+			case TraceFormat.OUTPUT:
+				outputs.add((String)record.value);
+				break;
+			default:
+				break;
+		}
+
+		event = createEvent();
+		return true;
+	}
+
+	/**
+	 * Moves to the previous event, undoing the current one.
+	 *
+	 * @return <b>false</b> if there is no previous event.
+	 */
+
+	public boolean previous() {
+		if(!hasPrevious()) {
+			return false;
+		}
+
+		final long start = decoder.previous(position);
+		decoder.read(start, record);
+		switch(record.type) {
+			case TraceFormat.STATEMENT:
+				statement -= (int)record.delta;
+				break;
+			case TraceFormat.WRITE_DELTA:
+				values[record.variable] = (Long)values[record.variable] - record.delta;
+				break;
+			case TraceFormat.WRITE_VALUE:
+				values[record.variable] = getValueBefore(record.variable, start);
+				break;
+			case TraceFormat.OUTPUT:
+				outputs.remove(outputs.size() - 1);
+				break;
+			default:
+				break;
+		}
+
+		position = start;
+		if(position == 0L) {
+			event = null;
+		}
+		else {
+			decoder.read(decoder.previous(position), record);
+			event = createEvent();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the current event.
+	 *
+	 * @return The current event, or <b>null</b> if the reader is before the first record.
+	 */
+
+	public TraceEvent getEvent() {
+		return event;
+	}
+
+	/**
+	 * Returns the label of the current statement.
+	 *
+	 * @return The label, or <b>null</b> if no statement has started yet.
+	 */
+
+	public String getStatement() {
+		return statement < 0 ? null : trace.getStatements().get(statement);
+	}
+
+	/**
+	 * Returns the current value of a variable.
+	 *
+	 * @param identifier The variable identifier.
+	 *
+	 * @return The value, or <b>null</b> if the variable has not been written yet.
+	 */
+
+	public Object getValue(final String identifier) {
+		final int index = trace.getVariables().indexOf(identifier);
+		return index == -1 ? null : values[index];
+	}
+
+	/**
+	 * Returns the current value of each variable that has been written.
+	 *
+	 * @return A map containing the values (by variable identifier).
+	 */
+
+	public Map<String, Object> getVariables() {
+		final Map<String, Object> variables = new LinkedHashMap<>();
+		for(int i = 0; i < values.length; i++) {
+			if(values[i] != null) {
+				variables.put(trace.getVariables().get(i), values[i]);
+			}
+		}
+		return variables;
+	}
+
+	/**
+	 * Returns the outputs, up to the current event.
+	 *
+	 * @return The outputs.
+	 */
+
+	public List<String> getOutputs() {
+		return Collections.unmodifiableList(outputs);
+	}
+
+	/**
+	 * Creates the event of the decoded record, that has just been applied.
+	 *
+	 * @return The event.
+	 */
+
+	private TraceEvent createEvent() {
+		switch(record.type) {
+			case TraceFormat.STATEMENT:
+				return new TraceEvent(TraceEvent.Type.STATEMENT, getStatement(), statement, null);
+			case TraceFormat.WRITE_DELTA:
+			case TraceFormat.WRITE_VALUE:
+				return new TraceEvent(TraceEvent.Type.WRITE, trace.getVariables().get(record.variable), record.variable, values[record.variable]);
+			default:
+				return new TraceEvent(TraceEvent.Type.OUTPUT, null, -1, record.value);
+		}
+	}
+
+	/**
+	 * Returns the value that a variable held before a record, by walking the records backward up to the previous full value write.
+	 *
+	 * @param variable The variable index.
+	 * @param end The position of the record.
+	 *
+	 * @return The value.
+	 */
+
+	private Object getValueBefore(final int variable, final long end) {
+		final TraceFormat.Record previous = new TraceFormat.Record();
+		long delta = 0L;
+		long current = end;
+		while(current > 0L) {
+			current = decoder.previous(current);
+			decoder.read(current, previous);
+			if(previous.type == TraceFormat.WRITE_DELTA && previous.variable == variable) {
+				delta += previous.delta;
+			}
+			else if(previous.type == TraceFormat.WRITE_VALUE && previous.variable == variable) {
+				return delta == 0L ? previous.value : (Object)((Long)previous.value + delta);
+			}
+		}
+
+		final Object base = trace.getBaseValues().get(variable);
+		return delta == 0L ? base : (Object)((Long)base + delta);
+	}
+
+}
@@ -0,0 +1,405 @@
+package xyz.algogo.core.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.language.AlgogoLanguage;
+import xyz.algogo.core.language.Language;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.statement.simple.io.PromptStatement;
+import xyz.algogo.core.statement.simple.variable.AssignStatement;
+import xyz.algogo.core.statement.simple.variable.VariableStatement;
+
+/**
+ * Records the statements, the variable writes and the outputs of an evaluation in a compact binary ring buffer (see <em>EvaluationContext.setTraceRecorder(TraceRecorder)</em>).
+ * <br>Statement indexes and integer values are delta-encoded, so a typical record takes two or three bytes. When the buffer is full, the oldest records are dropped : they are applied to a base state, so that the remaining ones can still be replayed exactly (see <em>getTrace()</em>).
+ * A recorder is not thread-safe : it should only be used by one evaluation at a time.
+ */
+
+public class TraceRecorder {
+
+	/**
+	 * The default capacity (in bytes).
+	 */
+
+	public static final int DEFAULT_CAPACITY = 1 << 20;
+
+	/**
+	 * The ring buffer.
+	 */
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * The capacity of the ring buffer.
+	 */
+
+	private final int capacity;
+
+	/**
+	 * Reads the ring buffer (positions are absolute, they are wrapped around the capacity).
+	 */
+
+	private final TraceFormat.ByteSource source;
+
+	/**
+	 * Decodes the records that are dropped.
+	 */
+
+	private final TraceFormat.Decoder decoder;
+
+	/**
+	 * The record that is being encoded.
+	 */
+
+	private final TraceFormat.Encoder encoder = new TraceFormat.Encoder();
+
+	/**
+	 * The record that is being dropped.
+	 */
+
+	private final TraceFormat.Record dropped = new TraceFormat.Record();
+
+	/**
+	 * The absolute position of the oldest record.
+	 */
+
+	private long head = 0L;
+
+	/**
+	 * The absolute position of the next record.
+	 */
+
+	private long tail = 0L;
+
+	/**
+	 * The indexes of the recorded statements.
+	 */
+
+	private final Map<Statement, Integer> statementIndexes = new IdentityHashMap<>();
+
+	/**
+	 * The recorded statements (by index).
+	 */
+
+	private final List<Statement> statements = new ArrayList<>();
+
+	/**
+	 * The indexes of the recorded variables.
+	 */
+
+	private final Map<String, Integer> variableIndexes = new HashMap<>();
+
+	/**
+	 * The recorded variables identifiers (by index).
+	 */
+
+	private final List<String> variables = new ArrayList<>();
+
+	/**
+	 * The last recorded value of each variable.
+	 */
+
+	private final List<Object> values = new ArrayList<>();
+
+	/**
+	 * The last recorded statement index.
+	 */
+
+	private int statement = -1;
+
+	/**
+	 * The value of each variable before the oldest record.
+	 */
+
+	private final List<Object> baseValues = new ArrayList<>();
+
+	/**
+	 * The statement index before the oldest record.
+	 */
+
+	private int baseStatement = -1;
+
+	/**
+	 * Creates a new trace recorder with the default capacity.
+	 */
+
+	public TraceRecorder() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new trace recorder that records in memory.
+	 *
+	 * @param capacity The capacity (in bytes).
+	 */
+
+	public TraceRecorder(final int capacity) {
+		this(ByteBuffer.allocate(capacity));
+	}
+
+	/**
+	 * Creates a new trace recorder.
+	 *
+	 * @param buffer The ring buffer (from its position to its limit).
+	 */
+
+	public TraceRecorder(final ByteBuffer buffer) {
+		this.buffer = buffer.slice();
+		this.capacity = this.buffer.capacity();
+		if(capacity <= 0) {
+			throw new IllegalArgumentException("The capacity must be positive.");
+		}
+
+		this.source = position -> this.buffer.get((int)(position % capacity));
+		this.decoder = new TraceFormat.Decoder(source);
+	}
+
+	/**
+	 * Creates a new trace recorder whose ring buffer is a memory-mapped file, for long runs whose trace does not fit in the heap.
+	 *
+	 * @param file The file (created if needed).
+	 * @param capacity The capacity (in bytes).
+	 *
+	 * @return The trace recorder.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	public static TraceRecorder mapped(final Path file, final int capacity) throws IOException {
+		try(final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return new TraceRecorder(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+		}
+	}
+
+	/**
+	 * Records that a statement starts.
+	 *
+	 * @param statement The statement.
+	 */
+
+	public void enter(final Statement statement) {
+		Integer index = statementIndexes.get(statement);
+		if(index == null) {
+			index = statements.size();
+			statementIndexes.put(statement, index);
+			statements.add(statement);
+		}
+
+		encoder.start(TraceFormat.STATEMENT);
+		encoder.writeSignedVarLong(index - this.statement);
+		this.statement = index;
+		append();
+	}
+
+	/**
+	 * Records the variable written by a statement that has ended (if any).
+	 *
+	 * @param statement The statement.
+	 * @param evaluator The expression evaluator.
+	 */
+
+	public void exit(final Statement statement, final ExpressionEvaluator evaluator) {
+		final Class<?> type = statement.getClass();
+		if(type == AssignStatement.class || type == PromptStatement.class) {
+			final String identifier = ((VariableStatement)statement).getIdentifier();
+			final Variable variable = evaluator.getVariable(identifier);
+			if(variable != null) {
+				write(identifier, variable);
+			}
+		}
+	}
+
+	/**
+	 * Records a variable write.
+	 *
+	 * @param identifier The variable identifier.
+	 * @param variable The variable.
+	 */
+
+	public void write(final String identifier, final Variable variable) {
+		Integer index = variableIndexes.get(identifier);
+		if(index == null) {
+			index = variables.size();
+			variableIndexes.put(identifier, index);
+			variables.add(identifier);
+			values.add(null);
+			baseValues.add(null);
+		}
+
+		final Object value = variable.getNumber() != null && variable.getNumber().isLong() ? (Object)variable.getNumber().getLongValue() : TraceFormat.normalize(variable.getValue());
+		final Object previous = values.get(index);
+		if(value instanceof Long && previous instanceof Long) {
+			encoder.start(TraceFormat.WRITE_DELTA);
+			encoder.writeVarLong(index);
+			encoder.writeSignedVarLong((Long)value - (Long)previous);
+		}
+		else {
+			encoder.start(TraceFormat.WRITE_VALUE);
+			encoder.writeVarLong(index);
+			encoder.writeValue(value);
+		}
+
+		values.set(index, value);
+		append();
+	}
+
+	/**
+	 * Records an output.
+	 *
+	 * @param content The content.
+	 */
+
+	public void output(final String content) {
+		encoder.start(TraceFormat.OUTPUT);
+		encoder.writeBytes(content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8));
+		append();
+	}
+
+	/**
+	 * Clears all the records.
+	 */
+
+	public void reset() {
+		head = 0L;
+		tail = 0L;
+		statementIndexes.clear();
+		statements.clear();
+		variableIndexes.clear();
+		variables.clear();
+		values.clear();
+		baseValues.clear();
+		statement = -1;
+		baseStatement = -1;
+	}
+
+	/**
+	 * Returns the capacity of the ring buffer.
+	 *
+	 * @return The capacity (in bytes).
+	 */
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of bytes that have been dropped because the ring buffer was full.
+	 *
+	 * @return The number of dropped bytes.
+	 */
+
+	public long getDroppedBytes() {
+		return head;
+	}
+
+	/**
+	 * Creates a snapshot of the records, with statements labeled in the Algogo language.
+	 *
+	 * @return The trace.
+	 */
+
+	public Trace getTrace() {
+		return getTrace(new AlgogoLanguage(false));
+	}
+
+	/**
+	 * Creates a snapshot of the records.
+	 *
+	 * @param language The language used to label statements.
+	 *
+	 * @return The trace.
+	 */
+
+	public Trace getTrace(final Language language) {
+		final List<String> labels = new ArrayList<>(statements.size());
+		for(final Statement statement : statements) {
+			labels.add(language.translateHeader(statement));
+		}
+
+		final byte[] records = new byte[(int)(tail - head)];
+		for(int i = 0; i < records.length; i++) {
+			records[i] = source.get(head + i);
+		}
+
+		return new Trace(labels, new ArrayList<>(variables), new ArrayList<>(baseValues), baseStatement, records, head != 0L);
+	}
+
+	/**
+	 * Appends the encoded record to the ring buffer, dropping the oldest records if needed.
+	 */
+
+	private void append() {
+		encoder.end();
+		final int length = encoder.size();
+
+		if(length > capacity) {
+			while(head < tail) {
+				drop();
+			}
+			new TraceFormat.Decoder(encoder).read(0L, dropped);
+			apply(dropped);
+			head += length;
+			tail += length;
+			return;
+		}
+
+		while(tail + length - head > capacity) {
+			drop();
+		}
+
+		final byte[] bytes = encoder.getBytes();
+		final int start = (int)(tail % capacity);
+		final int first = Math.min(length, capacity - start);
+		for(int i = 0; i < first; i++) {
+			buffer.put(start + i, bytes[i]);
+		}
+		for(int i = first; i < length; i++) {
+			buffer.put(i - first, bytes[i]);
+		}
+		tail += length;
+	}
+
+	/**
+	 * Drops the oldest record by applying it to the base state.
+	 */
+
+	private void drop() {
+		head = decoder.read(head, dropped);
+		apply(dropped);
+	}
+
+	/**
+	 * Applies a dropped record to the base state.
+	 *
+	 * @param record The record.
+	 */
+
+	private void apply(final TraceFormat.Record record) {
+		switch(record.type) {
+			case TraceFormat.STATEMENT:
+				baseStatement += (int)record.delta;
+				break;
+			case TraceFormat.WRITE_DELTA:
+				baseValues.set(record.variable, (Long)baseValues.get(record.variable) + record.delta);
+				break;
+			case TraceFormat.WRITE_VALUE:
+				baseValues.set(record.variable, record.value);
+				break;
+			default:
+				break;
+		}
+	}
+
+}
@@ -0,0 +1,633 @@
+package xyz.algogo.core.vm;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableType;
+
+/**
+ * Represents the complete state of an execution, taken by the virtual machine between two statements (see <em>EvaluationContext.setSnapshotListener(SnapshotListener)</em>).
+ * <br>It holds the instruction to resume from (which encodes the position inside the nested blocks), the variables, the loops counters, the random numbers generator, the number of consumed inputs and the budgets counters.
+ * A snapshot is immutable : it can be saved (see <em>write(OutputStream)</em>) and resumed later, possibly on another machine, with <em>Algorithm.resume(ExecutionSnapshot, EvaluationContext)</em>.
+ */
+
+public class ExecutionSnapshot {
+
+	/**
+	 * The magic number of a saved snapshot ("AGSN").
+	 */
+
+	private static final int MAGIC = 0x4147534E;
+
+	/**
+	 * The version of the saved snapshots format.
+	 */
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Value kind : <b>null</b>.
+	 */
+
+	private static final byte NULL = 0;
+
+	/**
+	 * Value kind : an integer (a <em>Long</em>).
+	 */
+
+	private static final byte LONG = 1;
+
+	/**
+	 * Value kind : a decimal number (a <em>BigDecimal</em>).
+	 */
+
+	private static final byte DECIMAL = 2;
+
+	/**
+	 * Value kind : a string.
+	 */
+
+	private static final byte STRING = 3;
+
+	/**
+	 * Value kind : a number atom that holds an integer.
+	 */
+
+	private static final byte INTEGER_ATOM = 4;
+
+	/**
+	 * Value kind : a number atom that holds a decimal number.
+	 */
+
+	private static final byte DECIMAL_ATOM = 5;
+
+	/**
+	 * Value kind : a string atom.
+	 */
+
+	private static final byte STRING_ATOM = 6;
+
+	/**
+	 * Value kind : a boolean atom.
+	 */
+
+	private static final byte BOOLEAN_ATOM = 7;
+
+	/**
+	 * The signature of the program the snapshot has been taken from.
+	 */
+
+	private final int signature;
+
+	/**
+	 * The instruction to resume from.
+	 */
+
+	private final int instruction;
+
+	/**
+	 * The variables identifiers.
+	 */
+
+	private final String[] identifiers;
+
+	/**
+	 * The variables types.
+	 */
+
+	private final VariableType[] types;
+
+	/**
+	 * The variables values (<em>Long</em>, <em>BigDecimal</em> or string).
+	 */
+
+	private final Object[] values;
+
+	/**
+	 * The first saved register (the ones before hold the variables and the constants).
+	 */
+
+	private final int firstRegister;
+
+	/**
+	 * The saved registers kinds.
+	 */
+
+	private final byte[] kinds;
+
+	/**
+	 * The saved registers integer values.
+	 */
+
+	private final long[] longs;
+
+	/**
+	 * The saved registers references (atoms or loop counters).
+	 */
+
+	private final Object[] references;
+
+	/**
+	 * The number of executed statements.
+	 */
+
+	private final long executedStatements;
+
+	/**
+	 * The number of output bytes.
+	 */
+
+	private final long outputBytes;
+
+	/**
+	 * The number of consumed inputs.
+	 */
+
+	private final long consumedInputs;
+
+	/**
+	 * The serialized random numbers generator (<b>null</b> if it cannot be serialized).
+	 */
+
+	private final byte[] random;
+
+	/**
+	 * Creates a new execution snapshot.
+	 *
+	 * @param signature The signature of the program.
+	 * @param instruction The instruction to resume from.
+	 * @param identifiers The variables identifiers.
+	 * @param types The variables types.
+	 * @param values The variables values.
+	 * @param firstRegister The first saved register.
+	 * @param kinds The saved registers kinds.
+	 * @param longs The saved registers integer values.
+	 * @param references The saved registers references.
+	 * @param executedStatements The number of executed statements.
+	 * @param outputBytes The number of output bytes.
+	 * @param consumedInputs The number of consumed inputs.
+	 * @param random The serialized random numbers generator.
+	 */
+
+	private ExecutionSnapshot(final int signature, final int instruction, final String[] identifiers, final VariableType[] types, final Object[] values, final int firstRegister, final byte[] kinds, final long[] longs, final Object[] references, final long executedStatements, final long outputBytes, final long consumedInputs, final byte[] random) {
+		this.signature = signature;
+		this.instruction = instruction;
+		this.identifiers = identifiers;
+		this.types = types;
+		this.values = values;
+		this.firstRegister = firstRegister;
+		this.kinds = kinds;
+		this.longs = longs;
+		this.references = references;
+		this.executedStatements = executedStatements;
+		this.outputBytes = outputBytes;
+		this.consumedInputs = consumedInputs;
+		this.random = random;
+	}
+
+	/**
+	 * Takes a snapshot. The variables must have been written back to the evaluator.
+	 *
+	 * @param program The program.
+	 * @param instruction The instruction to resume from.
+	 * @param variables The variables.
+	 * @param kinds The registers kinds.
+	 * @param longs The registers integer values.
+	 * @param references The registers references.
+	 * @param context The evaluation context.
+	 *
+	 * @return The snapshot.
+	 */
+
+	static ExecutionSnapshot take(final Program program, final int instruction, final Variable[] variables, final byte[] kinds, final long[] longs, final Object[] references, final EvaluationContext context) {
+		final String[] identifiers = new String[variables.length];
+		final VariableType[] types = new VariableType[variables.length];
+		final Object[] values = new Object[variables.length];
+		for(int i = 0; i < variables.length; i++) {
+			final Variable variable = variables[i];
+			identifiers[i] = variable.getIdentifier();
+			types[i] = variable.getType();
+			final NumberAtom number = variable.getNumber();
+			values[i] = number != null && number.isLong() ? (Object)number.getLongValue() : variable.getValue();
+		}
+
+		final int firstRegister = program.getVariables().length + program.getConstants().length;
+		final int count = kinds.length - firstRegister;
+		final Object[] savedReferences = new Object[count];
+		for(int i = 0; i < count; i++) {
+			final Object reference = references[firstRegister + i];
+			savedReferences[i] = getKind(reference) == NULL ? null : reference;
+		}
+
+		final byte[] savedKinds = new byte[count];
+		final long[] savedLongs = new long[count];
+		System.arraycopy(kinds, firstRegister, savedKinds, 0, count);
+		System.arraycopy(longs, firstRegister, savedLongs, 0, count);
+
+		return new ExecutionSnapshot(program.getSignature(), instruction, identifiers, types, values, firstRegister, savedKinds, savedLongs, savedReferences, context.getExecutedStatements(), context.getOutputBytes(), context.getConsumedInputs(), serialize(context.getRandom()));
+	}
+
+	/**
+	 * Returns the signature of the program the snapshot has been taken from.
+	 *
+	 * @return The signature.
+	 */
+
+	public int getSignature() {
+		return signature;
+	}
+
+	/**
+	 * Returns the instruction to resume from.
+	 *
+	 * @return The instruction.
+	 */
+
+	public int getInstruction() {
+		return instruction;
+	}
+
+	/**
+	 * Returns the number of statements that had been executed when the snapshot was taken.
+	 *
+	 * @return The number of executed statements.
+	 */
+
+	public long getExecutedStatements() {
+		return executedStatements;
+	}
+
+	/**
+	 * Returns the number of bytes that had been output when the snapshot was taken.
+	 *
+	 * @return The number of output bytes.
+	 */
+
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	/**
+	 * Returns the number of inputs that had been consumed when the snapshot was taken. A scripted input listener should resume from this position.
+	 *
+	 * @return The number of consumed inputs.
+	 */
+
+	public long getConsumedInputs() {
+		return consumedInputs;
+	}
+
+	/**
+	 * Creates the variables, with the values they held when the snapshot was taken.
+	 *
+	 * @return The variables.
+	 */
+
+	public Variable[] createVariables() {
+		final Variable[] variables = new Variable[identifiers.length];
+		for(int i = 0; i < variables.length; i++) {
+			variables[i] = new Variable(identifiers[i], types[i], values[i]);
+			if(values[i] instanceof Long) {
+				variables[i].setNumber(new NumberAtom((Long)values[i]));
+			}
+		}
+		return variables;
+	}
+
+	/**
+	 * Creates the random numbers generator, in the state it had when the snapshot was taken.
+	 *
+	 * @return The random numbers generator, or <b>null</b> if it could not be saved.
+	 */
+
+	public Random createRandom() {
+		if(random == null) {
+			return null;
+		}
+
+		try(final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(random))) {
+			return (Random)input.readObject();
+		}
+		catch(final IOException | ClassNotFoundException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Restores the saved registers.
+	 *
+	 * @param kinds The registers kinds.
+	 * @param longs The registers integer values.
+	 * @param references The registers references.
+	 */
+
+	void restoreRegisters(final byte[] kinds, final long[] longs, final Object[] references) {
+		if(firstRegister + this.kinds.length != kinds.length) {
+			throw new IllegalArgumentException("The snapshot does not match the program registers.");
+		}
+
+		System.arraycopy(this.kinds, 0, kinds, firstRegister, this.kinds.length);
+		System.arraycopy(this.longs, 0, longs, firstRegister, this.longs.length);
+		System.arraycopy(this.references, 0, references, firstRegister, this.references.length);
+	}
+
+	/**
+	 * Saves this snapshot.
+	 *
+	 * @param output The output stream.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	public void write(final OutputStream output) throws IOException {
+		final DataOutputStream data = new DataOutputStream(output);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(signature);
+		data.writeInt(instruction);
+
+		data.writeInt(identifiers.length);
+		for(int i = 0; i < identifiers.length; i++) {
+			data.writeUTF(identifiers[i]);
+			data.writeByte(types[i].ordinal());
+			writeValue(data, values[i]);
+		}
+
+		data.writeInt(firstRegister);
+		data.writeInt(kinds.length);
+		for(int i = 0; i < kinds.length; i++) {
+			data.writeByte(kinds[i]);
+			data.writeLong(longs[i]);
+			writeValue(data, references[i]);
+		}
+
+		data.writeLong(executedStatements);
+		data.writeLong(outputBytes);
+		data.writeLong(consumedInputs);
+		data.writeInt(random == null ? -1 : random.length);
+		if(random != null) {
+			data.write(random);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Loads a snapshot.
+	 *
+	 * @param input The input stream.
+	 *
+	 * @return The snapshot.
+	 *
+	 * @throws IOException If any I/O exception occurs or if the stream does not contain a snapshot.
+	 */
+
+	public static ExecutionSnapshot read(final InputStream input) throws IOException {
+		final DataInputStream data = new DataInputStream(input);
+		if(data.readInt() != MAGIC || data.readInt() != VERSION) {
+			throw new IOException("Not a snapshot or unsupported version.");
+		}
+
+		final int signature = data.readInt();
+		final int instruction = data.readInt();
+
+		final int variableCount = data.readInt();
+		final String[] identifiers = new String[variableCount];
+		final VariableType[] types = new VariableType[variableCount];
+		final Object[] values = new Object[variableCount];
+		for(int i = 0; i < variableCount; i++) {
+			identifiers[i] = data.readUTF();
+			types[i] = VariableType.values()[data.readByte()];
+			values[i] = readValue(data);
+		}
+
+		final int firstRegister = data.readInt();
+		final int registerCount = data.readInt();
+		final byte[] kinds = new byte[registerCount];
+		final long[] longs = new long[registerCount];
+		final Object[] references = new Object[registerCount];
+		for(int i = 0; i < registerCount; i++) {
+			kinds[i] = data.readByte();
+			longs[i] = data.readLong();
+			references[i] = readValue(data);
+		}
+
+		final long executedStatements = data.readLong();
+		final long outputBytes = data.readLong();
+		final long consumedInputs = data.readLong();
+		final int randomLength = data.readInt();
+		byte[] random = null;
+		if(randomLength >= 0) {
+			random = new byte[randomLength];
+			data.readFully(random);
+		}
+
+		return new ExecutionSnapshot(signature, instruction, identifiers, types, values, firstRegister, kinds, longs, references, executedStatements, outputBytes, consumedInputs, random);
+	}
+
+	/**
+	 * Returns the kind of a value.
+	 *
+	 * @param value The value.
+	 *
+	 * @return The kind (<b>NULL</b> if the value cannot be saved).
+	 */
+
+	private static byte getKind(final Object value) {
+		if(value == null) {
+			return NULL;
+		}
+
+		final Class<?> type = value.getClass();
+		if(type == Long.class) {
+			return LONG;
+		}
+		if(type == BigDecimal.class) {
+			return DECIMAL;
+		}
+		if(type == String.class) {
+			return STRING;
+		}
+		if(type == NumberAtom.class) {
+			return ((NumberAtom)value).isLong() ? INTEGER_ATOM : DECIMAL_ATOM;
+		}
+		if(type == StringAtom.class) {
+			return STRING_ATOM;
+		}
+		if(type == BooleanAtom.class) {
+			return BOOLEAN_ATOM;
+		}
+		return NULL;
+	}
+
+	/**
+	 * Writes a value.
+	 *
+	 * @param data The output stream.
+	 * @param value The value.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static void writeValue(final DataOutputStream data, final Object value) throws IOException {
+		final byte kind = getKind(value);
+		data.writeByte(kind);
+		switch(kind) {
+			case LONG:
+				data.writeLong((Long)value);
+				break;
+			case DECIMAL:
+				writeDecimal(data, (BigDecimal)value);
+				break;
+			case STRING:
+				writeString(data, (String)value);
+				break;
+			case INTEGER_ATOM:
+				data.writeLong(((NumberAtom)value).getLongValue());
+				break;
+			case DECIMAL_ATOM:
+				writeDecimal(data, ((NumberAtom)value).getValue());
+				break;
+			case STRING_ATOM:
+				writeString(data, ((StringAtom)value).getValue());
+				break;
+			case BOOLEAN_ATOM:
+				data.writeBoolean(((BooleanAtom)value).getBooleanValue());
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Reads a value.
+	 *
+	 * @param data The input stream.
+	 *
+	 * @return The value.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static Object readValue(final DataInputStream data) throws IOException {
+		final byte kind = data.readByte();
+		switch(kind) {
+			case NULL:
+				return null;
+			case LONG:
+				return data.readLong();
+			case DECIMAL:
+				return readDecimal(data);
+			case STRING:
+				return readString(data);
+			case INTEGER_ATOM:
+				return new NumberAtom(data.readLong());
+			case DECIMAL_ATOM:
+				return new NumberAtom(readDecimal(data));
+			case STRING_ATOM:
+				return new StringAtom(readString(data));
+			case BOOLEAN_ATOM:
+				return BooleanAtom.valueOf(data.readBoolean());
+			default:
+				throw new IOException("Unknown snapshot value : " + kind + ".");
+		}
+	}
+
+	/**
+	 * Writes a decimal number (its unscaled value and its scale).
+	 *
+	 * @param data The output stream.
+	 * @param value The decimal number.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static void writeDecimal(final DataOutputStream data, final BigDecimal value) throws IOException {
+		final byte[] unscaled = value.unscaledValue().toByteArray();
+		data.writeInt(unscaled.length);
+		data.write(unscaled);
+		data.writeInt(value.scale());
+	}
+
+	/**
+	 * Reads a decimal number.
+	 *
+	 * @param data The input stream.
+	 *
+	 * @return The decimal number.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static BigDecimal readDecimal(final DataInputStream data) throws IOException {
+		final byte[] unscaled = new byte[data.readInt()];
+		data.readFully(unscaled);
+		return new BigDecimal(new BigInteger(unscaled), data.readInt());
+	}
+
+	/**
+	 * Writes a string (UTF-8, preceded by its length : strings may be longer than what <em>writeUTF(String)</em> supports).
+	 *
+	 * @param data The output stream.
+	 * @param value The string.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static void writeString(final DataOutputStream data, final String value) throws IOException {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	/**
+	 * Reads a string.
+	 *
+	 * @param data The input stream.
+	 *
+	 * @return The string.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	private static String readString(final DataInputStream data) throws IOException {
+		final byte[] bytes = new byte[data.readInt()];
+		data.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Serializes a random numbers generator.
+	 *
+	 * @param random The random numbers generator.
+	 *
+	 * @return The serialized generator, or <b>null</b> if it cannot be serialized.
+	 */
+
+	private static byte[] serialize(final Random random) {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(random);
+		}
+		catch(final IOException ex) {
+			return null;
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -0,0 +1,258 @@
+package xyz.algogo.core.vm;
+
+/**
+ * Contains the opcodes of the virtual machine instructions.
+ * <br>An instruction is made of <em>Opcode.WIDTH</em> integers : the opcode (and its flags) followed by three operands (<b>a</b>, <b>b</b> and <b>c</b>).
+ * It may also reference an object (an expression, a statement, a variable slot, ...) that is stored at the same index in the program.
+ * Registers are laid out this way : one register per variable (it always holds what reading the variable would return), then one register per constant, and then the temporary registers.
+ */
+
+final class Opcode {
+
+	/**
+	 * The number of integers of an instruction.
+	 */
+
+	static final int WIDTH = 4;
+
+	/**
+	 * Masks the opcode out of the first integer of an instruction.
+	 */
+
+	static final int MASK = 0xFF;
+
+	/**
+	 * Flag : the evaluation context is polled after the instruction (see <em>EvaluationContext.poll()</em>), or when the jump is taken for a conditional jump.
+	 */
+
+	static final int POLL_FLAG = 1 << 8;
+
+	/**
+	 * Flag : the condition of a comparison jump is negated.
+	 */
+
+	static final int NEGATE_FLAG = 1 << 9;
+
+	/**
+	 * Flag : the result of an arithmetic instruction is put in the variable register <b>a</b> and assigned to its variable, like <em>ASSIGN</em> does (the context is then polled if the instruction also has the poll flag).
+	 */
+
+	static final int ASSIGN_FLAG = 1 << 10;
+
+	/**
+	 * Ends the program.
+	 */
+
+	static final int HALT = 0;
+
+	/**
+	 * Polls the evaluation context and ends the program if it should stop.
+	 */
+
+	static final int POLL = 1;
+
+	/**
+	 * Jumps to the instruction <b>a</b>.
+	 */
+
+	static final int GOTO = 2;
+
+	/**
+	 * Evaluates the referenced statement with the tree walker and ends the program if it returns an exception.
+	 */
+
+	static final int EXEC = 3;
+
+	/**
+	 * Evaluates the referenced expression with the tree walker and puts the result in the register <b>a</b>.
+	 */
+
+	static final int EVAL = 4;
+
+	/**
+	 * Loads the boolean <b>b</b> (<b>1</b> or <b>0</b>) in the register <b>a</b>.
+	 */
+
+	static final int LOAD_BOOLEAN = 5;
+
+	/**
+	 * Puts <b>b + c</b> in the register <b>a</b> (the referenced expression is used when operands are not integers).
+	 */
+
+	static final int ADD = 6;
+
+	/**
+	 * Puts <b>b - c</b> in the register <b>a</b>.
+	 */
+
+	static final int SUBTRACT = 7;
+
+	/**
+	 * Puts <b>b * c</b> in the register <b>a</b>.
+	 */
+
+	static final int MULTIPLY = 8;
+
+	/**
+	 * Puts <b>b / c</b> in the register <b>a</b>.
+	 */
+
+	static final int DIVIDE = 9;
+
+	/**
+	 * Puts <b>b % c</b> in the register <b>a</b>.
+	 */
+
+	static final int REMAINDER = 10;
+
+	/**
+	 * Puts <b>b &lt; c</b> in the register <b>a</b>.
+	 */
+
+	static final int LESS = 11;
+
+	/**
+	 * Puts <b>b &lt;= c</b> in the register <b>a</b>.
+	 */
+
+	static final int LESS_OR_EQUAL = 12;
+
+	/**
+	 * Puts <b>b &gt; c</b> in the register <b>a</b>.
+	 */
+
+	static final int GREATER = 13;
+
+	/**
+	 * Puts <b>b &gt;= c</b> in the register <b>a</b>.
+	 */
+
+	static final int GREATER_OR_EQUAL = 14;
+
+	/**
+	 * Puts <b>b == c</b> in the register <b>a</b>.
+	 */
+
+	static final int EQUAL = 15;
+
+	/**
+	 * Puts <b>b != c</b> in the register <b>a</b>.
+	 */
+
+	static final int NOT_EQUAL = 16;
+
+	/**
+	 * Jumps to the instruction <b>a</b> if <b>b &lt; c</b>. The next five opcodes are the jumping versions of the other comparisons (in the same order).
+	 */
+
+	static final int JUMP_IF_LESS = 17;
+
+	/**
+	 * Jumps to the instruction <b>a</b> if <b>b &lt;= c</b>.
+	 */
+
+	static final int JUMP_IF_LESS_OR_EQUAL = 18;
+
+	/**
+	 * Jumps to the instruction <b>a</b> if <b>b &gt; c</b>.
+	 */
+
+	static final int JUMP_IF_GREATER = 19;
+
+	/**
+	 * Jumps to the instruction <b>a</b> if <b>b &gt;= c</b>.
+	 */
+
+	static final int JUMP_IF_GREATER_OR_EQUAL = 20;
+
+	/**
+	 * Jumps to the instruction <b>a</b> if <b>b == c</b>.
+	 */
+
+	static final int JUMP_IF_EQUAL = 21;
+
+	/**
+	 * Jumps to the instruction <b>a</b> if <b>b != c</b>.
+	 */
+
+	static final int JUMP_IF_NOT_EQUAL = 22;
+
+	/**
+	 * Puts <b>-b</b> in the register <b>a</b>.
+	 */
+
+	static final int NEGATE = 23;
+
+	/**
+	 * Puts the negation of <b>b</b> in the register <b>a</b> (<b>c</b> is <b>1</b> if <b>b</b> has been computed by a boolean expression).
+	 */
+
+	static final int NOT = 24;
+
+	/**
+	 * Puts whether the register <b>b</b> is true in the register <b>a</b>.
+	 */
+
+	static final int TRUTH = 25;
+
+	/**
+	 * Jumps to the instruction <b>b</b> if the register <b>a</b> is true.
+	 */
+
+	static final int JUMP_IF_TRUE = 26;
+
+	/**
+	 * Jumps to the instruction <b>b</b> if the register <b>a</b> is not true.
+	 */
+
+	static final int JUMP_IF_NOT_TRUE = 27;
+
+	/**
+	 * Ends the program with an <em>InvalidExpressionException</em> if the register <b>a</b> is <b>null</b> (the referenced IF block gives the condition).
+	 */
+
+	static final int CHECK_CONDITION = 28;
+
+	/**
+	 * Assigns the register <b>b</b> to the variable of the register <b>a</b> (the referenced object is its slot).
+	 */
+
+	static final int ASSIGN = 29;
+
+	/**
+	 * Checks the variable of the register <b>a</b> before a FOR loop (the referenced object is its slot).
+	 */
+
+	static final int FOR_VARIABLE = 30;
+
+	/**
+	 * Initializes the FOR loop whose three registers start at <b>a</b> (they hold the start and the end values in <b>a + 1</b> and <b>a + 2</b>), or jumps to the instruction <b>b</b> if it has no iteration.
+	 */
+
+	static final int FOR_INIT = 31;
+
+	/**
+	 * Starts an iteration of the FOR loop whose registers start at <b>a</b> by putting its counter in the variable of the register <b>c</b> (or jumps to the instruction <b>b</b> if it is over).
+	 */
+
+	static final int FOR_TEST = 32;
+
+	/**
+	 * Ends an iteration of the FOR loop whose registers start at <b>a</b> : jumps back to the instruction <b>b</b> unless it was the last one.
+	 */
+
+	static final int FOR_NEXT = 33;
+
+	/**
+	 * Evaluates the referenced prompt statement, like <em>EXEC</em>. When the program is run asynchronously, it is suspended until the input is available.
+	 */
+
+	static final int PROMPT = 34;
+
+	/**
+	 * This class should not be instantiated.
+	 */
+
+	private Opcode() {}
+
+}
@@ -0,0 +1,287 @@
+package xyz.algogo.core.vm;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.statement.block.root.AlgorithmRootBlock;
+
+/**
+ * Represents an algorithm compiled into a flat array of register-based instructions (see <em>Opcode</em>).
+ * <br>A program is immutable : it can be executed several times, even concurrently (each execution has its own registers).
+ * It references the statements and expressions it has been compiled from, so it must be compiled again if they are modified.
+ */
+
+public class Program {
+
+	/**
+	 * The instructions.
+	 */
+
+	private final int[] code;
+
+	/**
+	 * The objects referenced by the instructions (indexed by instruction).
+	 */
+
+	private final Object[] objects;
+
+	/**
+	 * For each instruction, the register of the variable whose assigned value it computes (plus one), or <b>0</b>.
+	 */
+
+	private final int[] assignments;
+
+	/**
+	 * The slots of the variables that have a register (the register of a variable is its index).
+	 */
+
+	private final VariableSlot[] variables;
+
+	/**
+	 * The constants that have a register (they come right after the variables registers).
+	 */
+
+	private final Atom[] constants;
+
+	/**
+	 * The number of registers.
+	 */
+
+	private final int registerCount;
+
+	/**
+	 * The variable slots table the program has been compiled with.
+	 */
+
+	private final VariableSlots slots;
+
+	/**
+	 * The signature of this program (see <em>getSignature()</em>).
+	 */
+
+	private final int signature;
+
+	/**
+	 * Whether this program contains a <em>PROMPT</em> (see <em>hasPrompts()</em>).
+	 */
+
+	private final boolean prompts;
+
+	/**
+	 * Creates a new program.
+	 *
+	 * @param code The instructions.
+	 * @param objects The objects referenced by the instructions.
+	 * @param assignments The assignments table (see <em>getAssignments()</em>).
+	 * @param variables The slots of the variables that have a register.
+	 * @param constants The constants that have a register.
+	 * @param registerCount The number of registers.
+	 * @param slots The variable slots table.
+	 */
+
+	Program(final int[] code, final Object[] objects, final int[] assignments, final VariableSlot[] variables, final Atom[] constants, final int registerCount, final VariableSlots slots) {
+		this.code = code;
+		this.objects = objects;
+		this.assignments = assignments;
+		this.variables = variables;
+		this.constants = constants;
+		this.registerCount = registerCount;
+		this.slots = slots;
+
+		int signature = 31 * Arrays.hashCode(code) + registerCount;
+		for(final VariableSlot variable : variables) {
+			signature = 31 * signature + variable.getIdentifier().hashCode();
+		}
+		for(final Atom constant : constants) {
+			signature = 31 * signature + (constant == null ? 0 : Objects.hashCode(constant.getValue()));
+		}
+		this.signature = signature;
+
+		boolean prompts = false;
+		for(int index = 0; index < code.length; index += Opcode.WIDTH) {
+			prompts |= (code[index] & Opcode.MASK) == Opcode.PROMPT;
+		}
+		this.prompts = prompts;
+	}
+
+	/**
+	 * Executes this program.
+	 *
+	 * @param evaluator The expression evaluator (holds the variables and the functions).
+	 * @param context The evaluation context.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	public Exception execute(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		if(evaluator.getSlots() != slots) {
+			evaluator.setSlots(slots);
+		}
+
+		return new VirtualMachine(this, evaluator, context).run();
+	}
+
+	/**
+	 * Executes this program asynchronously : it is suspended at each <em>PROMPT</em> until the input returned by the asynchronous input listener of the context is available, without holding any thread.
+	 * <br>The program starts in the current thread and is resumed by the threads that complete the inputs.
+	 *
+	 * @param evaluator The expression evaluator (holds the variables and the functions).
+	 * @param context The evaluation context.
+	 *
+	 * @return A future that is completed with an exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	public CompletableFuture<Exception> executeAsync(final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		if(evaluator.getSlots() != slots) {
+			evaluator.setSlots(slots);
+		}
+
+		return new VirtualMachine(this, evaluator, context).runAsync();
+	}
+
+	/**
+	 * Resumes an execution of this program from a snapshot (see <em>EvaluationContext.setSnapshotListener(SnapshotListener)</em>).
+	 * <br>The variables of the evaluator are replaced by the ones of the snapshot, and the counters and the random numbers generator of the context are restored.
+	 *
+	 * @param evaluator The expression evaluator (holds the variables and the functions).
+	 * @param context The evaluation context.
+	 * @param snapshot The snapshot.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 *
+	 * @throws IllegalArgumentException If the snapshot has not been taken from this program.
+	 */
+
+	public Exception resume(final ExpressionEvaluator evaluator, final EvaluationContext context, final ExecutionSnapshot snapshot) {
+		if(snapshot.getSignature() != signature) {
+			throw new IllegalArgumentException("The snapshot has not been taken from this program.");
+		}
+
+		if(evaluator.getSlots() != slots) {
+			evaluator.setSlots(slots);
+		}
+
+		return new VirtualMachine(this, evaluator, context).resume(snapshot);
+	}
+
+	/**
+	 * Returns the number of instructions.
+	 *
+	 * @return The number of instructions.
+	 */
+
+	public int getInstructionCount() {
+		return objects.length;
+	}
+
+	/**
+	 * Returns the number of registers needed to execute this program.
+	 *
+	 * @return The number of registers.
+	 */
+
+	public int getRegisterCount() {
+		return registerCount;
+	}
+
+	/**
+	 * Returns the variable slots table this program has been compiled with.
+	 *
+	 * @return The variable slots table.
+	 */
+
+	public VariableSlots getSlots() {
+		return slots;
+	}
+
+	/**
+	 * Returns the signature of this program : a hash of its instructions, variables and constants, that is the same for programs compiled from the same algorithm.
+	 *
+	 * @return The signature.
+	 */
+
+	public int getSignature() {
+		return signature;
+	}
+
+	/**
+	 * Returns whether this program contains a <em>PROMPT</em>, that is whether an asynchronous execution may be suspended.
+	 *
+	 * @return Whether this program contains a <em>PROMPT</em>.
+	 */
+
+	public boolean hasPrompts() {
+		return prompts;
+	}
+
+	/**
+	 * Returns the instructions.
+	 *
+	 * @return The instructions.
+	 */
+
+	final int[] getCode() {
+		return code;
+	}
+
+	/**
+	 * Returns the objects referenced by the instructions.
+	 *
+	 * @return The objects referenced by the instructions.
+	 */
+
+	final Object[] getObjects() {
+		return objects;
+	}
+
+	/**
+	 * Returns, for each instruction, the register of the variable whose assigned value it computes (plus one), or <b>0</b>.
+	 * <br>The tree walker checks that a variable exists before evaluating the value that is assigned to it, so this allows to report the same error.
+	 *
+	 * @return The assignments table.
+	 */
+
+	final int[] getAssignments() {
+		return assignments;
+	}
+
+	/**
+	 * Returns the slots of the variables that have a register.
+	 *
+	 * @return The slots of the variables that have a register.
+	 */
+
+	final VariableSlot[] getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Returns the constants that have a register.
+	 *
+	 * @return The constants that have a register.
+	 */
+
+	final Atom[] getConstants() {
+		return constants;
+	}
+
+	/**
+	 * Compiles the given root block. Its expressions should have been optimized and resolved before (see <em>Algorithm.resolve()</em>).
+	 *
+	 * @param rootBlock The root block.
+	 * @param slots The variable slots table.
+	 *
+	 * @return The program.
+	 */
+
+	public static Program compile(final AlgorithmRootBlock rootBlock, final VariableSlots slots) {
+		return new ProgramCompiler(slots).compile(rootBlock);
+	}
+
+}
@@ -0,0 +1,658 @@
+package xyz.algogo.core.vm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.IdentifierAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.expression.AdditiveExpression;
+import xyz.algogo.core.evaluator.expression.AndExpression;
+import xyz.algogo.core.evaluator.expression.AtomExpression;
+import xyz.algogo.core.evaluator.expression.EqualityExpression;
+import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.LeftOpRightExpression;
+import xyz.algogo.core.evaluator.expression.MultiplicationExpression;
+import xyz.algogo.core.evaluator.expression.NotExpression;
+import xyz.algogo.core.evaluator.expression.OrExpression;
+import xyz.algogo.core.evaluator.expression.ParenthesisExpression;
+import xyz.algogo.core.evaluator.expression.RelationalExpression;
+import xyz.algogo.core.evaluator.expression.UnaryMinusExpression;
+import xyz.algogo.core.evaluator.expression.VariableComparisonExpression;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableSlots;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.statement.block.BlockStatement;
+import xyz.algogo.core.statement.block.conditional.IfBlock;
+import xyz.algogo.core.statement.block.loop.ForLoop;
+import xyz.algogo.core.statement.block.loop.WhileLoop;
+import xyz.algogo.core.statement.block.root.BeginningBlock;
+import xyz.algogo.core.statement.block.root.EndBlock;
+import xyz.algogo.core.statement.block.root.VariablesBlock;
+import xyz.algogo.core.statement.simple.comment.BlockComment;
+import xyz.algogo.core.statement.simple.comment.LineComment;
+import xyz.algogo.core.statement.simple.io.PromptStatement;
+import xyz.algogo.core.statement.simple.variable.AssignStatement;
+
+/**
+ * Compiles a statements tree into a program.
+ * <br>Control flow, assignments and common operations are translated into instructions. Everything else (function calls, prints, prompts, unknown statements, ...) is delegated to the tree walker, so that both engines behave the same.
+ * Statements and expressions are matched on their exact class : subclasses may override the evaluation and are therefore delegated too.
+ * While compiling, registers are numbered in three separate spaces (variables, constants and temporaries), they are laid out once everything is known.
+ */
+
+class ProgramCompiler {
+
+	/**
+	 * The variable slots table.
+	 */
+
+	private final VariableSlots slots;
+
+	/**
+	 * The variables registers, by identifier.
+	 */
+
+	private final Map<String, Integer> variableRegisters = new HashMap<>();
+
+	/**
+	 * The slots of the variables that have a register.
+	 */
+
+	private final List<VariableSlot> variables = new ArrayList<>();
+
+	/**
+	 * The constants that have a register.
+	 */
+
+	private final List<Atom> constants = new ArrayList<>();
+
+	/**
+	 * The instructions.
+	 */
+
+	private int[] code = new int[64 * Opcode.WIDTH];
+
+	/**
+	 * The objects referenced by the instructions.
+	 */
+
+	private Object[] objects = new Object[64];
+
+	/**
+	 * For each instruction, the register of the variable whose assigned value it computes (plus one), or <b>0</b>.
+	 */
+
+	private int[] assignments = new int[64];
+
+	/**
+	 * The number of emitted instructions.
+	 */
+
+	private int count = 0;
+
+	/**
+	 * The register of the variable whose assigned value is being compiled (plus one), or <b>0</b>.
+	 */
+
+	private int assigned = 0;
+
+	/**
+	 * The first temporary register that is not reserved by an enclosing FOR loop.
+	 */
+
+	private int top = 0;
+
+	/**
+	 * The number of temporary registers used by the program.
+	 */
+
+	private int temporaryCount = 0;
+
+	/**
+	 * Creates a new program compiler.
+	 *
+	 * @param slots The variable slots table.
+	 */
+
+	ProgramCompiler(final VariableSlots slots) {
+		this.slots = slots;
+	}
+
+	/**
+	 * Compiles the given root block. A compiler must only be used once.
+	 *
+	 * @param rootBlock The root block.
+	 *
+	 * @return The program.
+	 */
+
+	Program compile(final BlockStatement rootBlock) {
+		compileBlock(rootBlock);
+		emit(Opcode.HALT, 0, 0, 0, null);
+
+		for(int instruction = 0; instruction < count; instruction++) {
+			final int index = instruction * Opcode.WIDTH;
+			final int operands = getRegisterOperands(code[index] & Opcode.MASK);
+			for(int operand = 1; operand <= 3; operand++) {
+				if((operands & (1 << operand)) != 0) {
+					code[index + operand] = layOut(code[index + operand]);
+				}
+			}
+		}
+
+		return new Program(
+				Arrays.copyOf(code, count * Opcode.WIDTH),
+				Arrays.copyOf(objects, count),
+				Arrays.copyOf(assignments, count),
+				variables.toArray(new VariableSlot[0]),
+				constants.toArray(new Atom[0]),
+				variables.size() + constants.size() + temporaryCount,
+				slots
+		);
+	}
+
+	/**
+	 * Compiles the children of a block. The context is polled after each of them, like <em>BlockStatement.evaluate(...)</em> does.
+	 *
+	 * @param block The block.
+	 */
+
+	private void compileBlock(final BlockStatement block) {
+		for(final Statement statement : block.listStatements()) {
+			if(compileStatement(statement)) {
+				code[(count - 1) * Opcode.WIDTH] |= Opcode.POLL_FLAG;
+			}
+			else {
+				emit(Opcode.POLL, 0, 0, 0, null);
+			}
+		}
+	}
+
+	/**
+	 * Compiles a statement.
+	 *
+	 * @param statement The statement.
+	 *
+	 * @return Whether the statement has been compiled into instructions that end with a single instruction that can poll the context itself.
+	 */
+
+	private boolean compileStatement(final Statement statement) {
+		final Class<?> type = statement.getClass();
+		if(type == VariablesBlock.class || type == BeginningBlock.class) {
+			compileBlock((BlockStatement)statement);
+			return false;
+		}
+
+		if(type == EndBlock.class || type == LineComment.class || type == BlockComment.class) {
+			return false;
+		}
+
+		if(type == IfBlock.class) {
+			compileIf((IfBlock)statement);
+			return false;
+		}
+
+		if(type == WhileLoop.class) {
+			compileWhile((WhileLoop)statement);
+			return false;
+		}
+
+		if(type == ForLoop.class) {
+			compileFor((ForLoop)statement);
+			return false;
+		}
+
+		if(type == AssignStatement.class && ((AssignStatement)statement).getEvaluatedValue() != null) {
+			final AssignStatement assign = (AssignStatement)statement;
+			final int variable = getVariableRegister(assign.getIdentifier());
+
+			assigned = variable + 1;
+			final int value = compileValue(assign.getEvaluatedValue(), top);
+			assigned = 0;
+
+			// Superinstruction : an arithmetic operation puts its result in the variable register and assigns it itself.
+			final int last = (count - 1) * Opcode.WIDTH;
+			final int opcode = code[last] & Opcode.MASK;
+			if(value == top && opcode >= Opcode.ADD && opcode <= Opcode.REMAINDER && code[last + 1] == value) {
+				code[last] |= Opcode.ASSIGN_FLAG;
+				code[last + 1] = encodeVariable(variable);
+				return true;
+			}
+
+			emit(Opcode.ASSIGN, encodeVariable(variable), value, 0, variables.get(variable));
+			return true;
+		}
+
+		emit(type == PromptStatement.class ? Opcode.PROMPT : Opcode.EXEC, 0, 0, 0, statement);
+		return true;
+	}
+
+	/**
+	 * Compiles an IF block (and its ELSE block).
+	 *
+	 * @param block The IF block.
+	 */
+
+	private void compileIf(final IfBlock block) {
+		final List<Integer> jumps = new ArrayList<>();
+		compileJump(block.getEvaluatedCondition(), false, false, block, jumps);
+		compileBlock(block);
+		if(!block.hasElseBlock()) {
+			patchJumps(jumps, count);
+			return;
+		}
+
+		final int skip = emit(Opcode.GOTO, -1, 0, 0, null);
+		patchJumps(jumps, count);
+		compileBlock(block.getElseBlock());
+		patch(skip, 1, count);
+	}
+
+	/**
+	 * Compiles a WHILE loop. The condition is put after the body, so that an iteration only needs one jump.
+	 *
+	 * @param loop The WHILE loop.
+	 */
+
+	private void compileWhile(final WhileLoop loop) {
+		final int skip = emit(Opcode.GOTO, -1, 0, 0, null);
+		final int body = count;
+		compileBlock(loop);
+
+		patch(skip, 1, count);
+
+		final List<Integer> jumps = new ArrayList<>();
+		compileJump(loop.getEvaluatedCondition(), true, true, null, jumps);
+		patchJumps(jumps, body);
+	}
+
+	/**
+	 * Compiles a FOR loop. Three temporary registers are reserved for the loop : the direction, the counter and the end.
+	 *
+	 * @param loop The FOR loop.
+	 */
+
+	private void compileFor(final ForLoop loop) {
+		final int base = top;
+		top += 3;
+		useTemporary(top - 1);
+
+		final int register = getVariableRegister(loop.getIdentifier());
+		final int variable = encodeVariable(register);
+		emit(Opcode.FOR_VARIABLE, variable, 0, 0, variables.get(register));
+		final int start = compileValue(loop.getEvaluatedStart(), base + 1);
+		final int end = compileValue(loop.getEvaluatedEnd(), base + 2);
+		emit(Opcode.FOR_INIT, base, start, end, null);
+
+		final int head = emit(Opcode.FOR_TEST, base, -1, variable, null);
+		compileBlock(loop);
+		emit(Opcode.FOR_NEXT, base, head, 0, null);
+
+		patch(head, 2, count);
+		top = base;
+	}
+
+	/**
+	 * Compiles a jump that is taken according to the truth of a condition. Comparisons are compiled into a single instruction,
+	 * AND and OR conditions are compiled into short-circuiting jumps.
+	 *
+	 * @param condition The condition.
+	 * @param when The truth of the condition that makes the jump taken.
+	 * @param poll Whether the context should be polled when the jump is taken.
+	 * @param block The IF block if the condition comes from one (a non-boolean condition that evaluates to <b>null</b> is then an error).
+	 * @param jumps Receives the jump instructions whose target has to be set (see <em>patchJumps(List, int)</em>).
+	 */
+
+	private void compileJump(final Expression condition, final boolean when, final boolean poll, final IfBlock block, final List<Integer> jumps) {
+		final Class<?> type = condition.getClass();
+		if(type == ParenthesisExpression.class) {
+			compileJump(((ParenthesisExpression)condition).getExpression(), when, poll, block, jumps);
+			return;
+		}
+
+		if(type == VariableComparisonExpression.class) {
+			compileJump(((VariableComparisonExpression)condition).getComparison(), when, poll, block, jumps);
+			return;
+		}
+
+		if(type == AndExpression.class || type == OrExpression.class) {
+			final LeftOpRightExpression operation = (LeftOpRightExpression)condition;
+			final boolean and = type == AndExpression.class;
+			if(and == when) {
+				final List<Integer> skips = new ArrayList<>();
+				compileJump(operation.getLeft(), !when, false, null, skips);
+				compileJump(operation.getRight(), when, poll, null, jumps);
+				patchJumps(skips, count);
+			}
+			else {
+				compileJump(operation.getLeft(), when, poll, null, jumps);
+				compileJump(operation.getRight(), when, poll, null, jumps);
+			}
+			return;
+		}
+
+		final int flags = poll ? Opcode.POLL_FLAG : 0;
+		if(condition instanceof LeftOpRightExpression) {
+			final LeftOpRightExpression comparison = (LeftOpRightExpression)condition;
+			final int opcode = getOpcode(type, comparison.getOperator());
+			if(opcode >= Opcode.LESS && opcode <= Opcode.NOT_EQUAL) {
+				final int left = compileValue(comparison.getLeft(), top);
+				final int right = compileValue(comparison.getRight(), top + 1);
+				jumps.add(emit((opcode - Opcode.LESS + Opcode.JUMP_IF_LESS) | flags | (when ? 0 : Opcode.NEGATE_FLAG), -1, left, right, null));
+				return;
+			}
+		}
+
+		final int value = compileValue(condition, top);
+		if(block != null && !condition.isBoolean()) {
+			emit(Opcode.CHECK_CONDITION, value, 0, 0, block);
+		}
+		jumps.add(emit((when ? Opcode.JUMP_IF_TRUE : Opcode.JUMP_IF_NOT_TRUE) | flags, value, -1, 0, null));
+	}
+
+	/**
+	 * Compiles an expression.
+	 *
+	 * @param expression The expression.
+	 * @param register The temporary register that receives the value if it is computed (the following registers may be used for intermediate values).
+	 *
+	 * @return The register that holds the value (it may be the one of a variable or of a constant).
+	 */
+
+	private int compileValue(final Expression expression, final int register) {
+		final Class<?> type = expression.getClass();
+		if(type == ParenthesisExpression.class) {
+			return compileValue(((ParenthesisExpression)expression).getExpression(), register);
+		}
+
+		if(type == VariableComparisonExpression.class) {
+			return compileValue(((VariableComparisonExpression)expression).getComparison(), register);
+		}
+
+		if(type == AtomExpression.class) {
+			final Atom atom = ((AtomExpression)expression).getAtom();
+			final Class<?> atomType = atom == null ? null : atom.getClass();
+			if(atomType == IdentifierAtom.class) {
+				return encodeVariable(getVariableRegister(((IdentifierAtom)atom).getValue()));
+			}
+
+			if(atomType == NumberAtom.class || atomType == BooleanAtom.class || atomType == StringAtom.class) {
+				return encodeConstant(getConstantRegister(atom));
+			}
+		}
+
+		useTemporary(register);
+
+		if(type == AndExpression.class || type == OrExpression.class) {
+			final LeftOpRightExpression operation = (LeftOpRightExpression)expression;
+			final boolean and = type == AndExpression.class;
+
+			final int left = compileValue(operation.getLeft(), register);
+			final int jump = emit(and ? Opcode.JUMP_IF_NOT_TRUE : Opcode.JUMP_IF_TRUE, left, -1, 0, null);
+			final int right = compileValue(operation.getRight(), register);
+			emit(Opcode.TRUTH, register, right, 0, null);
+			final int skip = emit(Opcode.GOTO, -1, 0, 0, null);
+			patch(jump, 2, count);
+			emit(Opcode.LOAD_BOOLEAN, register, and ? 0 : 1, 0, null);
+			patch(skip, 1, count);
+			return register;
+		}
+
+		if(expression instanceof LeftOpRightExpression) {
+			final LeftOpRightExpression operation = (LeftOpRightExpression)expression;
+			final int opcode = getOpcode(type, operation.getOperator());
+			if(opcode >= 0) {
+				final int left = compileValue(operation.getLeft(), register);
+				final int right = compileValue(operation.getRight(), register + 1);
+				emit(opcode, register, left, right, operation);
+				return register;
+			}
+		}
+
+		if(type == NotExpression.class) {
+			final Expression operand = ((NotExpression)expression).getExpression();
+			emit(Opcode.NOT, register, compileValue(operand, register), operand.isBoolean() ? 1 : 0, null);
+			return register;
+		}
+
+		if(type == UnaryMinusExpression.class) {
+			emit(Opcode.NEGATE, register, compileValue(((UnaryMinusExpression)expression).getExpression(), register), 0, null);
+			return register;
+		}
+
+		emit(Opcode.EVAL, register, 0, 0, expression);
+		return register;
+	}
+
+	/**
+	 * Returns the register of a variable (allocates it if needed).
+	 *
+	 * @param identifier The variable identifier.
+	 *
+	 * @return The register (in the variables space).
+	 */
+
+	private int getVariableRegister(final String identifier) {
+		Integer register = variableRegisters.get(identifier);
+		if(register == null) {
+			register = variables.size();
+			variableRegisters.put(identifier, register);
+			variables.add(slots.bind(identifier));
+		}
+		return register;
+	}
+
+	/**
+	 * Returns the register of a constant (allocates it if needed, equal constants share their register).
+	 *
+	 * @param atom The constant.
+	 *
+	 * @return The register (in the constants space).
+	 */
+
+	private int getConstantRegister(final Atom atom) {
+		for(int i = 0; i < constants.size(); i++) {
+			final Atom constant = constants.get(i);
+			if(constant.getClass() == atom.getClass() && Objects.equals(constant.getValue(), atom.getValue())) {
+				return i;
+			}
+		}
+
+		constants.add(atom);
+		return constants.size() - 1;
+	}
+
+	/**
+	 * Marks a temporary register as used.
+	 *
+	 * @param register The register.
+	 */
+
+	private void useTemporary(final int register) {
+		temporaryCount = Math.max(temporaryCount, register + 1);
+	}
+
+	/**
+	 * Encodes a register of the variables space (temporary registers are encoded as themselves).
+	 *
+	 * @param register The register.
+	 *
+	 * @return The encoded register.
+	 */
+
+	private static int encodeVariable(final int register) {
+		return -1 - 2 * register;
+	}
+
+	/**
+	 * Encodes a register of the constants space.
+	 *
+	 * @param register The register.
+	 *
+	 * @return The encoded register.
+	 */
+
+	private static int encodeConstant(final int register) {
+		return -2 - 2 * register;
+	}
+
+	/**
+	 * Lays out an encoded register : variables come first, then constants and then temporary registers.
+	 *
+	 * @param register The encoded register.
+	 *
+	 * @return The register.
+	 */
+
+	private int layOut(final int register) {
+		if(register >= 0) {
+			return variables.size() + constants.size() + register;
+		}
+
+		final int decoded = -1 - register;
+		return decoded % 2 == 0 ? decoded / 2 : variables.size() + decoded / 2;
+	}
+
+	/**
+	 * Returns the opcode of a binary operation.
+	 *
+	 * @param type The expression class.
+	 * @param operator The operator.
+	 *
+	 * @return The opcode, or <b>-1</b> if the operation should be delegated to the tree walker.
+	 */
+
+	private static int getOpcode(final Class<?> type, final String operator) {
+		if(type == AdditiveExpression.class) {
+			return operator.equals("+") ? Opcode.ADD : operator.equals("-") ? Opcode.SUBTRACT : -1;
+		}
+
+		if(type == MultiplicationExpression.class) {
+			return operator.equals("*") ? Opcode.MULTIPLY : operator.equals("/") ? Opcode.DIVIDE : operator.equals("%") ? Opcode.REMAINDER : -1;
+		}
+
+		if(type == EqualityExpression.class) {
+			return operator.equals("==") ? Opcode.EQUAL : operator.equals("!=") ? Opcode.NOT_EQUAL : -1;
+		}
+
+		if(type == RelationalExpression.class) {
+			switch(operator) {
+				case "<":
+					return Opcode.LESS;
+				case "<=":
+					return Opcode.LESS_OR_EQUAL;
+				case ">":
+					return Opcode.GREATER;
+				case ">=":
+					return Opcode.GREATER_OR_EQUAL;
+				default:
+					return -1;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns the operands of an opcode that are registers.
+	 *
+	 * @param opcode The opcode.
+	 *
+	 * @return A mask (<b>1 &lt;&lt; 1</b> for <b>a</b>, <b>1 &lt;&lt; 2</b> for <b>b</b> and <b>1 &lt;&lt; 3</b> for <b>c</b>).
+	 */
+
+	private static int getRegisterOperands(final int opcode) {
+		if(opcode >= Opcode.ADD && opcode <= Opcode.NOT_EQUAL) {
+			return 0b1110;
+		}
+
+		if(opcode >= Opcode.JUMP_IF_LESS && opcode <= Opcode.JUMP_IF_NOT_EQUAL) {
+			return 0b1100;
+		}
+
+		switch(opcode) {
+			case Opcode.EVAL:
+			case Opcode.LOAD_BOOLEAN:
+			case Opcode.JUMP_IF_TRUE:
+			case Opcode.JUMP_IF_NOT_TRUE:
+			case Opcode.CHECK_CONDITION:
+			case Opcode.FOR_VARIABLE:
+			case Opcode.FOR_NEXT:
+				return 0b0010;
+			case Opcode.NEGATE:
+			case Opcode.NOT:
+			case Opcode.TRUTH:
+			case Opcode.ASSIGN:
+				return 0b0110;
+			case Opcode.FOR_INIT:
+				return 0b1110;
+			case Opcode.FOR_TEST:
+				return 0b1010;
+			default:
+				return 0;
+		}
+	}
+
+	/**
+	 * Emits an instruction.
+	 *
+	 * @param opcode The opcode (and its flags).
+	 * @param a The first operand.
+	 * @param b The second operand.
+	 * @param c The third operand.
+	 * @param object The referenced object.
+	 *
+	 * @return The instruction index.
+	 */
+
+	private int emit(final int opcode, final int a, final int b, final int c, final Object object) {
+		if(count == objects.length) {
+			code = Arrays.copyOf(code, code.length * 2);
+			objects = Arrays.copyOf(objects, objects.length * 2);
+			assignments = Arrays.copyOf(assignments, assignments.length * 2);
+		}
+
+		final int index = count * Opcode.WIDTH;
+		code[index] = opcode;
+		code[index + 1] = a;
+		code[index + 2] = b;
+		code[index + 3] = c;
+		objects[count] = object;
+		assignments[count] = assigned;
+		return count++;
+	}
+
+	/**
+	 * Sets the target of the jumps emitted by <em>compileJump(...)</em>.
+	 *
+	 * @param jumps The jump instructions.
+	 * @param target The target.
+	 */
+
+	private void patchJumps(final List<Integer> jumps, final int target) {
+		for(final int instruction : jumps) {
+			final int opcode = code[instruction * Opcode.WIDTH] & Opcode.MASK;
+			patch(instruction, opcode == Opcode.JUMP_IF_TRUE || opcode == Opcode.JUMP_IF_NOT_TRUE ? 2 : 1, target);
+		}
+	}
+
+	/**
+	 * Sets an operand of an already emitted instruction (typically, a jump target).
+	 *
+	 * @param instruction The instruction index.
+	 * @param operand The operand index (<b>1</b> for <b>a</b>, <b>2</b> for <b>b</b>, ...).
+	 * @param value The value.
+	 */
+
+	private void patch(final int instruction, final int operand, final int value) {
+		code[instruction * Opcode.WIDTH + operand] = value;
+	}
+
+}
@@ -0,0 +1,1016 @@
+package xyz.algogo.core.vm;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.concurrent.CompletableFuture;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
+import xyz.algogo.core.evaluator.atom.NumberAtom;
+import xyz.algogo.core.evaluator.atom.StringAtom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.LeftOpRightExpression;
+import xyz.algogo.core.evaluator.variable.Variable;
+import xyz.algogo.core.evaluator.variable.VariableSlot;
+import xyz.algogo.core.evaluator.variable.VariableType;
+import xyz.algogo.core.exception.InvalidExpressionException;
+import xyz.algogo.core.exception.InvalidIdentifierException;
+import xyz.algogo.core.exception.InvalidVariableValueException;
+import xyz.algogo.core.exception.ParseException;
+import xyz.algogo.core.statement.Statement;
+import xyz.algogo.core.statement.block.conditional.IfBlock;
+import xyz.algogo.core.statement.simple.io.PromptStatement;
+
+/**
+ * Executes a program (one instance per execution).
+ * <br>A register holds either an integer (in <em>longs</em>, the atom it comes from may be kept in <em>references</em>), a boolean (<b>1</b> or <b>0</b> in <em>longs</em>) or any atom (in <em>references</em>, may be <b>null</b>).
+ * Integer operations are computed in place, other operations are delegated to the expressions they come from so that the results are the same as the tree walker ones.
+ * <br>Variables are read from and assigned to their registers. They are written back to the evaluator (and read again) only when the tree walker is about to be used, and when the program ends.
+ * <br>When run asynchronously, the program is suspended at a <em>PROMPT</em> whose input is not available yet : the interpreter loop returns and is resumed, from the same instruction, by the thread that completes the input.
+ * <br>Snapshots are taken when the context is polled, between two statements : only the variables and the loops registers are live at that point, so the instruction to resume from and the registers are the whole execution state.
+ */
+
+class VirtualMachine {
+
+	/**
+	 * The register holds an integer.
+	 */
+
+	private static final byte INTEGER = 0;
+
+	/**
+	 * The register holds a boolean.
+	 */
+
+	private static final byte BOOLEAN = 1;
+
+	/**
+	 * The register holds an atom.
+	 */
+
+	private static final byte ATOM = 2;
+
+	/**
+	 * The register holds the exception that reading its variable throws.
+	 */
+
+	private static final byte FAILURE = 3;
+
+	/**
+	 * The FOR loop has no more iteration.
+	 */
+
+	private static final long FOR_OVER = 0L;
+
+	/**
+	 * The FOR loop counter is a long that is incremented.
+	 */
+
+	private static final long FOR_LONG_ASCENDING = 1L;
+
+	/**
+	 * The FOR loop counter is a long that is decremented.
+	 */
+
+	private static final long FOR_LONG_DESCENDING = -1L;
+
+	/**
+	 * The FOR loop counter is a BigDecimal that is incremented.
+	 */
+
+	private static final long FOR_DECIMAL_ASCENDING = 2L;
+
+	/**
+	 * The FOR loop counter is a BigDecimal that is decremented.
+	 */
+
+	private static final long FOR_DECIMAL_DESCENDING = -2L;
+
+	/**
+	 * The maximum number of digits of a long.
+	 */
+
+	private static final int LONG_DIGITS = 19;
+
+	/**
+	 * The minimum long value, as a BigDecimal.
+	 */
+
+	private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+	/**
+	 * The maximum long value, as a BigDecimal.
+	 */
+
+	private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+	/**
+	 * The program.
+	 */
+
+	private final Program program;
+
+	/**
+	 * The expression evaluator.
+	 */
+
+	private final ExpressionEvaluator evaluator;
+
+	/**
+	 * The evaluation context.
+	 */
+
+	private final EvaluationContext context;
+
+	/**
+	 * The registers kinds.
+	 */
+
+	private final byte[] kinds;
+
+	/**
+	 * The registers integer (and boolean) values.
+	 */
+
+	private final long[] longs;
+
+	/**
+	 * The registers references.
+	 */
+
+	private final Object[] references;
+
+	/**
+	 * The variables of the variables registers (<b>null</b> if they do not exist).
+	 */
+
+	private final Variable[] variables;
+
+	/**
+	 * The atoms that have been assigned to the variables registers since they have been written back (<b>null</b> if the register holds the assigned integer).
+	 */
+
+	private final Atom[] assigned;
+
+	/**
+	 * Whether the variables registers have been assigned since they have been written back.
+	 */
+
+	private final boolean[] dirty;
+
+	/**
+	 * Whether at least one variable register has been assigned since they have been written back.
+	 */
+
+	private boolean anyDirty = false;
+
+	/**
+	 * Whether the program is run asynchronously (see <em>runAsync()</em>).
+	 */
+
+	private boolean asynchronous = false;
+
+	/**
+	 * The pending prompt the program is suspended on (<b>null</b> if it is not suspended).
+	 */
+
+	private CompletableFuture<Exception> suspension;
+
+	/**
+	 * The instruction to resume the program from (the suspended prompt).
+	 */
+
+	private int resumption;
+
+	/**
+	 * Creates a new virtual machine.
+	 *
+	 * @param program The program.
+	 * @param evaluator The expression evaluator.
+	 * @param context The evaluation context.
+	 */
+
+	VirtualMachine(final Program program, final ExpressionEvaluator evaluator, final EvaluationContext context) {
+		this.program = program;
+		this.evaluator = evaluator;
+		this.context = context;
+
+		final int registerCount = program.getRegisterCount();
+		this.kinds = new byte[registerCount];
+		this.longs = new long[registerCount];
+		this.references = new Object[registerCount];
+
+		final int variableCount = program.getVariables().length;
+		this.variables = new Variable[variableCount];
+		this.assigned = new Atom[variableCount];
+		this.dirty = new boolean[variableCount];
+
+		final Atom[] constants = program.getConstants();
+		for(int i = 0; i < constants.length; i++) {
+			set(variableCount + i, constants[i]);
+		}
+	}
+
+	/**
+	 * Runs the program.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	Exception run() {
+		try {
+			reload();
+			return execute(0);
+		}
+		finally {
+			flush();
+		}
+	}
+
+	/**
+	 * Resumes the program from a snapshot.
+	 *
+	 * @param snapshot The snapshot.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	Exception resume(final ExecutionSnapshot snapshot) {
+		snapshot.restoreRegisters(kinds, longs, references);
+		evaluator.clearVariables();
+		for(final Variable variable : snapshot.createVariables()) {
+			evaluator.putVariable(variable);
+		}
+		context.restore(snapshot);
+
+		try {
+			reload();
+			return execute(snapshot.getInstruction());
+		}
+		finally {
+			flush();
+		}
+	}
+
+	/**
+	 * Runs the program asynchronously : no thread is held while waiting for an input (see <em>EvaluationContext.getAsyncInputListener()</em>).
+	 *
+	 * @return A future that is completed with an exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	CompletableFuture<Exception> runAsync() {
+		final CompletableFuture<Exception> result = new CompletableFuture<>();
+		asynchronous = true;
+		reload();
+		proceed(0, result);
+		return result;
+	}
+
+	/**
+	 * Runs the interpreter loop until the program ends or is suspended. In the latter case, it is resumed once the pending input is available.
+	 *
+	 * @param pc The instruction to start from.
+	 * @param result The future to complete when the program ends.
+	 */
+
+	private void proceed(final int pc, final CompletableFuture<Exception> result) {
+		try {
+			final Exception ex = execute(pc);
+			if(suspension != null) {
+				final int instruction = resumption;
+				suspension.whenComplete((input, error) -> proceed(instruction, result));
+				return;
+			}
+
+			flush();
+			result.complete(ex);
+		}
+		catch(final Throwable ex) {
+			result.completeExceptionally(ex);
+		}
+	}
+
+	/**
+	 * The interpreter loop.
+	 *
+	 * @param start The instruction to start from.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise (also if the program is suspended).
+	 */
+
+	private Exception execute(final int start) {
+		final int[] code = program.getCode();
+		final Object[] objects = program.getObjects();
+		final byte[] kinds = this.kinds;
+		final long[] longs = this.longs;
+		final Object[] references = this.references;
+
+		final boolean integers = context.getMaximumDigits() >= LONG_DIGITS;
+		final MathContext mathContext = context.getMathContext();
+
+		int pc = start;
+		while(true) {
+			final int instruction = pc++;
+			final int index = instruction * Opcode.WIDTH;
+			final int word = code[index];
+			final int a = code[index + 1];
+
+			try {
+				switch(word & Opcode.MASK) {
+					case Opcode.HALT:
+						return null;
+					case Opcode.POLL:
+						if(poll(pc)) {
+							return null;
+						}
+						break;
+					case Opcode.GOTO:
+						pc = a;
+						break;
+					case Opcode.EXEC: {
+						flush();
+						final Exception ex = ((Statement)objects[instruction]).evaluate(evaluator, context);
+						reload();
+						if(ex != null) {
+							return ex;
+						}
+						if((word & Opcode.POLL_FLAG) != 0 && poll(pc)) {
+							return null;
+						}
+						break;
+					}
+					case Opcode.PROMPT: {
+						flush();
+						final Exception ex;
+						if(asynchronous) {
+							CompletableFuture<Exception> input = suspension;
+							if(input == null) {
+								input = ((PromptStatement)objects[instruction]).evaluateAsync(evaluator, context);
+								if(!input.isDone()) {
+									suspension = input;
+									resumption = instruction;
+									return null;
+								}
+							}
+							suspension = null;
+							ex = input.join();
+						}
+						else {
+							ex = ((Statement)objects[instruction]).evaluate(evaluator, context);
+						}
+						reload();
+						if(ex != null) {
+							return ex;
+						}
+						if((word & Opcode.POLL_FLAG) != 0 && poll(pc)) {
+							return null;
+						}
+						break;
+					}
+					case Opcode.EVAL:
+						flush();
+						set(a, ((Expression)objects[instruction]).evaluate(evaluator, context));
+						break;
+					case Opcode.LOAD_BOOLEAN:
+						setBoolean(a, code[index + 2] == 1);
+						break;
+					case Opcode.ADD: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(integers && (kinds[b] | kinds[c]) <= BOOLEAN) {
+							final long x = longs[b];
+							final long y = longs[c];
+							final long result = x + y;
+							if(((x ^ result) & (y ^ result)) >= 0 && NumberAtom.fits(result, mathContext)) {
+								setInteger(a, result);
+								break;
+							}
+						}
+						set(a, ((LeftOpRightExpression)objects[instruction]).evaluate(atom(b), atom(c), context));
+						break;
+					}
+					case Opcode.SUBTRACT: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(integers && (kinds[b] | kinds[c]) <= BOOLEAN) {
+							final long x = longs[b];
+							final long y = longs[c];
+							final long result = x - y;
+							if(((x ^ y) & (x ^ result)) >= 0 && NumberAtom.fits(result, mathContext)) {
+								setInteger(a, result);
+								break;
+							}
+						}
+						set(a, ((LeftOpRightExpression)objects[instruction]).evaluate(atom(b), atom(c), context));
+						break;
+					}
+					case Opcode.MULTIPLY: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(integers && (kinds[b] | kinds[c]) <= BOOLEAN) {
+							final long x = longs[b];
+							final long y = longs[c];
+							if((Math.abs(x) | Math.abs(y)) >>> 31 == 0 && NumberAtom.fits(x * y, mathContext)) {
+								setInteger(a, x * y);
+								break;
+							}
+						}
+						set(a, ((LeftOpRightExpression)objects[instruction]).evaluate(atom(b), atom(c), context));
+						break;
+					}
+					case Opcode.DIVIDE: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(integers && (kinds[b] | kinds[c]) <= BOOLEAN) {
+							final long x = longs[b];
+							final long y = longs[c];
+							if(y != 0L && !(x == Long.MIN_VALUE && y == -1L) && x % y == 0L && NumberAtom.fits(x / y, mathContext)) {
+								setInteger(a, x / y);
+								break;
+							}
+						}
+						set(a, ((LeftOpRightExpression)objects[instruction]).evaluate(atom(b), atom(c), context));
+						break;
+					}
+					case Opcode.REMAINDER: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(integers && (kinds[b] | kinds[c]) <= BOOLEAN) {
+							final long x = longs[b];
+							final long y = longs[c];
+							if(y != 0L && !(x == Long.MIN_VALUE && y == -1L) && NumberAtom.fits(x / y, mathContext)) {
+								setInteger(a, x % y);
+								break;
+							}
+						}
+						set(a, ((LeftOpRightExpression)objects[instruction]).evaluate(atom(b), atom(c), context));
+						break;
+					}
+					case Opcode.LESS:
+					case Opcode.LESS_OR_EQUAL:
+					case Opcode.GREATER:
+					case Opcode.GREATER_OR_EQUAL:
+					case Opcode.EQUAL:
+					case Opcode.NOT_EQUAL:
+						setBoolean(a, compare(word & Opcode.MASK, code[index + 2], code[index + 3]));
+						break;
+					case Opcode.JUMP_IF_LESS: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(((kinds[b] | kinds[c]) <= BOOLEAN ? longs[b] < longs[c] : atom(b).compareTo(atom(c)) < 0) != ((word & Opcode.NEGATE_FLAG) != 0)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(a)) {
+								return null;
+							}
+							pc = a;
+						}
+						break;
+					}
+					case Opcode.JUMP_IF_LESS_OR_EQUAL: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(((kinds[b] | kinds[c]) <= BOOLEAN ? longs[b] <= longs[c] : atom(b).compareTo(atom(c)) <= 0) != ((word & Opcode.NEGATE_FLAG) != 0)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(a)) {
+								return null;
+							}
+							pc = a;
+						}
+						break;
+					}
+					case Opcode.JUMP_IF_GREATER: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(((kinds[b] | kinds[c]) <= BOOLEAN ? longs[b] > longs[c] : atom(b).compareTo(atom(c)) > 0) != ((word & Opcode.NEGATE_FLAG) != 0)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(a)) {
+								return null;
+							}
+							pc = a;
+						}
+						break;
+					}
+					case Opcode.JUMP_IF_GREATER_OR_EQUAL: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(((kinds[b] | kinds[c]) <= BOOLEAN ? longs[b] >= longs[c] : atom(b).compareTo(atom(c)) >= 0) != ((word & Opcode.NEGATE_FLAG) != 0)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(a)) {
+								return null;
+							}
+							pc = a;
+						}
+						break;
+					}
+					case Opcode.JUMP_IF_EQUAL: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(((kinds[b] | kinds[c]) <= BOOLEAN ? longs[b] == longs[c] : atom(b).equals(atom(c))) != ((word & Opcode.NEGATE_FLAG) != 0)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(a)) {
+								return null;
+							}
+							pc = a;
+						}
+						break;
+					}
+					case Opcode.JUMP_IF_NOT_EQUAL: {
+						final int b = code[index + 2];
+						final int c = code[index + 3];
+						if(((kinds[b] | kinds[c]) <= BOOLEAN ? longs[b] != longs[c] : !atom(b).equals(atom(c))) != ((word & Opcode.NEGATE_FLAG) != 0)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(a)) {
+								return null;
+							}
+							pc = a;
+						}
+						break;
+					}
+					case Opcode.NEGATE: {
+						final int b = code[index + 2];
+						if(kinds[b] <= BOOLEAN && longs[b] != Long.MIN_VALUE) {
+							setInteger(a, -longs[b]);
+							break;
+						}
+						final Atom atom = atom(b);
+						set(a, NumberAtom.hasNumberType(atom) ? NumberAtom.valueOf(atom).negate() : NumberAtom.ZERO);
+						break;
+					}
+					case Opcode.NOT: {
+						final int b = code[index + 2];
+						setBoolean(a, code[index + 3] == 1 ? !isTrue(b) : isFalse(b));
+						break;
+					}
+					case Opcode.TRUTH:
+						setBoolean(a, isTrue(code[index + 2]));
+						break;
+					case Opcode.JUMP_IF_TRUE:
+						if(isTrue(a)) {
+							if((word & Opcode.POLL_FLAG) != 0 && poll(code[index + 2])) {
+								return null;
+							}
+							pc = code[index + 2];
+						}
+						break;
+					case Opcode.JUMP_IF_NOT_TRUE:
+						if(!isTrue(a)) {
+							pc = code[index + 2];
+						}
+						break;
+					case Opcode.CHECK_CONDITION:
+						if(kinds[a] == ATOM && references[a] == null) {
+							return new InvalidExpressionException(((IfBlock)objects[instruction]).getCondition());
+						}
+						break;
+					case Opcode.ASSIGN: {
+						final Exception ex = assign(a, code[index + 2], (VariableSlot)objects[instruction]);
+						if(ex != null) {
+							return ex;
+						}
+						if((word & Opcode.POLL_FLAG) != 0 && poll(pc)) {
+							return null;
+						}
+						break;
+					}
+					case Opcode.FOR_VARIABLE: {
+						final Variable variable = variables[a];
+						final String identifier = ((VariableSlot)objects[instruction]).getIdentifier();
+						if(variable == null) {
+							return new InvalidIdentifierException(identifier);
+						}
+						if(variable.getType() != VariableType.NUMBER) {
+							return new InvalidIdentifierException(identifier, identifier + " is not a number.");
+						}
+						break;
+					}
+					case Opcode.FOR_INIT: {
+						final Exception ex = initializeFor(a, atom(code[index + 2]), atom(code[index + 3]));
+						if(ex != null) {
+							return ex;
+						}
+						break;
+					}
+					case Opcode.FOR_TEST: {
+						final long direction = longs[a];
+						if(direction == FOR_OVER) {
+							pc = code[index + 2];
+							break;
+						}
+
+						final int variable = code[index + 3];
+						if(direction == FOR_LONG_ASCENDING || direction == FOR_LONG_DESCENDING) {
+							if(context.poll()) {
+								return null;
+							}
+							setInteger(variable, longs[a + 1]);
+							assigned[variable] = null;
+						}
+						else {
+							final BigDecimal counter = (BigDecimal)references[a + 1];
+							final int comparison = counter.compareTo((BigDecimal)references[a + 2]);
+							if(direction == FOR_DECIMAL_ASCENDING ? comparison > 0 : comparison < 0) {
+								pc = code[index + 2];
+								break;
+							}
+							if(context.poll()) {
+								return null;
+							}
+							final NumberAtom number = new NumberAtom(counter);
+							assigned[variable] = number;
+							set(variable, number.round(context.getMathContext()));
+						}
+						markDirty(variable);
+						if(context.isSnapshotDue()) {
+							snapshot(pc);
+						}
+						break;
+					}
+					case Opcode.FOR_NEXT: {
+						final long direction = longs[a];
+						if(direction == FOR_LONG_ASCENDING || direction == FOR_LONG_DESCENDING) {
+							final long counter = longs[a + 1];
+							if(counter != longs[a + 2]) {
+								longs[a + 1] = counter + direction;
+								pc = code[index + 2];
+							}
+							break;
+						}
+
+						final BigDecimal counter = (BigDecimal)references[a + 1];
+						references[a + 1] = direction == FOR_DECIMAL_ASCENDING ? counter.add(BigDecimal.ONE, mathContext) : counter.subtract(BigDecimal.ONE, mathContext);
+						pc = code[index + 2];
+						break;
+					}
+					default:
+						throw new IllegalStateException("Unknown opcode : " + word + ".");
+				}
+
+				if((word & Opcode.ASSIGN_FLAG) != 0) {
+					final Exception ex = assign(a, a, program.getVariables()[a]);
+					if(ex != null) {
+						return ex;
+					}
+					if((word & Opcode.POLL_FLAG) != 0 && poll(pc)) {
+						return null;
+					}
+				}
+			}
+			catch(final Exception ex) {
+				return fail(instruction, ex);
+			}
+		}
+	}
+
+	/**
+	 * Polls the context between two statements, and takes a snapshot if one is due (see <em>EvaluationContext.isSnapshotDue()</em>).
+	 *
+	 * @param resumption The instruction to resume from if a snapshot is taken.
+	 *
+	 * @return Whether the program should stop.
+	 */
+
+	private boolean poll(final int resumption) {
+		if(context.poll()) {
+			return true;
+		}
+
+		if(context.isSnapshotDue()) {
+			snapshot(resumption);
+		}
+		return false;
+	}
+
+	/**
+	 * Takes a snapshot and sends it to the context.
+	 *
+	 * @param resumption The instruction to resume from.
+	 */
+
+	private void snapshot(final int resumption) {
+		flush();
+		context.snapshot(ExecutionSnapshot.take(program, resumption, evaluator.getVariables(), kinds, longs, references, context));
+	}
+
+	/**
+	 * Called when an instruction throws an exception.
+	 *
+	 * @param instruction The instruction.
+	 * @param ex The exception.
+	 *
+	 * @return The exception that ends the program.
+	 */
+
+	private Exception fail(final int instruction, final Exception ex) {
+		final int variable = program.getAssignments()[instruction] - 1;
+		if(variable >= 0 && variables[variable] == null) {
+			return new InvalidIdentifierException(program.getVariables()[variable].getIdentifier());
+		}
+		return ex;
+	}
+
+	/**
+	 * Returns the atom held by a register (creates it if needed).
+	 *
+	 * @param register The register.
+	 *
+	 * @return The atom.
+	 */
+
+	private Atom atom(final int register) {
+		switch(kinds[register]) {
+			case INTEGER: {
+				Object reference = references[register];
+				if(reference == null) {
+					reference = new NumberAtom(longs[register]);
+					references[register] = reference;
+				}
+				return (Atom)reference;
+			}
+			case BOOLEAN:
+				return BooleanAtom.valueOf(longs[register] == 1L);
+			case ATOM:
+				return (Atom)references[register];
+			default:
+				throw (RuntimeException)references[register];
+		}
+	}
+
+	/**
+	 * Puts an atom in a register.
+	 *
+	 * @param register The register.
+	 * @param atom The atom (may be <b>null</b>).
+	 */
+
+	private void set(final int register, final Atom atom) {
+		if(atom != null && atom.getClass() == NumberAtom.class && ((NumberAtom)atom).isLong()) {
+			kinds[register] = INTEGER;
+			longs[register] = ((NumberAtom)atom).getLongValue();
+		}
+		else {
+			kinds[register] = ATOM;
+		}
+		references[register] = atom;
+	}
+
+	/**
+	 * Puts an integer in a register.
+	 *
+	 * @param register The register.
+	 * @param value The integer.
+	 */
+
+	private void setInteger(final int register, final long value) {
+		kinds[register] = INTEGER;
+		longs[register] = value;
+		references[register] = null;
+	}
+
+	/**
+	 * Puts a boolean in a register.
+	 *
+	 * @param register The register.
+	 * @param value The boolean.
+	 */
+
+	private void setBoolean(final int register, final boolean value) {
+		kinds[register] = BOOLEAN;
+		longs[register] = value ? 1L : 0L;
+		references[register] = null;
+	}
+
+	/**
+	 * Checks whether a register is true (see <em>BooleanAtom.isTrue(Atom)</em>).
+	 *
+	 * @param register The register.
+	 *
+	 * @return Whether the register is true.
+	 */
+
+	private boolean isTrue(final int register) {
+		return kinds[register] <= BOOLEAN ? longs[register] == 1L : BooleanAtom.isTrue(atom(register));
+	}
+
+	/**
+	 * Checks whether a register is false (see <em>BooleanAtom.isFalse(Atom)</em>).
+	 *
+	 * @param register The register.
+	 *
+	 * @return Whether the register is false.
+	 */
+
+	private boolean isFalse(final int register) {
+		return kinds[register] <= BOOLEAN ? longs[register] == 0L : BooleanAtom.isFalse(atom(register));
+	}
+
+	/**
+	 * Compares two registers, like <em>RelationalExpression.evaluateBoolean(Atom, Atom)</em> does.
+	 *
+	 * @param opcode The comparison opcode.
+	 * @param left The left register.
+	 * @param right The right register.
+	 *
+	 * @return The result.
+	 */
+
+	private boolean compare(final int opcode, final int left, final int right) {
+		final boolean integers = (kinds[left] | kinds[right]) <= BOOLEAN;
+		if(opcode == Opcode.EQUAL || opcode == Opcode.NOT_EQUAL) {
+			final boolean equal = integers ? longs[left] == longs[right] : atom(left).equals(atom(right));
+			return equal == (opcode == Opcode.EQUAL);
+		}
+
+		final int comparison = integers ? Long.compare(longs[left], longs[right]) : atom(left).compareTo(atom(right));
+		switch(opcode) {
+			case Opcode.LESS:
+				return comparison < 0;
+			case Opcode.LESS_OR_EQUAL:
+				return comparison <= 0;
+			case Opcode.GREATER:
+				return comparison > 0;
+			default:
+				return comparison >= 0;
+		}
+	}
+
+	/**
+	 * Assigns a register to a variable register, like <em>AssignStatement.evaluate(...)</em> does. The register may be the variable register itself (see <em>Opcode.ASSIGN_FLAG</em>).
+	 *
+	 * @param variable The variable register.
+	 * @param register The register.
+	 * @param slot The variable slot.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	private Exception assign(final int variable, final int register, final VariableSlot slot) {
+		final Variable target = variables[variable];
+		if(target == null) {
+			return new InvalidIdentifierException(slot.getIdentifier());
+		}
+
+		final VariableType type = target.getType();
+		if(kinds[register] == INTEGER && type == VariableType.NUMBER && NumberAtom.fits(longs[register], context.getMathContext())) {
+			kinds[variable] = INTEGER;
+			longs[variable] = longs[register];
+			references[variable] = references[register];
+			assigned[variable] = null;
+			markDirty(variable);
+			return null;
+		}
+
+		final Atom atom = atom(register);
+		if(atom == null || (type == VariableType.NUMBER && !NumberAtom.hasNumberType(atom)) || (type == VariableType.STRING && !(atom.getValue() instanceof String))) {
+			return new InvalidVariableValueException(slot.getIdentifier());
+		}
+
+		assigned[variable] = atom;
+		markDirty(variable);
+		if(type == VariableType.NUMBER) {
+			final NumberAtom number = atom.getClass() == NumberAtom.class ? (NumberAtom)atom : new NumberAtom((BigDecimal)atom.getValue());
+			set(variable, number.round(context.getMathContext()));
+		}
+		else {
+			set(variable, new StringAtom((String)atom.getValue()));
+		}
+		return null;
+	}
+
+	/**
+	 * Initializes a FOR loop, like <em>ForLoop.evaluate(...)</em> does.
+	 *
+	 * @param register The first register of the loop.
+	 * @param start The start value.
+	 * @param end The end value.
+	 *
+	 * @return An exception if one occurs, <b>null</b> otherwise.
+	 */
+
+	private Exception initializeFor(final int register, final Atom start, final Atom end) {
+		if(!NumberAtom.hasNumberType(start) || !NumberAtom.hasNumberType(end)) {
+			return new ParseException("Start and End must return a number.");
+		}
+
+		if(start instanceof NumberAtom && ((NumberAtom)start).isLong() && initializeLongFor(register, ((NumberAtom)start).getLongValue(), NumberAtom.valueOf(end))) {
+			return null;
+		}
+
+		final BigDecimal startValue = (BigDecimal)start.getValue();
+		final BigDecimal endValue = (BigDecimal)end.getValue();
+		longs[register] = startValue.compareTo(endValue) <= 0 ? FOR_DECIMAL_ASCENDING : FOR_DECIMAL_DESCENDING;
+		references[register + 1] = startValue;
+		references[register + 2] = endValue;
+		return null;
+	}
+
+	/**
+	 * Initializes a FOR loop with a long counter, like <em>ForLoop.evaluate(...)</em> does.
+	 *
+	 * @param register The first register of the loop.
+	 * @param start The start value.
+	 * @param end The end value.
+	 *
+	 * @return Whether the loop can use a long counter.
+	 */
+
+	private boolean initializeLongFor(final int register, final long start, final NumberAtom end) {
+		final boolean ascending = end.isLong() ? start <= end.getLongValue() : BigDecimal.valueOf(start).compareTo(end.getValue()) <= 0;
+		final long last;
+		if(end.isLong()) {
+			last = end.getLongValue();
+		}
+		else {
+			final BigDecimal value = end.getValue();
+			if(value.compareTo(LONG_MIN) < 0 || value.compareTo(LONG_MAX) > 0) {
+				return false;
+			}
+			last = value.setScale(0, ascending ? RoundingMode.FLOOR : RoundingMode.CEILING).longValue();
+		}
+
+		final MathContext mathContext = context.getMathContext();
+		if(!NumberAtom.fits(start, mathContext) || !NumberAtom.fits(last, mathContext)) {
+			return false;
+		}
+
+		if(ascending ? start > last : start < last) {
+			longs[register] = FOR_OVER;
+			return true;
+		}
+
+		longs[register] = ascending ? FOR_LONG_ASCENDING : FOR_LONG_DESCENDING;
+		longs[register + 1] = start;
+		longs[register + 2] = last;
+		return true;
+	}
+
+	/**
+	 * Marks a variable register as assigned.
+	 *
+	 * @param variable The variable register.
+	 */
+
+	private void markDirty(final int variable) {
+		dirty[variable] = true;
+		anyDirty = true;
+	}
+
+	/**
+	 * Reads all variables into their registers, like <em>IdentifierAtom.evaluate(...)</em> does.
+	 */
+
+	private void reload() {
+		final VariableSlot[] slots = program.getVariables();
+		final MathContext mathContext = context.getMathContext();
+		for(int i = 0; i < slots.length; i++) {
+			final Variable variable = evaluator.getVariable(slots[i]);
+			variables[i] = variable;
+			if(variable == null) {
+				set(i, null);
+				continue;
+			}
+
+			try {
+				if(variable.getType() == VariableType.NUMBER) {
+					final NumberAtom number = variable.getNumber();
+					set(i, number == null ? new NumberAtom(((BigDecimal)variable.getValue()).round(mathContext)) : number.round(mathContext));
+				}
+				else {
+					set(i, new StringAtom((String)variable.getValue()));
+				}
+			}
+			catch(final RuntimeException ex) {
+				kinds[i] = FAILURE;
+				references[i] = ex;
+			}
+		}
+	}
+
+	/**
+	 * Writes the assigned variables registers back to their variables, like <em>AssignStatement.evaluate(...)</em> does.
+	 */
+
+	private void flush() {
+		if(!anyDirty) {
+			return;
+		}
+
+		for(int i = 0; i < dirty.length; i++) {
+			if(!dirty[i]) {
+				continue;
+			}
+
+			final Atom atom = assigned[i];
+			if(atom == null) {
+				variables[i].setNumber((NumberAtom)atom(i));
+			}
+			else if(atom.getClass() == NumberAtom.class) {
+				variables[i].setNumber((NumberAtom)atom);
+			}
+			else {
+				variables[i].setValue(atom.getValue());
+			}
+
+			assigned[i] = null;
+			dirty[i] = false;
+		}
+		anyDirty = false;
+	}
+
+}
@@ -2,12 +2,53 @@ package xyz.algogo.core;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import xyz.algogo.core.batch.BatchEvaluator;
+import xyz.algogo.core.batch.BatchResult;
+import xyz.algogo.core.batch.BatchValidator;
+import xyz.algogo.core.batch.ValidationResult;
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.context.CancellationToken;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.context.ExecutionEngine;
+import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.exception.DigitBudgetExceededException;
+import xyz.algogo.core.exception.OutputBudgetExceededException;
 import xyz.algogo.core.exception.ParseException;
+import xyz.algogo.core.exception.StatementBudgetExceededException;
+import xyz.algogo.core.exception.StringLengthBudgetExceededException;
+import xyz.algogo.core.exception.TimeBudgetExceededException;
 import xyz.algogo.core.language.AlgogoLanguage;
+import xyz.algogo.core.profiler.Profiler;
+import xyz.algogo.core.profiler.ProfilerEntry;
+import xyz.algogo.core.profiler.ProfilerReport;
+import xyz.algogo.core.trace.Trace;
+import xyz.algogo.core.trace.TraceEvent;
+import xyz.algogo.core.trace.TraceReader;
+import xyz.algogo.core.trace.TraceRecorder;
+import xyz.algogo.core.vm.ExecutionSnapshot;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +83,290 @@ class AlgorithmTest {
 		assertThrows(ParseException.class, () -> Algorithm.parse(invalidFile));
 	}
 
+	@Test
+	void parserReuseTest() throws InterruptedException {
+		AlgorithmParser.warmUp();
+
+		final String indented = String.join(System.lineSeparator(),
+				"// Reuse by Algogo",
+				"VARIABLES",
+				"	x : NUMBER",
+				"BEGINNING",
+				"	IF x == 0 THEN",
+				"		x <- 1"
+		);
+		for(int i = 0; i < 3; i++) {
+			assertThrows(ParseException.class, () -> Algorithm.parse(invalidFile));
+			assertThrows(ParseException.class, () -> Algorithm.parse(indented + System.lineSeparator() + "	x <- ("));
+			assertThrows(ParseException.class, () -> Algorithm.parse(indented + System.lineSeparator() + "	x <- 1 $ 2"));
+			assertEquals(validFile, Algorithm.parse(validFile).toLanguage(new AlgogoLanguage()));
+			final String complete = indented + System.lineSeparator() + "END" + System.lineSeparator();
+			assertEquals(complete, Algorithm.parse(complete).toLanguage(new AlgogoLanguage()));
+			assertEquals(new BigDecimal(9), new ExpressionEvaluator().evaluate(Expression.parse("(1 + 2) * 3")).getValue());
+		}
+
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+		final List<Thread> threads = new ArrayList<>();
+		for(int i = 0; i < 4; i++) {
+			final Thread thread = new Thread(() -> {
+				try {
+					for(int j = 0; j < 50; j++) {
+						assertEquals(validFile, Algorithm.parse(validFile).toLanguage(new AlgogoLanguage()));
+					}
+				}
+				catch(final Throwable ex) {
+					errors.add(ex);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for(final Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(errors.isEmpty());
+	}
+
+	@Test
+	void incrementalParserTest() {
+		final List<String> lines = new ArrayList<>(Arrays.asList("// Incremental by Algogo", "VARIABLES", "	x : NUMBER", "	y : NUMBER", "BEGINNING", "	y <- 0"));
+		for(int i = 0; i < 100; i++) {
+			lines.addAll(Arrays.asList(
+					"	FOR x FROM 1 TO " + (i + 1) + " DO",
+					"		IF x % 2 == 0 THEN",
+					"			y <- y + x",
+					"		ELSE",
+					"			y <- y - 1",
+					"",
+					"		// Step " + i
+			));
+		}
+		lines.addAll(Arrays.asList("	PRINT_VARIABLE y", "END", ""));
+
+		final IncrementalParser parser = new IncrementalParser();
+		final String original = String.join("\n", lines);
+		final Algorithm algorithm = parser.parse(original);
+		assertEquals(lines.size(), parser.getParsedLines());
+
+		// Changes a statement inside an IF block.
+		lines.set(8, "			y <- y + 2 * x");
+		assertNotSame(algorithm, assertIncremental(parser, lines));
+		assertTrue(parser.getParsedLines() <= 2);
+
+		// Inserts and removes statements inside an ELSE block, a FOR loop and the BEGINNING block.
+		lines.add(11, "			PRINT \"Odd\" NLB");
+		assertIncremental(parser, lines);
+		lines.remove(12);
+		assertIncremental(parser, lines);
+		lines.add(20, "		y <- y * 2");
+		assertIncremental(parser, lines);
+		lines.add(6, "	WHILE y < 0 DO");
+		lines.add(7, "		y <- y + 1");
+		assertIncremental(parser, lines);
+		assertTrue(parser.getParsedLines() < 12);
+
+		// Changes the header of a block and moves a statement to another block.
+		lines.set(9, "		IF x % 3 == 0 THEN");
+		assertIncremental(parser, lines);
+		lines.set(14, "			// Not a step");
+		assertIncremental(parser, lines);
+		lines.set(22, "	y <- y * 2");
+		assertIncremental(parser, lines);
+		assertTrue(parser.getParsedLines() < lines.size());
+
+		// Returned algorithms are copies, later parsings do not modify them.
+		assertEquals(Algorithm.parse(original).toLanguage(new AlgogoLanguage()), algorithm.toLanguage(new AlgogoLanguage()));
+		assertNotSame(parser.getAlgorithm(), parser.getAlgorithm());
+
+		// Edits outside of the BEGINNING block require a full parsing.
+		lines.add(4, "	z : STRING");
+		assertIncremental(parser, lines);
+		assertEquals(lines.size(), parser.getParsedLines());
+
+		lines.set(9, "		x <- (");
+		assertThrows(ParseException.class, () -> parser.parse(String.join("\n", lines)));
+		assertNull(parser.getAlgorithm());
+		lines.set(9, "		x <- 1");
+		assertIncremental(parser, lines);
+		assertEquals(lines.size(), parser.getParsedLines());
+	}
+
+	@Test
+	void parseSourcesTest() throws IOException {
+		final StringBuilder builder = new StringBuilder("// Sources by Algogo\nVARIABLES\n	s : STRING\nBEGINNING\n");
+		for(int i = 0; i < 2000; i++) {
+			builder.append("	s <- \"\u00C9t\u00E9 \uD83D\uDE00 ").append(i).append("\"\n");
+		}
+		builder.append("END\n");
+
+		final String content = builder.toString();
+		final String expected = Algorithm.parse(content).toLanguage(new AlgogoLanguage());
+
+		final File file = File.createTempFile("sources", ".agg");
+		try {
+			Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+			assertEquals(expected, Algorithm.parse(file.toPath()).toLanguage(new AlgogoLanguage()));
+			assertEquals(expected, Algorithm.parse(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)).toLanguage(new AlgogoLanguage()));
+			assertEquals(expected, Algorithm.parse(FileChannel.open(file.toPath())).toLanguage(new AlgogoLanguage()));
+
+			Files.write(file.toPath(), invalidFile.getBytes(StandardCharsets.UTF_8));
+			assertThrows(ParseException.class, () -> Algorithm.parse(file.toPath()));
+		}
+		finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	void batchValidatorTest() throws IOException {
+		final Path directory = Files.createTempDirectory("batch");
+		try {
+			Files.createDirectories(directory.resolve("nested"));
+			Files.write(directory.resolve("a.agg2"), validFile.getBytes(StandardCharsets.UTF_8));
+			Files.write(directory.resolve("nested").resolve("b.agg2"), invalidFile.getBytes(StandardCharsets.UTF_8));
+			Files.write(directory.resolve("nested").resolve("c.agg2"), validFile.getBytes(StandardCharsets.UTF_8));
+			Files.write(directory.resolve("nested").resolve("d.txt"), invalidFile.getBytes(StandardCharsets.UTF_8));
+
+			final StringBuilder deep = new StringBuilder("VARIABLES\n	x : NUMBER\nBEGINNING\n	x <- ");
+			for(int i = 0; i < 20000; i++) {
+				deep.append('(');
+			}
+			deep.append('1');
+			for(int i = 0; i < 20000; i++) {
+				deep.append(')');
+			}
+			Files.write(directory.resolve("nested").resolve("e.agg2"), deep.append("\nEND\n").toString().getBytes(StandardCharsets.UTF_8));
+
+			final List<ValidationResult> results = new BatchValidator(BatchValidator.DEFAULT_EXTENSION, 2).validateAll(directory);
+			assertEquals(4, results.size());
+			assertEquals(directory.resolve("a.agg2"), results.get(0).getFile());
+			assertTrue(results.get(0).isSuccess());
+			assertNull(results.get(0).getMessage());
+
+			final ValidationResult invalid = results.get(1);
+			assertEquals(directory.resolve("nested").resolve("b.agg2"), invalid.getFile());
+			assertFalse(invalid.isSuccess());
+			assertTrue(invalid.getException() instanceof ParseException);
+			assertTrue(invalid.getLine() > 0);
+			assertNotNull(invalid.getMessage());
+			assertTrue(results.get(2).isSuccess());
+			assertTrue(results.get(2).getParseTime() > 0L);
+
+			// Too deeply nested to be parsed, but still reported.
+			assertEquals(directory.resolve("nested").resolve("e.agg2"), results.get(3).getFile());
+			assertTrue(results.get(3).getException() instanceof ParseException);
+			assertNotNull(results.get(3).getMessage());
+
+			assertFalse(new BatchValidator().validate(directory.resolve("missing.agg2")).isSuccess());
+		}
+		finally {
+			try(final Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+			}
+		}
+	}
+
+	@Test
+	void precompiledTest() throws IOException {
+		final Algorithm valid = Algorithm.parse(validFile);
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		valid.write(output);
+
+		final Algorithm read = Algorithm.read(new ByteArrayInputStream(output.toByteArray()));
+		assertEquals(validFile, read.toLanguage(new AlgogoLanguage()));
+		assertEquals(valid.getTitle(), read.getTitle());
+		assertEquals(valid.getAuthor(), read.getAuthor());
+
+		final String content = String.join("\n",
+				"VARIABLES",
+				"	x : NUMBER",
+				"	s : STRING",
+				"BEGINNING",
+				"	/* Block",
+				"	comment */",
+				"	x <- 98765432109876543210.5 * 10 ^ -2 + |-.25| - 3.",
+				"	s <- \"\u00C9t\u00E9 \"\"quoted\"\" \" + \"!\"",
+				"	PRINT_VARIABLE s NLB",
+				"	IF NOT(x <= 2) AND x != 1 || x == -2 THEN",
+				"		PRINT \"Big\"",
+				"	ELSE",
+				"		x <- MAX(x, 2) % 3",
+				"	WHILE x >= 10 && true DO",
+				"		x <- x / SQRT(4)",
+				"	FOR x FROM 1 TO FLOOR(2.5) DO",
+				"		PRINT_VARIABLE x \"Value :\"",
+				"END",
+				""
+		);
+		final Algorithm algorithm = Algorithm.parse(content);
+		final ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+		algorithm.write(compiled);
+
+		final Algorithm loaded = Algorithm.read(new ByteArrayInputStream(compiled.toByteArray()));
+		assertEquals(algorithm.toLanguage(new AlgogoLanguage()), loaded.toLanguage(new AlgogoLanguage()));
+
+		final StringBuilder expectedOutput = new StringBuilder();
+		final StringBuilder loadedOutput = new StringBuilder();
+		assertNull(algorithm.evaluate(null, (source, printed) -> expectedOutput.append(printed)));
+		assertNull(loaded.evaluate(null, (source, printed) -> loadedOutput.append(printed)));
+		assertEquals(expectedOutput.toString(), loadedOutput.toString());
+
+		final byte[] bytes = compiled.toByteArray();
+		final Random random = new Random(42L);
+		for(int i = 0; i < 5000; i++) {
+			final byte[] mutated = bytes.clone();
+			mutated[random.nextInt(mutated.length)] = (byte)random.nextInt(256);
+			try {
+				Algorithm.read(new ByteArrayInputStream(mutated));
+			}
+			catch(final IOException ex) {
+				// Corrupted files are only reported as I/O exceptions.
+			}
+		}
+		assertThrows(IOException.class, () -> Algorithm.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+		bytes[4]++;
+		assertThrows(IOException.class, () -> Algorithm.read(new ByteArrayInputStream(bytes)));
+
+		final Path directory = Files.createTempDirectory("precompiled");
+		try {
+			final Path file = directory.resolve("valid.agg2");
+			final byte[] source = validFile.getBytes(StandardCharsets.UTF_8);
+			Files.write(file, source);
+			final Path precompiled = Algorithm.getPrecompiledFile(file);
+			assertEquals(directory.resolve("valid" + Algorithm.PRECOMPILED_EXTENSION), precompiled);
+
+			assertEquals(validFile, Algorithm.load(file).toLanguage(new AlgogoLanguage()));
+			assertFalse(Files.exists(precompiled));
+
+			assertEquals(validFile, Algorithm.precompile(file).toLanguage(new AlgogoLanguage()));
+			assertTrue(Files.isRegularFile(precompiled));
+			assertEquals(validFile, Algorithm.read(precompiled).toLanguage(new AlgogoLanguage()));
+			assertEquals(validFile, Algorithm.load(file).toLanguage(new AlgogoLanguage()));
+			try(final Stream<Path> files = Files.list(directory)) {
+				assertEquals(2L, files.count());
+			}
+
+			// The precompiled file is used as long as it has been written from the same source.
+			Files.write(precompiled, AlgorithmFormat.write(algorithm, source));
+			assertEquals(algorithm.toLanguage(new AlgogoLanguage()), Algorithm.load(file).toLanguage(new AlgogoLanguage()));
+
+			// Edits are detected even if they keep the length and the modification date.
+			final String edited = validFile.replace("x <- 10", "x <- 11");
+			final FileTime modified = Files.getLastModifiedTime(file);
+			Files.write(file, edited.getBytes(StandardCharsets.UTF_8));
+			Files.setLastModifiedTime(file, modified);
+			assertEquals(edited, Algorithm.load(file).toLanguage(new AlgogoLanguage()));
+
+			Files.write(precompiled, Arrays.copyOf(bytes, 12));
+			assertEquals(edited, Algorithm.load(file).toLanguage(new AlgogoLanguage()));
+		}
+		finally {
+			try(final Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+			}
+		}
+	}
+
 	@Test
 	void creditsTest() {
 		final Algorithm valid = Algorithm.parse(validFile);
@@ -55,4 +380,615 @@ class AlgorithmTest {
 		assertNull(valid.evaluate((source, arguments) -> "4^2 * 2", (source, content) -> logger.info(content)));
 	}
 
+	@Test
+	void forLoopTest() {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	s : NUMBER",
+				"BEGINNING",
+				"	s <- 0",
+				"	FOR i FROM 1 TO 10.5 DO",
+				"		s <- s + i",
+				"		i <- 100",
+				"	PRINT_VARIABLE s",
+				"	FOR i FROM 3 TO 1.5 DO",
+				"		PRINT_VARIABLE i",
+				"	FOR i FROM 0.5 TO 2 DO",
+				"		PRINT_VARIABLE i",
+				"END"
+		));
+
+		final StringBuilder output = new StringBuilder();
+		assertNull(algorithm.evaluate((source, arguments) -> "", (source, content) -> output.append(content.trim()).append(' ')));
+		assertEquals("55 3 2 0.5 1.5 ", output.toString());
+	}
+
+	@Test
+	void pauseAndStopTest() throws InterruptedException {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"BEGINNING",
+				"	i <- 0",
+				"	WHILE 1 == 1 DO",
+				"		i <- i + 1",
+				"		PRINT_VARIABLE i",
+				"END"
+		));
+
+		final AtomicLong outputs = new AtomicLong();
+		final EvaluationContext context = new EvaluationContext((source, arguments) -> "", (source, content) -> outputs.incrementAndGet());
+		final CancellationToken token = context.getCancellationToken();
+		final Exception[] result = new Exception[]{new Exception()};
+
+		final Thread thread = new Thread(() -> result[0] = algorithm.evaluate(context));
+		thread.start();
+
+		while(outputs.get() == 0) {
+			Thread.sleep(1);
+		}
+		assertTrue(token.pause());
+		while(thread.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+
+		final long paused = outputs.get();
+		Thread.sleep(50);
+		assertEquals(paused, outputs.get());
+
+		assertTrue(token.resume());
+		while(outputs.get() == paused) {
+			Thread.sleep(1);
+		}
+
+		context.setStopped(true);
+		thread.join(10000);
+		assertFalse(thread.isAlive());
+		assertNull(result[0]);
+
+		// An input that is given while stopping is still assigned.
+		final Algorithm prompt = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	x : NUMBER",
+				"BEGINNING",
+				"	x <- 1",
+				"	PROMPT x",
+				"	PRINT_VARIABLE x",
+				"END"
+		));
+		for(final ExecutionEngine engine : ExecutionEngine.values()) {
+			final StringBuilder output = new StringBuilder();
+			final EvaluationContext[] stopping = new EvaluationContext[1];
+			stopping[0] = new EvaluationContext((source, arguments) -> {
+				stopping[0].setStopped(true);
+				return "5";
+			}, (source, content) -> output.append(content));
+			stopping[0].setExecutionEngine(engine);
+
+			final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+			assertNull(prompt.evaluate(evaluator, stopping[0]));
+			assertEquals(new BigDecimal(5), evaluator.getVariable("x").getValue());
+			assertEquals("", output.toString());
+		}
+	}
+
+	@Test
+	void budgetsTest() throws InterruptedException {
+		final Algorithm loop = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	s : STRING",
+				"BEGINNING",
+				"	i <- 0",
+				"	s <- \"a\"",
+				"	WHILE 1 == 1 DO",
+				"		i <- i + 1",
+				"		s <- s + \"ab\"",
+				"		PRINT_VARIABLE i",
+				"END"
+		));
+
+		EvaluationContext context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setMaximumStatements(1000);
+		assertTrue(loop.evaluate(context) instanceof StatementBudgetExceededException);
+		assertEquals(1001, context.getExecutedStatements());
+
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setTimeout(50);
+		assertTrue(loop.evaluate(context) instanceof TimeBudgetExceededException);
+
+		// The timeout is counted from the start of each evaluation, so the context can be reused.
+		final Algorithm shortLoop = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"BEGINNING",
+				"	FOR i FROM 1 TO 100 DO",
+				"		PRINT_VARIABLE i",
+				"END"
+		));
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setPollInterval(1);
+		context.setTimeout(50);
+		Thread.sleep(100);
+		assertNull(shortLoop.evaluate(context));
+		Thread.sleep(100);
+		assertNull(shortLoop.evaluate(context));
+
+		// So are the counters.
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setMaximumStatements(300);
+		context.setMaximumOutputBytes(400);
+		assertNull(shortLoop.evaluate(context));
+		final long executed = context.getExecutedStatements();
+		final long outputBytes = context.getOutputBytes();
+		assertTrue(executed > 150L && executed <= 300L && outputBytes > 200L);
+		assertNull(shortLoop.evaluate(context));
+		assertEquals(executed, context.getExecutedStatements());
+		assertEquals(outputBytes, context.getOutputBytes());
+
+		final StringBuilder output = new StringBuilder();
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> output.append(content));
+		context.setMaximumOutputBytes(100);
+		assertTrue(loop.evaluate(context) instanceof OutputBudgetExceededException);
+		assertTrue(output.length() <= 100 && context.getOutputBytes() == output.length());
+
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setMaximumStringLength(100);
+		assertTrue(loop.evaluate(context) instanceof StringLengthBudgetExceededException);
+
+		final Algorithm factorial = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	x : NUMBER",
+				"BEGINNING",
+				"	x <- FACTORIAL(10000000)",
+				"	x <- FACTORIAL(100)",
+				"END"
+		));
+
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setMaximumDigits(1000);
+		assertTrue(factorial.evaluate(context) instanceof DigitBudgetExceededException);
+
+		final Algorithm bounded = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"BEGINNING",
+				"	FOR i FROM 1 TO 500 DO",
+				"		PRINT_VARIABLE i",
+				"END"
+		));
+
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		assertNull(bounded.evaluate(context));
+
+		final long statements = context.getExecutedStatements();
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setMaximumStatements(statements);
+		assertNull(bounded.evaluate(context));
+
+		context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setMaximumStatements(statements - 1);
+		assertTrue(bounded.evaluate(context) instanceof StatementBudgetExceededException);
+	}
+
+	@Test
+	void executionEnginesTest() {
+		final String[] algorithms = new String[]{
+				validFile,
+				String.join(System.lineSeparator(),
+						"VARIABLES",
+						"	i : NUMBER",
+						"	j : NUMBER",
+						"	s : NUMBER",
+						"	t : STRING",
+						"BEGINNING",
+						"	s <- 0",
+						"	t <- \"a\"",
+						"	i <- 0",
+						"	WHILE i < 30 DO",
+						"		j <- 0",
+						"		WHILE j <= i AND NOT(j == 20) DO",
+						"			s <- s + i * j - j / 2 + i % 7",
+						"			j <- j + 1",
+						"		IF s > 1000 OR i == 3 THEN",
+						"			t <- t + \"b\"",
+						"		ELSE",
+						"			s <- -s + 1",
+						"		i <- i + 1",
+						"	PRINT_VARIABLE s",
+						"	PRINT_VARIABLE t",
+						"	s <- 9223372036854775807 + 1",
+						"	PRINT_VARIABLE s",
+						"	s <- 9223372036854775807",
+						"	s <- s + 1",
+						"	s <- s - 1",
+						"	PRINT_VARIABLE s",
+						"	s <- 1 / 3",
+						"	s <- s + 1",
+						"	PRINT_VARIABLE s",
+						"	FOR i FROM 1 TO 10.5 DO",
+						"		s <- s + i",
+						"		i <- 100",
+						"	PRINT_VARIABLE s",
+						"	FOR i FROM 3 TO 1.5 DO",
+						"		PRINT_VARIABLE i",
+						"	FOR i FROM 0.5 TO 2 DO",
+						"		PRINT_VARIABLE i",
+						"	FOR i FROM 2 TO 1 + 1 DO",
+						"		PRINT_VARIABLE i",
+						"	t <- 2",
+						"END"
+				),
+				String.join(System.lineSeparator(),
+						"VARIABLES",
+						"	s : STRING",
+						"	t : STRING",
+						"BEGINNING",
+						"	s <- \"\"",
+						"	t <- \"\"",
+						"	PRINT_VARIABLE t",
+						"END"
+				),
+				String.join(System.lineSeparator(),
+						"VARIABLES",
+						"	s : NUMBER",
+						"	t : STRING",
+						"BEGINNING",
+						"	s <- 10 / 4",
+						"	s <- s * 3 - 1",
+						"	PRINT_VARIABLE s",
+						"	t <- s + 1",
+						"END"
+				),
+				String.join(System.lineSeparator(),
+						"VARIABLES",
+						"	s : NUMBER",
+						"BEGINNING",
+						"	s <- 2",
+						"	z <- s * 2",
+						"END"
+				)
+		};
+
+		for(final String text : algorithms) {
+			final Algorithm algorithm = Algorithm.parse(text);
+
+			final StringBuilder treeWalkerOutput = new StringBuilder();
+			final EvaluationContext treeWalkerContext = new EvaluationContext((source, arguments) -> "32", (source, content) -> treeWalkerOutput.append(content).append(System.lineSeparator()));
+			final Exception treeWalkerResult = algorithm.evaluate(treeWalkerContext);
+
+			for(final ExecutionEngine engine : ExecutionEngine.values()) {
+				final StringBuilder output = new StringBuilder();
+				final EvaluationContext context = new EvaluationContext((source, arguments) -> "32", (source, content) -> output.append(content).append(System.lineSeparator()));
+				context.setExecutionEngine(engine);
+				final Exception result = algorithm.evaluate(context);
+
+				assertEquals(treeWalkerOutput.toString(), output.toString());
+				assertEquals(treeWalkerResult == null ? null : treeWalkerResult.getClass(), result == null ? null : result.getClass());
+				assertEquals(treeWalkerContext.getExecutedStatements(), context.getExecutedStatements());
+			}
+		}
+	}
+
+	@Test
+	void batchTest() {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	n : NUMBER",
+				"	s : NUMBER",
+				"BEGINNING",
+				"	PROMPT n",
+				"	s <- 0",
+				"	FOR i FROM 1 TO n DO",
+				"		s <- s + i",
+				"	PRINT_VARIABLE s",
+				"END"
+		));
+
+		final List<List<String>> inputs = new ArrayList<>();
+		for(int i = 1; i <= 200; i++) {
+			inputs.add(Arrays.asList(String.valueOf(i)));
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for(final ExecutionEngine engine : ExecutionEngine.values()) {
+				final List<BatchResult> results = new BatchEvaluator(algorithm, context -> context.setExecutionEngine(engine)).evaluateAll(inputs, executor);
+				assertEquals(inputs.size(), results.size());
+
+				for(int i = 0; i < results.size(); i++) {
+					final BatchResult result = results.get(i);
+					assertTrue(result.isSuccess());
+					assertEquals(inputs.get(i), result.getInputs());
+					assertEquals(String.valueOf((i + 1) * (i + 2) / 2), result.getOutput().trim());
+				}
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertEquals("55", new BatchEvaluator(algorithm).evaluate(Arrays.asList("10")).getOutput().trim());
+	}
+
+	@Test
+	void asyncInputTest() {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	a : NUMBER",
+				"	b : NUMBER",
+				"BEGINNING",
+				"	FOR i FROM 1 TO 2 DO",
+				"		PROMPT a",
+				"	PROMPT b",
+				"	PRINT_VARIABLE a",
+				"	PRINT_VARIABLE b",
+				"END"
+		));
+
+		final List<CompletableFuture<Object>> inputs = Collections.synchronizedList(new ArrayList<>());
+		final List<CompletableFuture<Exception>> results = new ArrayList<>();
+		final List<StringBuilder> outputs = new ArrayList<>();
+		for(int i = 0; i < 1000; i++) {
+			final StringBuilder output = new StringBuilder();
+			outputs.add(output);
+			results.add(algorithm.evaluateAsync((source, arguments) -> {
+				final CompletableFuture<Object> input = new CompletableFuture<>();
+				inputs.add(input);
+				return input;
+			}, (source, content) -> output.append(content.trim())));
+		}
+
+		for(int round = 1; round <= 3; round++) {
+			assertEquals(1000, inputs.size());
+			assertTrue(results.stream().noneMatch(CompletableFuture::isDone));
+
+			final List<CompletableFuture<Object>> pending = new ArrayList<>(inputs);
+			inputs.clear();
+
+			final int value = round;
+			pending.parallelStream().forEach(input -> input.complete(String.valueOf(value * 10)));
+		}
+
+		for(int i = 0; i < 1000; i++) {
+			assertNull(results.get(i).join());
+			assertEquals("2030", outputs.get(i).toString());
+		}
+
+		final CompletableFuture<Object> failing = new CompletableFuture<>();
+		final CompletableFuture<Exception> failed = algorithm.evaluateAsync((source, arguments) -> failing, (source, content) -> {});
+		failing.completeExceptionally(new IllegalStateException());
+		assertTrue(failed.join() instanceof IllegalStateException);
+
+		final StringBuilder output = new StringBuilder();
+		final EvaluationContext context = new EvaluationContext((source, arguments) -> "7", (source, content) -> output.append(content.trim()));
+		assertNull(algorithm.evaluateAsync(context).join());
+		assertEquals("77", output.toString());
+	}
+
+	@Test
+	void profilerTest() {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	s : NUMBER",
+				"BEGINNING",
+				"	s <- 0",
+				"	FOR i FROM 1 TO 50 DO",
+				"		s <- s + SQRT(i)",
+				"		IF i % 10 == 0 THEN",
+				"			PRINT_VARIABLE s",
+				"END"
+		));
+
+		final Profiler profiler = new Profiler();
+		final EvaluationContext context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setExecutionEngine(ExecutionEngine.VIRTUAL_MACHINE);
+		context.setProfiler(profiler);
+		assertNull(algorithm.evaluate(context));
+
+		final ProfilerReport report = profiler.getReport();
+		final ProfilerEntry loop = report.getEntries().stream().filter(entry -> entry.getLabel().startsWith("FOR")).findFirst().orElse(null);
+		assertNotNull(loop);
+		assertEquals(1, loop.getCount());
+		assertEquals(Arrays.asList("BEGINNING", "FOR i FROM 1 TO 50 DO"), loop.getPath());
+
+		final ProfilerEntry sqrt = report.getEntries().stream().filter(entry -> entry.getLabel().startsWith("SQRT")).findFirst().orElse(null);
+		assertNotNull(sqrt);
+		assertEquals(50, sqrt.getCount());
+		assertEquals(3, sqrt.getDepth());
+
+		final ProfilerEntry print = report.getEntries().stream().filter(entry -> entry.getLabel().startsWith("PRINT_VARIABLE")).findFirst().orElse(null);
+		assertNotNull(print);
+		assertEquals(5, print.getCount());
+
+		for(final ProfilerEntry entry : report.getEntries()) {
+			assertTrue(entry.getSelfTime() <= entry.getInclusiveTime());
+		}
+		assertTrue(loop.getInclusiveTime() <= report.getTotalTime());
+		assertTrue(report.toCollapsedStacks().contains("BEGINNING;FOR i FROM 1 TO 50 DO;"));
+		assertTrue(report.toText().contains("FOR i FROM 1 TO 50 DO"));
+
+		profiler.reset();
+		assertTrue(profiler.getReport().getEntries().isEmpty());
+	}
+
+	@Test
+	void traceTest() throws IOException {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	s : NUMBER",
+				"	d : NUMBER",
+				"BEGINNING",
+				"	s <- 0",
+				"	d <- 1",
+				"	FOR i FROM 1 TO 50 DO",
+				"		s <- s + i",
+				"		d <- d + 0.5",
+				"		IF i % 10 == 0 THEN",
+				"			PRINT_VARIABLE s",
+				"END"
+		));
+
+		final TraceRecorder recorder = new TraceRecorder();
+		final EvaluationContext context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+		context.setExecutionEngine(ExecutionEngine.VIRTUAL_MACHINE);
+		context.setTraceRecorder(recorder);
+		assertNull(algorithm.evaluate(context));
+
+		final Trace trace = recorder.getTrace();
+		assertFalse(trace.isTruncated());
+
+		final TraceReader reader = trace.newReader();
+		assertNull(reader.getEvent());
+		while(reader.next()) {
+			assertNotNull(reader.getEvent());
+		}
+		assertEquals(50L, reader.getValue("i"));
+		assertEquals(1275L, reader.getValue("s"));
+		assertEquals(26L, reader.getValue("d"));
+		assertEquals(5, reader.getOutputs().size());
+		assertEquals("1275", reader.getOutputs().get(4).trim());
+		assertEquals("END", reader.getStatement());
+		assertTrue(reader.previous());
+		assertEquals(TraceEvent.Type.OUTPUT, reader.getEvent().getType());
+		assertTrue(reader.getStatement().startsWith("PRINT_VARIABLE"));
+
+		while(reader.getOutputs().size() == 5) {
+			assertTrue(reader.previous());
+		}
+		assertEquals(50L, reader.getValue("i"));
+		assertEquals(1275L, reader.getValue("s"));
+
+		while(!Long.valueOf(25L).equals(reader.getValue("i")) || reader.getEvent().getType() != TraceEvent.Type.WRITE || !"d".equals(reader.getEvent().getName())) {
+			assertTrue(reader.previous());
+		}
+		assertEquals(0, new BigDecimal("13.5").compareTo((BigDecimal)reader.getValue("d")));
+		assertEquals(325L, reader.getValue("s"));
+		assertTrue(reader.previous());
+		assertEquals(13L, reader.getValue("d"));
+
+		while(reader.previous()) {
+			assertTrue(reader.hasNext());
+		}
+		assertNull(reader.getEvent());
+		assertNull(reader.getStatement());
+		assertTrue(reader.getVariables().isEmpty());
+		assertTrue(reader.getOutputs().isEmpty());
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		trace.write(output);
+		final TraceReader loaded = Trace.read(new ByteArrayInputStream(output.toByteArray())).newReader();
+		while(loaded.next());
+		assertEquals(trace.getVariables(), new ArrayList<>(loaded.getVariables().keySet()));
+		assertEquals(1275L, loaded.getValue("s"));
+		assertEquals(5, loaded.getOutputs().size());
+
+		final TraceRecorder ring = new TraceRecorder(64);
+		context.setTraceRecorder(ring);
+		assertNull(algorithm.evaluate(context));
+		assertTrue(ring.getDroppedBytes() > 0);
+
+		final Trace truncated = ring.getTrace();
+		assertTrue(truncated.isTruncated());
+		assertTrue(truncated.getSize() <= 64);
+
+		final TraceReader tail = truncated.newReader();
+		while(tail.next());
+		assertEquals(50L, tail.getValue("i"));
+		assertEquals(1275L, tail.getValue("s"));
+		assertEquals(26L, tail.getValue("d"));
+		while(tail.previous());
+		assertNotNull(tail.getValue("s"));
+	}
+
+	@Test
+	void snapshotTest() throws IOException {
+		final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"	i : NUMBER",
+				"	j : NUMBER",
+				"	k : NUMBER",
+				"	x : NUMBER",
+				"	s : NUMBER",
+				"BEGINNING",
+				"	s <- 0",
+				"	FOR i FROM 1 TO 5 DO",
+				"		PROMPT k",
+				"		j <- 0",
+				"		WHILE j < 20 DO",
+				"			j <- j + 1",
+				"			s <- s + RANDOM(1, 10) * k",
+				"		FOR x FROM 0.5 TO 3.5 DO",
+				"			s <- s + x",
+				"		PRINT_VARIABLE s",
+				"END"
+		));
+		final List<String> inputs = Arrays.asList("3", "1", "4", "1", "5");
+
+		final StringBuilder expected = new StringBuilder();
+		final EvaluationContext reference = createSnapshotContext(inputs, expected);
+		assertNull(algorithm.evaluate(reference));
+
+		final List<ExecutionSnapshot> snapshots = new ArrayList<>();
+		final StringBuilder output = new StringBuilder();
+		final EvaluationContext context = createSnapshotContext(inputs, output);
+		context.setPollInterval(16);
+		context.setSnapshotListener(snapshot -> {
+			snapshots.add(snapshot);
+			context.requestSnapshot();
+		});
+		context.requestSnapshot();
+		assertNull(algorithm.evaluate(context));
+		assertEquals(expected.toString(), output.toString());
+		assertTrue(snapshots.size() > 10);
+
+		for(final ExecutionSnapshot snapshot : snapshots) {
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			snapshot.write(bytes);
+			final ExecutionSnapshot loaded = ExecutionSnapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+
+			final StringBuilder resumed = new StringBuilder();
+			final EvaluationContext resumedContext = createSnapshotContext(inputs, resumed);
+			resumedContext.setRandom(new Random());
+			assertNull(algorithm.resume(loaded, resumedContext));
+
+			assertTrue(expected.toString().endsWith(resumed.toString()));
+			assertEquals(reference.getOutputBytes(), resumedContext.getOutputBytes());
+			assertEquals(reference.getExecutedStatements(), resumedContext.getExecutedStatements());
+			assertEquals(inputs.size(), resumedContext.getConsumedInputs());
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> Algorithm.parse(String.join(System.lineSeparator(),
+				"VARIABLES",
+				"BEGINNING",
+				"END"
+		)).resume(snapshots.get(0), new EvaluationContext()));
+	}
+
+	private static Algorithm assertIncremental(final IncrementalParser parser, final List<String> lines) {
+		final String content = String.join("\n", lines);
+		final Algorithm algorithm = parser.parse(content);
+		final Algorithm expected = Algorithm.parse(content);
+		assertEquals(expected.toLanguage(new AlgogoLanguage()), algorithm.toLanguage(new AlgogoLanguage()));
+
+		final StringBuilder expectedOutput = new StringBuilder();
+		final StringBuilder output = new StringBuilder();
+		assertNull(expected.evaluate(null, (source, printed) -> expectedOutput.append(printed)));
+		assertNull(algorithm.evaluate(null, (source, printed) -> output.append(printed)));
+		assertEquals(expectedOutput.toString(), output.toString());
+		return algorithm;
+	}
+
+	private static EvaluationContext createSnapshotContext(final List<String> inputs, final StringBuilder output) {
+		final EvaluationContext[] holder = new EvaluationContext[1];
+		holder[0] = new EvaluationContext((source, arguments) -> inputs.get((int)holder[0].getConsumedInputs()), (source, content) -> output.append(content));
+		holder[0].setRandom(new Random(42L));
+		return holder[0];
+	}
+
 }
@@ -0,0 +1,86 @@
+package xyz.algogo.core.benchmark;
+
+import xyz.algogo.core.evaluator.ExpressionEvaluator;
+import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.function.Function;
+
+/**
+ * Measures the cost of creating expression evaluators (one is created per run).
+ * <br>Run it with <em>java xyz.algogo.core.benchmark.EvaluatorConstructionBenchmark [iterations]</em>.
+ */
+
+public class EvaluatorConstructionBenchmark {
+
+	public static void main(final String[] args) {
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+		System.out.println("Warming up...");
+		run(iterations);
+
+		System.out.println("Default evaluator : " + run(iterations) + " ns / evaluator.");
+		System.out.println("Evaluator with a custom function : " + runWithFunction(iterations) + " ns / evaluator.");
+	}
+
+	/**
+	 * Creates evaluators.
+	 *
+	 * @param iterations The number of evaluators to create.
+	 *
+	 * @return The average time (in nanoseconds) to create an evaluator.
+	 */
+
+	private static double run(final int iterations) {
+		int sink = 0;
+		final long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			sink += new ExpressionEvaluator().getVariables().length;
+		}
+		final long time = System.nanoTime() - start;
+		consume(sink);
+		return (double)time / iterations;
+	}
+
+	/**
+	 * Creates evaluators and puts a custom function in each of them (which copies the default registry).
+	 *
+	 * @param iterations The number of evaluators to create.
+	 *
+	 * @return The average time (in nanoseconds) to create an evaluator.
+	 */
+
+	private static double runWithFunction(final int iterations) {
+		final Function function = new Function("CUSTOM") {
+
+			@Override
+			public Atom evaluate(final EvaluationContext context, final Atom... arguments) {
+				return arguments[0];
+			}
+
+		};
+
+		int sink = 0;
+		final long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			final ExpressionEvaluator evaluator = new ExpressionEvaluator();
+			evaluator.putFunction(function);
+			sink += evaluator.getFunctions().length;
+		}
+		final long time = System.nanoTime() - start;
+		consume(sink);
+		return (double)time / iterations;
+	}
+
+	/**
+	 * Prevents the JIT from removing the benchmarked code.
+	 *
+	 * @param sink A value computed by the benchmarked code.
+	 */
+
+	private static void consume(final int sink) {
+		if(sink == 42) {
+			System.out.print("");
+		}
+	}
+
+}
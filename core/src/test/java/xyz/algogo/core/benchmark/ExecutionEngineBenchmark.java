@@ -0,0 +1,158 @@
+package xyz.algogo.core.benchmark;
+
+import java.util.Arrays;
+
+import xyz.algogo.core.Algorithm;
+import xyz.algogo.core.evaluator.context.EvaluationContext;
+import xyz.algogo.core.evaluator.context.ExecutionEngine;
+
+/**
+ * Compares the execution engines with the tree walker on loop-heavy algorithms (they must all print the same things).
+ * <br>Run it with <em>java xyz.algogo.core.benchmark.ExecutionEngineBenchmark [iterations]</em>.
+ */
+
+public class ExecutionEngineBenchmark {
+
+	/**
+	 * The benchmarked algorithms.
+	 */
+
+	private static final String[][] ALGORITHMS = new String[][]{
+			{
+					"Nested WHILE loops",
+					"VARIABLES",
+					"	i : NUMBER",
+					"	j : NUMBER",
+					"	s : NUMBER",
+					"BEGINNING",
+					"	s <- 0",
+					"	i <- 0",
+					"	WHILE i < 300 DO",
+					"		j <- 0",
+					"		WHILE j < 300 DO",
+					"			s <- s + i * j - j",
+					"			j <- j + 1",
+					"		i <- i + 1",
+					"	PRINT_VARIABLE s",
+					"END"
+			},
+			{
+					"FOR loop with a remainder",
+					"VARIABLES",
+					"	i : NUMBER",
+					"	c : NUMBER",
+					"BEGINNING",
+					"	c <- 0",
+					"	FOR i FROM 1 TO 100000 DO",
+					"		IF i % 3 == 0 OR i % 5 == 0 THEN",
+					"			c <- c + i",
+					"	PRINT_VARIABLE c",
+					"END"
+			},
+			{
+					"Collatz sequences",
+					"VARIABLES",
+					"	i : NUMBER",
+					"	n : NUMBER",
+					"	steps : NUMBER",
+					"BEGINNING",
+					"	steps <- 0",
+					"	FOR i FROM 1 TO 3000 DO",
+					"		n <- i",
+					"		WHILE n > 1 DO",
+					"			IF n % 2 == 0 THEN",
+					"				n <- n / 2",
+					"			ELSE",
+					"				n <- 3 * n + 1",
+					"			steps <- steps + 1",
+					"	PRINT_VARIABLE steps",
+					"END"
+			}
+	};
+
+	public static void main(final String[] args) {
+		final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+		for(final String[] lines : ALGORITHMS) {
+			final Algorithm algorithm = Algorithm.parse(String.join(System.lineSeparator(), Arrays.copyOfRange(lines, 1, lines.length)));
+
+			final String treeWalkerOutput = output(algorithm, ExecutionEngine.TREE_WALKER);
+			for(final ExecutionEngine engine : ExecutionEngine.values()) {
+				final String engineOutput = output(algorithm, engine);
+				if(!treeWalkerOutput.equals(engineOutput)) {
+					throw new IllegalStateException(lines[0] + " : the outputs differ with " + engine + " (" + treeWalkerOutput + " / " + engineOutput + ").");
+				}
+				run(algorithm, engine, iterations);
+			}
+
+			final double treeWalker = run(algorithm, ExecutionEngine.TREE_WALKER, iterations);
+			final StringBuilder result = new StringBuilder(lines[0] + " : " + (long)treeWalker + " ns / run (TREE_WALKER)");
+			for(final ExecutionEngine engine : ExecutionEngine.values()) {
+				if(engine != ExecutionEngine.TREE_WALKER) {
+					final double time = run(algorithm, engine, iterations);
+					result.append(", ").append((long)time).append(" ns / run (").append(engine).append(", speedup : ").append(String.format("%.2f", treeWalker / time)).append("x)");
+				}
+			}
+			System.out.println(result.append('.'));
+		}
+	}
+
+	/**
+	 * Evaluates an algorithm once and returns what it printed.
+	 *
+	 * @param algorithm The algorithm.
+	 * @param engine The execution engine.
+	 *
+	 * @return The output.
+	 */
+
+	private static String output(final Algorithm algorithm, final ExecutionEngine engine) {
+		final StringBuilder output = new StringBuilder();
+		final EvaluationContext context = new EvaluationContext((source, arguments) -> "", (source, content) -> output.append(content).append(' '));
+		context.setExecutionEngine(engine);
+
+		final Exception ex = algorithm.evaluate(context);
+		if(ex != null) {
+			throw new IllegalStateException(ex);
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Evaluates an algorithm several times.
+	 *
+	 * @param algorithm The algorithm.
+	 * @param engine The execution engine.
+	 * @param iterations The number of evaluations.
+	 *
+	 * @return The average time (in nanoseconds) of an evaluation.
+	 */
+
+	private static double run(final Algorithm algorithm, final ExecutionEngine engine, final int iterations) {
+		int sink = 0;
+		final long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			final EvaluationContext context = new EvaluationContext((source, arguments) -> "", (source, content) -> {});
+			context.setExecutionEngine(engine);
+			if(algorithm.evaluate(context) == null) {
+				sink++;
+			}
+		}
+		final long time = System.nanoTime() - start;
+		consume(sink);
+		return (double)time / iterations;
+	}
+
+	/**
+	 * Prevents the JIT from removing the benchmarked code.
+	 *
+	 * @param sink A value computed by the benchmarked code.
+	 */
+
+	private static void consume(final int sink) {
+		if(sink == Integer.MIN_VALUE) {
+			System.out.println(sink);
+		}
+	}
+
+}
@@ -5,20 +5,36 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.logging.Logger;
 
 import ch.obermuhlner.math.big.BigDecimalMath;
+import xyz.algogo.core.AlgorithmParser;
+import xyz.algogo.core.AlgorithmParserVisitor;
+import xyz.algogo.core.ExpressionParser;
 import xyz.algogo.core.evaluator.atom.Atom;
+import xyz.algogo.core.evaluator.atom.BooleanAtom;
 import xyz.algogo.core.evaluator.atom.NumberAtom;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.expression.Expression;
+import xyz.algogo.core.evaluator.expression.ExpressionCache;
+import xyz.algogo.core.evaluator.expression.ExpressionOptimizer;
 import xyz.algogo.core.evaluator.function.Function;
+import xyz.algogo.core.evaluator.function.FunctionCache;
 import xyz.algogo.core.evaluator.variable.Variable;
 import xyz.algogo.core.evaluator.variable.VariableType;
+import xyz.algogo.core.exception.ParseException;
+import xyz.algogo.core.language.AlgogoLanguage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ExpressionEvaluatorTest {
@@ -56,6 +72,125 @@ class ExpressionEvaluatorTest {
 		assertEquals(new BigDecimal(10), evaluator.evaluate("a").getValue());
 	}
 
+	@Test
+	void slotTest() {
+		final Variable variable = new Variable("a");
+		evaluator.putVariable(variable);
+
+		final Expression expression = Expression.parse("a * 2");
+		expression.resolve(evaluator.getSlots());
+		variable.setValue(new BigDecimal(21));
+		assertEquals(new BigDecimal(42), evaluator.evaluate(expression).getValue());
+
+		final ExpressionEvaluator other = new ExpressionEvaluator();
+		other.putVariable(new Variable("a", VariableType.NUMBER, BigDecimal.ONE));
+		assertEquals(new BigDecimal(2), other.evaluate(expression).getValue());
+	}
+
+	@Test
+	void optimizerTest() {
+		final ExpressionOptimizer optimizer = new ExpressionOptimizer();
+		final Variable variable = new Variable("r");
+		evaluator.putVariable(variable);
+
+		final Expression expression = Expression.parse("(2 * pi) * r + r * 1 - SQRT(2)");
+		final Expression optimized = optimizer.optimize(expression);
+		assertNotEquals(expression, optimized);
+		for(int i = 0; i < 3; i++) {
+			variable.setValue(new BigDecimal(i).add(new BigDecimal("0.25")));
+			assertEquals(evaluator.evaluate(expression, context).getValue(), evaluator.evaluate(optimized, context).getValue());
+		}
+
+		final EvaluationContext precise = new EvaluationContext(context.getInputListener(), context.getOutputListener(), MathContext.DECIMAL128);
+		assertEquals(evaluator.evaluate(expression, precise).getValue(), evaluator.evaluate(optimized, precise).getValue());
+
+		evaluator.putVariable(new Variable("pi", VariableType.NUMBER, BigDecimal.ONE));
+		assertEquals(evaluator.evaluate(expression, context).getValue(), evaluator.evaluate(optimized, context).getValue());
+
+		variable.setType(VariableType.STRING);
+		variable.setValue("Hello");
+		assertEquals(evaluator.evaluate(Expression.parse("r * 1")).getValue(), evaluator.evaluate(optimizer.optimize(Expression.parse("r * 1"))).getValue());
+
+		final Expression random = optimizer.optimize(Expression.parse("RANDOM(1, 1000000000) + 0"));
+		assertNotEquals(evaluator.evaluate(random).getValue(), evaluator.evaluate(random).getValue());
+	}
+
+	@Test
+	void specializationTest() {
+		final Variable a = new Variable("a");
+		final Variable b = new Variable("b");
+		evaluator.putVariable(a);
+		evaluator.putVariable(b);
+
+		final Expression sum = Expression.parse("a + b");
+		final Expression comparison = new ExpressionOptimizer().optimize(Expression.parse("a * 1 <= b"));
+		final Expression fused = new ExpressionOptimizer().optimize(Expression.parse("a < b"));
+
+		a.setValue(new BigDecimal(2));
+		b.setValue(new BigDecimal(3));
+		assertEquals(new BigDecimal(5), evaluator.evaluate(sum, context).getValue());
+		assertEquals(BooleanAtom.TRUE, evaluator.evaluate(comparison, context));
+		assertEquals(BooleanAtom.TRUE, evaluator.evaluate(fused, context));
+
+		a.setValue(new BigDecimal("3.5"));
+		assertEquals(new BigDecimal("6.5"), evaluator.evaluate(sum, context).getValue());
+		assertEquals(BooleanAtom.FALSE, evaluator.evaluate(comparison, context));
+		assertEquals(BooleanAtom.FALSE, evaluator.evaluate(fused, context));
+
+		a.setType(VariableType.STRING);
+		b.setType(VariableType.STRING);
+		a.setValue("Hello ");
+		b.setValue("world");
+		assertEquals("Hello world", evaluator.evaluate(sum, context).getValue());
+		assertEquals(BooleanAtom.TRUE, evaluator.evaluate(fused, context));
+
+		b.setType(VariableType.NUMBER);
+		b.setValue(BigDecimal.ONE);
+		assertEquals(BigDecimal.ZERO, evaluator.evaluate(sum, context).getValue());
+	}
+
+	@Test
+	void expressionCacheTest() {
+		final ExpressionCache cache = new ExpressionCache(2);
+		final Expression expression = cache.parse("1 + 1");
+		final Expression cached = cache.parse("1 + 1");
+		assertNotSame(expression, cached);
+		assertEquals(expression.toLanguage(new AlgogoLanguage()), cached.toLanguage(new AlgogoLanguage()));
+		assertEquals(new BigDecimal(2), evaluator.evaluate(cached, context).getValue());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		cache.parse("2 + 2");
+		cache.parse("3 + 3");
+		assertEquals(2, cache.size());
+		assertThrows(ParseException.class, () -> cache.parse("1 +"));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void expressionParserTest() {
+		final String[] expressions = {"42", "-3.5", ".5 + 3.", "2 ^ 3 ^ 2", "-2 ^ 2", "10 - 4 - 3", "2 * 3 + 4 * 5 % 3", "NOT true == false", "!(1 < 2) || 3 >= 3 AND 2 != 1", "|-15 + 5| * -|2|", "SQRT(16) + ABS(-2) + RANDOM() * 0", "\"a\"\"b\" + \"c\"", "98765432109876543210 * 10", "x + y_1 - 2"};
+		for(final String expression : expressions) {
+			final Expression fast = ExpressionParser.parse(expression);
+			final Expression antlr = new AlgorithmParserVisitor().visitExpression(AlgorithmParser.parseExpression(expression));
+			assertNotNull(fast);
+			assertEquals(antlr.toLanguage(new AlgogoLanguage()), fast.toLanguage(new AlgogoLanguage()));
+			if(!expression.startsWith("x")) {
+				assertEquals(String.valueOf(evaluator.evaluate(antlr, context).getValue()), String.valueOf(evaluator.evaluate(fast, context).getValue()));
+			}
+		}
+
+		assertEquals(new BigDecimal(512), evaluator.evaluate("2 ^ 3 ^ 2").getValue());
+		assertEquals(new BigDecimal(-4), evaluator.evaluate("-2 ^ 2").getValue());
+		assertEquals(new BigDecimal(3), evaluator.evaluate("10 - 4 - 3").getValue());
+
+		for(final String invalid : new String[]{"1 +", "(1", "1 2", "a <- 1", "TO", " 1", "1 // 2", "\"a", ""}) {
+			assertNull(ExpressionParser.parse(invalid));
+		}
+		assertThrows(ParseException.class, () -> Expression.parse("1 +"));
+		assertThrows(ParseException.class, () -> Expression.parse("(1"));
+	}
+
 	@Test
 	void contextTest() {
 		assertEquals(evaluator.evaluate(Expression.parse("pi"), context).getValue(), BigDecimalMath.pi(context.getMathContext()));
@@ -76,6 +211,17 @@ class ExpressionEvaluatorTest {
 		assertEquals(BigDecimal.ONE, evaluator.evaluate("10 % 3").getValue());
 	}
 
+	@Test
+	void longNumberTest() {
+		assertTrue(((NumberAtom)evaluator.evaluate("6 * 7 - 2")).isLong());
+		assertEquals(new BigDecimal("9223372036854775807").add(BigDecimal.ONE, context.getMathContext()), evaluator.evaluate("9223372036854775807 + 1").getValue());
+		assertEquals(new BigDecimal("12345678901234567").multiply(BigDecimal.TEN, context.getMathContext()), evaluator.evaluate("12345678901234567 * 10").getValue());
+		assertEquals(new BigDecimal(-4), evaluator.evaluate("-12 / 3").getValue());
+		assertEquals(new BigDecimal("2.5"), evaluator.evaluate("10 / 4").getValue());
+		assertEquals(new BigDecimal(-1), evaluator.evaluate("-10 % 3").getValue());
+		assertEquals(new BigDecimal("0.5"), evaluator.evaluate("1 - 0.5").getValue());
+	}
+
 	@Test
 	void parenthesisExpressionTest() {
 		assertEquals(new BigDecimal(20), evaluator.evaluate("5 * (2 + 2)").getValue());
@@ -114,6 +260,56 @@ class ExpressionEvaluatorTest {
 		assertEquals(new BigDecimal("42"), evaluator.evaluate("FLOOR(42.9)").getValue());
 	}
 
+	@Test
+	void functionBindingTest() {
+		final Expression expression = Expression.parse("TWICE(21)");
+		assertEquals(BigDecimal.ZERO, evaluator.evaluate(expression).getValue());
+
+		evaluator.putFunction(new Function("TWICE") {
+
+			@Override
+			public final Atom evaluate(final EvaluationContext context, final Atom... arguments) {
+				return new NumberAtom(((BigDecimal)arguments[0].getValue()).multiply(new BigDecimal(2)));
+			}
+
+		});
+		assertEquals(new BigDecimal(42), evaluator.evaluate(expression).getValue());
+
+		evaluator.putFunction(new Function("TWICE") {
+
+			@Override
+			public final Atom evaluate(final EvaluationContext context, final Atom... arguments) {
+				return arguments[0];
+			}
+
+		});
+		assertEquals(new BigDecimal(21), evaluator.evaluate(expression).getValue());
+
+		evaluator.removeFunction("TWICE");
+		assertEquals(BigDecimal.ZERO, evaluator.evaluate(expression).getValue());
+	}
+
+	@Test
+	void functionCacheTest() {
+		final FunctionCache cache = new FunctionCache(2);
+		final EvaluationContext cached = new EvaluationContext(context.getInputListener(), context.getOutputListener());
+		cached.setFunctionCache(cache);
+
+		final Expression expression = Expression.parse("FACTORIAL(20) + BERNOULLI(4)");
+		assertEquals(evaluator.evaluate(expression, context).getValue(), evaluator.evaluate(expression, cached).getValue());
+		assertEquals(evaluator.evaluate(expression, context).getValue(), evaluator.evaluate(expression, cached).getValue());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.getHits());
+
+		evaluator.evaluate(Expression.parse("RANDOM(1, 10) + SQRT(2)"), cached);
+		assertEquals(3, cache.getMisses());
+		assertEquals(2, cache.size());
+
+		cached.setMathContext(MathContext.DECIMAL128);
+		evaluator.evaluate(Expression.parse("SQRT(2)"), cached);
+		assertEquals(4, cache.getMisses());
+	}
+
 	@Test
 	void stringExpressionTest() {
 		evaluator.putVariable(new Variable("a", VariableType.STRING, "Hello"));
@@ -131,4 +327,16 @@ class ExpressionEvaluatorTest {
 		assertEquals(BigDecimal.ZERO, evaluator.evaluate("!true").getValue());
 	}
 
+	@Test
+	void booleanEvaluationTest() {
+		assertTrue(Expression.parse("(1 < 2) AND NOT (2 == 3)").evaluateBoolean(evaluator, context));
+		assertTrue(Expression.parse("true OR undefined == 1").evaluateBoolean(evaluator, context));
+		assertFalse(Expression.parse("false AND undefined == 1").evaluateBoolean(evaluator, context));
+		assertFalse(Expression.parse("2").evaluateBoolean(evaluator, context));
+		assertFalse(Expression.parse("1.0").evaluateBoolean(evaluator, context));
+		assertTrue(Expression.parse("NOT 0").evaluateBoolean(evaluator, context));
+		assertFalse(Expression.parse("NOT 2").evaluateBoolean(evaluator, context));
+		assertSame(BooleanAtom.TRUE, evaluator.evaluate("1 <= 1"));
+	}
+
 }
@@ -15,6 +15,7 @@ import java.util.Properties;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
+import xyz.algogo.core.AlgorithmParser;
 import xyz.algogo.desktop.dialog.ErrorDialog;
 import xyz.algogo.desktop.editor.EditorFrame;
 
@@ -55,6 +56,10 @@ public class AlgogoDesktop {
 	public static void main(final String... args) throws UnsupportedLookAndFeelException, IOException, IllegalAccessException {
 		Thread.setDefaultUncaughtExceptionHandler((thread, throwable) -> ErrorDialog.fromThrowable(throwable));
 
+		final Thread warmUp = new Thread(AlgorithmParser::warmUp, "Parser warm up");
+		warmUp.setDaemon(true);
+		warmUp.start();
+
 		final Properties properties = new Properties();
 		properties.put("logoString", APP_NAME);
 		AcrylLookAndFeel.setTheme(properties);
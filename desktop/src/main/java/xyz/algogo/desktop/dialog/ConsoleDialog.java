@@ -33,6 +33,8 @@ import xyz.algogo.core.Algorithm;
 import xyz.algogo.core.evaluator.context.EvaluationContext;
 import xyz.algogo.core.evaluator.context.InputListener;
 import xyz.algogo.core.evaluator.context.OutputListener;
+import xyz.algogo.core.profiler.Profiler;
+import xyz.algogo.core.profiler.ProfilerReport;
 import xyz.algogo.core.statement.Statement;
 import xyz.algogo.desktop.AlgogoDesktop;
 import xyz.algogo.desktop.AlgorithmDesktopLineEditor;
@@ -65,6 +67,24 @@ public class ConsoleDialog extends JDialog implements ActionListener, InputListe
 
 	private final JTextArea textArea = new JTextArea();
 
+	/**
+	 * Whether the next run should be profiled.
+	 */
+
+	private final JCheckBox profile = new JCheckBox();
+
+	/**
+	 * The button that shows the profiling report of the last run.
+	 */
+
+	private final JButton report = new JButton();
+
+	/**
+	 * The profiling report of the last run (<b>null</b> if it has not been profiled).
+	 */
+
+	private ProfilerReport lastReport;
+
 	/**
 	 * The current evaluation context.
 	 */
@@ -113,6 +133,15 @@ public class ConsoleDialog extends JDialog implements ActionListener, InputListe
 		autoScroll.setSelected(true);
 		leftPanel.add(autoScroll);
 
+		profile.setText(appLanguage.getString("consoleDialog.button.profile"));
+		leftPanel.add(profile);
+
+		report.setText(appLanguage.getString("consoleDialog.button.report"));
+		report.setIcon(FontIcon.of(MaterialDesign.MDI_CHART_BAR));
+		report.setEnabled(false);
+		report.addActionListener(actionEvent -> showReport());
+		leftPanel.add(report);
+
 		panel.add(leftPanel, Utils.createGridBagConstraints(2, 0, 1, 1, GridBagConstraints.HORIZONTAL, 0.2f, 1, null, GridBagConstraints.PAGE_START));
 
 		final JButton save = new JButton(appLanguage.getString("consoleDialog.button.save"));
@@ -151,6 +180,10 @@ public class ConsoleDialog extends JDialog implements ActionListener, InputListe
 			}
 
 			currentContext = new EvaluationContext(this, this);
+			final Profiler profiler = profile.isSelected() ? new Profiler() : null;
+			currentContext.setProfiler(profiler);
+			lastReport = null;
+			report.setEnabled(false);
 			textArea.setText("");
 			run.setText(editor.getAppLanguage().getString("consoleDialog.button.stop"));
 			run.setIcon(FontIcon.of(MaterialDesign.MDI_STOP));
@@ -165,6 +198,11 @@ public class ConsoleDialog extends JDialog implements ActionListener, InputListe
 					JOptionPane.showMessageDialog(this, "<html>" + editor.getAppLanguage().getString("consoleDialog.message.error") + "<br>" + (message.isEmpty() ? ex.getClass().getName() : message) + "</html>", "", JOptionPane.ERROR_MESSAGE);
 				}
 
+				if(profiler != null) {
+					lastReport = profiler.getReport();
+					report.setEnabled(true);
+				}
+
 				setRunDefaultStyle();
 				currentContext = null;
 			}).start();
@@ -245,6 +283,24 @@ public class ConsoleDialog extends JDialog implements ActionListener, InputListe
 		}
 	}
 
+	/**
+	 * Shows the profiling report of the last run.
+	 */
+
+	private void showReport() {
+		if(lastReport == null) {
+			return;
+		}
+
+		final JTextArea content = new JTextArea(lastReport.toText());
+		content.setEditable(false);
+		content.setFont(textArea.getFont());
+
+		final JScrollPane scrollPane = new JScrollPane(content);
+		scrollPane.setPreferredSize(new Dimension(700, 400));
+		JOptionPane.showMessageDialog(this, scrollPane, editor.getAppLanguage().getString("consoleDialog.reportDialog.title"), JOptionPane.PLAIN_MESSAGE);
+	}
+
 	/**
 	 * Sets the default styles to the run button.
 	 */
@@ -19,8 +19,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.util.HashSet;
 
 /**
@@ -221,7 +219,7 @@ public class EditorFrame extends JFrame {
 	 */
 
 	public final void open(final File file) throws IOException {
-		mainPane.getCurrentComponent().open(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		mainPane.getCurrentComponent().open(file);
 
 		appSettings.recent.remove(file.getPath());
 		appSettings.recent.push(file.getPath());
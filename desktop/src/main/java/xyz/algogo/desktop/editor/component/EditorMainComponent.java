@@ -38,6 +38,18 @@ public interface EditorMainComponent {
 
 	void open(final String content);
 
+	/**
+	 * Opens an <em>UTF-8</em> encoded file.
+	 *
+	 * @param file The file.
+	 *
+	 * @throws IOException If any I/O exception occurs.
+	 */
+
+	default void open(final File file) throws IOException {
+		open(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+	}
+
 	/**
 	 * Saves component content to a file.
 	 *
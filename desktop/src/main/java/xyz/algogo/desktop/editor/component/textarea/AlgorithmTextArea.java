@@ -13,6 +13,7 @@ import java.awt.datatransfer.ClipboardOwner;
 import javax.swing.JOptionPane;
 
 import xyz.algogo.core.Algorithm;
+import xyz.algogo.core.IncrementalParser;
 import xyz.algogo.core.exception.ParseException;
 import xyz.algogo.core.language.AlgogoLanguage;
 import xyz.algogo.desktop.AppLanguage;
@@ -38,6 +39,12 @@ public class AlgorithmTextArea extends RSyntaxTextArea implements EditorMainComp
 
 	private EditorFrame editor;
 
+	/**
+	 * The parser, which only parses the lines that have changed since the last call to <em>toAlgorithm()</em>.
+	 */
+
+	private final IncrementalParser parser = new IncrementalParser();
+
 	/**
 	 * Creates a new algorithm text area.
 	 *
@@ -92,7 +99,7 @@ public class AlgorithmTextArea extends RSyntaxTextArea implements EditorMainComp
 	@Override
 	public final Algorithm toAlgorithm() {
 		try {
-			final Algorithm algorithm = Algorithm.parse(this.getText());
+			final Algorithm algorithm = parser.parse(this.getText());
 			editor.getCredits().apply(algorithm);
 
 			return algorithm;
@@ -24,7 +24,10 @@ import java.awt.*;
 import java.awt.datatransfer.ClipboardOwner;
 import java.awt.datatransfer.Transferable;
 import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 /**
  * A tree that is used to display algorithm.
@@ -101,16 +104,27 @@ public class AlgorithmTree extends JTree implements EditorMainComponent {
 	@Override
 	public final void open(final String content) {
 		try {
-			final Algorithm algorithm = Algorithm.parse(content);
-			this.getModel().fromAlgorithm(algorithm, this);
+			load(Algorithm.parse(content));
+		}
+		catch(final ParseException ex) {
+			showParseError(ex, content);
+		}
+		catch(final Exception ex) {
+			ErrorDialog.fromThrowable(ex, editor);
+		}
+	}
 
-			editor.getCredits().setCredits(algorithm);
+	@Override
+	public final void open(final File file) throws IOException {
+		try {
+			// The file is parsed without being loaded as a string first. It is not memory-mapped, so it is not locked once opened and can be saved again.
+			load(Algorithm.parse(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)));
 		}
 		catch(final ParseException ex) {
-			final AppLanguage language = editor.getAppLanguage();
-			JOptionPane.showMessageDialog(editor, language.getString("editor.dialog.parseError.message", ex.getLine(), ex.getErrorMessage()), language.getString("editor.dialog.parseError.title"), JOptionPane.ERROR_MESSAGE);
-			editor.getMainPane().toggleCurrentComponent();
-			editor.getMainPane().getAlgorithmTextArea().setText(content);
+			showParseError(ex, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		}
+		catch(final IOException ex) {
+			throw ex;
 		}
 		catch(final Exception ex) {
 			ErrorDialog.fromThrowable(ex, editor);
@@ -264,6 +278,31 @@ public class AlgorithmTree extends JTree implements EditorMainComponent {
 		editor.getEditorHistory().execute(new AddNodeCommand(editor, parent, node, index));
 	}
 
+	/**
+	 * Shows a parsed algorithm.
+	 *
+	 * @param algorithm The algorithm.
+	 */
+
+	private void load(final Algorithm algorithm) {
+		this.getModel().fromAlgorithm(algorithm, this);
+		editor.getCredits().setCredits(algorithm);
+	}
+
+	/**
+	 * Shows a parse error, and opens the content in the text area so that it can be fixed.
+	 *
+	 * @param ex The parse error.
+	 * @param content The content.
+	 */
+
+	private void showParseError(final ParseException ex, final String content) {
+		final AppLanguage language = editor.getAppLanguage();
+		JOptionPane.showMessageDialog(editor, language.getString("editor.dialog.parseError.message", ex.getLine(), ex.getErrorMessage()), language.getString("editor.dialog.parseError.title"), JOptionPane.ERROR_MESSAGE);
+		editor.getMainPane().toggleCurrentComponent();
+		editor.getMainPane().getAlgorithmTextArea().setText(content);
+	}
+
 	/**
 	 * Moves a node upward.
 	 *
@@ -22,8 +22,7 @@ import xyz.algogo.core.statement.Statement;
 import xyz.algogo.mobile.R;
 import xyz.algogo.mobile.utils.Utils;
 
-import java.util.concurrent.Callable;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Represents the console activity.
@@ -153,34 +152,34 @@ public class ConsoleActivity extends AppCompatActivity implements InputListener,
 
 	@Override
 	public final Object input(final Statement source, final Object... arguments) {
-		try {
-			final ValueCallable callable = new ValueCallable();
-
-			this.runOnUiThread(() -> {
-				final View layout = this.getLayoutInflater().inflate(R.layout.console_dialog_prompt, null);
-				new AlertDialog.Builder(ConsoleActivity.this)
-						.setTitle(R.string.console_dialog_title)
-						.setMessage(Utils.fromHtml(arguments[1] == null ? this.getString(R.string.console_dialog_message, arguments[0].toString()) : arguments[1].toString()))
-						.setView(layout)
-						.setPositiveButton(android.R.string.ok, (dialog, selected) -> callable.setMessage(((EditText)layout.findViewById(R.id.console_dialog_input)).getText().toString()))
-						.setCancelable(false)
-						.create()
-						.show();
-			});
-
-			final ValueCallableObject object = Executors.newFixedThreadPool(1).submit(callable).get();
-			if(object.exception != null) {
-				throw new Exception(object.message, object.exception);
-			}
+		final CountDownLatch answered = new CountDownLatch(1);
+		final String[] answer = new String[1];
+
+		this.runOnUiThread(() -> {
+			final View layout = this.getLayoutInflater().inflate(R.layout.console_dialog_prompt, null);
+			new AlertDialog.Builder(ConsoleActivity.this)
+					.setTitle(R.string.console_dialog_title)
+					.setMessage(Utils.fromHtml(arguments[1] == null ? this.getString(R.string.console_dialog_message, arguments[0].toString()) : arguments[1].toString()))
+					.setView(layout)
+					.setPositiveButton(android.R.string.ok, (dialog, selected) -> {
+						answer[0] = ((EditText)layout.findViewById(R.id.console_dialog_input)).getText().toString();
+						answered.countDown();
+					})
+					.setCancelable(false)
+					.create()
+					.show();
+		});
 
-			return object.message;
+		try {
+			answered.await();
 		}
-		catch(final Exception ex) {
-			ex.printStackTrace();
-
+		catch(final InterruptedException ex) {
+			Thread.currentThread().interrupt();
 			output(null, Utils.fromStackTrace(ex));
+			return null;
 		}
-		return null;
+
+		return answer[0];
 	}
 
 	@Override
@@ -202,76 +201,4 @@ public class ConsoleActivity extends AppCompatActivity implements InputListener,
 		fab.setImageResource(R.drawable.menu_console_fab_run);
 	}
 
-	/**
-	 * Allows to pass messages between threads.
-	 */
-
-	private class ValueCallable implements Callable<ValueCallableObject> {
-
-		/**
-		 * The held message.
-		 */
-
-		private String message;
-
-		@Override
-		public final ValueCallableObject call() {
-			synchronized(this) {
-				try {
-					this.wait();
-				}
-				catch(final Exception ex) {
-					return new ValueCallableObject(ex, "An exception occured while waiting for the response.");
-				}
-				return new ValueCallableObject(null, message);
-			}
-		}
-
-		/**
-		 * Sets the message to hold.
-		 *
-		 * @param message The message to hold.
-		 */
-
-		private void setMessage(final String message) {
-			synchronized(this) {
-				this.message = message;
-				this.notify();
-			}
-		}
-
-	}
-
-	/**
-	 * The object to return thanks to the Callable.
-	 */
-
-	private class ValueCallableObject {
-
-		/**
-		 * The held exception.
-		 */
-
-		private final Throwable exception;
-
-		/**
-		 * The held message.
-		 */
-
-		private final String message;
-
-		/**
-		 * Creates a new value callable object.
-		 *
-		 * @param exception The exception to hold.
-		 * @param message The message to hold.
-		 */
-
-		private ValueCallableObject(final Throwable exception, final String message) {
-			this.exception = exception;
-			this.message = message;
-		}
-
-	}
-
 }
@@ -18,6 +18,7 @@ import com.rustamg.filedialogs.OpenFileDialog;
 import com.rustamg.filedialogs.SaveFileDialog;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.Serializable;
 
 import androidx.appcompat.app.AlertDialog;
@@ -386,8 +387,9 @@ public class MainActivity extends AppCompatActivity implements AlgorithmMobileLi
 	 */
 
 	private boolean openFromCurrentPath() {
-		try {
-			this.getAlgorithmAdapter().setAlgorithm(Algorithm.parse(Utils.read(new File(algorithmPath))));
+		try(final FileInputStream input = new FileInputStream(algorithmPath)) {
+			// Parsed from the file channel, so that the file is not held as a string too.
+			this.getAlgorithmAdapter().setAlgorithm(Algorithm.parse(input.getChannel()));
 			return true;
 		}
 		catch(final ParseException ex) {